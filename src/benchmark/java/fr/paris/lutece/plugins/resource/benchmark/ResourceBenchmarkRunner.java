@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks of the resource plugin once for each number of threads, and writes the results of each run as JSON. <br />
+ * Benchmarks are run with <code>mvn -P benchmark verify</code>. The following system properties can be set :
+ * <ul>
+ * <li>benchmark.include : regular expression of the benchmarks to run (default : every benchmark of the plugin)</li>
+ * <li>benchmark.threads : comma separated list of numbers of threads (default : 1,2,4,8,16,32)</li>
+ * <li>benchmark.output : directory of the JSON results (default : target/jmh)</li>
+ * </ul>
+ */
+public final class ResourceBenchmarkRunner
+{
+    private static final String PROPERTY_INCLUDE = "benchmark.include";
+    private static final String PROPERTY_THREADS = "benchmark.threads";
+    private static final String PROPERTY_OUTPUT = "benchmark.output";
+    private static final String DEFAULT_INCLUDE = "fr\\.paris\\.lutece\\.plugins\\.resource\\..*Benchmark";
+    private static final String DEFAULT_THREADS = "1,2,4,8,16,32";
+    private static final String DEFAULT_OUTPUT = "target/jmh";
+    private static final String RESULT_FILE_PREFIX = "resource-benchmark-threads-";
+    private static final String RESULT_FILE_EXTENSION = ".json";
+    private static final String CONSTANT_COMMA = ",";
+
+    /**
+     * Default constructor
+     */
+    private ResourceBenchmarkRunner( )
+    {
+        // Nothing to do
+    }
+
+    /**
+     * Run the benchmarks
+     * 
+     * @param args
+     *            Arguments are ignored, use system properties instead
+     * @throws RunnerException
+     *             If a benchmark fails
+     */
+    public static void main( String [ ] args ) throws RunnerException
+    {
+        String strInclude = System.getProperty( PROPERTY_INCLUDE, DEFAULT_INCLUDE );
+        File fileOutput = new File( System.getProperty( PROPERTY_OUTPUT, DEFAULT_OUTPUT ) );
+
+        if ( !fileOutput.isDirectory( ) && !fileOutput.mkdirs( ) )
+        {
+            throw new IllegalStateException( "Unable to create the directory " + fileOutput.getAbsolutePath( ) );
+        }
+
+        for ( String strThreads : System.getProperty( PROPERTY_THREADS, DEFAULT_THREADS ).split( CONSTANT_COMMA ) )
+        {
+            int nThreads = Integer.parseInt( strThreads.trim( ) );
+            File fileResult = new File( fileOutput, RESULT_FILE_PREFIX + nThreads + RESULT_FILE_EXTENSION );
+            Options options = new OptionsBuilder( ).include( strInclude ).threads( nThreads ).resultFormat( ResultFormatType.JSON )
+                    .result( fileResult.getAbsolutePath( ) ).build( );
+
+            new Runner( options ).run( );
+        }
+    }
+}
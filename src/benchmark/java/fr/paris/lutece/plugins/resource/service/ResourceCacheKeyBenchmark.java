@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the building of legacy String cache keys by {@link ResourceCacheService} and of typed {@link ResourceCacheKey}. Building keys does not
+ * initialize the cache.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ResourceCacheKeyBenchmark
+{
+    private static final String RESOURCE_TYPE = "benchmarkType";
+
+    private int _nIdResource;
+
+    /**
+     * Benchmark of {@link ResourceCacheService#getDatabaseResourceCacheKey(String)}
+     * 
+     * @return The cache key
+     */
+    @Benchmark
+    @SuppressWarnings( "deprecation" )
+    public String getDatabaseResourceCacheKey( )
+    {
+        return ResourceCacheService.getDatabaseResourceCacheKey( Integer.toString( _nIdResource++ & 0xFFFF ) );
+    }
+
+    /**
+     * Benchmark of {@link ResourceCacheService#getResourceTypeCacheKey(String)}
+     * 
+     * @return The cache key
+     */
+    @Benchmark
+    @SuppressWarnings( "deprecation" )
+    public String getResourceTypeCacheKey( )
+    {
+        return ResourceCacheService.getResourceTypeCacheKey( RESOURCE_TYPE );
+    }
+
+    /**
+     * Benchmark of {@link ResourceCacheKey#ofDatabaseResource(int)}
+     * 
+     * @return The cache key
+     */
+    @Benchmark
+    public ResourceCacheKey ofDatabaseResource( )
+    {
+        return ResourceCacheKey.ofDatabaseResource( _nIdResource++ & 0xFFFF );
+    }
+
+    /**
+     * Benchmark of {@link ResourceCacheKey#ofResourceType(String)}
+     * 
+     * @return The cache key
+     */
+    @Benchmark
+    public ResourceCacheKey ofResourceType( )
+    {
+        return ResourceCacheKey.ofResourceType( RESOURCE_TYPE );
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
+import fr.paris.lutece.plugins.resource.service.provider.IResourceProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the lookup of resources and resource providers by the resource service, with providers that serve resources from memory
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ResourceServiceBenchmark
+{
+    private static final int CONSTANT_RESOURCE_TYPES_PER_PROVIDER = 4;
+    private static final int CONSTANT_RESOURCES_PER_TYPE = 1024;
+
+    /**
+     * Number of declared providers. The looked up resource type is managed by the last one.
+     */
+    @Param( {
+            "1", "16"
+    } )
+    public int _nProvidersCount;
+
+    /**
+     * Whether metrics are recorded
+     */
+    @Param( {
+            "false", "true"
+    } )
+    public boolean _bMetricsEnabled;
+
+    private ResourceService _resourceService;
+    private String _strResourceType;
+    private String [ ] _ids;
+
+    /**
+     * Create the providers and the service
+     */
+    @Setup( Level.Trial )
+    public void setUp( )
+    {
+        ResourceMetricsService.setEnabled( _bMetricsEnabled );
+
+        List<IResourceProvider> listProviders = new ArrayList<>( );
+
+        for ( int nProvider = 0; nProvider < _nProvidersCount; nProvider++ )
+        {
+            List<String> listResourceTypes = new ArrayList<>( );
+
+            for ( int nType = 0; nType < CONSTANT_RESOURCE_TYPES_PER_PROVIDER; nType++ )
+            {
+                listResourceTypes.add( "type" + nProvider + "_" + nType );
+            }
+
+            listProviders.add( new StubResourceProvider( listResourceTypes, CONSTANT_RESOURCES_PER_TYPE ) );
+        }
+
+        _resourceService = new ResourceService( new ResourceProviderRegistry( ( ) -> listProviders ), 2000L );
+        _strResourceType = "type" + ( _nProvidersCount - 1 ) + "_" + ( CONSTANT_RESOURCE_TYPES_PER_PROVIDER - 1 );
+        _ids = new String [ CONSTANT_RESOURCES_PER_TYPE];
+
+        for ( int nIndex = 0; nIndex < _ids.length; nIndex++ )
+        {
+            _ids [nIndex] = Integer.toString( nIndex );
+        }
+    }
+
+    /**
+     * Benchmark of {@link ResourceService#getResource(String, String)}
+     * 
+     * @param cursor
+     *            The cursor of the current thread
+     * @return The resource
+     */
+    @Benchmark
+    public IResource getResource( ThreadCursor cursor )
+    {
+        return _resourceService.getResource( _ids [cursor.next( _ids.length )], _strResourceType );
+    }
+
+    /**
+     * Benchmark of {@link ResourceService#getResourceProvider(String)} for a managed resource type
+     * 
+     * @return The provider
+     */
+    @Benchmark
+    public IResourceProvider getResourceProvider( )
+    {
+        return _resourceService.getResourceProvider( _strResourceType );
+    }
+
+    /**
+     * Benchmark of {@link ResourceService#getResourceProvider(String)} for a resource type that no provider manages
+     * 
+     * @return The provider, always null
+     */
+    @Benchmark
+    public IResourceProvider getResourceProviderOfUnmanagedType( )
+    {
+        return _resourceService.getResourceProvider( "unmanaged" );
+    }
+
+    /**
+     * Cursor over ids of resources, owned by each thread so that threads do not share a counter
+     */
+    @State( Scope.Thread )
+    public static class ThreadCursor
+    {
+        private int _nIndex;
+
+        /**
+         * Get the next index
+         * 
+         * @param nLength
+         *            The number of indexes
+         * @return The next index, between 0 and nLength - 1
+         */
+        int next( int nLength )
+        {
+            _nIndex = ( _nIndex + 1 ) % nLength;
+
+            return _nIndex;
+        }
+    }
+}
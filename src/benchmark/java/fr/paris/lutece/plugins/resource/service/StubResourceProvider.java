@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.business.IResourceType;
+import fr.paris.lutece.plugins.resource.business.ResourceDefaultImplementation;
+import fr.paris.lutece.plugins.resource.business.ResourceTypeDefaultImplementation;
+import fr.paris.lutece.plugins.resource.service.provider.IResourceProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resource provider that serves resources from memory, used to measure the overhead of the service layer
+ */
+public class StubResourceProvider implements IResourceProvider
+{
+    private final List<IResourceType> _listResourceTypes = new ArrayList<>( );
+    private final Map<String, Map<String, IResource>> _mapResources = new HashMap<>( );
+
+    /**
+     * Creates a new provider
+     * 
+     * @param listResourceTypeNames
+     *            The names of the resource types managed by the provider
+     * @param nResourcesCount
+     *            The number of resources of each resource type. Ids of resources are 0 to nResourcesCount - 1.
+     */
+    public StubResourceProvider( List<String> listResourceTypeNames, int nResourcesCount )
+    {
+        for ( String strResourceType : listResourceTypeNames )
+        {
+            _listResourceTypes.add( new ResourceTypeDefaultImplementation( strResourceType, strResourceType ) );
+
+            Map<String, IResource> mapResources = new HashMap<>( );
+
+            for ( int nIdResource = 0; nIdResource < nResourcesCount; nIdResource++ )
+            {
+                String strIdResource = Integer.toString( nIdResource );
+                IResource resource = new ResourceDefaultImplementation( strIdResource, strResourceType, strResourceType + strIdResource );
+                mapResources.put( strIdResource, resource );
+            }
+
+            _mapResources.put( strResourceType, mapResources );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<IResourceType> getResourceTypeList( )
+    {
+        return new ArrayList<>( _listResourceTypes );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isResourceTypeManaged( String strResourceTypeName )
+    {
+        return _mapResources.containsKey( strResourceTypeName );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IResource getResource( String strIdResource, String strResourceTypeName )
+    {
+        Map<String, IResource> mapResources = _mapResources.get( strResourceTypeName );
+
+        return ( mapResources != null ) ? mapResources.get( strIdResource ) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<IResource> getListResources( String strResourceTypeName )
+    {
+        Map<String, IResource> mapResources = _mapResources.get( strResourceTypeName );
+
+        return ( mapResources != null ) ? new ArrayList<>( mapResources.values( ) ) : Collections.<IResource> emptyList( );
+    }
+}
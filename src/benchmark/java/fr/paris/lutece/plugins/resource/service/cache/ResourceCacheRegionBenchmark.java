@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the lookup of database resources in a {@link ResourceCacheRegion}, for each built-in backend
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ResourceCacheRegionBenchmark
+{
+    /**
+     * Number of resources of the region
+     */
+    @Param( {
+            "1000", "100000"
+    } )
+    public int _nResourcesCount;
+
+    /**
+     * Backend of the region
+     */
+    @Param( {
+            LruResourceCacheBackend.NAME, TinyLfuResourceCacheBackend.NAME
+    } )
+    public String _strBackend;
+
+    private ResourceCacheRegion _region;
+
+    /**
+     * Fill the region with every resource
+     */
+    @Setup
+    public void setUp( )
+    {
+        ResourceCacheKeyFamily family = ResourceCacheKeyFamily.DATABASE_RESOURCE;
+        IResourceCacheBackend backend = LruResourceCacheBackend.NAME.equals( _strBackend ) ? new LruResourceCacheBackend( family, _nResourcesCount )
+                : new TinyLfuResourceCacheBackend( family, _nResourcesCount );
+        _region = new ResourceCacheRegion( family, backend, _nResourcesCount, 0L );
+
+        for ( int nIdResource = 0; nIdResource < _nResourcesCount; nIdResource++ )
+        {
+            _region.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), Integer.toString( nIdResource ) );
+        }
+    }
+
+    /**
+     * Benchmark of a hit in the region
+     * 
+     * @param cursor
+     *            The cursor of the current thread
+     * @return The cached object
+     */
+    @Benchmark
+    public Object get( ThreadCursor cursor )
+    {
+        return _region.get( ResourceCacheKey.ofDatabaseResource( cursor.next( _nResourcesCount ) ) );
+    }
+
+    /**
+     * Benchmark of a miss in the region
+     * 
+     * @param cursor
+     *            The cursor of the current thread
+     * @return null
+     */
+    @Benchmark
+    public Object getMissing( ThreadCursor cursor )
+    {
+        return _region.get( ResourceCacheKey.ofDatabaseResource( _nResourcesCount + cursor.next( _nResourcesCount ) ) );
+    }
+
+    /**
+     * Cursor over the ids of resources, local to each thread
+     */
+    @State( Scope.Thread )
+    public static class ThreadCursor
+    {
+        private int _nIdResource;
+
+        /**
+         * Get the next id of resource
+         * 
+         * @param nResourcesCount
+         *            The number of resources
+         * @return The next id of resource
+         */
+        public int next( int nResourcesCount )
+        {
+            _nIdResource = ( _nIdResource + 1 ) % nResourcesCount;
+
+            return _nIdResource;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.search;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.business.ResourceDefaultImplementation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the search of resources by the in-memory index of names, while names are typed
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ResourceNameIndexBenchmark
+{
+    private static final String CONSTANT_RESOURCE_TYPE = "benchmark";
+    private static final String [ ] WORDS = {
+            "rue", "avenue", "place", "jardin", "ecole", "mairie", "bibliotheque", "piscine", "gymnase", "musee"
+    };
+    private static final int CONSTANT_LIMIT = 10;
+
+    /**
+     * Number of indexed resources
+     */
+    @Param( {
+            "10000", "200000"
+    } )
+    public int _nResourcesCount;
+
+    private ResourceNameIndex _index;
+    private String [ ] _prefixes;
+
+    /**
+     * Create the index
+     */
+    @Setup( Level.Trial )
+    public void setUp( )
+    {
+        _index = new ResourceNameIndex( CONSTANT_RESOURCE_TYPE, Integer.MAX_VALUE );
+
+        for ( int nIdResource = 0; nIdResource < _nResourcesCount; nIdResource++ )
+        {
+            String strName = WORDS [nIdResource % WORDS.length] + " " + WORDS [( nIdResource / WORDS.length ) % WORDS.length] + " " + nIdResource;
+            _index.index( new ResourceDefaultImplementation( Integer.toString( nIdResource ), CONSTANT_RESOURCE_TYPE, strName ) );
+        }
+
+        // Prefixes typed one character at a time
+        _prefixes = new String [ WORDS.length * 3];
+
+        for ( int nWord = 0; nWord < WORDS.length; nWord++ )
+        {
+            for ( int nLength = 1; nLength <= 3; nLength++ )
+            {
+                _prefixes [nWord * 3 + nLength - 1] = WORDS [nWord].substring( 0, nLength );
+            }
+        }
+    }
+
+    /**
+     * Benchmark of {@link ResourceNameIndex#search(String, int)}
+     * 
+     * @param cursor
+     *            The cursor of the current thread
+     * @return The resources found
+     */
+    @Benchmark
+    public List<IResource> search( ThreadCursor cursor )
+    {
+        return _index.search( ResourceNameIndex.normalize( _prefixes [cursor.next( _prefixes.length )] ), CONSTANT_LIMIT );
+    }
+
+    /**
+     * Benchmark of {@link ResourceNameIndex#index(IResource)} for a renamed resource
+     * 
+     * @param cursor
+     *            The cursor of the current thread
+     */
+    @Benchmark
+    public void rename( ThreadCursor cursor )
+    {
+        int nIdResource = cursor.next( _nResourcesCount );
+        String strName = WORDS [nIdResource % WORDS.length];
+        _index.index( new ResourceDefaultImplementation( Integer.toString( nIdResource ), CONSTANT_RESOURCE_TYPE, strName ) );
+    }
+
+    /**
+     * Cursor over prefixes and resources, owned by each thread so that threads do not share a counter
+     */
+    @State( Scope.Thread )
+    public static class ThreadCursor
+    {
+        private int _nIndex;
+
+        /**
+         * Get the next index
+         * 
+         * @param nLength
+         *            The number of indexes
+         * @return The next index, between 0 and nLength - 1
+         */
+        int next( int nLength )
+        {
+            _nIndex = ( _nIndex + 1 ) % nLength;
+
+            return _nIndex;
+        }
+    }
+}
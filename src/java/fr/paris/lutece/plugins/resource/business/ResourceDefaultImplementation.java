@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business;
+
+/**
+ * Default immutable implementation of resources. Instances can be shared, for example from a cache, without being copied.
+ */
+public class ResourceDefaultImplementation implements IResource
+{
+    private static final long serialVersionUID = 4721957086348318112L;
+    private final String _strIdResource;
+    private final String _strResourceType;
+    private final String _strResourceName;
+
+    /**
+     * Creates a new resource
+     * 
+     * @param strIdResource
+     *            The id of the resource
+     * @param strResourceType
+     *            The resource type
+     * @param strResourceName
+     *            The resource name
+     */
+    public ResourceDefaultImplementation( String strIdResource, String strResourceType, String strResourceName )
+    {
+        this._strIdResource = strIdResource;
+        this._strResourceType = strResourceType;
+        this._strResourceName = strResourceName;
+    }
+
+    /**
+     * Creates a new immutable copy of a resource
+     * 
+     * @param resource
+     *            The resource to copy
+     */
+    public ResourceDefaultImplementation( IResource resource )
+    {
+        this( resource.getIdResource( ), resource.getResourceType( ), resource.getResourceName( ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getIdResource( )
+    {
+        return _strIdResource;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getResourceType( )
+    {
+        return _strResourceType;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getResourceName( )
+    {
+        return _strResourceName;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.changelog;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface of DAO of the change log of resources
+ */
+public interface IResourceChangeLogDAO
+{
+    /**
+     * The name of the bean of the DAO
+     */
+    String BEAN_NAME = "resource.resourceChangeLogDAO";
+
+    /**
+     * Append changes to the log with batch statements
+     * 
+     * @param strChangeFamily
+     *            The family of the changed keys
+     * @param listChangeKeys
+     *            The changed keys
+     * @param strNodeId
+     *            The id of the webapp that made the changes
+     * @param plugin
+     *            The plugin
+     */
+    void insertAll( String strChangeFamily, Collection<String> listChangeKeys, String strNodeId, Plugin plugin );
+
+    /**
+     * Get the changes that have an id greater than a given id, ordered by id
+     * 
+     * @param nIdChange
+     *            The id after which changes are read
+     * @param nLimit
+     *            The maximum number of changes to get
+     * @param plugin
+     *            The plugin
+     * @return The list of changes
+     */
+    List<ResourceChange> findAfter( int nIdChange, int nLimit, Plugin plugin );
+
+    /**
+     * Get the changes that have one of the given ids
+     * 
+     * @param listIdChanges
+     *            The ids of the changes
+     * @param plugin
+     *            The plugin
+     * @return The list of changes found. Ids that are not associated with any change are ignored.
+     */
+    List<ResourceChange> findByListId( Collection<Integer> listIdChanges, Plugin plugin );
+
+    /**
+     * Get the id of the last change of the log
+     * 
+     * @param plugin
+     *            The plugin
+     * @return The id of the last change, or 0 if the log is empty
+     */
+    int findLastIdChange( Plugin plugin );
+
+    /**
+     * Remove changes made before a given date
+     * 
+     * @param dateLimit
+     *            The date before which changes are removed
+     * @param plugin
+     *            The plugin
+     */
+    void deleteBefore( Timestamp dateLimit, Plugin plugin );
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.changelog;
+
+/**
+ * Entry of the change log of resources. A change tells other webapps sharing the same database that cached data of a given key family and key is stale.
+ */
+public class ResourceChange
+{
+    private int _nIdChange;
+    private String _strChangeFamily;
+    private String _strChangeKey;
+    private String _strNodeId;
+
+    /**
+     * Get the id of the change
+     * 
+     * @return The id of the change
+     */
+    public int getIdChange( )
+    {
+        return _nIdChange;
+    }
+
+    /**
+     * Set the id of the change
+     * 
+     * @param nIdChange
+     *            The id of the change
+     */
+    public void setIdChange( int nIdChange )
+    {
+        this._nIdChange = nIdChange;
+    }
+
+    /**
+     * Get the family of the changed key
+     * 
+     * @return The family of the changed key
+     */
+    public String getChangeFamily( )
+    {
+        return _strChangeFamily;
+    }
+
+    /**
+     * Set the family of the changed key
+     * 
+     * @param strChangeFamily
+     *            The family of the changed key
+     */
+    public void setChangeFamily( String strChangeFamily )
+    {
+        this._strChangeFamily = strChangeFamily;
+    }
+
+    /**
+     * Get the changed key
+     * 
+     * @return The changed key
+     */
+    public String getChangeKey( )
+    {
+        return _strChangeKey;
+    }
+
+    /**
+     * Set the changed key
+     * 
+     * @param strChangeKey
+     *            The changed key
+     */
+    public void setChangeKey( String strChangeKey )
+    {
+        this._strChangeKey = strChangeKey;
+    }
+
+    /**
+     * Get the id of the webapp that made the change
+     * 
+     * @return The id of the webapp that made the change
+     */
+    public String getNodeId( )
+    {
+        return _strNodeId;
+    }
+
+    /**
+     * Set the id of the webapp that made the change
+     * 
+     * @param strNodeId
+     *            The id of the webapp that made the change
+     */
+    public void setNodeId( String strNodeId )
+    {
+        this._strNodeId = strNodeId;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.changelog;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.util.sql.DAOUtil;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * DAO of the change log of resources
+ */
+public class ResourceChangeLogDAO implements IResourceChangeLogDAO
+{
+    private static final String SQL_QUERY_INSERT_CHANGE = " INSERT INTO resource_change_log( change_family, change_key, node_id ) VALUES (?,?,?) ";
+    private static final String SQL_QUERY_SELECT_CHANGES_AFTER = " SELECT id_change, change_family, change_key, node_id FROM resource_change_log "
+            + " WHERE id_change > ? ORDER BY id_change ASC LIMIT ? ";
+    private static final String SQL_QUERY_SELECT_CHANGES_BY_ID = " SELECT id_change, change_family, change_key, node_id FROM resource_change_log "
+            + " WHERE id_change IN ( ";
+    private static final String SQL_QUERY_SELECT_LAST_ID_CHANGE = " SELECT MAX(id_change) FROM resource_change_log ";
+    private static final String SQL_QUERY_DELETE_CHANGES_BEFORE = " DELETE FROM resource_change_log WHERE date_change < ? ";
+    private static final String CONSTANT_QUESTION_MARK = "?";
+    private static final String CONSTANT_COMMA = ",";
+    private static final String CONSTANT_CLOSE_PARENTHESIS = ")";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insertAll( String strChangeFamily, Collection<String> listChangeKeys, String strNodeId, Plugin plugin )
+    {
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT_CHANGE, plugin ) )
+        {
+            for ( String strChangeKey : listChangeKeys )
+            {
+                int nIndex = 1;
+                daoUtil.setString( nIndex++, strChangeFamily );
+                daoUtil.setString( nIndex++, strChangeKey );
+                daoUtil.setString( nIndex, strNodeId );
+                daoUtil.addBatch( );
+            }
+
+            daoUtil.executeBatch( );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ResourceChange> findAfter( int nIdChange, int nLimit, Plugin plugin )
+    {
+        List<ResourceChange> listChanges = new ArrayList<>( );
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_CHANGES_AFTER, plugin ) )
+        {
+            daoUtil.setInt( 1, nIdChange );
+            daoUtil.setInt( 2, nLimit );
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+                listChanges.add( getChangeFromDAO( daoUtil ) );
+            }
+        }
+
+        return listChanges;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ResourceChange> findByListId( Collection<Integer> listIdChanges, Plugin plugin )
+    {
+        List<ResourceChange> listChanges = new ArrayList<>( );
+
+        if ( listIdChanges.isEmpty( ) )
+        {
+            return listChanges;
+        }
+
+        StringBuilder sbSql = new StringBuilder( SQL_QUERY_SELECT_CHANGES_BY_ID );
+
+        for ( int i = 0; i < listIdChanges.size( ); i++ )
+        {
+            if ( i > 0 )
+            {
+                sbSql.append( CONSTANT_COMMA );
+            }
+
+            sbSql.append( CONSTANT_QUESTION_MARK );
+        }
+
+        sbSql.append( CONSTANT_CLOSE_PARENTHESIS );
+
+        try ( DAOUtil daoUtil = new DAOUtil( sbSql.toString( ), plugin ) )
+        {
+            int nIndex = 1;
+
+            for ( Integer nIdChange : listIdChanges )
+            {
+                daoUtil.setInt( nIndex++, nIdChange );
+            }
+
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+                listChanges.add( getChangeFromDAO( daoUtil ) );
+            }
+        }
+
+        return listChanges;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int findLastIdChange( Plugin plugin )
+    {
+        int nIdChange = 0;
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_LAST_ID_CHANGE, plugin ) )
+        {
+            daoUtil.executeQuery( );
+
+            if ( daoUtil.next( ) )
+            {
+                nIdChange = daoUtil.getInt( 1 );
+            }
+        }
+
+        return nIdChange;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteBefore( Timestamp dateLimit, Plugin plugin )
+    {
+        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_CHANGES_BEFORE, plugin ) )
+        {
+            daoUtil.setTimestamp( 1, dateLimit );
+            daoUtil.executeUpdate( );
+        }
+    }
+
+    /**
+     * Get a change from the current row of a DAOUtil
+     * 
+     * @param daoUtil
+     *            The DAOUtil
+     * @return The change
+     */
+    private ResourceChange getChangeFromDAO( DAOUtil daoUtil )
+    {
+        int nIndex = 1;
+        ResourceChange change = new ResourceChange( );
+        change.setIdChange( daoUtil.getInt( nIndex++ ) );
+        change.setChangeFamily( daoUtil.getString( nIndex++ ) );
+        change.setChangeKey( daoUtil.getString( nIndex++ ) );
+        change.setNodeId( daoUtil.getString( nIndex ) );
+
+        return change;
+    }
+}
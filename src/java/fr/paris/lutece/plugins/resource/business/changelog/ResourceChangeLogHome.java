@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.changelog;
+
+import fr.paris.lutece.plugins.resource.service.ResourcePlugin;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.plugin.PluginService;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Home of the change log of resources
+ */
+public final class ResourceChangeLogHome
+{
+    private static IResourceChangeLogDAO _dao = SpringContextService.getBean( IResourceChangeLogDAO.BEAN_NAME );
+    private static Plugin _plugin = PluginService.getPlugin( ResourcePlugin.PLUGIN_NAME );
+
+    /**
+     * Default constructor
+     */
+    private ResourceChangeLogHome( )
+    {
+        // Nothing to do
+    }
+
+    /**
+     * Append changes to the log. If a transaction is in progress, changes are appended in this transaction.
+     * 
+     * @param strChangeFamily
+     *            The family of the changed keys
+     * @param listChangeKeys
+     *            The changed keys
+     * @param strNodeId
+     *            The id of the webapp that made the changes
+     */
+    public static void createAll( String strChangeFamily, Collection<String> listChangeKeys, String strNodeId )
+    {
+        _dao.insertAll( strChangeFamily, listChangeKeys, strNodeId, _plugin );
+    }
+
+    /**
+     * Get the changes that have an id greater than a given id, ordered by id
+     * 
+     * @param nIdChange
+     *            The id after which changes are read
+     * @param nLimit
+     *            The maximum number of changes to get
+     * @return The list of changes
+     */
+    public static List<ResourceChange> findAfter( int nIdChange, int nLimit )
+    {
+        return _dao.findAfter( nIdChange, nLimit, _plugin );
+    }
+
+    /**
+     * Get the changes that have one of the given ids
+     * 
+     * @param listIdChanges
+     *            The ids of the changes
+     * @return The list of changes found. Ids that are not associated with any change are ignored.
+     */
+    public static List<ResourceChange> findByListId( Collection<Integer> listIdChanges )
+    {
+        return _dao.findByListId( listIdChanges, _plugin );
+    }
+
+    /**
+     * Get the id of the last change of the log
+     * 
+     * @return The id of the last change, or 0 if the log is empty
+     */
+    public static int findLastIdChange( )
+    {
+        return _dao.findLastIdChange( _plugin );
+    }
+
+    /**
+     * Remove changes made before a given date
+     * 
+     * @param dateLimit
+     *            The date before which changes are removed
+     */
+    public static void deleteBefore( Timestamp dateLimit )
+    {
+        _dao.deleteBefore( dateLimit, _plugin );
+    }
+}
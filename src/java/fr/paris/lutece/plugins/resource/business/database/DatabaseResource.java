@@ -53,6 +53,42 @@ public class DatabaseResource implements IResource, Cloneable
     @Size( max = 255, min = 1, message = "#i18n{resource.model.entity.databaseResource.attribute.resourceName.size}" )
     private String _strResourceName;
 
+    /**
+     * Creates a new resource
+     */
+    public DatabaseResource( )
+    {
+        // Nothing to do
+    }
+
+    /**
+     * Creates a new mutable copy of a resource, for instance to modify a {@link DatabaseResourceSnapshot}
+     * 
+     * @param resource
+     *            The resource to copy
+     */
+    public DatabaseResource( IResource resource )
+    {
+        this( resource.getIdResource( ), resource.getResourceType( ), resource.getResourceName( ) );
+    }
+
+    /**
+     * Creates a new resource
+     * 
+     * @param strIdResource
+     *            The id of the resource
+     * @param strResourceType
+     *            The resource type
+     * @param strResourceName
+     *            The resource name
+     */
+    protected DatabaseResource( String strIdResource, String strResourceType, String strResourceName )
+    {
+        _strIdResource = strIdResource;
+        _strResourceType = strResourceType;
+        _strResourceName = strResourceName;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -33,12 +33,22 @@
  */
 package fr.paris.lutece.plugins.resource.business.database;
 
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceTimer;
 import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.util.AppException;
 import fr.paris.lutece.portal.service.util.AppLogService;
 import fr.paris.lutece.util.sql.DAOUtil;
 
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Statement;
+import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * DAO for database resources
@@ -46,70 +56,130 @@ import java.util.List;
 public class DatabaseResourceDAO implements IDatabaseResourceDAO
 {
     // Select
-    private static final String SQL_QUERY_NEW_PRIMARY_KEY = " SELECT MAX(id_resource) FROM resource_resource ";
     private static final String SQL_QUERY_SELECT_RESOURCE = " SELECT id_resource, resource_type, resource_name FROM resource_resource ";
     private static final String SQL_QUERY_SELECT_RESOURCE_BY_ID = SQL_QUERY_SELECT_RESOURCE + " WHERE id_resource = ?  ";
     private static final String SQL_QUERY_SELECT_RESOURCE_ID = " SELECT id_resource FROM resource_resource ";
     private static final String SQL_QUERY_SELECT_RESOURCE_LIST_BY_ID = SQL_QUERY_SELECT_RESOURCE + " WHERE id_resource IN ( ";
     private static final String SQL_QUERY_SELECT_RESOURCE_BY_RESOURCE_TYPE = SQL_QUERY_SELECT_RESOURCE + " WHERE resource_type = ? ";
+    private static final String SQL_QUERY_SELECT_RESOURCE_BATCH_BY_RESOURCE_TYPE = SQL_QUERY_SELECT_RESOURCE
+            + " WHERE resource_type = ? AND id_resource > ? ORDER BY id_resource ASC LIMIT ? ";
+    private static final String SQL_QUERY_COUNT_RESOURCE = " SELECT COUNT(id_resource) FROM resource_resource ";
+    private static final String SQL_QUERY_COUNT_RESOURCE_BY_RESOURCE_TYPE = SQL_QUERY_COUNT_RESOURCE + " WHERE resource_type = ? ";
+    private static final String SQL_QUERY_EXISTS_RESOURCE_BY_RESOURCE_TYPE = " SELECT id_resource FROM resource_resource WHERE resource_type = ? LIMIT 1 ";
 
     // Update, insert, delete
     private static final String SQL_QUERY_INSERT_RESOURCE = " INSERT INTO resource_resource( id_resource, resource_type, resource_name ) VALUES (?,?,?) ";
+    private static final String SQL_QUERY_INSERT_RESOURCE_GENERATED_ID = " INSERT INTO resource_resource( resource_type, resource_name ) VALUES (?,?) ";
     private static final String SQL_QUERY_UPDATE_RESOURCE = " UPDATE resource_resource SET resource_type = ?, resource_name = ? WHERE id_resource = ? ";
     private static final String SQL_QUERY_DELETE_RESOURCE = " DELETE FROM resource_resource WHERE id_resource = ? ";
 
     // Other
+    private static final String SQL_WHERE = " WHERE ";
+    private static final String SQL_AND = " AND ";
+    private static final String SQL_FILTER_RESOURCE_TYPE = " resource_type = ? ";
+    private static final String SQL_FILTER_RESOURCE_NAME_PREFIX = " resource_name LIKE ? ESCAPE '!' ";
+    private static final String SQL_FILTER_ID_MIN = " id_resource >= ? ";
+    private static final String SQL_FILTER_ID_MAX = " id_resource <= ? ";
+    private static final String SQL_LIMIT = " LIMIT ? ";
+    private static final String SQL_OFFSET = " OFFSET ? ";
+    private static final String SQL_SEEK_ID_AFTER = " id_resource > ? ";
+    private static final String SQL_SEEK_ID_BEFORE = " id_resource < ? ";
+    // The first predicate is implied by the second one : it gives the database a range to scan on the index of the sort column
+    private static final String SQL_SEEK_COLUMN_AFTER = " {0} >= ? AND ( {0} > ? OR ( {0} = ? AND id_resource > ? ) ) ";
+    private static final String SQL_SEEK_COLUMN_BEFORE = " {0} <= ? AND ( {0} < ? OR ( {0} = ? AND id_resource < ? ) ) ";
+    private static final String SQL_COLUMN_ID = "id_resource";
     private static final String ORDER_BY = " ORDER BY ";
     private static final String ORDER_BY_ASCENDING = " ASC ";
     private static final String ORDER_BY_DESCENDING = " DESC ";
     private static final String CONSTANT_QUESTION_MARK = "?";
     private static final String CONSTANT_COMMA = ",";
     private static final String CONSTANT_CLOSE_PARENTHESIS = ")";
+    private static final String CONSTANT_LIKE_ESCAPE = "!";
+    private static final String CONSTANT_LIKE_WILDCARDS = "!%_";
+    private static final String CONSTANT_LIKE_ANY = "%";
+    private static final int CONSTANT_BATCH_SIZE = 500;
+    private static final String METRIC_INSERT = "dao.databaseResource.insert";
+    private static final String METRIC_UPDATE = "dao.databaseResource.update";
+    private static final String METRIC_DELETE = "dao.databaseResource.delete";
+    private static final String METRIC_INSERT_ALL = "dao.databaseResource.insertAll";
+    private static final String METRIC_UPDATE_ALL = "dao.databaseResource.updateAll";
+    private static final String METRIC_DELETE_ALL = "dao.databaseResource.deleteAll";
+    private static final String METRIC_FIND_BY_PRIMARY_KEY = "dao.databaseResource.findByPrimaryKey";
+    private static final String METRIC_FIND_ALL = "dao.databaseResource.findAll";
+    private static final String METRIC_FIND_ALL_ID = "dao.databaseResource.findAllId";
+    private static final String METRIC_COUNT_ALL = "dao.databaseResource.countAll";
+    private static final String METRIC_COUNT_BY_FILTER = "dao.databaseResource.countByFilter";
+    private static final String METRIC_FIND_PAGE = "dao.databaseResource.findPage";
+    private static final String METRIC_FIND_PAGE_AT_OFFSET = "dao.databaseResource.findPageAtOffset";
+    private static final String METRIC_FIND_BY_LIST_ID = "dao.databaseResource.findByListId";
+    private static final String METRIC_FIND_BY_RESOURCE_TYPE = "dao.databaseResource.findByResourceType";
+    private static final String METRIC_COUNT_BY_RESOURCE_TYPE = "dao.databaseResource.countByResourceType";
+    private static final String METRIC_EXISTS_BY_RESOURCE_TYPE = "dao.databaseResource.existsByResourceType";
+    private static final String METRIC_FOR_EACH_BATCH_BY_RESOURCE_TYPE = "dao.databaseResource.forEachBatchByResourceType";
+    private IDatabaseResourceIdAllocator _idAllocator = new HiLoDatabaseResourceIdAllocator( );
+    private boolean _bIdGeneratedByDatabase;
 
     /**
-     * Get a new primary key. This method should only be called by synchronized methods
+     * Set the allocator of ids of new resources
      * 
-     * @param plugin
-     *            The plugin
-     * @return The new value of the primary key
+     * @param idAllocator
+     *            The id allocator
      */
-    private int newPrimaryKey( Plugin plugin )
+    public void setIdAllocator( IDatabaseResourceIdAllocator idAllocator )
     {
-        int nRes;
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_NEW_PRIMARY_KEY, plugin ) )
-        {
-            daoUtil.executeQuery( );
-
-            if ( daoUtil.next( ) )
-            {
-                nRes = daoUtil.getInt( 1 ) + 1;
-            }
-            else
-            {
-                nRes = 1;
-            }
-        }
+        _idAllocator = idAllocator;
+    }
 
-        return nRes;
+    /**
+     * Set whether ids of new resources are generated by the database (the column id_resource is an identity or auto increment column). In that case,
+     * the id allocator is never used, and ids are read from the generated keys of the insert statements.
+     * 
+     * @param bIdGeneratedByDatabase
+     *            True if ids are generated by the database, false to use the id allocator
+     */
+    public void setIdGeneratedByDatabase( boolean bIdGeneratedByDatabase )
+    {
+        _bIdGeneratedByDatabase = bIdGeneratedByDatabase;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized void insert( DatabaseResource resource, Plugin plugin )
+    public int insert( DatabaseResource resource, Plugin plugin )
     {
-        int nId = newPrimaryKey( plugin );
-        resource.setIdResource( nId );
+        if ( _bIdGeneratedByDatabase )
+        {
+            try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_INSERT );
+                    DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT_RESOURCE_GENERATED_ID, Statement.RETURN_GENERATED_KEYS, plugin ) )
+            {
+                int nIndex = 1;
+                daoUtil.setString( nIndex++, StringUtils.defaultString( resource.getResourceType( ) ) );
+                daoUtil.setString( nIndex, StringUtils.defaultString( resource.getResourceName( ) ) );
+                daoUtil.executeUpdate( );
 
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT_RESOURCE, plugin ) )
+                if ( !daoUtil.nextGeneratedKey( ) )
+                {
+                    throw new AppException( "The database did not return the generated id of the resource" );
+                }
+
+                return daoUtil.getGeneratedKeyInt( 1 );
+            }
+        }
+
+        int nId = _idAllocator.allocateId( plugin );
+
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_INSERT );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT_RESOURCE, plugin ) )
         {
             int nIndex = 1;
             daoUtil.setInt( nIndex++, nId );
-            daoUtil.setString( nIndex++, resource.getResourceType( ) );
-            daoUtil.setString( nIndex, resource.getResourceName( ) );
+            daoUtil.setString( nIndex++, StringUtils.defaultString( resource.getResourceType( ) ) );
+            daoUtil.setString( nIndex, StringUtils.defaultString( resource.getResourceName( ) ) );
             daoUtil.executeUpdate( );
         }
+
+        return nId;
     }
 
     /**
@@ -118,14 +188,15 @@ public class DatabaseResourceDAO implements IDatabaseResourceDAO
     @Override
     public void update( DatabaseResource resource, Plugin plugin )
     {
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_UPDATE_RESOURCE, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_UPDATE );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_UPDATE_RESOURCE, plugin ) )
         {
             int nIndex = 1;
 
             try
             {
-                daoUtil.setString( nIndex++, resource.getResourceType( ) );
-                daoUtil.setString( nIndex++, resource.getResourceName( ) );
+                daoUtil.setString( nIndex++, StringUtils.defaultString( resource.getResourceType( ) ) );
+                daoUtil.setString( nIndex++, StringUtils.defaultString( resource.getResourceName( ) ) );
                 daoUtil.setInt( nIndex, Integer.parseInt( resource.getIdResource( ) ) );
                 daoUtil.executeUpdate( );
             }
@@ -142,13 +213,124 @@ public class DatabaseResourceDAO implements IDatabaseResourceDAO
     @Override
     public void delete( int nIdResource, Plugin plugin )
     {
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_RESOURCE, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_DELETE );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_RESOURCE, plugin ) )
         {
             daoUtil.setInt( 1, nIdResource );
             daoUtil.executeUpdate( );
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int [ ] insertAll( Collection<DatabaseResource> listResources, Plugin plugin )
+    {
+        int [ ] arrayIds = new int [ listResources.size( )];
+        int nCount = 0;
+
+        if ( _bIdGeneratedByDatabase )
+        {
+            // Generated keys of batch statements are not reliably available from every driver
+            for ( DatabaseResource resource : listResources )
+            {
+                arrayIds [nCount++] = insert( resource, plugin );
+            }
+
+            return arrayIds;
+        }
+
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_INSERT_ALL );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT_RESOURCE, plugin ) )
+        {
+            for ( DatabaseResource resource : listResources )
+            {
+                int nId = _idAllocator.allocateId( plugin );
+                arrayIds [nCount++] = nId;
+
+                int nIndex = 1;
+                daoUtil.setInt( nIndex++, nId );
+                daoUtil.setString( nIndex++, StringUtils.defaultString( resource.getResourceType( ) ) );
+                daoUtil.setString( nIndex, StringUtils.defaultString( resource.getResourceName( ) ) );
+                daoUtil.addBatch( );
+
+                if ( nCount % CONSTANT_BATCH_SIZE == 0 )
+                {
+                    daoUtil.executeBatch( );
+                }
+            }
+
+            if ( nCount % CONSTANT_BATCH_SIZE != 0 )
+            {
+                daoUtil.executeBatch( );
+            }
+        }
+
+        return arrayIds;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateAll( Collection<DatabaseResource> listResources, Plugin plugin )
+    {
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_UPDATE_ALL );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_UPDATE_RESOURCE, plugin ) )
+        {
+            int nBatchCount = 0;
+
+            for ( DatabaseResource resource : listResources )
+            {
+                int nIndex = 1;
+                daoUtil.setString( nIndex++, StringUtils.defaultString( resource.getResourceType( ) ) );
+                daoUtil.setString( nIndex++, StringUtils.defaultString( resource.getResourceName( ) ) );
+                daoUtil.setInt( nIndex, Integer.parseInt( resource.getIdResource( ) ) );
+                daoUtil.addBatch( );
+
+                if ( ++nBatchCount % CONSTANT_BATCH_SIZE == 0 )
+                {
+                    daoUtil.executeBatch( );
+                }
+            }
+
+            if ( nBatchCount % CONSTANT_BATCH_SIZE != 0 )
+            {
+                daoUtil.executeBatch( );
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteAll( Collection<Integer> listIdResources, Plugin plugin )
+    {
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_DELETE_ALL );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_RESOURCE, plugin ) )
+        {
+            int nBatchCount = 0;
+
+            for ( int nIdResource : listIdResources )
+            {
+                daoUtil.setInt( 1, nIdResource );
+                daoUtil.addBatch( );
+
+                if ( ++nBatchCount % CONSTANT_BATCH_SIZE == 0 )
+                {
+                    daoUtil.executeBatch( );
+                }
+            }
+
+            if ( nBatchCount % CONSTANT_BATCH_SIZE != 0 )
+            {
+                daoUtil.executeBatch( );
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -156,7 +338,8 @@ public class DatabaseResourceDAO implements IDatabaseResourceDAO
     public DatabaseResource findByPrimaryKey( int nIdResource, Plugin plugin )
     {
         DatabaseResource resource = null;
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_BY_ID, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FIND_BY_PRIMARY_KEY );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_BY_ID, plugin ) )
         {
             daoUtil.setInt( 1, nIdResource );
             daoUtil.executeQuery( );
@@ -177,7 +360,8 @@ public class DatabaseResourceDAO implements IDatabaseResourceDAO
     public List<DatabaseResource> findAll( Plugin plugin )
     {
         List<DatabaseResource> listResources = new ArrayList<>( );
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FIND_ALL );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE, plugin ) )
         {
             daoUtil.executeQuery( );
 
@@ -194,43 +378,365 @@ public class DatabaseResourceDAO implements IDatabaseResourceDAO
      * {@inheritDoc}
      */
     @Override
-    public List<Integer> findAllId( DatabaseResourceSort resourceSort, Plugin plugin )
+    public int [ ] findAllId( DatabaseResourceFilter filter, DatabaseResourceSort resourceSort, Plugin plugin )
     {
-        List<Integer> listResourcesId = new ArrayList<>( );
+        int [ ] arrayIds = new int [ CONSTANT_BATCH_SIZE];
+        int nCount = 0;
         StringBuilder sbSql = new StringBuilder( SQL_QUERY_SELECT_RESOURCE_ID );
+        appendFilterWhere( sbSql, filter );
         sbSql.append( ORDER_BY );
-        sbSql.append( resourceSort.getSort( ) );
+        sbSql.append( getSortExpression( resourceSort ) );
         sbSql.append( resourceSort.getSortAsc( ) ? ORDER_BY_ASCENDING : ORDER_BY_DESCENDING );
 
-        try ( DAOUtil daoUtil = new DAOUtil( sbSql.toString( ), plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FIND_ALL_ID );
+                DAOUtil daoUtil = new DAOUtil( sbSql.toString( ), plugin ) )
+        {
+            setFilterValues( daoUtil, filter, 1 );
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+                if ( nCount == arrayIds.length )
+                {
+                    arrayIds = Arrays.copyOf( arrayIds, nCount * 2 );
+                }
+
+                arrayIds [nCount++] = daoUtil.getInt( 1 );
+            }
+        }
+
+        return Arrays.copyOf( arrayIds, nCount );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countAll( Plugin plugin )
+    {
+        int nCount = 0;
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_COUNT_ALL );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_COUNT_RESOURCE, plugin ) )
+        {
+            daoUtil.executeQuery( );
+
+            if ( daoUtil.next( ) )
+            {
+                nCount = daoUtil.getInt( 1 );
+            }
+        }
+
+        return nCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countByFilter( DatabaseResourceFilter filter, Plugin plugin )
+    {
+        StringBuilder sbSql = new StringBuilder( SQL_QUERY_COUNT_RESOURCE );
+        appendFilterWhere( sbSql, filter );
+
+        int nCount = 0;
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_COUNT_BY_FILTER );
+                DAOUtil daoUtil = new DAOUtil( sbSql.toString( ), plugin ) )
         {
+            setFilterValues( daoUtil, filter, 1 );
+            daoUtil.executeQuery( );
+
+            if ( daoUtil.next( ) )
+            {
+                nCount = daoUtil.getInt( 1 );
+            }
+        }
+
+        return nCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DatabaseResource> findPage( DatabaseResourceFilter filter, DatabaseResourceSort resourceSort, DatabaseResource afterResource,
+            int nLimit, Plugin plugin )
+    {
+        StringBuilder sbSql = new StringBuilder( SQL_QUERY_SELECT_RESOURCE );
+        boolean bWhere = appendFilterWhere( sbSql, filter );
+
+        if ( afterResource != null )
+        {
+            sbSql.append( bWhere ? SQL_AND : SQL_WHERE );
+
+            if ( resourceSort.isSortById( ) )
+            {
+                sbSql.append( resourceSort.getSortAsc( ) ? SQL_SEEK_ID_AFTER : SQL_SEEK_ID_BEFORE );
+            }
+            else
+            {
+                sbSql.append( MessageFormat.format( resourceSort.getSortAsc( ) ? SQL_SEEK_COLUMN_AFTER : SQL_SEEK_COLUMN_BEFORE,
+                        getSortExpression( resourceSort ) ) );
+            }
+        }
+
+        appendPageOrderBy( sbSql, resourceSort );
+        sbSql.append( SQL_LIMIT );
+
+        List<DatabaseResource> listResources = new ArrayList<>( nLimit );
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FIND_PAGE );
+                DAOUtil daoUtil = new DAOUtil( sbSql.toString( ), plugin ) )
+        {
+            int nIndex = setFilterValues( daoUtil, filter, 1 );
+
+            if ( afterResource != null )
+            {
+                if ( !resourceSort.isSortById( ) )
+                {
+                    // Null values are stored as empty strings, see getSortExpression
+                    String strSortValue = StringUtils.defaultString( resourceSort.getSortValue( afterResource ) );
+                    daoUtil.setString( nIndex++, strSortValue );
+                    daoUtil.setString( nIndex++, strSortValue );
+                    daoUtil.setString( nIndex++, strSortValue );
+                }
+
+                daoUtil.setInt( nIndex++, Integer.parseInt( afterResource.getIdResource( ) ) );
+            }
+
+            daoUtil.setInt( nIndex, nLimit );
             daoUtil.executeQuery( );
 
             while ( daoUtil.next( ) )
             {
-                listResourcesId.add( daoUtil.getInt( 1 ) );
+                listResources.add( getResourceFromDAO( daoUtil ) );
             }
         }
 
-        return listResourcesId;
+        return listResources;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<DatabaseResource> findByListId( List<Integer> listId, DatabaseResourceSort resourceSort, Plugin plugin )
+    public List<DatabaseResource> findPageAtOffset( DatabaseResourceFilter filter, DatabaseResourceSort resourceSort, int nOffset, int nLimit,
+            Plugin plugin )
     {
-        if ( ( listId == null ) || ( listId.isEmpty( ) ) )
+        StringBuilder sbSql = new StringBuilder( SQL_QUERY_SELECT_RESOURCE );
+        appendFilterWhere( sbSql, filter );
+        appendPageOrderBy( sbSql, resourceSort );
+        sbSql.append( SQL_LIMIT );
+        sbSql.append( SQL_OFFSET );
+
+        List<DatabaseResource> listResources = new ArrayList<>( nLimit );
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FIND_PAGE_AT_OFFSET );
+                DAOUtil daoUtil = new DAOUtil( sbSql.toString( ), plugin ) )
+        {
+            int nIndex = setFilterValues( daoUtil, filter, 1 );
+            daoUtil.setInt( nIndex++, nLimit );
+            daoUtil.setInt( nIndex, nOffset );
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+                listResources.add( getResourceFromDAO( daoUtil ) );
+            }
+        }
+
+        return listResources;
+    }
+
+    /**
+     * Append the where clause of a filter to a query. Predicates compare columns to values without functions, so that the indexes on the type, the
+     * name and the id of resources can be used : a name is filtered with a LIKE on its beginning only.
+     * 
+     * @param sbSql
+     *            The SQL query
+     * @param filter
+     *            The filter
+     * @return True if a where clause has been appended, false if the filter is empty
+     */
+    private boolean appendFilterWhere( StringBuilder sbSql, DatabaseResourceFilter filter )
+    {
+        boolean bWhere = false;
+
+        if ( filter.containsResourceType( ) )
+        {
+            bWhere = appendPredicate( sbSql, SQL_FILTER_RESOURCE_TYPE, bWhere );
+        }
+
+        if ( filter.containsResourceNamePrefix( ) )
+        {
+            bWhere = appendPredicate( sbSql, SQL_FILTER_RESOURCE_NAME_PREFIX, bWhere );
+        }
+
+        if ( filter.containsIdResourceMin( ) )
+        {
+            bWhere = appendPredicate( sbSql, SQL_FILTER_ID_MIN, bWhere );
+        }
+
+        if ( filter.containsIdResourceMax( ) )
+        {
+            bWhere = appendPredicate( sbSql, SQL_FILTER_ID_MAX, bWhere );
+        }
+
+        return bWhere;
+    }
+
+    /**
+     * Append a predicate to a query
+     * 
+     * @param sbSql
+     *            The SQL query
+     * @param strPredicate
+     *            The predicate
+     * @param bWhere
+     *            True if the where clause has already been appended, false otherwise
+     * @return True
+     */
+    private boolean appendPredicate( StringBuilder sbSql, String strPredicate, boolean bWhere )
+    {
+        sbSql.append( bWhere ? SQL_AND : SQL_WHERE );
+        sbSql.append( strPredicate );
+
+        return true;
+    }
+
+    /**
+     * Set the values of the predicates of a filter
+     * 
+     * @param daoUtil
+     *            The DAOUtil
+     * @param filter
+     *            The filter
+     * @param nFirstIndex
+     *            The index of the first value of the filter
+     * @return The index of the first value after the values of the filter
+     */
+    private int setFilterValues( DAOUtil daoUtil, DatabaseResourceFilter filter, int nFirstIndex )
+    {
+        int nIndex = nFirstIndex;
+
+        if ( filter.containsResourceType( ) )
+        {
+            daoUtil.setString( nIndex++, filter.getResourceType( ) );
+        }
+
+        if ( filter.containsResourceNamePrefix( ) )
+        {
+            daoUtil.setString( nIndex++, getLikePrefix( filter.getResourceNamePrefix( ) ) );
+        }
+
+        if ( filter.containsIdResourceMin( ) )
+        {
+            daoUtil.setInt( nIndex++, filter.getIdResourceMin( ) );
+        }
+
+        if ( filter.containsIdResourceMax( ) )
+        {
+            daoUtil.setInt( nIndex++, filter.getIdResourceMax( ) );
+        }
+
+        return nIndex;
+    }
+
+    /**
+     * Get the pattern of a LIKE predicate that matches values starting with a prefix. Wildcards of the prefix are escaped.
+     * 
+     * @param strPrefix
+     *            The prefix
+     * @return The pattern
+     */
+    private static String getLikePrefix( String strPrefix )
+    {
+        StringBuilder sbPattern = new StringBuilder( strPrefix.length( ) + 2 );
+
+        for ( int nIndex = 0; nIndex < strPrefix.length( ); nIndex++ )
+        {
+            char c = strPrefix.charAt( nIndex );
+
+            if ( CONSTANT_LIKE_WILDCARDS.indexOf( c ) >= 0 )
+            {
+                sbPattern.append( CONSTANT_LIKE_ESCAPE );
+            }
+
+            sbPattern.append( c );
+        }
+
+        sbPattern.append( CONSTANT_LIKE_ANY );
+
+        return sbPattern.toString( );
+    }
+
+    /**
+     * Get the SQL expression resources are sorted on. The expression is a raw column, so that the indexes (resource_type, id_resource),
+     * (resource_name, id_resource) and (resource_type, resource_name, id_resource) can serve sorts and seeks. The columns of the type and the name
+     * of resources are not nullable : null values are stored as empty strings, so that they are sorted the same way on every database, and so that
+     * a page that ends with an empty value can be followed by a seek on an empty string.
+     * 
+     * @param resourceSort
+     *            The sort parameters
+     * @return The SQL expression
+     */
+    private static String getSortExpression( DatabaseResourceSort resourceSort )
+    {
+        if ( resourceSort.isSortById( ) )
+        {
+            return SQL_COLUMN_ID;
+        }
+
+        return resourceSort.getSort( );
+    }
+
+    /**
+     * Append the order by clause of pages of resources. The id of resources is used as a tie breaker so that the order is total.
+     * 
+     * @param sbSql
+     *            The SQL query
+     * @param resourceSort
+     *            The sort parameters
+     */
+    private void appendPageOrderBy( StringBuilder sbSql, DatabaseResourceSort resourceSort )
+    {
+        String strDirection = resourceSort.getSortAsc( ) ? ORDER_BY_ASCENDING : ORDER_BY_DESCENDING;
+        sbSql.append( ORDER_BY );
+        sbSql.append( getSortExpression( resourceSort ) );
+        sbSql.append( strDirection );
+
+        if ( !resourceSort.isSortById( ) )
+        {
+            sbSql.append( CONSTANT_COMMA );
+            sbSql.append( SQL_COLUMN_ID );
+            sbSql.append( strDirection );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DatabaseResource> findByListId( int [ ] arrayIds, int nFromIndex, int nToIndex, DatabaseResourceSort resourceSort, Plugin plugin )
+    {
+        if ( arrayIds == null )
+        {
+            return new ArrayList<>( );
+        }
+
+        if ( ( nFromIndex < 0 ) || ( nToIndex > arrayIds.length ) )
+        {
+            throw new IndexOutOfBoundsException( "The slice [" + nFromIndex + ", " + nToIndex + "[ is out of the array of " + arrayIds.length
+                    + " ids" );
+        }
+
+        if ( nFromIndex >= nToIndex )
         {
             return new ArrayList<>( );
         }
 
         StringBuilder sbSql = new StringBuilder( SQL_QUERY_SELECT_RESOURCE_LIST_BY_ID );
 
-        for ( int i = 0; i < listId.size( ); i++ )
+        for ( int i = nFromIndex; i < nToIndex; i++ )
         {
-            if ( i > 0 )
+            if ( i > nFromIndex )
             {
                 sbSql.append( CONSTANT_COMMA );
             }
@@ -241,17 +747,18 @@ public class DatabaseResourceDAO implements IDatabaseResourceDAO
         sbSql.append( CONSTANT_CLOSE_PARENTHESIS );
 
         sbSql.append( ORDER_BY );
-        sbSql.append( resourceSort.getSort( ) );
+        sbSql.append( getSortExpression( resourceSort ) );
         sbSql.append( resourceSort.getSortAsc( ) ? ORDER_BY_ASCENDING : ORDER_BY_DESCENDING );
 
-        List<DatabaseResource> listResources = new ArrayList<>( );
-        try ( DAOUtil daoUtil = new DAOUtil( sbSql.toString( ), plugin ) )
+        List<DatabaseResource> listResources = new ArrayList<>( nToIndex - nFromIndex );
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FIND_BY_LIST_ID );
+                DAOUtil daoUtil = new DAOUtil( sbSql.toString( ), plugin ) )
         {
             int nIndex = 1;
 
-            for ( int nId : listId )
+            for ( int i = nFromIndex; i < nToIndex; i++ )
             {
-                daoUtil.setInt( nIndex++, nId );
+                daoUtil.setInt( nIndex++, arrayIds [i] );
             }
 
             daoUtil.executeQuery( );
@@ -272,7 +779,8 @@ public class DatabaseResourceDAO implements IDatabaseResourceDAO
     public List<DatabaseResource> findByResourceType( String strResourceType, Plugin plugin )
     {
         List<DatabaseResource> listResources = new ArrayList<>( );
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_BY_RESOURCE_TYPE, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FIND_BY_RESOURCE_TYPE );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_BY_RESOURCE_TYPE, plugin ) )
         {
             daoUtil.setString( 1, strResourceType );
             daoUtil.executeQuery( );
@@ -286,6 +794,80 @@ public class DatabaseResourceDAO implements IDatabaseResourceDAO
         return listResources;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countByResourceType( String strResourceType, Plugin plugin )
+    {
+        int nCount = 0;
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_COUNT_BY_RESOURCE_TYPE );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_COUNT_RESOURCE_BY_RESOURCE_TYPE, plugin ) )
+        {
+            daoUtil.setString( 1, strResourceType );
+            daoUtil.executeQuery( );
+
+            if ( daoUtil.next( ) )
+            {
+                nCount = daoUtil.getInt( 1 );
+            }
+        }
+
+        return nCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsByResourceType( String strResourceType, Plugin plugin )
+    {
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_EXISTS_BY_RESOURCE_TYPE );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_EXISTS_RESOURCE_BY_RESOURCE_TYPE, plugin ) )
+        {
+            daoUtil.setString( 1, strResourceType );
+            daoUtil.executeQuery( );
+
+            return daoUtil.next( );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachBatchByResourceType( String strResourceType, int nBatchSize, Consumer<List<DatabaseResource>> consumer, Plugin plugin )
+    {
+        int nLastIdResource = Integer.MIN_VALUE;
+        List<DatabaseResource> listResources;
+
+        do
+        {
+            listResources = new ArrayList<>( nBatchSize );
+            try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FOR_EACH_BATCH_BY_RESOURCE_TYPE );
+                    DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_BATCH_BY_RESOURCE_TYPE, plugin ) )
+            {
+                int nIndex = 1;
+                daoUtil.setString( nIndex++, strResourceType );
+                daoUtil.setInt( nIndex++, nLastIdResource );
+                daoUtil.setInt( nIndex, nBatchSize );
+                daoUtil.executeQuery( );
+
+                while ( daoUtil.next( ) )
+                {
+                    listResources.add( getResourceFromDAO( daoUtil ) );
+                }
+            }
+
+            if ( !listResources.isEmpty( ) )
+            {
+                nLastIdResource = Integer.parseInt( listResources.get( listResources.size( ) - 1 ).getIdResource( ) );
+                consumer.accept( listResources );
+            }
+        }
+        while ( listResources.size( ) == nBatchSize );
+    }
+
     /**
      * Get a database resource from a DAO. <br />
      * The call to the DAOUtil.next( ) must have been made before this method is closed. <br />
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.database;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Objects;
+
+/**
+ * Filter of database resources. Criteria that are not set do not filter resources.
+ */
+public final class DatabaseResourceFilter
+{
+    /**
+     * Value of id criteria that are not set
+     */
+    public static final int ALL_INT = -1;
+
+    private String _strResourceType;
+    private String _strResourceNamePrefix;
+    private int _nIdResourceMin = ALL_INT;
+    private int _nIdResourceMax = ALL_INT;
+
+    /**
+     * Get the resource type of the resources
+     * 
+     * @return The resource type, or null if resources of every type are returned
+     */
+    public String getResourceType( )
+    {
+        return _strResourceType;
+    }
+
+    /**
+     * Set the resource type of the resources
+     * 
+     * @param strResourceType
+     *            The resource type, or null to return resources of every type
+     */
+    public void setResourceType( String strResourceType )
+    {
+        _strResourceType = StringUtils.trimToNull( strResourceType );
+    }
+
+    /**
+     * Check if the filter contains a resource type
+     * 
+     * @return True if the filter contains a resource type, false otherwise
+     */
+    public boolean containsResourceType( )
+    {
+        return _strResourceType != null;
+    }
+
+    /**
+     * Get the beginning of the name of the resources
+     * 
+     * @return The beginning of the name, or null if resources of any name are returned
+     */
+    public String getResourceNamePrefix( )
+    {
+        return _strResourceNamePrefix;
+    }
+
+    /**
+     * Set the beginning of the name of the resources
+     * 
+     * @param strResourceNamePrefix
+     *            The beginning of the name, or null to return resources of any name
+     */
+    public void setResourceNamePrefix( String strResourceNamePrefix )
+    {
+        _strResourceNamePrefix = StringUtils.trimToNull( strResourceNamePrefix );
+    }
+
+    /**
+     * Check if the filter contains the beginning of the name of the resources
+     * 
+     * @return True if the filter contains the beginning of the name, false otherwise
+     */
+    public boolean containsResourceNamePrefix( )
+    {
+        return _strResourceNamePrefix != null;
+    }
+
+    /**
+     * Get the lowest id of the resources
+     * 
+     * @return The lowest id, or {@link #ALL_INT} if ids have no lower bound
+     */
+    public int getIdResourceMin( )
+    {
+        return _nIdResourceMin;
+    }
+
+    /**
+     * Set the lowest id of the resources
+     * 
+     * @param nIdResourceMin
+     *            The lowest id, included, or {@link #ALL_INT} if ids have no lower bound
+     */
+    public void setIdResourceMin( int nIdResourceMin )
+    {
+        _nIdResourceMin = nIdResourceMin;
+    }
+
+    /**
+     * Check if the filter contains a lowest id
+     * 
+     * @return True if the filter contains a lowest id, false otherwise
+     */
+    public boolean containsIdResourceMin( )
+    {
+        return _nIdResourceMin != ALL_INT;
+    }
+
+    /**
+     * Get the highest id of the resources
+     * 
+     * @return The highest id, or {@link #ALL_INT} if ids have no upper bound
+     */
+    public int getIdResourceMax( )
+    {
+        return _nIdResourceMax;
+    }
+
+    /**
+     * Set the highest id of the resources
+     * 
+     * @param nIdResourceMax
+     *            The highest id, included, or {@link #ALL_INT} if ids have no upper bound
+     */
+    public void setIdResourceMax( int nIdResourceMax )
+    {
+        _nIdResourceMax = nIdResourceMax;
+    }
+
+    /**
+     * Check if the filter contains a highest id
+     * 
+     * @return True if the filter contains a highest id, false otherwise
+     */
+    public boolean containsIdResourceMax( )
+    {
+        return _nIdResourceMax != ALL_INT;
+    }
+
+    /**
+     * Check if the filter has no criteria
+     * 
+     * @return True if every resource matches the filter, false otherwise
+     */
+    public boolean isEmpty( )
+    {
+        return !containsResourceType( ) && !containsResourceNamePrefix( ) && !containsIdResourceMin( ) && !containsIdResourceMax( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals( Object other )
+    {
+        if ( !( other instanceof DatabaseResourceFilter ) )
+        {
+            return false;
+        }
+
+        DatabaseResourceFilter otherFilter = (DatabaseResourceFilter) other;
+
+        return Objects.equals( _strResourceType, otherFilter._strResourceType )
+                && Objects.equals( _strResourceNamePrefix, otherFilter._strResourceNamePrefix ) && ( _nIdResourceMin == otherFilter._nIdResourceMin )
+                && ( _nIdResourceMax == otherFilter._nIdResourceMax );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode( )
+    {
+        return Objects.hash( _strResourceType, _strResourceNamePrefix, _nIdResourceMin, _nIdResourceMax );
+    }
+}
@@ -33,13 +33,29 @@
  */
 package fr.paris.lutece.plugins.resource.business.database;
 
+import fr.paris.lutece.plugins.resource.business.IResource;
 import fr.paris.lutece.plugins.resource.service.ResourceCacheService;
+import fr.paris.lutece.plugins.resource.service.ResourceChangeLogService;
+import fr.paris.lutece.plugins.resource.service.ResourceNegativeCache;
 import fr.paris.lutece.plugins.resource.service.ResourcePlugin;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+import fr.paris.lutece.plugins.resource.service.search.ResourceSearchService;
 import fr.paris.lutece.portal.service.plugin.Plugin;
 import fr.paris.lutece.portal.service.plugin.PluginService;
 import fr.paris.lutece.portal.service.spring.SpringContextService;
 
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Database resource home
@@ -49,6 +65,10 @@ public final class DatabaseResourceHome
     private static IDatabaseResourceDAO _dao = SpringContextService.getBean( IDatabaseResourceDAO.BEAN_NAME );
     private static Plugin _plugin = PluginService.getPlugin( ResourcePlugin.PLUGIN_NAME );
 
+    // Maximum number of ids in a single IN ( ) clause
+    private static final int CONSTANT_BATCH_SIZE = 500;
+    private static final String MESSAGE_INVALID_BATCH_SIZE = "The batch size must be greater than 0 : ";
+
     /**
      * Default constructor
      */
@@ -65,8 +85,24 @@ public final class DatabaseResourceHome
      */
     public static void create( DatabaseResource resource )
     {
-        _dao.insert( resource, _plugin );
-        ResourceCacheService.getInstance( ).putInCache( ResourceCacheService.getDatabaseResourceCacheKey( resource.getIdResource( ) ), resource.clone( ) );
+        Set<String> setResourceTypes = Collections.singleton( resource.getResourceType( ) );
+        int nIdResource = ResourceTransactionHelper.executeWrite( _plugin, ( ) -> {
+            int nId = _dao.insert( resource, _plugin );
+            ResourceChangeLogService.getInstance( ).logChange( ResourceChangeLogService.FAMILY_RESOURCE, Integer.toString( nId ) );
+            ResourceChangeLogService.getInstance( ).logChanges( ResourceChangeLogService.FAMILY_RESOURCE_LIST, setResourceTypes );
+
+            return nId;
+        } );
+
+        // The id is only set once the resource is committed
+        resource.setIdResource( nIdResource );
+
+        ResourceCacheKey cacheKey = ResourceCacheKey.ofDatabaseResource( resource.getIdResource( ) );
+        IResource createdResource = new DatabaseResourceSnapshot( resource );
+        ResourceNegativeCache.getInstance( ).remove( cacheKey );
+        ResourceCacheService.getInstance( ).putInCache( cacheKey, createdResource );
+        ResourceSearchService.getInstance( ).resourceChanged( null, createdResource );
+        invalidateListCache( setResourceTypes );
     }
 
     /**
@@ -77,8 +113,19 @@ public final class DatabaseResourceHome
      */
     public static void update( DatabaseResource resource )
     {
-        _dao.update( resource, _plugin );
-        ResourceCacheService.getInstance( ).putInCache( ResourceCacheService.getDatabaseResourceCacheKey( resource.getIdResource( ) ), resource.clone( ) );
+        // The type of the resource may change, lists of the previous type must be invalidated too
+        IResource previousResource = findSnapshotByPrimaryKey( Integer.parseInt( resource.getIdResource( ) ) );
+        Set<String> setResourceTypes = getResourceTypes( Collections.singletonList( previousResource ) );
+        setResourceTypes.add( resource.getResourceType( ) );
+        ResourceTransactionHelper.executeWrite( _plugin, ( ) -> {
+            _dao.update( resource, _plugin );
+            ResourceChangeLogService.getInstance( ).logChange( ResourceChangeLogService.FAMILY_RESOURCE, resource.getIdResource( ) );
+            ResourceChangeLogService.getInstance( ).logChanges( ResourceChangeLogService.FAMILY_RESOURCE_LIST, setResourceTypes );
+        } );
+        IResource updatedResource = new DatabaseResourceSnapshot( resource );
+        ResourceCacheService.getInstance( ).putInCache( ResourceCacheKey.ofDatabaseResource( resource.getIdResource( ) ), updatedResource );
+        ResourceSearchService.getInstance( ).resourceChanged( previousResource, updatedResource );
+        invalidateListCache( setResourceTypes );
     }
 
     /**
@@ -89,12 +136,187 @@ public final class DatabaseResourceHome
      */
     public static void delete( int nIdResource )
     {
-        _dao.delete( nIdResource, _plugin );
-        ResourceCacheService.getInstance( ).removeKey( ResourceCacheService.getDatabaseResourceCacheKey( Integer.toString( nIdResource ) ) );
+        IResource previousResource = findSnapshotByPrimaryKey( nIdResource );
+        Set<String> setResourceTypes = getResourceTypes( Collections.singletonList( previousResource ) );
+        ResourceTransactionHelper.executeWrite( _plugin, ( ) -> {
+            _dao.delete( nIdResource, _plugin );
+            ResourceChangeLogService.getInstance( ).logChange( ResourceChangeLogService.FAMILY_RESOURCE, Integer.toString( nIdResource ) );
+            ResourceChangeLogService.getInstance( ).logChanges( ResourceChangeLogService.FAMILY_RESOURCE_LIST, setResourceTypes );
+        } );
+        ResourceCacheService.getInstance( ).removeKey( ResourceCacheKey.ofDatabaseResource( nIdResource ) );
+        ResourceSearchService.getInstance( ).resourceChanged( previousResource, null );
+        invalidateListCache( setResourceTypes );
+    }
+
+    /**
+     * Create several database resources in a single transaction
+     * 
+     * @param listResources
+     *            The resources to create
+     */
+    public static void createAll( Collection<DatabaseResource> listResources )
+    {
+        if ( listResources.isEmpty( ) )
+        {
+            return;
+        }
+
+        Set<String> setResourceTypes = getResourceTypes( listResources );
+        int [ ] arrayIds = ResourceTransactionHelper.executeInTransaction( _plugin, ( ) -> {
+            int [ ] arrayNewIds = _dao.insertAll( listResources, _plugin );
+            List<String> listIds = new ArrayList<>( arrayNewIds.length );
+
+            for ( int nId : arrayNewIds )
+            {
+                listIds.add( Integer.toString( nId ) );
+            }
+
+            ResourceChangeLogService.getInstance( ).logChanges( ResourceChangeLogService.FAMILY_RESOURCE, listIds );
+            ResourceChangeLogService.getInstance( ).logChanges( ResourceChangeLogService.FAMILY_RESOURCE_LIST, setResourceTypes );
+
+            return arrayNewIds;
+        } );
+
+        // Ids are only set once the resources are committed
+        int nIndex = 0;
+
+        for ( DatabaseResource resource : listResources )
+        {
+            resource.setIdResource( arrayIds [nIndex++] );
+        }
+
+        ResourceSearchService.getInstance( ).resourcesChanged( Collections.<IResource> emptyList( ), putAllInCache( listResources ) );
+        invalidateListCache( setResourceTypes );
+    }
+
+    /**
+     * Updates several database resources in a single transaction
+     * 
+     * @param listResources
+     *            The resources to update
+     */
+    public static void updateAll( Collection<DatabaseResource> listResources )
+    {
+        if ( listResources.isEmpty( ) )
+        {
+            return;
+        }
+
+        List<Integer> listIdResources = new ArrayList<>( listResources.size( ) );
+
+        for ( DatabaseResource resource : listResources )
+        {
+            listIdResources.add( Integer.valueOf( resource.getIdResource( ) ) );
+        }
+
+        List<IResource> listPreviousResources = findSnapshotsByPrimaryKeys( listIdResources );
+        Set<String> setResourceTypes = getResourceTypes( listPreviousResources );
+        setResourceTypes.addAll( getResourceTypes( listResources ) );
+        ResourceTransactionHelper.executeInTransaction( _plugin, ( ) -> {
+            _dao.updateAll( listResources, _plugin );
+            ResourceChangeLogService.getInstance( ).logChanges( ResourceChangeLogService.FAMILY_RESOURCE, getIds( listResources ) );
+            ResourceChangeLogService.getInstance( ).logChanges( ResourceChangeLogService.FAMILY_RESOURCE_LIST, setResourceTypes );
+        } );
+        ResourceSearchService.getInstance( ).resourcesChanged( listPreviousResources, putAllInCache( listResources ) );
+        invalidateListCache( setResourceTypes );
+    }
+
+    /**
+     * Remove several resources from the database in a single transaction
+     * 
+     * @param listIdResources
+     *            The ids of the resources
+     */
+    public static void deleteAll( Collection<Integer> listIdResources )
+    {
+        if ( listIdResources.isEmpty( ) )
+        {
+            return;
+        }
+
+        List<String> listIds = new ArrayList<>( listIdResources.size( ) );
+
+        for ( Integer nIdResource : listIdResources )
+        {
+            listIds.add( Integer.toString( nIdResource ) );
+        }
+
+        List<IResource> listPreviousResources = findSnapshotsByPrimaryKeys( listIdResources );
+        Set<String> setResourceTypes = getResourceTypes( listPreviousResources );
+        ResourceTransactionHelper.executeInTransaction( _plugin, ( ) -> {
+            _dao.deleteAll( listIdResources, _plugin );
+            ResourceChangeLogService.getInstance( ).logChanges( ResourceChangeLogService.FAMILY_RESOURCE, listIds );
+            ResourceChangeLogService.getInstance( ).logChanges( ResourceChangeLogService.FAMILY_RESOURCE_LIST, setResourceTypes );
+        } );
+        invalidateCache( listIds );
+        ResourceSearchService.getInstance( ).resourcesChanged( listPreviousResources, Collections.<IResource> emptyList( ) );
+        invalidateListCache( setResourceTypes );
+    }
+
+    /**
+     * Remove resources from the cache. This method is used to remove resources changed by another webapp that shares the same database.
+     * 
+     * @param listIdResources
+     *            The ids of the resources
+     */
+    public static void invalidateCache( Collection<String> listIdResources )
+    {
+        List<ResourceCacheKey> listCacheKeys = new ArrayList<>( listIdResources.size( ) );
+
+        for ( String strIdResource : listIdResources )
+        {
+            listCacheKeys.add( ResourceCacheKey.ofDatabaseResource( strIdResource ) );
+        }
+
+        ResourceCacheService.getInstance( ).removeKeys( listCacheKeys );
+        ResourceNegativeCache.getInstance( ).removeAll( listCacheKeys );
+    }
+
+    /**
+     * Update the search indexes with resources changed by another webapp that shares the same database. Changed resources are read again, and each of
+     * them is indexed or removed from the indexes. Nothing is read when no resource type is indexed.
+     * 
+     * @param listIdResources
+     *            The ids of the changed resources
+     */
+    public static void reloadSearchIndex( Collection<String> listIdResources )
+    {
+        if ( !ResourceSearchService.getInstance( ).hasIndexes( ) )
+        {
+            return;
+        }
+
+        List<Integer> listIds = new ArrayList<>( listIdResources.size( ) );
+
+        for ( String strIdResource : listIdResources )
+        {
+            if ( StringUtils.isNumeric( strIdResource ) )
+            {
+                listIds.add( Integer.valueOf( strIdResource ) );
+            }
+        }
+
+        ResourceSearchService.getInstance( ).resourcesReloaded( listIdResources, findSnapshotsByPrimaryKeys( listIds ) );
     }
 
     /**
-     * Find a resource from its primary key
+     * Remove the lists of resources of resource types from the cache. The generation of the lists of each resource type is incremented, so that a
+     * list being loaded with the previous generation is not read again.
+     * 
+     * @param listResourceTypes
+     *            The resource types
+     */
+    public static void invalidateListCache( Collection<String> listResourceTypes )
+    {
+        for ( String strResourceType : listResourceTypes )
+        {
+            ResourceCacheService.getInstance( ).incrementResourceListGeneration( strResourceType );
+        }
+    }
+
+    /**
+     * Find a resource from its primary key. The returned resource is an immutable {@link DatabaseResourceSnapshot} shared with the cache : to modify
+     * the resource, modify a copy created with {@link DatabaseResource#DatabaseResource(IResource)}.
      * 
      * @param nIdResource
      *            the id of the resource
@@ -102,20 +324,162 @@ public final class DatabaseResourceHome
      */
     public static DatabaseResource findByPrimaryKey( int nIdResource )
     {
-        String strCacheKey = ResourceCacheService.getDatabaseResourceCacheKey( Integer.toString( nIdResource ) );
-        DatabaseResource resource = (DatabaseResource) ResourceCacheService.getInstance( ).getFromCache( strCacheKey );
+        IResource resource = findSnapshotByPrimaryKey( nIdResource );
+
+        return ( resource != null ) ? toDatabaseResource( resource ) : null;
+    }
+
+    /**
+     * Find an immutable snapshot of a resource from its primary key. The snapshot is shared with the cache and is not copied.
+     * 
+     * @param nIdResource
+     *            the id of the resource
+     * @return The resource, or null if no resource has the given primary key
+     */
+    public static IResource findSnapshotByPrimaryKey( int nIdResource )
+    {
+        ResourceCacheKey cacheKey = ResourceCacheKey.ofDatabaseResource( nIdResource );
+
+        IResource cachedResource = (IResource) ResourceCacheService.getInstance( ).getFromCache( cacheKey );
 
-        if ( resource == null )
+        // The cache is read before the negative cache, so that an object created since it was declared missing is found
+        if ( cachedResource != null )
         {
-            resource = _dao.findByPrimaryKey( nIdResource, _plugin );
-            ResourceCacheService.getInstance( ).putInCache( strCacheKey, resource.clone( ) );
+            return cachedResource;
         }
-        else
+
+        if ( ResourceNegativeCache.getInstance( ).isMissing( cacheKey ) )
+        {
+            return null;
+        }
+
+        return ResourceCacheService.getInstance( ).load( cacheKey, ( ) -> {
+            // The version is read before the query : a miss is not declared if the object is created during the query
+            long lVersion = ResourceNegativeCache.getInstance( ).getVersion( );
+            DatabaseResource databaseResource = _dao.findByPrimaryKey( nIdResource, _plugin );
+
+            if ( databaseResource == null )
+            {
+                ResourceNegativeCache.getInstance( ).putMissing( cacheKey, lVersion );
+
+                return null;
+            }
+
+            return new DatabaseResourceSnapshot( databaseResource );
+        } );
+    }
+
+    /**
+     * Find several resources from their primary keys. Resources are read like {@link #findSnapshotsByPrimaryKeys(Collection)}, and are returned as
+     * immutable {@link DatabaseResourceSnapshot} shared with the cache.
+     * 
+     * @param listIdResources
+     *            The ids of the resources
+     * @return The list of resources found, in the order of the given ids. Ids that are not associated with any resource are ignored.
+     */
+    public static List<DatabaseResource> findByPrimaryKeys( Collection<Integer> listIdResources )
+    {
+        List<IResource> listSnapshots = findSnapshotsByPrimaryKeys( listIdResources );
+        List<DatabaseResource> listResources = new ArrayList<>( listSnapshots.size( ) );
+
+        for ( IResource resource : listSnapshots )
         {
-            resource = resource.clone( );
+            listResources.add( toDatabaseResource( resource ) );
         }
 
-        return resource;
+        return listResources;
+    }
+
+    /**
+     * Find immutable snapshots of several resources from their primary keys. Resources in cache are read from the cache, other resources are fetched
+     * with as few queries as possible and put in cache.
+     * 
+     * @param listIdResources
+     *            The ids of the resources
+     * @return The list of resources found, in the order of the given ids. Ids that are not associated with any resource are ignored.
+     */
+    public static List<IResource> findSnapshotsByPrimaryKeys( Collection<Integer> listIdResources )
+    {
+        Map<Integer, ResourceCacheKey> mapCacheKeys = new LinkedHashMap<>( );
+
+        for ( Integer nIdResource : listIdResources )
+        {
+            mapCacheKeys.put( nIdResource, ResourceCacheKey.ofDatabaseResource( nIdResource ) );
+        }
+
+        Map<ResourceCacheKey, Object> mapCachedResources = ResourceCacheService.getInstance( ).getAllFromCache( mapCacheKeys.values( ) );
+        Map<Integer, IResource> mapResources = new HashMap<>( );
+        List<Integer> listMissingIds = new ArrayList<>( );
+
+        for ( Map.Entry<Integer, ResourceCacheKey> entry : mapCacheKeys.entrySet( ) )
+        {
+            IResource resource = (IResource) mapCachedResources.get( entry.getValue( ) );
+
+            if ( resource != null )
+            {
+                mapResources.put( entry.getKey( ), resource );
+            }
+            else
+                if ( !ResourceNegativeCache.getInstance( ).isMissing( entry.getValue( ) ) )
+                {
+                    listMissingIds.add( entry.getKey( ) );
+                }
+        }
+
+        if ( !listMissingIds.isEmpty( ) )
+        {
+            DatabaseResourceSort resourceSort = DatabaseResourceSort.getDatabaseResourceSort( null, true );
+            Map<ResourceCacheKey, IResource> mapResourcesToCache = new HashMap<>( );
+            long lVersion = ResourceNegativeCache.getInstance( ).getVersion( );
+
+            int [ ] arrayMissingIds = new int [ listMissingIds.size( )];
+
+            for ( int i = 0; i < arrayMissingIds.length; i++ )
+            {
+                arrayMissingIds [i] = listMissingIds.get( i );
+            }
+
+            for ( int nFrom = 0; nFrom < arrayMissingIds.length; nFrom += CONSTANT_BATCH_SIZE )
+            {
+                int nTo = Math.min( nFrom + CONSTANT_BATCH_SIZE, arrayMissingIds.length );
+
+                for ( DatabaseResource databaseResource : _dao.findByListId( arrayMissingIds, nFrom, nTo, resourceSort, _plugin ) )
+                {
+                    Integer nIdResource = Integer.valueOf( databaseResource.getIdResource( ) );
+                    IResource resource = new DatabaseResourceSnapshot( databaseResource );
+                    mapResources.put( nIdResource, resource );
+                    mapResourcesToCache.put( mapCacheKeys.get( nIdResource ), resource );
+                }
+            }
+
+            ResourceCacheService.getInstance( ).putAllInCache( mapResourcesToCache );
+
+            List<ResourceCacheKey> listMissingKeys = new ArrayList<>( );
+
+            for ( Integer nIdResource : listMissingIds )
+            {
+                if ( !mapResources.containsKey( nIdResource ) )
+                {
+                    listMissingKeys.add( mapCacheKeys.get( nIdResource ) );
+                }
+            }
+
+            ResourceNegativeCache.getInstance( ).putAllMissing( listMissingKeys, lVersion );
+        }
+
+        List<IResource> listResources = new ArrayList<>( mapResources.size( ) );
+
+        for ( Integer nIdResource : mapCacheKeys.keySet( ) )
+        {
+            IResource resource = mapResources.get( nIdResource );
+
+            if ( resource != null )
+            {
+                listResources.add( resource );
+            }
+        }
+
+        return listResources;
     }
 
     /**
@@ -134,10 +498,127 @@ public final class DatabaseResourceHome
      * @param resourceSort
      *            The sort parameters
      * @return The list of ids of resources
+     * @deprecated Use {@link #findAllIdArray(DatabaseResourceFilter, DatabaseResourceSort)} instead, ids are not boxed
      */
+    @Deprecated
     public static List<Integer> findAllId( DatabaseResourceSort resourceSort )
     {
-        return _dao.findAllId( resourceSort, _plugin );
+        int [ ] arrayIds = findAllIdArray( new DatabaseResourceFilter( ), resourceSort );
+        List<Integer> listIds = new ArrayList<>( arrayIds.length );
+
+        for ( int nId : arrayIds )
+        {
+            listIds.add( nId );
+        }
+
+        return listIds;
+    }
+
+    /**
+     * Get the ids of resources that match a filter. Ids are returned in a primitive array, that takes about five times less memory than a list of
+     * boxed ids. Pages of resources are then read with {@link #findByListId(int[], int, int, DatabaseResourceSort)}.
+     * 
+     * @param filter
+     *            The filter of resources
+     * @param resourceSort
+     *            The sort parameters
+     * @return The array of ids of resources
+     */
+    public static int [ ] findAllIdArray( DatabaseResourceFilter filter, DatabaseResourceSort resourceSort )
+    {
+        return _dao.findAllId( filter, resourceSort, _plugin );
+    }
+
+    /**
+     * Count the resources
+     * 
+     * @return The number of resources
+     */
+    public static int countAll( )
+    {
+        return _dao.countAll( _plugin );
+    }
+
+    /**
+     * Count the resources that match a filter
+     * 
+     * @param filter
+     *            The filter of resources
+     * @return The number of resources
+     */
+    public static int countByFilter( DatabaseResourceFilter filter )
+    {
+        return filter.isEmpty( ) ? countAll( ) : _dao.countByFilter( filter, _plugin );
+    }
+
+    /**
+     * Get a page of resources that come after a given resource in the sort order
+     * 
+     * @param resourceSort
+     *            The sort parameters
+     * @param afterResource
+     *            The last resource of the previous page, or null to get the first page
+     * @param nLimit
+     *            The maximum number of resources to get
+     * @return The list of resources of the page
+     */
+    public static List<DatabaseResource> findPage( DatabaseResourceSort resourceSort, DatabaseResource afterResource, int nLimit )
+    {
+        return findPage( new DatabaseResourceFilter( ), resourceSort, afterResource, nLimit );
+    }
+
+    /**
+     * Get a page of resources that match a filter and come after a given resource in the sort order
+     * 
+     * @param filter
+     *            The filter of resources
+     * @param resourceSort
+     *            The sort parameters
+     * @param afterResource
+     *            The last resource of the previous page, or null to get the first page
+     * @param nLimit
+     *            The maximum number of resources to get
+     * @return The list of resources of the page
+     */
+    public static List<DatabaseResource> findPage( DatabaseResourceFilter filter, DatabaseResourceSort resourceSort, DatabaseResource afterResource,
+            int nLimit )
+    {
+        return _dao.findPage( filter, resourceSort, afterResource, nLimit, _plugin );
+    }
+
+    /**
+     * Get a page of resources from its offset. This method should only be used when the last resource of the previous page is not known.
+     * 
+     * @param resourceSort
+     *            The sort parameters
+     * @param nOffset
+     *            The number of resources to skip
+     * @param nLimit
+     *            The maximum number of resources to get
+     * @return The list of resources of the page
+     */
+    public static List<DatabaseResource> findPageAtOffset( DatabaseResourceSort resourceSort, int nOffset, int nLimit )
+    {
+        return findPageAtOffset( new DatabaseResourceFilter( ), resourceSort, nOffset, nLimit );
+    }
+
+    /**
+     * Get a page of resources that match a filter from its offset. This method should only be used when the last resource of the previous page is not
+     * known.
+     * 
+     * @param filter
+     *            The filter of resources
+     * @param resourceSort
+     *            The sort parameters
+     * @param nOffset
+     *            The number of resources to skip
+     * @param nLimit
+     *            The maximum number of resources to get
+     * @return The list of resources of the page
+     */
+    public static List<DatabaseResource> findPageAtOffset( DatabaseResourceFilter filter, DatabaseResourceSort resourceSort, int nOffset, int nLimit )
+    {
+        return _dao.findPageAtOffset( filter, resourceSort, nOffset, nLimit, _plugin );
     }
 
     /**
@@ -148,21 +629,210 @@ public final class DatabaseResourceHome
      * @param resourceSort
      *            The sort parameters
      * @return The list of resources
+     * @deprecated Use {@link #findByListId(int[], int, int, DatabaseResourceSort)} instead, ids are not boxed
      */
+    @Deprecated
     public static List<DatabaseResource> findByListId( List<Integer> listId, DatabaseResourceSort resourceSort )
     {
-        return _dao.findByListId( listId, resourceSort, _plugin );
+        if ( listId == null )
+        {
+            return new ArrayList<>( );
+        }
+
+        int [ ] arrayIds = new int [ listId.size( )];
+
+        for ( int nIndex = 0; nIndex < arrayIds.length; nIndex++ )
+        {
+            arrayIds [nIndex] = listId.get( nIndex );
+        }
+
+        return findByListId( arrayIds, 0, arrayIds.length, resourceSort );
+    }
+
+    /**
+     * Get the list of database resources from a slice of an array of ids, for instance the ids of a page. The slice is read without copying the
+     * array.
+     * 
+     * @param arrayIds
+     *            The array of ids of resources
+     * @param nFromIndex
+     *            The index of the first id to get, inclusive
+     * @param nToIndex
+     *            The index of the last id to get, exclusive
+     * @param resourceSort
+     *            The sort parameters
+     * @return The list of resources, empty if the slice is empty
+     * @throws IndexOutOfBoundsException
+     *             if the first index is negative or the last index is greater than the length of the array
+     */
+    public static List<DatabaseResource> findByListId( int [ ] arrayIds, int nFromIndex, int nToIndex, DatabaseResourceSort resourceSort )
+    {
+        return _dao.findByListId( arrayIds, nFromIndex, nToIndex, resourceSort, _plugin );
     }
 
     /**
-     * Get the list of resources that have a given resource type
+     * Get the list of resources that have a given resource type. The list and its resources are immutable and shared with the cache.
      * 
      * @param strResourceType
      *            The resource type
-     * @return The list of resources, or an empty list if no resource has the given resource type
+     * @return The unmodifiable list of resources, or an empty list if no resource has the given resource type
      */
+    @SuppressWarnings( "unchecked" )
     public static List<DatabaseResource> findByResourceType( String strResourceType )
     {
-        return _dao.findByResourceType( strResourceType, _plugin );
+        // Cached lists only contain instances of DatabaseResourceSnapshot, see findSnapshotsByResourceType
+        return (List<DatabaseResource>) (List<? extends IResource>) findSnapshotsByResourceType( strResourceType );
+    }
+
+    /**
+     * Find immutable snapshots of the resources of a given type. The list is cached until a resource of this type is created, updated or removed.
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @return The unmodifiable list of resources of the given type
+     */
+    public static List<IResource> findSnapshotsByResourceType( String strResourceType )
+    {
+        ResourceCacheKey cacheKey = ResourceCacheService.getResourceListCacheKey( strResourceType );
+
+        return ResourceCacheService.getInstance( ).getOrLoad( cacheKey, ( ) -> {
+            List<DatabaseResource> listDatabaseResources = _dao.findByResourceType( strResourceType, _plugin );
+            List<IResource> listSnapshots = new ArrayList<>( listDatabaseResources.size( ) );
+
+            for ( DatabaseResource databaseResource : listDatabaseResources )
+            {
+                listSnapshots.add( new DatabaseResourceSnapshot( databaseResource ) );
+            }
+
+            return Collections.unmodifiableList( listSnapshots );
+        } );
+    }
+
+    /**
+     * Count the resources that have a given resource type
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @return The number of resources that have the given resource type
+     */
+    public static int countByResourceType( String strResourceType )
+    {
+        return _dao.countByResourceType( strResourceType, _plugin );
+    }
+
+    /**
+     * Check if at least one resource has a given resource type
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @return True if at least one resource has the given resource type, false otherwise
+     */
+    public static boolean existsByResourceType( String strResourceType )
+    {
+        return _dao.existsByResourceType( strResourceType, _plugin );
+    }
+
+    /**
+     * Iterate over the resources that have a given resource type by batches, without loading every resource in memory
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @param nBatchSize
+     *            The maximum number of resources of each batch, greater than 0
+     * @param consumer
+     *            The consumer of batches of resources
+     * @throws IllegalArgumentException
+     *             if the batch size is not greater than 0
+     */
+    public static void forEachBatchByResourceType( String strResourceType, int nBatchSize, Consumer<List<DatabaseResource>> consumer )
+    {
+        if ( nBatchSize <= 0 )
+        {
+            // A batch size of 0 would read empty batches forever
+            throw new IllegalArgumentException( MESSAGE_INVALID_BATCH_SIZE + nBatchSize );
+        }
+
+        _dao.forEachBatchByResourceType( strResourceType, nBatchSize, consumer, _plugin );
+    }
+
+    /**
+     * Get the types of resources
+     * 
+     * @param listResources
+     *            The resources. Null resources are ignored.
+     * @return The set of types of the resources
+     */
+    private static Set<String> getResourceTypes( Collection<? extends IResource> listResources )
+    {
+        Set<String> setResourceTypes = new HashSet<>( );
+
+        for ( IResource resource : listResources )
+        {
+            if ( resource != null )
+            {
+                setResourceTypes.add( resource.getResourceType( ) );
+            }
+        }
+
+        return setResourceTypes;
+    }
+
+    /**
+     * Get the ids of resources
+     * 
+     * @param listResources
+     *            The resources
+     * @return The ids of the resources
+     */
+    private static List<String> getIds( Collection<DatabaseResource> listResources )
+    {
+        List<String> listIds = new ArrayList<>( listResources.size( ) );
+
+        for ( DatabaseResource resource : listResources )
+        {
+            listIds.add( resource.getIdResource( ) );
+        }
+
+        return listIds;
+    }
+
+    /**
+     * Put snapshots of several resources in cache
+     * 
+     * @param listResources
+     *            The resources to put in cache
+     * @return The snapshots of the resources
+     */
+    private static Collection<IResource> putAllInCache( Collection<DatabaseResource> listResources )
+    {
+        Map<ResourceCacheKey, IResource> mapResourcesToCache = new HashMap<>( );
+
+        for ( DatabaseResource resource : listResources )
+        {
+            mapResourcesToCache.put( ResourceCacheKey.ofDatabaseResource( resource.getIdResource( ) ),
+                    new DatabaseResourceSnapshot( resource ) );
+        }
+
+        ResourceNegativeCache.getInstance( ).removeAll( mapResourcesToCache.keySet( ) );
+        ResourceCacheService.getInstance( ).putAllInCache( mapResourcesToCache );
+
+        return mapResourcesToCache.values( );
+    }
+
+    /**
+     * Get a database resource from a cached resource. Cached resources are snapshots, which are returned without being copied.
+     * 
+     * @param resource
+     *            The resource
+     * @return The database resource
+     */
+    private static DatabaseResource toDatabaseResource( IResource resource )
+    {
+        if ( resource instanceof DatabaseResource )
+        {
+            return (DatabaseResource) resource;
+        }
+
+        return new DatabaseResourceSnapshot( resource );
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.database;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+
+/**
+ * Immutable database resource. Snapshots are shared with the cache and returned without being copied : to modify a resource, modify a copy created
+ * with {@link DatabaseResource#DatabaseResource(IResource)}.
+ */
+public final class DatabaseResourceSnapshot extends DatabaseResource
+{
+    private static final long serialVersionUID = 2684571032950196257L;
+    private static final String MESSAGE_IMMUTABLE = "A snapshot of a resource can not be modified, modify a copy of the resource instead";
+
+    /**
+     * Creates a new snapshot
+     * 
+     * @param strIdResource
+     *            The id of the resource
+     * @param strResourceType
+     *            The resource type
+     * @param strResourceName
+     *            The resource name
+     */
+    public DatabaseResourceSnapshot( String strIdResource, String strResourceType, String strResourceName )
+    {
+        super( strIdResource, strResourceType, strResourceName );
+    }
+
+    /**
+     * Creates a new snapshot of a resource
+     * 
+     * @param resource
+     *            The resource
+     */
+    public DatabaseResourceSnapshot( IResource resource )
+    {
+        this( resource.getIdResource( ), resource.getResourceType( ), resource.getResourceName( ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws UnsupportedOperationException
+     *             always, a snapshot can not be modified
+     */
+    @Override
+    protected void setIdResource( int nIdResource )
+    {
+        throw new UnsupportedOperationException( MESSAGE_IMMUTABLE );
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws UnsupportedOperationException
+     *             always, a snapshot can not be modified
+     */
+    @Override
+    public void setResourceType( String strResourceType )
+    {
+        throw new UnsupportedOperationException( MESSAGE_IMMUTABLE );
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws UnsupportedOperationException
+     *             always, a snapshot can not be modified
+     */
+    @Override
+    public void setResourceName( String strResourceName )
+    {
+        throw new UnsupportedOperationException( MESSAGE_IMMUTABLE );
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * The clone of a snapshot is a mutable copy of the resource, so that code that clones a resource to modify it keeps working.
+     */
+    @Override
+    public DatabaseResource clone( )
+    {
+        return new DatabaseResource( this );
+    }
+}
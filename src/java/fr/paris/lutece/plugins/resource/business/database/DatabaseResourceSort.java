@@ -79,6 +79,63 @@ public final class DatabaseResourceSort
         return _bSortAsc;
     }
 
+    /**
+     * Check if this sort is a sort on the id of resources
+     * 
+     * @return True if resources are sorted by id, false otherwise
+     */
+    public boolean isSortById( )
+    {
+        return SORT_COLUMN_ID.equals( _strSort );
+    }
+
+    /**
+     * Get the value of the sort column of a resource
+     * 
+     * @param resource
+     *            The resource
+     * @return The value of the sort column of the resource
+     */
+    public String getSortValue( DatabaseResource resource )
+    {
+        if ( SORT_COLUMN_RESOURCE_TYPE.equals( _strSort ) )
+        {
+            return resource.getResourceType( );
+        }
+
+        if ( SORT_COLUMN_RESOURCE_NAME.equals( _strSort ) )
+        {
+            return resource.getResourceName( );
+        }
+
+        return resource.getIdResource( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals( Object other )
+    {
+        if ( !( other instanceof DatabaseResourceSort ) )
+        {
+            return false;
+        }
+
+        DatabaseResourceSort otherSort = (DatabaseResourceSort) other;
+
+        return _strSort.equals( otherSort._strSort ) && ( _bSortAsc == otherSort._bSortAsc );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode( )
+    {
+        return ( 31 * _strSort.hashCode( ) ) + ( _bSortAsc ? 1 : 0 );
+    }
+
     /**
      * Get a sort from a column name
      * 
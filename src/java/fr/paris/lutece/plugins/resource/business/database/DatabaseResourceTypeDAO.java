@@ -33,6 +33,8 @@
  */
 package fr.paris.lutece.plugins.resource.business.database;
 
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceTimer;
 import fr.paris.lutece.portal.service.plugin.Plugin;
 import fr.paris.lutece.util.sql.DAOUtil;
 
@@ -50,6 +52,12 @@ public class DatabaseResourceTypeDAO implements IDatabaseResourceTypeDAO
     private static final String SQL_QUERY_INSERT_RESOURCE_TYPE = " INSERT INTO resource_resource_type( resource_type_name, resource_type_description ) VALUES (?,?) ";
     private static final String SQL_QUERY_UPDATE_RESOURCE_TYPE = " UPDATE resource_resource_type SET resource_type_description = ? WHERE resource_type_name = ? ";
     private static final String SQL_QUERY_DELETE_RESOURCE_TYPE = " DELETE FROM resource_resource_type WHERE resource_type_name = ? ";
+    private static final String METRIC_INSERT = "dao.databaseResourceType.insert";
+    private static final String METRIC_UPDATE = "dao.databaseResourceType.update";
+    private static final String METRIC_DELETE = "dao.databaseResourceType.delete";
+    private static final String METRIC_FIND_BY_PRIMARY_KEY = "dao.databaseResourceType.findByPrimaryKey";
+    private static final String METRIC_FIND_ALL = "dao.databaseResourceType.findAll";
+    private static final String METRIC_GET_RESOURCE_TYPES_LIST = "dao.databaseResourceType.getResourceTypesList";
 
     /**
      * {@inheritDoc}
@@ -57,7 +65,8 @@ public class DatabaseResourceTypeDAO implements IDatabaseResourceTypeDAO
     @Override
     public void insert( DatabaseResourceType resourceType, Plugin plugin )
     {
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT_RESOURCE_TYPE, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_INSERT );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT_RESOURCE_TYPE, plugin ) )
         {
             int nIndex = 1;
             daoUtil.setString( nIndex++, resourceType.getResourceTypeName( ) );
@@ -72,7 +81,8 @@ public class DatabaseResourceTypeDAO implements IDatabaseResourceTypeDAO
     @Override
     public void update( DatabaseResourceType resourceType, Plugin plugin )
     {
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_UPDATE_RESOURCE_TYPE, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_UPDATE );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_UPDATE_RESOURCE_TYPE, plugin ) )
         {
             int nIndex = 1;
             daoUtil.setString( nIndex++, resourceType.getResourceTypeDescription( ) );
@@ -87,7 +97,8 @@ public class DatabaseResourceTypeDAO implements IDatabaseResourceTypeDAO
     @Override
     public void delete( String strResourceType, Plugin plugin )
     {
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_RESOURCE_TYPE, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_DELETE );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_RESOURCE_TYPE, plugin ) )
         {
             daoUtil.setString( 1, strResourceType );
             daoUtil.executeUpdate( );
@@ -101,7 +112,8 @@ public class DatabaseResourceTypeDAO implements IDatabaseResourceTypeDAO
     public DatabaseResourceType findByPrimaryKey( String strResourceType, Plugin plugin )
     {
         DatabaseResourceType resourceType = null;
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_TYPE_BY_ID, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FIND_BY_PRIMARY_KEY );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_TYPE_BY_ID, plugin ) )
         {
             daoUtil.setString( 1, strResourceType );
             daoUtil.executeQuery( );
@@ -122,7 +134,8 @@ public class DatabaseResourceTypeDAO implements IDatabaseResourceTypeDAO
     public List<DatabaseResourceType> findAll( Plugin plugin )
     {
         List<DatabaseResourceType> listResourceTypes = new ArrayList<>( );
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_TYPE, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_FIND_ALL );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_TYPE, plugin ) )
         {
             daoUtil.executeQuery( );
 
@@ -142,7 +155,8 @@ public class DatabaseResourceTypeDAO implements IDatabaseResourceTypeDAO
     public List<String> getResourceTypesList( Plugin plugin )
     {
         List<String> listResourceTypes = new ArrayList<>( );
-        try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_TYPE_NAMES, plugin ) )
+        try ( ResourceTimer timer = ResourceMetricsService.startTimer( METRIC_GET_RESOURCE_TYPES_LIST );
+                DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESOURCE_TYPE_NAMES, plugin ) )
         {
             daoUtil.executeQuery( );
 
@@ -33,13 +33,23 @@
  */
 package fr.paris.lutece.plugins.resource.business.database;
 
+import fr.paris.lutece.plugins.resource.business.IResourceType;
+import fr.paris.lutece.plugins.resource.business.ResourceTypeDefaultImplementation;
 import fr.paris.lutece.plugins.resource.service.ResourceCacheService;
+import fr.paris.lutece.plugins.resource.service.ResourceChangeLogService;
+import fr.paris.lutece.plugins.resource.service.ResourceNegativeCache;
 import fr.paris.lutece.plugins.resource.service.ResourcePlugin;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+import fr.paris.lutece.plugins.resource.service.ResourceService;
 import fr.paris.lutece.portal.service.plugin.Plugin;
 import fr.paris.lutece.portal.service.plugin.PluginService;
 import fr.paris.lutece.portal.service.spring.SpringContextService;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Database resource home
@@ -48,6 +58,10 @@ public final class DatabaseResourceTypeHome
 {
     private static IDatabaseResourceTypeDAO _dao = SpringContextService.getBean( IDatabaseResourceTypeDAO.BEAN_NAME );
     private static Plugin _plugin = PluginService.getPlugin( ResourcePlugin.PLUGIN_NAME );
+    private static final Object LOCK_RESOURCE_TYPE_NAMES = new Object( );
+
+    // Immutable snapshot of the names of resource types. It is replaced each time a resource type is created or removed.
+    private static volatile Set<String> _setResourceTypeNames;
 
     /**
      * Default constructor
@@ -65,10 +79,16 @@ public final class DatabaseResourceTypeHome
      */
     public static void insert( DatabaseResourceType resourceType )
     {
-        _dao.insert( resourceType, _plugin );
-        ResourceCacheService.getInstance( ).putInCache( ResourceCacheService.getResourceTypeCacheKey( resourceType.getResourceTypeName( ) ),
-                resourceType.clone( ) );
-        ResourceCacheService.getInstance( ).removeKey( ResourceCacheService.getResourceTypesListCacheKey( ) );
+        ResourceTransactionHelper.executeWrite( _plugin, ( ) -> {
+            _dao.insert( resourceType, _plugin );
+            ResourceChangeLogService.getInstance( ).logChange( ResourceChangeLogService.FAMILY_RESOURCE_TYPE, resourceType.getResourceTypeName( ) );
+        } );
+        addResourceTypeName( resourceType.getResourceTypeName( ) );
+
+        ResourceCacheKey cacheKey = ResourceCacheKey.ofResourceType( resourceType.getResourceTypeName( ) );
+        ResourceNegativeCache.getInstance( ).remove( cacheKey );
+        ResourceCacheService.getInstance( ).putInCache( cacheKey, toSnapshot( resourceType ) );
+        ResourceService.getInstance( ).resourceTypeCreated( resourceType.getResourceTypeName( ) );
     }
 
     /**
@@ -79,10 +99,14 @@ public final class DatabaseResourceTypeHome
      */
     public static void update( DatabaseResourceType resourceType )
     {
-        _dao.update( resourceType, _plugin );
-        ResourceCacheService.getInstance( ).putInCache( ResourceCacheService.getResourceTypeCacheKey( resourceType.getResourceTypeName( ) ),
-                resourceType.clone( ) );
-        ResourceCacheService.getInstance( ).removeKey( ResourceCacheService.getResourceTypesListCacheKey( ) );
+        ResourceTransactionHelper.executeWrite( _plugin, ( ) -> {
+            _dao.update( resourceType, _plugin );
+            ResourceChangeLogService.getInstance( ).logChange( ResourceChangeLogService.FAMILY_RESOURCE_TYPE, resourceType.getResourceTypeName( ) );
+        } );
+        addResourceTypeName( resourceType.getResourceTypeName( ) );
+        ResourceCacheService.getInstance( ).putInCache( ResourceCacheKey.ofResourceType( resourceType.getResourceTypeName( ) ),
+                toSnapshot( resourceType ) );
+        ResourceCacheService.getInstance( ).removeKey( ResourceCacheKey.ofResourceTypeList( ) );
     }
 
     /**
@@ -93,13 +117,38 @@ public final class DatabaseResourceTypeHome
      */
     public static void delete( String strResourceType )
     {
-        _dao.delete( strResourceType, _plugin );
-        ResourceCacheService.getInstance( ).removeKey( ResourceCacheService.getResourceTypeCacheKey( strResourceType ) );
-        ResourceCacheService.getInstance( ).removeKey( ResourceCacheService.getResourceTypesListCacheKey( ) );
+        ResourceTransactionHelper.executeWrite( _plugin, ( ) -> {
+            _dao.delete( strResourceType, _plugin );
+            ResourceChangeLogService.getInstance( ).logChange( ResourceChangeLogService.FAMILY_RESOURCE_TYPE, strResourceType );
+        } );
+        removeResourceTypeName( strResourceType );
+        ResourceCacheService.getInstance( ).removeKey( ResourceCacheKey.ofResourceType( strResourceType ) );
+        ResourceService.getInstance( ).resourceTypeRemoved( strResourceType );
+    }
+
+    /**
+     * Remove a resource type from the cache. This method is used to remove resource types changed by another webapp that shares the same database.
+     * 
+     * @param strResourceType
+     *            the name of the resource type
+     */
+    public static void invalidateCache( String strResourceType )
+    {
+        synchronized( LOCK_RESOURCE_TYPE_NAMES )
+        {
+            // The resource type may have been created or removed, names are reloaded on next access
+            _setResourceTypeNames = null;
+        }
+
+        ResourceCacheKey cacheKey = ResourceCacheKey.ofResourceType( strResourceType );
+        ResourceCacheService.getInstance( ).removeKey( cacheKey );
+        ResourceNegativeCache.getInstance( ).remove( cacheKey );
+        ResourceService.getInstance( ).resourceTypeRemoved( strResourceType );
     }
 
     /**
-     * Find a resource from its primary key
+     * Find a resource from its primary key. The returned resource type is a new copy that can be modified. To only read the resource type, use
+     * {@link #findSnapshotByPrimaryKey(String)} instead.
      * 
      * @param strResourceType
      *            the id of the resource
@@ -107,24 +156,58 @@ public final class DatabaseResourceTypeHome
      */
     public static DatabaseResourceType findByPrimaryKey( String strResourceType )
     {
-        String strCacheKey = ResourceCacheService.getResourceTypeCacheKey( strResourceType );
-        DatabaseResourceType resourceType = (DatabaseResourceType) ResourceCacheService.getInstance( ).getFromCache( strCacheKey );
+        IResourceType resourceType = findSnapshotByPrimaryKey( strResourceType );
 
         if ( resourceType == null )
         {
-            resourceType = _dao.findByPrimaryKey( strResourceType, _plugin );
+            return null;
+        }
 
-            if ( resourceType != null )
-            {
-                ResourceCacheService.getInstance( ).putInCache( strCacheKey, resourceType.clone( ) );
-            }
+        DatabaseResourceType databaseResourceType = new DatabaseResourceType( );
+        databaseResourceType.setResourceTypeName( resourceType.getResourceTypeName( ) );
+        databaseResourceType.setResourceTypeDescription( resourceType.getResourceTypeDescription( ) );
+
+        return databaseResourceType;
+    }
+
+    /**
+     * Find an immutable snapshot of a resource type from its primary key. The snapshot is shared with the cache and is not copied.
+     * 
+     * @param strResourceType
+     *            the name of the resource type
+     * @return The resource type, or null if no resource type has the given primary key
+     */
+    public static IResourceType findSnapshotByPrimaryKey( String strResourceType )
+    {
+        ResourceCacheKey cacheKey = ResourceCacheKey.ofResourceType( strResourceType );
+
+        IResourceType cachedResourceType = (IResourceType) ResourceCacheService.getInstance( ).getFromCache( cacheKey );
+
+        // The cache is read before the negative cache, so that an object created since it was declared missing is found
+        if ( cachedResourceType != null )
+        {
+            return cachedResourceType;
         }
-        else
+
+        if ( ResourceNegativeCache.getInstance( ).isMissing( cacheKey ) )
         {
-            resourceType = resourceType.clone( );
+            return null;
         }
 
-        return resourceType;
+        return ResourceCacheService.getInstance( ).load( cacheKey, ( ) -> {
+            // The version is read before the query : a miss is not declared if the object is created during the query
+            long lVersion = ResourceNegativeCache.getInstance( ).getVersion( );
+            DatabaseResourceType databaseResourceType = _dao.findByPrimaryKey( strResourceType, _plugin );
+
+            if ( databaseResourceType == null )
+            {
+                ResourceNegativeCache.getInstance( ).putMissing( cacheKey, lVersion );
+
+                return null;
+            }
+
+            return toSnapshot( databaseResourceType );
+        } );
     }
 
     /**
@@ -144,6 +227,98 @@ public final class DatabaseResourceTypeHome
      */
     public static List<String> getResourceTypesList( )
     {
-        return _dao.getResourceTypesList( _plugin );
+        return new ArrayList<>( getResourceTypeNames( ) );
+    }
+
+    /**
+     * Check if a resource type exists. This method does not query the database once the names of resource types have been loaded.
+     * 
+     * @param strResourceType
+     *            The name of the resource type
+     * @return True if the resource type exists, false otherwise
+     */
+    public static boolean isResourceTypeExisting( String strResourceType )
+    {
+        return getResourceTypeNames( ).contains( strResourceType );
+    }
+
+    /**
+     * Get the snapshot of the names of resource types, and load it if it has not been loaded yet
+     * 
+     * @return The set of names of resource types
+     */
+    private static Set<String> getResourceTypeNames( )
+    {
+        Set<String> setResourceTypeNames = _setResourceTypeNames;
+
+        if ( setResourceTypeNames == null )
+        {
+            synchronized( LOCK_RESOURCE_TYPE_NAMES )
+            {
+                setResourceTypeNames = _setResourceTypeNames;
+
+                if ( setResourceTypeNames == null )
+                {
+                    setResourceTypeNames = Collections.unmodifiableSet( new HashSet<>( _dao.getResourceTypesList( _plugin ) ) );
+                    _setResourceTypeNames = setResourceTypeNames;
+                }
+            }
+        }
+
+        return setResourceTypeNames;
+    }
+
+    /**
+     * Add a name to the snapshot of the names of resource types
+     * 
+     * @param strResourceType
+     *            The name of the resource type
+     */
+    private static void addResourceTypeName( String strResourceType )
+    {
+        synchronized( LOCK_RESOURCE_TYPE_NAMES )
+        {
+            Set<String> setResourceTypeNames = _setResourceTypeNames;
+
+            if ( ( setResourceTypeNames != null ) && !setResourceTypeNames.contains( strResourceType ) )
+            {
+                Set<String> setNewResourceTypeNames = new HashSet<>( setResourceTypeNames );
+                setNewResourceTypeNames.add( strResourceType );
+                _setResourceTypeNames = Collections.unmodifiableSet( setNewResourceTypeNames );
+            }
+        }
+    }
+
+    /**
+     * Remove a name from the snapshot of the names of resource types
+     * 
+     * @param strResourceType
+     *            The name of the resource type
+     */
+    private static void removeResourceTypeName( String strResourceType )
+    {
+        synchronized( LOCK_RESOURCE_TYPE_NAMES )
+        {
+            Set<String> setResourceTypeNames = _setResourceTypeNames;
+
+            if ( ( setResourceTypeNames != null ) && setResourceTypeNames.contains( strResourceType ) )
+            {
+                Set<String> setNewResourceTypeNames = new HashSet<>( setResourceTypeNames );
+                setNewResourceTypeNames.remove( strResourceType );
+                _setResourceTypeNames = Collections.unmodifiableSet( setNewResourceTypeNames );
+            }
+        }
+    }
+
+    /**
+     * Get an immutable snapshot of a resource type
+     * 
+     * @param resourceType
+     *            The resource type
+     * @return The immutable snapshot
+     */
+    private static IResourceType toSnapshot( DatabaseResourceType resourceType )
+    {
+        return new ResourceTypeDefaultImplementation( resourceType.getResourceTypeName( ), resourceType.getResourceTypeDescription( ) );
     }
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.database;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.util.AppException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Id allocator that reserves blocks of ids in the table resource_id_block. <br />
+ * Blocks are reserved with an optimistic update of the next available id, so that several webapps sharing the same database never get the same block.
+ * Ids of a reserved block are then allocated in memory without any lock or query. <br />
+ * Blocks are reserved on a dedicated connection in auto-commit mode, outside the transaction of the caller : a reservation is committed at once, so the row
+ * of the block is not locked until the end of the transaction of the caller, each attempt reads the last committed value whatever the isolation level,
+ * and a block stays reserved when the transaction of the caller is rolled back.
+ */
+public class HiLoDatabaseResourceIdAllocator implements IDatabaseResourceIdAllocator
+{
+    private static final String SQL_QUERY_SELECT_NEXT_ID = " SELECT next_id FROM resource_id_block WHERE block_name = ? ";
+    private static final String SQL_QUERY_UPDATE_NEXT_ID = " UPDATE resource_id_block SET next_id = ? WHERE block_name = ? AND next_id = ? ";
+    private static final String DEFAULT_BLOCK_NAME = "resource_resource";
+    private static final int DEFAULT_BLOCK_SIZE = 50;
+    private static final int MAX_RESERVATION_ATTEMPTS = 100;
+    private String _strBlockName = DEFAULT_BLOCK_NAME;
+    private int _nBlockSize = DEFAULT_BLOCK_SIZE;
+    private volatile IdBlock _block;
+
+    /**
+     * Set the name of the block of ids in the table resource_id_block
+     * 
+     * @param strBlockName
+     *            The name of the block
+     */
+    public void setBlockName( String strBlockName )
+    {
+        _strBlockName = strBlockName;
+    }
+
+    /**
+     * Set the number of ids to reserve each time the current block is exhausted
+     * 
+     * @param nBlockSize
+     *            The number of ids to reserve
+     */
+    public void setBlockSize( int nBlockSize )
+    {
+        _nBlockSize = Math.max( 1, nBlockSize );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int allocateId( Plugin plugin )
+    {
+        while ( true )
+        {
+            IdBlock block = _block;
+
+            if ( block != null )
+            {
+                int nId = block._nNextId.getAndIncrement( );
+
+                if ( nId <= block._nLastId )
+                {
+                    return nId;
+                }
+            }
+
+            synchronized( this )
+            {
+                // Only one thread reserves a new block, others use it once it is published
+                if ( _block == block )
+                {
+                    int nFirstId = reserveBlock( plugin );
+                    _block = new IdBlock( nFirstId, nFirstId + _nBlockSize - 1 );
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserve a new block of ids in the database, on a dedicated connection
+     * 
+     * @param plugin
+     *            The plugin
+     * @return The first id of the reserved block
+     */
+    private int reserveBlock( Plugin plugin )
+    {
+        Connection connection = null;
+
+        try
+        {
+            connection = getConnection( plugin );
+
+            for ( int nAttempt = 0; nAttempt < MAX_RESERVATION_ATTEMPTS; nAttempt++ )
+            {
+                int nNextId = readNextId( connection );
+
+                if ( compareAndSetNextId( connection, nNextId, nNextId + _nBlockSize ) )
+                {
+                    return nNextId;
+                }
+
+                // Another webapp reserved a block in the meantime, try again
+            }
+        }
+        catch( SQLException e )
+        {
+            throw new AppException( "Could not reserve a block of ids named '" + _strBlockName + "' : " + e.getMessage( ), e );
+        }
+        finally
+        {
+            if ( connection != null )
+            {
+                freeConnection( plugin, connection );
+            }
+        }
+
+        throw new AppException( "Could not reserve a block of ids named '" + _strBlockName + "'" );
+    }
+
+    /**
+     * Get a connection of the pool of the plugin, distinct from the connection of the current transaction
+     * 
+     * @param plugin
+     *            The plugin
+     * @return The connection, in auto-commit mode
+     * @throws SQLException
+     *             If the auto-commit mode can not be set
+     */
+    Connection getConnection( Plugin plugin ) throws SQLException
+    {
+        Connection connection = plugin.getConnectionService( ).getConnection( );
+
+        try
+        {
+            if ( !connection.getAutoCommit( ) )
+            {
+                connection.setAutoCommit( true );
+            }
+        }
+        catch( SQLException e )
+        {
+            plugin.getConnectionService( ).freeConnection( connection );
+            throw e;
+        }
+
+        return connection;
+    }
+
+    /**
+     * Give a connection back to the pool of the plugin
+     * 
+     * @param plugin
+     *            The plugin
+     * @param connection
+     *            The connection
+     */
+    void freeConnection( Plugin plugin, Connection connection )
+    {
+        plugin.getConnectionService( ).freeConnection( connection );
+    }
+
+    /**
+     * Read the next available id of the block
+     * 
+     * @param connection
+     *            The connection
+     * @return The next available id
+     * @throws SQLException
+     *             If the query fails
+     */
+    int readNextId( Connection connection ) throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement( SQL_QUERY_SELECT_NEXT_ID ) )
+        {
+            statement.setString( 1, _strBlockName );
+
+            try ( ResultSet resultSet = statement.executeQuery( ) )
+            {
+                if ( !resultSet.next( ) )
+                {
+                    throw new AppException( "No block of ids named '" + _strBlockName + "' has been found in the table resource_id_block" );
+                }
+
+                return resultSet.getInt( 1 );
+            }
+        }
+    }
+
+    /**
+     * Set the next available id of the block, if it has not been changed since it was read
+     * 
+     * @param connection
+     *            The connection
+     * @param nExpectedNextId
+     *            The next available id that was read
+     * @param nNewNextId
+     *            The new next available id
+     * @return True if the next available id has been set, false if another webapp changed it in the meantime
+     * @throws SQLException
+     *             If the query fails
+     */
+    boolean compareAndSetNextId( Connection connection, int nExpectedNextId, int nNewNextId ) throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement( SQL_QUERY_UPDATE_NEXT_ID ) )
+        {
+            int nIndex = 1;
+            statement.setInt( nIndex++, nNewNextId );
+            statement.setString( nIndex++, _strBlockName );
+            statement.setInt( nIndex, nExpectedNextId );
+
+            return statement.executeUpdate( ) == 1;
+        }
+    }
+
+    /**
+     * Block of reserved ids
+     */
+    private static final class IdBlock
+    {
+        private final AtomicInteger _nNextId;
+        private final int _nLastId;
+
+        /**
+         * Creates a new block
+         * 
+         * @param nFirstId
+         *            The first id of the block
+         * @param nLastId
+         *            The last id of the block
+         */
+        private IdBlock( int nFirstId, int nLastId )
+        {
+            _nNextId = new AtomicInteger( nFirstId );
+            _nLastId = nLastId;
+        }
+    }
+}
@@ -35,7 +35,9 @@ package fr.paris.lutece.plugins.resource.business.database;
 
 import fr.paris.lutece.portal.service.plugin.Plugin;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface of DAO to manage database resources
@@ -48,14 +50,15 @@ public interface IDatabaseResourceDAO
     String BEAN_NAME = "resource.databaseResourceDAO";
 
     /**
-     * insert a new resource into the database
+     * insert a new resource into the database. The id of the given resource is not changed, the caller sets it once the insert is committed.
      * 
      * @param resource
      *            The resource to creates
      * @param plugin
      *            The plugin
+     * @return The id of the new resource
      */
-    void insert( DatabaseResource resource, Plugin plugin );
+    int insert( DatabaseResource resource, Plugin plugin );
 
     /**
      * Updates a database resource
@@ -77,6 +80,38 @@ public interface IDatabaseResourceDAO
      */
     void delete( int nIdResource, Plugin plugin );
 
+    /**
+     * Insert several resources into the database with batch statements. Ids of the given resources are not changed, the caller sets them once the
+     * inserts are committed.
+     * 
+     * @param listResources
+     *            The resources to create
+     * @param plugin
+     *            The plugin
+     * @return The ids of the new resources, in the iteration order of the given collection
+     */
+    int [ ] insertAll( Collection<DatabaseResource> listResources, Plugin plugin );
+
+    /**
+     * Updates several database resources with batch statements
+     * 
+     * @param listResources
+     *            The resources
+     * @param plugin
+     *            The plugin
+     */
+    void updateAll( Collection<DatabaseResource> listResources, Plugin plugin );
+
+    /**
+     * Remove several resources from the database with batch statements
+     * 
+     * @param listIdResources
+     *            The ids of the resources
+     * @param plugin
+     *            The plugin
+     */
+    void deleteAll( Collection<Integer> listIdResources, Plugin plugin );
+
     /**
      * Find a resource from its primary key
      * 
@@ -100,26 +135,91 @@ public interface IDatabaseResourceDAO
     /**
      * Get the list of resource ids
      * 
+     * @param filter
+     *            The filter of resources
      * @param resourceSort
      *            The sort parameters
      * @param plugin
      *            The plugin
-     * @return the list of resource ids
+     * @return the array of resource ids. Ids are not boxed, so that the ids of large tables can be kept in memory.
      */
-    List<Integer> findAllId( DatabaseResourceSort resourceSort, Plugin plugin );
+    int [ ] findAllId( DatabaseResourceFilter filter, DatabaseResourceSort resourceSort, Plugin plugin );
 
     /**
-     * Get the list of database resources from an id list
+     * Count the resources
      * 
-     * @param listId
-     *            The list of ids of resources to get
+     * @param plugin
+     *            The plugin
+     * @return The number of resources
+     */
+    int countAll( Plugin plugin );
+
+    /**
+     * Count the resources that match a filter
+     * 
+     * @param filter
+     *            The filter of resources
+     * @param plugin
+     *            The plugin
+     * @return The number of resources
+     */
+    int countByFilter( DatabaseResourceFilter filter, Plugin plugin );
+
+    /**
+     * Get a page of resources that come after a given resource in the sort order. The page is found with seek predicates on the sort column and the id
+     * of resources, so that its cost does not depend on its position.
+     * 
+     * @param filter
+     *            The filter of resources
      * @param resourceSort
      *            The sort parameters
+     * @param afterResource
+     *            The last resource of the previous page, or null to get the first page
+     * @param nLimit
+     *            The maximum number of resources to get
      * @param plugin
      *            The plugin
-     * @return The list of resources
+     * @return The list of resources of the page
      */
-    List<DatabaseResource> findByListId( List<Integer> listId, DatabaseResourceSort resourceSort, Plugin plugin );
+    List<DatabaseResource> findPage( DatabaseResourceFilter filter, DatabaseResourceSort resourceSort, DatabaseResource afterResource,
+            int nLimit, Plugin plugin );
+
+    /**
+     * Get a page of resources from its offset. This method should only be used when the last resource of the previous page is not known.
+     * 
+     * @param filter
+     *            The filter of resources
+     * @param resourceSort
+     *            The sort parameters
+     * @param nOffset
+     *            The number of resources to skip
+     * @param nLimit
+     *            The maximum number of resources to get
+     * @param plugin
+     *            The plugin
+     * @return The list of resources of the page
+     */
+    List<DatabaseResource> findPageAtOffset( DatabaseResourceFilter filter, DatabaseResourceSort resourceSort, int nOffset, int nLimit,
+            Plugin plugin );
+
+    /**
+     * Get the list of database resources from a slice of an array of ids
+     * 
+     * @param arrayIds
+     *            The array of ids of resources
+     * @param nFromIndex
+     *            The index of the first id to get, inclusive
+     * @param nToIndex
+     *            The index of the last id to get, exclusive
+     * @param resourceSort
+     *            The sort parameters
+     * @param plugin
+     *            The plugin
+     * @return The list of resources, empty if the slice is empty
+     * @throws IndexOutOfBoundsException
+     *             if the first index is negative or the last index is greater than the length of the array
+     */
+    List<DatabaseResource> findByListId( int [ ] arrayIds, int nFromIndex, int nToIndex, DatabaseResourceSort resourceSort, Plugin plugin );
 
     /**
      * Get the list of resources that have a given resource type
@@ -131,4 +231,41 @@ public interface IDatabaseResourceDAO
      * @return The list of resources, or an empty list if no resource has the given resource type
      */
     List<DatabaseResource> findByResourceType( String strResourceType, Plugin plugin );
+
+    /**
+     * Count the resources that have a given resource type
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @param plugin
+     *            The plugin
+     * @return The number of resources that have the given resource type
+     */
+    int countByResourceType( String strResourceType, Plugin plugin );
+
+    /**
+     * Check if at least one resource has a given resource type
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @param plugin
+     *            The plugin
+     * @return True if at least one resource has the given resource type, false otherwise
+     */
+    boolean existsByResourceType( String strResourceType, Plugin plugin );
+
+    /**
+     * Iterate over the resources that have a given resource type by batches. Each batch is read with its own query, so that memory usage does not depend
+     * on the number of resources.
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @param nBatchSize
+     *            The maximum number of resources of each batch
+     * @param consumer
+     *            The consumer of batches of resources
+     * @param plugin
+     *            The plugin
+     */
+    void forEachBatchByResourceType( String strResourceType, int nBatchSize, Consumer<List<DatabaseResource>> consumer, Plugin plugin );
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.database;
+
+import fr.paris.lutece.plugins.resource.service.ResourceChangeLogService;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.util.sql.TransactionManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Helper that runs writes of database resources and resource types. <br />
+ * A single write only needs a transaction when the change log is enabled, so that the change is logged if and only if the write is committed. Writes of
+ * several rows are always run in a single transaction.
+ */
+final class ResourceTransactionHelper
+{
+    /**
+     * Default constructor
+     */
+    private ResourceTransactionHelper( )
+    {
+        // Nothing to do
+    }
+
+    /**
+     * Run a single write, in a transaction if the change log is enabled
+     * 
+     * @param plugin
+     *            The plugin
+     * @param action
+     *            The write to run
+     */
+    static void executeWrite( Plugin plugin, Runnable action )
+    {
+        executeWrite( plugin, ( ) -> {
+            action.run( );
+
+            return null;
+        } );
+    }
+
+    /**
+     * Run a single write, in a transaction if the change log is enabled
+     * 
+     * @param <T>
+     *            The type of the result of the write
+     * @param plugin
+     *            The plugin
+     * @param action
+     *            The write to run
+     * @return The result of the write
+     */
+    static <T> T executeWrite( Plugin plugin, Supplier<T> action )
+    {
+        if ( !ResourceChangeLogService.getInstance( ).isEnabled( ) )
+        {
+            return action.get( );
+        }
+
+        return executeInTransaction( plugin, action );
+    }
+
+    /**
+     * Run an action in a transaction. The transaction is rolled back if the action fails.
+     * 
+     * @param plugin
+     *            The plugin
+     * @param action
+     *            The action to run
+     */
+    static void executeInTransaction( Plugin plugin, Runnable action )
+    {
+        executeInTransaction( plugin, ( ) -> {
+            action.run( );
+
+            return null;
+        } );
+    }
+
+    /**
+     * Run an action in a transaction. The transaction is rolled back if the action fails.
+     * 
+     * @param <T>
+     *            The type of the result of the action
+     * @param plugin
+     *            The plugin
+     * @param action
+     *            The action to run
+     * @return The result of the action
+     */
+    static <T> T executeInTransaction( Plugin plugin, Supplier<T> action )
+    {
+        TransactionManager.beginTransaction( plugin );
+
+        try
+        {
+            T result = action.get( );
+            TransactionManager.commitTransaction( plugin );
+
+            return result;
+        }
+        catch( RuntimeException e )
+        {
+            TransactionManager.rollBack( plugin );
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.database;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.util.AppException;
+import fr.paris.lutece.util.sql.DAOUtil;
+
+/**
+ * Id allocator that reads ids from a database sequence. <br />
+ * The query depends on the database, and must be set with {@link #setSequenceQuery(String)}. For example :
+ * <ul>
+ * <li>PostgreSQL : <code>SELECT nextval('resource_resource_seq')</code></li>
+ * <li>HSQLDB : <code>CALL NEXT VALUE FOR resource_resource_seq</code></li>
+ * <li>Oracle : <code>SELECT resource_resource_seq.NEXTVAL FROM DUAL</code></li>
+ * </ul>
+ * Values read from a sequence are never given back when the transaction of the caller is rolled back, so the sequence can be read on the connection of
+ * this transaction.
+ */
+public class SequenceDatabaseResourceIdAllocator implements IDatabaseResourceIdAllocator
+{
+    private static final String DEFAULT_SEQUENCE_QUERY = " SELECT nextval('resource_resource_seq') ";
+    private String _strSequenceQuery = DEFAULT_SEQUENCE_QUERY;
+
+    /**
+     * Set the query that reads the next value of the sequence
+     * 
+     * @param strSequenceQuery
+     *            The query
+     */
+    public void setSequenceQuery( String strSequenceQuery )
+    {
+        _strSequenceQuery = strSequenceQuery;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int allocateId( Plugin plugin )
+    {
+        try ( DAOUtil daoUtil = new DAOUtil( _strSequenceQuery, plugin ) )
+        {
+            daoUtil.executeQuery( );
+
+            if ( daoUtil.next( ) )
+            {
+                return daoUtil.getInt( 1 );
+            }
+        }
+
+        throw new AppException( "The sequence query did not return any value : " + _strSequenceQuery );
+    }
+}
@@ -33,10 +33,35 @@
  */
 package fr.paris.lutece.plugins.resource.service;
 
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKeyFamily;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheRegion;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceHotKeyTracker;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
 import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
- * Cache service for resources, resource types and resources providers
+ * Cache service for resources, resource types and resources providers. <br />
+ * Objects cached by the plugin are stored in one region for each family of {@link ResourceCacheKey}, each region having its own size limit and time
+ * to live. The regions follow the state of the cache service : they are disabled and reset with it. The legacy API based on String keys stores
+ * objects in the cache of the service, and is kept for other plugins.
  */
 public final class ResourceCacheService extends AbstractCacheableService
 {
@@ -47,13 +72,47 @@ public final class ResourceCacheService extends AbstractCacheableService
     private static final String CACHE_KEY_RESOURCE_TYPE = "resource.resourceType.";
     private static final String CACHE_KEY_RESOURCE = "resource.resource.type.";
     private static final String CONSTANT_POINT = ".";
-    private static final ResourceCacheService _instance = new ResourceCacheService( );
+    private static final String PROPERTY_WARM_UP_ENABLED = "resource.cache.warmUp.enabled";
+    private static final String PROPERTY_WARM_UP_MAX_TRACKED_KEYS = "resource.cache.warmUp.maxTrackedKeys";
+    private static final String PROPERTY_WARM_UP_SAMPLE_RATE = "resource.cache.warmUp.sampleRate";
+    private static final String PROPERTY_LOADING_TIMEOUT = "resource.cache.loadingTimeout";
+    private static final String LOG_LOADING_TIMEOUT = "The loading of the following key did not complete in time, the key is loaded again : ";
+
+    private final Map<ResourceCacheKeyFamily, ResourceCacheRegion> _mapRegions = new EnumMap<>( ResourceCacheKeyFamily.class );
+
+    // Most accessed resources, written to the manifest used to warm the cache up. Null if the warm-up is disabled.
+    private final ResourceHotKeyTracker _hotKeyTracker;
+
+    // Generation of the lists of resources of each resource type. Lists of a previous generation are removed from the cache and never read again.
+    private static final ConcurrentMap<String, AtomicLong> _mapResourceListGenerations = new ConcurrentHashMap<>( );
+
+    // Loadings in progress. Threads that miss a key being loaded wait for the loading instead of loading the key again.
+    private final ConcurrentMap<ResourceCacheKey, CompletableFuture<Object>> _mapLoadings = new ConcurrentHashMap<>( );
+
+    // Maximum time a thread waits for the loading of another thread, in milliseconds, before loading the key itself
+    private final long _lLoadingTimeout;
 
     /**
      * Default constructor
      */
     private ResourceCacheService( )
     {
+        for ( ResourceCacheKeyFamily family : ResourceCacheKeyFamily.values( ) )
+        {
+            _mapRegions.put( family, ResourceCacheRegion.create( family ) );
+        }
+
+        if ( AppPropertiesService.getPropertyBoolean( PROPERTY_WARM_UP_ENABLED, true ) )
+        {
+            _hotKeyTracker = new ResourceHotKeyTracker( AppPropertiesService.getPropertyInt( PROPERTY_WARM_UP_MAX_TRACKED_KEYS, 10000 ),
+                    AppPropertiesService.getPropertyInt( PROPERTY_WARM_UP_SAMPLE_RATE, 8 ) );
+        }
+        else
+        {
+            _hotKeyTracker = null;
+        }
+
+        _lLoadingTimeout = AppPropertiesService.getPropertyInt( PROPERTY_LOADING_TIMEOUT, 5000 );
         initCache( );
     }
 
@@ -64,7 +123,7 @@ public final class ResourceCacheService extends AbstractCacheableService
      */
     public static ResourceCacheService getInstance( )
     {
-        return _instance;
+        return InstanceHolder.INSTANCE;
     }
 
     /**
@@ -76,13 +135,462 @@ public final class ResourceCacheService extends AbstractCacheableService
         return CACHE_SERVICE_NAME;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void resetCache( )
+    {
+        _mapLoadings.clear( );
+        super.resetCache( );
+        clearRegions( );
+        ResourceNegativeCache.getInstance( ).clear( );
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * Regions are cleared when the cache is disabled, so that they do not serve stale objects once it is enabled again.
+     */
+    @Override
+    public void enableCache( boolean bEnable )
+    {
+        super.enableCache( bEnable );
+
+        if ( !bEnable )
+        {
+            _mapLoadings.clear( );
+            clearRegions( );
+        }
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * The size includes the entries of every region.
+     */
+    @Override
+    public int getCacheSize( )
+    {
+        int nSize = super.getCacheSize( );
+
+        for ( ResourceCacheRegion region : _mapRegions.values( ) )
+        {
+            nSize += region.getSize( );
+        }
+
+        return nSize;
+    }
+
+    /**
+     * Get the regions of the cache
+     * 
+     * @return The regions of the cache, in the order of the families of keys
+     */
+    public List<ResourceCacheRegion> getRegions( )
+    {
+        return new ArrayList<>( _mapRegions.values( ) );
+    }
+
+    /**
+     * Get the tracker of the most accessed resources
+     * 
+     * @return The tracker, or null if the warm-up of the cache is disabled
+     */
+    public ResourceHotKeyTracker getHotKeyTracker( )
+    {
+        return _hotKeyTracker;
+    }
+
+    /**
+     * Get an object from the cache. Hits and misses are counted by family of keys, and accesses to resources are tracked for the warm-up of the
+     * cache.
+     * 
+     * @param key
+     *            The key of the object
+     * @return The object, or null if the key is not in cache or the cache is disabled
+     */
+    public Object getFromCache( ResourceCacheKey key )
+    {
+        if ( !isCacheEnable( ) )
+        {
+            return null;
+        }
+
+        Object object = getRegion( key ).get( key );
+        ResourceCacheKeyFamily family = key.getFamily( );
+
+        if ( ResourceMetricsService.isEnabled( ) )
+        {
+            ResourceMetricsService.increment( ( object != null ) ? family.getMetricHit( ) : family.getMetricMiss( ) );
+        }
+
+        if ( _hotKeyTracker != null && ResourceHotKeyTracker.isTracked( family ) )
+        {
+            _hotKeyTracker.recordAccess( key );
+        }
+
+        return object;
+    }
+
+    /**
+     * Put an object in the cache. A loading of the key in progress is abandoned, so that a value read before the change is not put in cache.
+     * 
+     * @param key
+     *            The key of the object
+     * @param object
+     *            The object
+     */
+    public void putInCache( ResourceCacheKey key, Object object )
+    {
+        _mapLoadings.remove( key );
+
+        if ( isCacheEnable( ) )
+        {
+            getRegion( key ).put( key, object );
+        }
+    }
+
+    /**
+     * Remove an object from the cache. A loading of the key in progress is abandoned, so that a value read before the change is not put in cache.
+     * 
+     * @param key
+     *            The key of the object
+     */
+    public void removeKey( ResourceCacheKey key )
+    {
+        _mapLoadings.remove( key );
+        getRegion( key ).remove( key );
+        ResourceMetricsService.increment( key.getFamily( ).getMetricRemoval( ) );
+    }
+
+    /**
+     * Get an object from the cache, or load it if it is not in cache. If several threads miss the same key at the same time, only one of them loads
+     * the object, the others wait for the result of this loading. A thread that waits longer than <code>resource.cache.loadingTimeout</code>
+     * milliseconds loads the object itself, without putting it in cache. If the key is changed during the loading, the loaded object may be stale :
+     * it is not put in cache, and the loading thread reads the key again for every waiting thread. If the loader fails, its exception is thrown to
+     * the loading thread and to every waiting thread, and the object is not loaded again.
+     * 
+     * @param <T>
+     *            The type of the object
+     * @param key
+     *            The key of the object
+     * @param loader
+     *            The loader of the object. The loader may return null, in which case nothing is put in cache.
+     * @return The object, or null if the loader returned null
+     */
+    public <T> T getOrLoad( ResourceCacheKey key, Supplier<T> loader )
+    {
+        return getOrLoad( key, loader, _lLoadingTimeout );
+    }
+
+    /**
+     * Get an object from the cache, or load it if it is not in cache
+     * 
+     * @param <T>
+     *            The type of the object
+     * @param key
+     *            The key of the object
+     * @param loader
+     *            The loader of the object. The loader may return null, in which case nothing is put in cache.
+     * @param lLoadingTimeout
+     *            The maximum time to wait for the loading of another thread, in milliseconds
+     * @return The object, or null if the loader returned null
+     * @see #getOrLoad(ResourceCacheKey, Supplier)
+     */
+    @SuppressWarnings( "unchecked" )
+    <T> T getOrLoad( ResourceCacheKey key, Supplier<T> loader, long lLoadingTimeout )
+    {
+        if ( !isCacheEnable( ) )
+        {
+            return loader.get( );
+        }
+
+        Object object = getFromCache( key );
+
+        if ( object != null )
+        {
+            return (T) object;
+        }
+
+        return load( key, loader, lLoadingTimeout );
+    }
+
+    /**
+     * Load an object that has just been missed in the cache by {@link #getFromCache(ResourceCacheKey)}, and put it in cache. Concurrent loadings of
+     * the same key are coalesced as in {@link #getOrLoad(ResourceCacheKey, Supplier)}, but the cache is not read again before the loading.
+     * 
+     * @param <T>
+     *            The type of the object
+     * @param key
+     *            The key of the object
+     * @param loader
+     *            The loader of the object. The loader may return null, in which case nothing is put in cache.
+     * @return The object, or null if the loader returned null
+     */
+    public <T> T load( ResourceCacheKey key, Supplier<T> loader )
+    {
+        return load( key, loader, _lLoadingTimeout );
+    }
+
+    /**
+     * Load an object that has just been missed in the cache, and put it in cache
+     * 
+     * @param <T>
+     *            The type of the object
+     * @param key
+     *            The key of the object
+     * @param loader
+     *            The loader of the object. The loader may return null, in which case nothing is put in cache.
+     * @param lLoadingTimeout
+     *            The maximum time to wait for the loading of another thread, in milliseconds
+     * @return The object, or null if the loader returned null
+     * @see #load(ResourceCacheKey, Supplier)
+     */
+    @SuppressWarnings( "unchecked" )
+    <T> T load( ResourceCacheKey key, Supplier<T> loader, long lLoadingTimeout )
+    {
+        if ( !isCacheEnable( ) )
+        {
+            return loader.get( );
+        }
+
+        Object object;
+        CompletableFuture<Object> loading = new CompletableFuture<>( );
+        CompletableFuture<Object> currentLoading = _mapLoadings.putIfAbsent( key, loading );
+
+        if ( currentLoading != null )
+        {
+            return waitForLoading( key, currentLoading, loader, lLoadingTimeout );
+        }
+
+        try
+        {
+            ResourceCacheRegion region = getRegion( key );
+
+            // The key may have been loaded by another thread between the cache miss and the registration of the loading
+            object = region.get( key );
+
+            if ( object == null )
+            {
+                object = loader.get( );
+
+                if ( ( object != null ) && ( _mapLoadings.get( key ) == loading ) )
+                {
+                    region.put( key, object );
+
+                    // The key may have been changed between the check and the put
+                    if ( _mapLoadings.get( key ) != loading )
+                    {
+                        region.remove( key );
+                    }
+                }
+
+                // The key has been changed during the loading, the loaded object may be stale : the key is read again, once for every waiting thread
+                if ( _mapLoadings.get( key ) != loading )
+                {
+                    object = region.get( key );
+
+                    if ( object == null )
+                    {
+                        object = loader.get( );
+                    }
+                }
+            }
+
+            loading.complete( object );
+
+            return (T) object;
+        }
+        catch( RuntimeException e )
+        {
+            loading.completeExceptionally( e );
+            throw e;
+        }
+        finally
+        {
+            _mapLoadings.remove( key, loading );
+        }
+    }
+
+    /**
+     * Wait for a loading in progress. The object is loaded by the current thread if the loading does not complete in time. The exception of a loading
+     * that failed is thrown again.
+     * 
+     * @param <T>
+     *            The type of the object
+     * @param key
+     *            The key of the object
+     * @param loading
+     *            The loading
+     * @param loader
+     *            The loader of the object
+     * @param lLoadingTimeout
+     *            The maximum time to wait for the loading, in milliseconds
+     * @return The loaded object
+     */
+    @SuppressWarnings( "unchecked" )
+    private <T> T waitForLoading( ResourceCacheKey key, CompletableFuture<Object> loading, Supplier<T> loader, long lLoadingTimeout )
+    {
+        try
+        {
+            return (T) loading.get( lLoadingTimeout, TimeUnit.MILLISECONDS );
+        }
+        catch( TimeoutException e )
+        {
+            AppLogService.error( LOG_LOADING_TIMEOUT + key );
+
+            return loader.get( );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+
+            return loader.get( );
+        }
+        catch( ExecutionException e )
+        {
+            if ( e.getCause( ) instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause( );
+            }
+
+            throw new IllegalStateException( e.getCause( ) );
+        }
+    }
+
+    /**
+     * Get several objects from the cache
+     * 
+     * @param listKeys
+     *            The keys of the objects to get
+     * @return A map associating keys with cached objects. Keys that are not in cache are not present in the map.
+     */
+    public Map<ResourceCacheKey, Object> getAllFromCache( Collection<ResourceCacheKey> listKeys )
+    {
+        Map<ResourceCacheKey, Object> mapObjects = new HashMap<>( );
+
+        if ( !isCacheEnable( ) )
+        {
+            return mapObjects;
+        }
+
+        for ( ResourceCacheKey key : listKeys )
+        {
+            Object object = getFromCache( key );
+
+            if ( object != null )
+            {
+                mapObjects.put( key, object );
+            }
+        }
+
+        return mapObjects;
+    }
+
+    /**
+     * Put several objects in the cache
+     * 
+     * @param mapObjects
+     *            A map associating keys with the objects to put in cache
+     */
+    public void putAllInCache( Map<ResourceCacheKey, ?> mapObjects )
+    {
+        for ( Map.Entry<ResourceCacheKey, ?> entry : mapObjects.entrySet( ) )
+        {
+            putInCache( entry.getKey( ), entry.getValue( ) );
+        }
+    }
+
+    /**
+     * Remove several objects from the cache
+     * 
+     * @param listKeys
+     *            The keys of the objects to remove
+     */
+    public void removeKeys( Collection<ResourceCacheKey> listKeys )
+    {
+        for ( ResourceCacheKey key : listKeys )
+        {
+            removeKey( key );
+        }
+    }
+
+    /**
+     * Get the region storing a key
+     * 
+     * @param key
+     *            The key
+     * @return The region of the family of the key
+     */
+    private ResourceCacheRegion getRegion( ResourceCacheKey key )
+    {
+        return _mapRegions.get( key.getFamily( ) );
+    }
+
+    /**
+     * Remove every object from every region
+     */
+    private void clearRegions( )
+    {
+        for ( ResourceCacheRegion region : _mapRegions.values( ) )
+        {
+            region.clear( );
+        }
+    }
+
+    /**
+     * Get the cache key for the list of resources of a resource type. The key contains the current generation of the lists of this resource type, so
+     * that lists cached before the last call to {@link #incrementResourceListGeneration(String)} are not read anymore.
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @return The cache key for the list of resources of the given resource type
+     */
+    public static ResourceCacheKey getResourceListCacheKey( String strResourceType )
+    {
+        return ResourceCacheKey.ofResourceList( strResourceType, getResourceListGeneration( strResourceType ).get( ) );
+    }
+
+    /**
+     * Invalidate every cached list of resources of a resource type. The list of the previous generation is removed from the cache, as it would never
+     * be read again.
+     * 
+     * @param strResourceType
+     *            The resource type
+     */
+    public void incrementResourceListGeneration( String strResourceType )
+    {
+        long lPreviousGeneration = getResourceListGeneration( strResourceType ).getAndIncrement( );
+        removeKey( ResourceCacheKey.ofResourceList( strResourceType, lPreviousGeneration ) );
+    }
+
+    /**
+     * Get the generation counter of the lists of resources of a resource type
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @return The generation counter
+     */
+    private static AtomicLong getResourceListGeneration( String strResourceType )
+    {
+        AtomicLong generation = _mapResourceListGenerations.get( strResourceType );
+
+        if ( generation == null )
+        {
+            generation = _mapResourceListGenerations.computeIfAbsent( strResourceType, strType -> new AtomicLong( ) );
+        }
+
+        return generation;
+    }
+
     /**
      * Get the cache key of the association between a resource provider and a resource type
      * 
      * @param strResourceType
      *            The resource type
      * @return The cache key of the association between a resource provider and a resource type
+     * @deprecated Resource providers are no longer cached, they are indexed by the {@link ResourceProviderRegistry}
      */
+    @Deprecated
     public static String getResourceTypeProviderCacheKey( String strResourceType )
     {
         return CACHE_KEY_RESOURCE_TYPE_PROVIDER + strResourceType;
@@ -92,7 +600,9 @@ public final class ResourceCacheService extends AbstractCacheableService
      * Get the cache key for the list of resource types
      * 
      * @return The cache key for the list of resource types
+     * @deprecated Use {@link ResourceCacheKey#ofResourceTypeList()} instead
      */
+    @Deprecated
     public static String getResourceTypesListCacheKey( )
     {
         return CACHE_KEY_RESOURCE_TYPE_LIST;
@@ -106,7 +616,9 @@ public final class ResourceCacheService extends AbstractCacheableService
      * @param strResourceType
      *            The resource type
      * @return The cache key for the given resource
+     * @deprecated Use {@link ResourceCacheKey#ofThirdPartyResource(String, String)} instead
      */
+    @Deprecated
     public static String getResourceCacheKey( String strIdResource, String strResourceType )
     {
         StringBuilder sbCacheKey = new StringBuilder( CACHE_KEY_RESOURCE );
@@ -119,12 +631,14 @@ public final class ResourceCacheService extends AbstractCacheableService
 
     /**
      * Get the cache key for resources. This method should only be used to manage database resource type keys. <br />
-     * To cache resources of any other providers, use the {@link #getResourceCacheKey(String strIdResource, String strResourceType)} method.
+     * To cache resources of any other providers, use the {@link ResourceCacheKey#ofThirdPartyResource(String, String)} method.
      * 
      * @param strIdResource
      *            The id of the resource
      * @return The cache key for the given resource
+     * @deprecated Use {@link ResourceCacheKey#ofDatabaseResource(String)} instead
      */
+    @Deprecated
     public static String getDatabaseResourceCacheKey( String strIdResource )
     {
         return CACHE_KEY_RESOURCE_DATABASE + strIdResource;
@@ -136,9 +650,27 @@ public final class ResourceCacheService extends AbstractCacheableService
      * @param strResourceType
      *            The resource type
      * @return The cache key for the given resource type
+     * @deprecated Use {@link ResourceCacheKey#ofResourceType(String)} instead
      */
+    @Deprecated
     public static String getResourceTypeCacheKey( String strResourceType )
     {
         return CACHE_KEY_RESOURCE_TYPE + strResourceType;
     }
+
+    /**
+     * Holder of the instance of the service, so that the cache is only initialized when it is used
+     */
+    private static final class InstanceHolder
+    {
+        private static final ResourceCacheService INSTANCE = new ResourceCacheService( );
+
+        /**
+         * Default constructor
+         */
+        private InstanceHolder( )
+        {
+            // Nothing to do
+        }
+    }
 }
@@ -0,0 +1,483 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import fr.paris.lutece.plugins.resource.business.IResourceType;
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceHome;
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceTypeHome;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKeyFamily;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceHotKeyTracker;
+import fr.paris.lutece.portal.service.init.AppInit;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPathService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service that warms the resource cache up after a restart. <br />
+ * The most accessed database resources are periodically written to a manifest on the local disk. When the plugin is initialized, a background thread
+ * waits for the webapp to be loaded, then loads resource types, resource providers and the database resources of the manifest, so that the cache
+ * reaches its usual hit ratio without waiting for the traffic to load every resource again. Resources of other providers are not cached by the
+ * plugin, and are therefore not warmed up. <br />
+ * The manifest is written outside of the webapp, in the data directory of the webapp under the home directory of the user by default, so that it
+ * survives redeployments. Its name contains the name of the node, so that webapps sharing a directory do not overwrite the manifests of each other.
+ * <br />
+ * The manifest starts with a header holding its version. Each following line holds the name of the key family and the id of a database resource,
+ * separated by a tab. Manifests with another header are ignored.
+ */
+public final class ResourceCacheWarmUpService
+{
+    private static final String PROPERTY_ENABLED = "resource.cache.warmUp.enabled";
+    private static final String PROPERTY_MANIFEST_DIRECTORY = "resource.cache.warmUp.manifestDirectory";
+    private static final String PROPERTY_NODE_NAME = "resource.cache.warmUp.nodeName";
+    private static final String PROPERTY_MAX_KEYS = "resource.cache.warmUp.maxKeys";
+    private static final String PROPERTY_WEBAPP_TIMEOUT = "resource.cache.warmUp.webappTimeoutSeconds";
+    private static final String PROPERTY_USER_HOME = "user.home";
+    private static final String DATA_DIRECTORY = ".lutece";
+    private static final String DEFAULT_WEBAPP_NAME = "lutece";
+    private static final String MANIFEST_DIRECTORY = "resource";
+    private static final String DEFAULT_NODE_NAME = "localhost";
+    private static final String MANIFEST_PREFIX = "lutece_resource_cache_hot_keys_";
+    private static final String MANIFEST_SUFFIX = ".txt";
+    private static final String NODE_NAME_SEPARATOR = "_";
+    private static final String THREAD_NAME = "resource-cache-warm-up";
+    private static final String MANIFEST_TEMPORARY_SUFFIX = ".tmp";
+    private static final String MANIFEST_HEADER = "# lutece resource cache hot keys v2";
+    private static final String CONSTANT_SEPARATOR = "\t";
+    private static final String CONSTANT_NEW_LINE = "\n";
+    private static final long WEBAPP_POLLING_INTERVAL = 1000L;
+    private static final int BATCH_SIZE = 500;
+    private static final String LOG_DISABLED = "The warm-up of the resource cache is disabled";
+    private static final String LOG_WEBAPP_NOT_LOADED = "The warm-up of the resource cache is cancelled, the webapp is not loaded";
+    private static final String LOG_WARM_UP_DONE = "Resource cache warmed up in ";
+    private static final String LOG_WARM_UP_DURATION = " ms : ";
+    private static final String LOG_WARM_UP_RESOURCE_TYPES = " resource types, ";
+    private static final String LOG_WARM_UP_RESOURCES = " resources";
+    private static final String LOG_WARM_UP_ERROR = "An error occurred while warming the resource cache up";
+    private static final String LOG_MANIFEST_READ_ERROR = "Unable to read the manifest of hot keys of the resource cache : ";
+    private static final String LOG_MANIFEST_WRITE_ERROR = "Unable to write the manifest of hot keys of the resource cache : ";
+    private static final String LOG_MANIFEST_WRITTEN = " hot keys written to ";
+    private static final ResourceCacheWarmUpService _instance = new ResourceCacheWarmUpService( );
+
+    private final boolean _bEnabled;
+    private final int _nMaxKeys;
+    private final long _lWebappTimeout;
+    private final Path _pathManifest;
+    private volatile Thread _threadWarmUp;
+
+    /**
+     * Default constructor
+     */
+    private ResourceCacheWarmUpService( )
+    {
+        _bEnabled = AppPropertiesService.getPropertyBoolean( PROPERTY_ENABLED, true );
+        _nMaxKeys = AppPropertiesService.getPropertyInt( PROPERTY_MAX_KEYS, 1000 );
+        _lWebappTimeout = TimeUnit.SECONDS.toMillis( AppPropertiesService.getPropertyInt( PROPERTY_WEBAPP_TIMEOUT, 300 ) );
+        String strManifestDirectory = AppPropertiesService.getProperty( PROPERTY_MANIFEST_DIRECTORY );
+
+        Path pathManifestDirectory = StringUtils.isBlank( strManifestDirectory ) ? getDefaultManifestDirectory( )
+                : Paths.get( strManifestDirectory.trim( ) );
+        _pathManifest = pathManifestDirectory.resolve( MANIFEST_PREFIX + getNodeName( ) + MANIFEST_SUFFIX );
+    }
+
+    /**
+     * Get the default directory of the manifest : the directory of the plugin in the data directory of the webapp, under the home directory of the
+     * user, that is kept when the webapp is redeployed
+     * 
+     * @return The default directory of the manifest
+     */
+    private static Path getDefaultManifestDirectory( )
+    {
+        String strWebappName = DEFAULT_WEBAPP_NAME;
+
+        if ( AppPathService.getWebAppPath( ) != null )
+        {
+            Path pathWebappName = Paths.get( AppPathService.getWebAppPath( ) ).getFileName( );
+
+            if ( pathWebappName != null )
+            {
+                strWebappName = pathWebappName.toString( );
+            }
+        }
+
+        return Paths.get( System.getProperty( PROPERTY_USER_HOME ), DATA_DIRECTORY, strWebappName, MANIFEST_DIRECTORY );
+    }
+
+    /**
+     * Get the name of the node, used in the name of the manifest. The default name is made of the host name and of a hash of the path of the webapp,
+     * so that several webapps of a host get different manifests.
+     * 
+     * @return The name of the node
+     */
+    private static String getNodeName( )
+    {
+        String strNodeName = AppPropertiesService.getProperty( PROPERTY_NODE_NAME );
+
+        if ( StringUtils.isBlank( strNodeName ) )
+        {
+            String strHostName;
+
+            try
+            {
+                strHostName = InetAddress.getLocalHost( ).getHostName( );
+            }
+            catch( UnknownHostException e )
+            {
+                strHostName = DEFAULT_NODE_NAME;
+            }
+
+            strNodeName = strHostName + NODE_NAME_SEPARATOR + Integer.toHexString( String.valueOf( AppPathService.getWebAppPath( ) ).hashCode( ) );
+        }
+
+        return strNodeName.trim( ).replaceAll( "[^A-Za-z0-9_.-]", NODE_NAME_SEPARATOR );
+    }
+
+    /**
+     * Get the instance of the service
+     * 
+     * @return The instance of the service
+     */
+    public static ResourceCacheWarmUpService getInstance( )
+    {
+        return _instance;
+    }
+
+    /**
+     * Start the warm-up of the cache in a background thread. The warm-up starts once the webapp is loaded.
+     */
+    public void startWarmUp( )
+    {
+        if ( !_bEnabled )
+        {
+            AppLogService.info( LOG_DISABLED );
+
+            return;
+        }
+
+        Thread thread = new Thread( this::warmUpWhenWebappLoaded, THREAD_NAME );
+        thread.setDaemon( true );
+        thread.setPriority( Thread.MIN_PRIORITY );
+        _threadWarmUp = thread;
+        thread.start( );
+    }
+
+    /**
+     * Stop the warm-up of the cache if it is still running. The thread stops waiting for the webapp, or stops loading resources after the current
+     * batch.
+     */
+    public void stopWarmUp( )
+    {
+        Thread thread = _threadWarmUp;
+
+        if ( thread != null )
+        {
+            thread.interrupt( );
+            _threadWarmUp = null;
+        }
+    }
+
+    /**
+     * Wait for the webapp to be loaded, then warm the cache up
+     */
+    private void warmUpWhenWebappLoaded( )
+    {
+        try
+        {
+            long lDeadline = System.currentTimeMillis( ) + _lWebappTimeout;
+
+            while ( !AppInit.isWebappSuccessfullyLoaded( ) )
+            {
+                if ( System.currentTimeMillis( ) > lDeadline )
+                {
+                    AppLogService.info( LOG_WEBAPP_NOT_LOADED );
+
+                    return;
+                }
+
+                Thread.sleep( WEBAPP_POLLING_INTERVAL );
+            }
+
+            AppLogService.info( warmUp( ) );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+        }
+        catch( RuntimeException e )
+        {
+            AppLogService.error( LOG_WARM_UP_ERROR, e );
+        }
+        finally
+        {
+            _threadWarmUp = null;
+        }
+    }
+
+    /**
+     * Warm the cache up : load resource types, resource providers and the resources of the manifest
+     * 
+     * @return The logs of the warm-up
+     */
+    public String warmUp( )
+    {
+        long lStart = System.currentTimeMillis( );
+        ResourceService resourceService = ResourceService.getInstance( );
+        List<IResourceType> listResourceTypes = resourceService.getResourceTypesList( );
+
+        for ( IResourceType resourceType : listResourceTypes )
+        {
+            resourceService.getResourceProvider( resourceType.getResourceTypeName( ) );
+        }
+
+        for ( String strResourceType : DatabaseResourceTypeHome.getResourceTypesList( ) )
+        {
+            DatabaseResourceTypeHome.findSnapshotByPrimaryKey( strResourceType );
+        }
+
+        int nResources = loadResources( readManifest( ) );
+        long lDuration = System.currentTimeMillis( ) - lStart;
+
+        return LOG_WARM_UP_DONE + lDuration + LOG_WARM_UP_DURATION + listResourceTypes.size( ) + LOG_WARM_UP_RESOURCE_TYPES + nResources
+                + LOG_WARM_UP_RESOURCES;
+    }
+
+    /**
+     * Write the most accessed resources to the manifest. The manifest is replaced atomically, so that a warm-up never reads a partially written file.
+     * 
+     * @return The logs of the writing
+     */
+    public String writeManifest( )
+    {
+        ResourceHotKeyTracker tracker = ResourceCacheService.getInstance( ).getHotKeyTracker( );
+
+        if ( !_bEnabled || tracker == null )
+        {
+            return LOG_DISABLED;
+        }
+
+        List<ResourceCacheKey> listKeys = tracker.getHotKeys( _nMaxKeys );
+        tracker.decay( );
+
+        Path pathTemporary = _pathManifest.resolveSibling( _pathManifest.getFileName( ) + MANIFEST_TEMPORARY_SUFFIX );
+        int nWrittenKeys = 0;
+
+        try
+        {
+            Files.createDirectories( _pathManifest.toAbsolutePath( ).getParent( ) );
+
+            try ( BufferedWriter writer = Files.newBufferedWriter( pathTemporary, StandardCharsets.UTF_8 ) )
+            {
+                writer.write( MANIFEST_HEADER );
+                writer.write( CONSTANT_NEW_LINE );
+
+                for ( ResourceCacheKey key : listKeys )
+                {
+                    String strLine = toManifestLine( key );
+
+                    if ( strLine != null )
+                    {
+                        writer.write( strLine );
+                        writer.write( CONSTANT_NEW_LINE );
+                        nWrittenKeys++;
+                    }
+                }
+            }
+
+            moveManifest( pathTemporary );
+        }
+        catch( IOException e )
+        {
+            AppLogService.error( LOG_MANIFEST_WRITE_ERROR + _pathManifest, e );
+
+            return LOG_MANIFEST_WRITE_ERROR + e.getMessage( );
+        }
+
+        return nWrittenKeys + LOG_MANIFEST_WRITTEN + _pathManifest;
+    }
+
+    /**
+     * Replace the manifest by a new one, atomically if the file system supports it
+     * 
+     * @param pathNewManifest
+     *            The path of the new manifest
+     * @throws IOException
+     *             If the manifest can not be replaced
+     */
+    private void moveManifest( Path pathNewManifest ) throws IOException
+    {
+        try
+        {
+            Files.move( pathNewManifest, _pathManifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        }
+        catch( AtomicMoveNotSupportedException e )
+        {
+            Files.move( pathNewManifest, _pathManifest, StandardCopyOption.REPLACE_EXISTING );
+        }
+    }
+
+    /**
+     * Read the keys of the manifest
+     * 
+     * @return The keys of the manifest, or an empty list if there is no manifest or if the manifest has another version
+     */
+    private List<ResourceCacheKey> readManifest( )
+    {
+        List<ResourceCacheKey> listKeys = new ArrayList<>( );
+
+        if ( !Files.isRegularFile( _pathManifest ) )
+        {
+            return listKeys;
+        }
+
+        try ( BufferedReader reader = Files.newBufferedReader( _pathManifest, StandardCharsets.UTF_8 ) )
+        {
+            if ( !MANIFEST_HEADER.equals( reader.readLine( ) ) )
+            {
+                return listKeys;
+            }
+
+            String strLine = reader.readLine( );
+
+            while ( strLine != null && listKeys.size( ) < _nMaxKeys )
+            {
+                ResourceCacheKey key = fromManifestLine( strLine );
+
+                if ( key != null )
+                {
+                    listKeys.add( key );
+                }
+
+                strLine = reader.readLine( );
+            }
+        }
+        catch( IOException e )
+        {
+            AppLogService.error( LOG_MANIFEST_READ_ERROR + _pathManifest, e );
+        }
+
+        return listKeys;
+    }
+
+    /**
+     * Load database resources in cache by batches
+     * 
+     * @param listKeys
+     *            The keys of the resources
+     * @return The number of loaded resources
+     */
+    private static int loadResources( List<ResourceCacheKey> listKeys )
+    {
+        List<Integer> listIdDatabaseResources = new ArrayList<>( listKeys.size( ) );
+
+        for ( ResourceCacheKey key : listKeys )
+        {
+            listIdDatabaseResources.add( (int) key.getNumber( ) );
+        }
+
+        int nResources = 0;
+
+        for ( int nFrom = 0; nFrom < listIdDatabaseResources.size( ) && !Thread.currentThread( ).isInterrupted( ); nFrom += BATCH_SIZE )
+        {
+            List<Integer> listBatch = listIdDatabaseResources.subList( nFrom, Math.min( nFrom + BATCH_SIZE, listIdDatabaseResources.size( ) ) );
+            nResources += DatabaseResourceHome.findSnapshotsByPrimaryKeys( listBatch ).size( );
+        }
+
+        return nResources;
+    }
+
+    /**
+     * Get the line of the manifest of a key : the name of the family and the id of the resource, separated by a tab
+     * 
+     * @param key
+     *            The key
+     * @return The line, or null if the key is not the key of a database resource
+     */
+    private static String toManifestLine( ResourceCacheKey key )
+    {
+        if ( key.getFamily( ) == ResourceCacheKeyFamily.DATABASE_RESOURCE )
+        {
+            return key.getFamily( ).getName( ) + CONSTANT_SEPARATOR + key.getNumber( );
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the key of a line of the manifest
+     * 
+     * @param strLine
+     *            The line
+     * @return The key, or null if the line is not valid or is not the line of a database resource
+     */
+    private static ResourceCacheKey fromManifestLine( String strLine )
+    {
+        String [ ] fields = strLine.split( CONSTANT_SEPARATOR, -1 );
+
+        if ( fields.length != 2 )
+        {
+            return null;
+        }
+
+        if ( ResourceCacheKeyFamily.DATABASE_RESOURCE.getName( ).equals( fields [0] ) )
+        {
+            try
+            {
+                return ResourceCacheKey.ofDatabaseResource( fields [1] );
+            }
+            catch( NumberFormatException e )
+            {
+                return null;
+            }
+        }
+
+        return null;
+    }
+}
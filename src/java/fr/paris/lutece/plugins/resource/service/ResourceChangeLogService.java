@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import fr.paris.lutece.plugins.resource.business.changelog.ResourceChange;
+import fr.paris.lutece.plugins.resource.business.changelog.ResourceChangeLogHome;
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceHome;
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceTypeHome;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Service that keeps caches of webapps sharing the same database coherent. <br />
+ * Each change of a database resource or resource type is appended to the table resource_change_log in the same transaction as the change. Each webapp
+ * then periodically reads the changes made by other webapps and removes the matching keys from its caches. <br />
+ * Ids of changes are not committed in order : a change may become visible after a change with a greater id has been read. Ids skipped below the
+ * last change read are kept as gaps and read again at each processing, until they are found or until the grace period
+ * <code>resource.cache.changeLog.gracePeriodSeconds</code> has elapsed since they were skipped. A change is therefore processed as long as its
+ * transaction commits within this grace period after a change with a greater id has been read. Ids of rolled back transactions are never found and
+ * are dropped at the end of the grace period.
+ */
+public final class ResourceChangeLogService
+{
+    /**
+     * Family of changes of database resources. Keys are ids of resources.
+     */
+    public static final String FAMILY_RESOURCE = "resource";
+
+    /**
+     * Family of changes of database resource types. Keys are names of resource types.
+     */
+    public static final String FAMILY_RESOURCE_TYPE = "resourceType";
+
+    /**
+     * Family of changes of lists of database resources. Keys are names of resource types.
+     */
+    public static final String FAMILY_RESOURCE_LIST = "resourceList";
+
+    private static final String PROPERTY_ENABLED = "resource.cache.changeLog.enabled";
+    private static final String PROPERTY_BATCH_SIZE = "resource.cache.changeLog.batchSize";
+    private static final String PROPERTY_GRACE_PERIOD = "resource.cache.changeLog.gracePeriodSeconds";
+    private static final String PROPERTY_MAX_GAPS = "resource.cache.changeLog.maxGaps";
+    private static final String PROPERTY_RETENTION_MINUTES = "resource.cache.changeLog.retentionMinutes";
+    private static final String LOG_DISABLED = "The change log is disabled";
+    private static final String LOG_INITIALIZED = "The change log reader has been initialized at change ";
+    private static final String LOG_PROCESSED = " change(s) from other webapps have been processed. Last change : ";
+    private static final String LOG_GAPS = ". Pending gaps : ";
+    private static final String LOG_DROPPED_GAPS = " ids of changes have been skipped without being tracked, because more than "
+            + PROPERTY_MAX_GAPS + " gaps are pending";
+    private static final long CONSTANT_PURGE_INTERVAL = 60L * 60L * 1000L;
+    private static final ResourceChangeLogService _instance = new ResourceChangeLogService( );
+    private final String _strNodeId = UUID.randomUUID( ).toString( );
+    private final boolean _bEnabled;
+    private final int _nBatchSize;
+    private final long _lGracePeriod;
+    private final int _nMaxGaps;
+    private final long _lRetention;
+
+    // Ids skipped below the last change read, with the time at which they have been skipped
+    private final TreeMap<Integer, Long> _mapGaps = new TreeMap<>( );
+    private int _nLastIdChange = -1;
+    private long _lLastPurge;
+
+    /**
+     * Default constructor
+     */
+    private ResourceChangeLogService( )
+    {
+        _bEnabled = AppPropertiesService.getPropertyBoolean( PROPERTY_ENABLED, false );
+        _nBatchSize = AppPropertiesService.getPropertyInt( PROPERTY_BATCH_SIZE, 500 );
+        _lGracePeriod = AppPropertiesService.getPropertyInt( PROPERTY_GRACE_PERIOD, 300 ) * 1000L;
+        _nMaxGaps = AppPropertiesService.getPropertyInt( PROPERTY_MAX_GAPS, 10000 );
+        _lRetention = AppPropertiesService.getPropertyInt( PROPERTY_RETENTION_MINUTES, 1440 ) * 60L * 1000L;
+    }
+
+    /**
+     * Get the instance of the service
+     * 
+     * @return The instance of the service
+     */
+    public static ResourceChangeLogService getInstance( )
+    {
+        return _instance;
+    }
+
+    /**
+     * Check if the change log is enabled
+     * 
+     * @return True if the change log is enabled, false otherwise
+     */
+    public boolean isEnabled( )
+    {
+        return _bEnabled;
+    }
+
+    /**
+     * Append a change to the log. If a transaction is in progress, the change is appended in this transaction.
+     * 
+     * @param strChangeFamily
+     *            The family of the changed key
+     * @param strChangeKey
+     *            The changed key
+     */
+    public void logChange( String strChangeFamily, String strChangeKey )
+    {
+        logChanges( strChangeFamily, Collections.singletonList( strChangeKey ) );
+    }
+
+    /**
+     * Append changes to the log. If a transaction is in progress, changes are appended in this transaction.
+     * 
+     * @param strChangeFamily
+     *            The family of the changed keys
+     * @param listChangeKeys
+     *            The changed keys
+     */
+    public void logChanges( String strChangeFamily, Collection<String> listChangeKeys )
+    {
+        if ( _bEnabled && !listChangeKeys.isEmpty( ) )
+        {
+            ResourceChangeLogHome.createAll( strChangeFamily, listChangeKeys, _strNodeId );
+        }
+    }
+
+    /**
+     * Read the changes made by other webapps since the last call, and remove the changed keys from caches
+     * 
+     * @return The logs of the processing
+     */
+    public synchronized String processChanges( )
+    {
+        if ( !_bEnabled )
+        {
+            return LOG_DISABLED;
+        }
+
+        if ( _nLastIdChange < 0 )
+        {
+            // Caches of this webapp have been filled after the last change, previous changes do not need to be processed
+            _nLastIdChange = ResourceChangeLogHome.findLastIdChange( );
+
+            return LOG_INITIALIZED + _nLastIdChange;
+        }
+
+        Map<String, Set<String>> mapChangedKeys = new HashMap<>( );
+        long lNow = System.currentTimeMillis( );
+        int nProcessedChanges = processGaps( mapChangedKeys, lNow );
+        List<ResourceChange> listChanges;
+
+        do
+        {
+            listChanges = ResourceChangeLogHome.findAfter( _nLastIdChange, _nBatchSize );
+
+            for ( ResourceChange change : listChanges )
+            {
+                addGaps( _nLastIdChange + 1, change.getIdChange( ), lNow );
+                _nLastIdChange = change.getIdChange( );
+
+                if ( addChange( mapChangedKeys, change ) )
+                {
+                    nProcessedChanges++;
+                }
+            }
+        }
+        while ( listChanges.size( ) == _nBatchSize );
+
+        for ( Map.Entry<String, Set<String>> entry : mapChangedKeys.entrySet( ) )
+        {
+            invalidate( entry.getKey( ), entry.getValue( ) );
+        }
+
+        purge( );
+
+        return nProcessedChanges + LOG_PROCESSED + _nLastIdChange + LOG_GAPS + _mapGaps.size( );
+    }
+
+    /**
+     * Read again the ids skipped by previous processings, and drop the ids skipped for longer than the grace period
+     * 
+     * @param mapChangedKeys
+     *            The changed keys, by family, to which the changes found are added
+     * @param lNow
+     *            The current time
+     * @return The number of changes from other webapps found
+     */
+    private int processGaps( Map<String, Set<String>> mapChangedKeys, long lNow )
+    {
+        int nProcessedChanges = 0;
+        List<Integer> listIdGaps = new ArrayList<>( _mapGaps.keySet( ) );
+
+        for ( int nFrom = 0; nFrom < listIdGaps.size( ); nFrom += _nBatchSize )
+        {
+            List<Integer> listIdChanges = listIdGaps.subList( nFrom, Math.min( nFrom + _nBatchSize, listIdGaps.size( ) ) );
+
+            for ( ResourceChange change : ResourceChangeLogHome.findByListId( listIdChanges ) )
+            {
+                _mapGaps.remove( change.getIdChange( ) );
+
+                if ( addChange( mapChangedKeys, change ) )
+                {
+                    nProcessedChanges++;
+                }
+            }
+        }
+
+        // Gaps are read one last time before being dropped
+        _mapGaps.values( ).removeIf( lSkipped -> lNow - lSkipped > _lGracePeriod );
+
+        return nProcessedChanges;
+    }
+
+    /**
+     * Keep a range of skipped ids as gaps. The oldest gaps are dropped if there are more than <code>resource.cache.changeLog.maxGaps</code> gaps.
+     * 
+     * @param nFromIdChange
+     *            The first skipped id, inclusive
+     * @param nToIdChange
+     *            The last skipped id, exclusive
+     * @param lNow
+     *            The current time
+     */
+    private void addGaps( int nFromIdChange, int nToIdChange, long lNow )
+    {
+        int nFirstTrackedIdChange = Math.max( nFromIdChange, nToIdChange - _nMaxGaps );
+        int nDroppedGaps = nFirstTrackedIdChange - nFromIdChange;
+
+        for ( int nIdChange = nFirstTrackedIdChange; nIdChange < nToIdChange; nIdChange++ )
+        {
+            if ( _mapGaps.size( ) >= _nMaxGaps )
+            {
+                _mapGaps.pollFirstEntry( );
+                nDroppedGaps++;
+            }
+
+            _mapGaps.put( nIdChange, lNow );
+        }
+
+        if ( nDroppedGaps > 0 )
+        {
+            AppLogService.error( nDroppedGaps + LOG_DROPPED_GAPS );
+        }
+    }
+
+    /**
+     * Add the key of a change to the changed keys, if the change has been made by another webapp
+     * 
+     * @param mapChangedKeys
+     *            The changed keys, by family
+     * @param change
+     *            The change
+     * @return True if the change has been made by another webapp, false otherwise
+     */
+    private boolean addChange( Map<String, Set<String>> mapChangedKeys, ResourceChange change )
+    {
+        if ( _strNodeId.equals( change.getNodeId( ) ) )
+        {
+            return false;
+        }
+
+        mapChangedKeys.computeIfAbsent( change.getChangeFamily( ), strFamily -> new LinkedHashSet<>( ) ).add( change.getChangeKey( ) );
+
+        return true;
+    }
+
+    /**
+     * Remove changed keys from caches
+     * 
+     * @param strChangeFamily
+     *            The family of the changed keys
+     * @param setChangeKeys
+     *            The changed keys
+     */
+    private void invalidate( String strChangeFamily, Set<String> setChangeKeys )
+    {
+        if ( FAMILY_RESOURCE.equals( strChangeFamily ) )
+        {
+            List<String> listIdResources = new ArrayList<>( setChangeKeys );
+            DatabaseResourceHome.invalidateCache( listIdResources );
+
+            // Search indexes are updated with the changed resources only, instead of being built again
+            DatabaseResourceHome.reloadSearchIndex( listIdResources );
+        }
+        else
+            if ( FAMILY_RESOURCE_LIST.equals( strChangeFamily ) )
+            {
+                DatabaseResourceHome.invalidateListCache( setChangeKeys );
+            }
+            else
+                if ( FAMILY_RESOURCE_TYPE.equals( strChangeFamily ) )
+                {
+                    for ( String strResourceType : setChangeKeys )
+                    {
+                        DatabaseResourceTypeHome.invalidateCache( strResourceType );
+                    }
+                }
+    }
+
+    /**
+     * Remove old changes from the log. Old changes are removed at most once an hour.
+     */
+    private void purge( )
+    {
+        long lNow = System.currentTimeMillis( );
+
+        if ( lNow - _lLastPurge > CONSTANT_PURGE_INTERVAL )
+        {
+            ResourceChangeLogHome.deleteBefore( new Timestamp( lNow - _lRetention ) );
+            _lLastPurge = lNow;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Executors of the plugin. Both pools are bounded :
+ * <ul>
+ * <li>the executor used to query resource providers concurrently runs tasks on the calling thread when every thread is busy and the queue is full,
+ * since the calling thread waits for the result anyway</li>
+ * <li>the executor of asynchronous lookups rejects tasks when every thread is busy and the queue is full, so that callers that must not block are
+ * never used to read resources</li>
+ * </ul>
+ */
+public final class ResourceExecutorService
+{
+    private static final String PROPERTY_POOL_SIZE = "resource.executor.poolSize";
+    private static final String PROPERTY_QUEUE_SIZE = "resource.executor.queueSize";
+    private static final String PROPERTY_ASYNC_POOL_SIZE = "resource.executor.async.poolSize";
+    private static final String PROPERTY_ASYNC_QUEUE_SIZE = "resource.executor.async.queueSize";
+    private static final String THREAD_NAME_PREFIX = "resource-executor-";
+    private static final String ASYNC_THREAD_NAME_PREFIX = "resource-async-executor-";
+    private static final long CONSTANT_KEEP_ALIVE_SECONDS = 60L;
+    private static final long CONSTANT_SHUTDOWN_TIMEOUT_SECONDS = 5L;
+
+    // Executors are created on first use, and only executors that have been created are shut down
+    private static final AtomicReference<ThreadPoolExecutor> _executor = new AtomicReference<>( );
+    private static final AtomicReference<ThreadPoolExecutor> _asyncExecutor = new AtomicReference<>( );
+
+    /**
+     * Default constructor
+     */
+    private ResourceExecutorService( )
+    {
+        // Nothing to do
+    }
+
+    /**
+     * Get the executor used to query resource providers concurrently. The executor is created on first call.
+     * 
+     * @return The executor
+     */
+    public static Executor getExecutor( )
+    {
+        return getOrCreateExecutor( _executor, ( ) -> createExecutor( PROPERTY_POOL_SIZE, PROPERTY_QUEUE_SIZE, THREAD_NAME_PREFIX,
+                new ThreadPoolExecutor.CallerRunsPolicy( ) ) );
+    }
+
+    /**
+     * Get the executor of asynchronous lookups. The executor is created on first call. Tasks submitted to a busy executor are rejected with a
+     * {@link java.util.concurrent.RejectedExecutionException}.
+     * 
+     * @return The executor
+     */
+    public static Executor getAsyncExecutor( )
+    {
+        return getOrCreateExecutor( _asyncExecutor, ( ) -> createExecutor( PROPERTY_ASYNC_POOL_SIZE, PROPERTY_ASYNC_QUEUE_SIZE,
+                ASYNC_THREAD_NAME_PREFIX, new ThreadPoolExecutor.AbortPolicy( ) ) );
+    }
+
+    /**
+     * Shut the executors that have been created down. Waiting tasks are run, and tasks still running after a few seconds are interrupted, so that no
+     * thread of the plugin survives the webapp.
+     */
+    public static void shutdown( )
+    {
+        List<ThreadPoolExecutor> listExecutors = new ArrayList<>( 2 );
+
+        for ( AtomicReference<ThreadPoolExecutor> reference : Arrays.asList( _executor, _asyncExecutor ) )
+        {
+            ThreadPoolExecutor executor = reference.get( );
+
+            if ( executor != null )
+            {
+                executor.shutdown( );
+                listExecutors.add( executor );
+            }
+        }
+
+        try
+        {
+            for ( ThreadPoolExecutor executor : listExecutors )
+            {
+                if ( !executor.awaitTermination( CONSTANT_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS ) )
+                {
+                    executor.shutdownNow( );
+                }
+            }
+        }
+        catch( InterruptedException e )
+        {
+            for ( ThreadPoolExecutor executor : listExecutors )
+            {
+                executor.shutdownNow( );
+            }
+
+            Thread.currentThread( ).interrupt( );
+        }
+    }
+
+    /**
+     * Get an executor, and create it if it does not exist yet
+     * 
+     * @param reference
+     *            The reference of the executor
+     * @param factory
+     *            The factory of the executor
+     * @return The executor
+     */
+    private static ThreadPoolExecutor getOrCreateExecutor( AtomicReference<ThreadPoolExecutor> reference, Supplier<ThreadPoolExecutor> factory )
+    {
+        ThreadPoolExecutor executor = reference.get( );
+
+        if ( executor == null )
+        {
+            executor = factory.get( );
+
+            // An executor created concurrently is discarded : its threads are only started by its first task
+            if ( !reference.compareAndSet( null, executor ) )
+            {
+                executor = reference.get( );
+            }
+        }
+
+        return executor;
+    }
+
+    /**
+     * Create an executor
+     * 
+     * @param strPoolSizeProperty
+     *            The property of the number of threads
+     * @param strQueueSizeProperty
+     *            The property of the maximum number of waiting tasks
+     * @param strThreadNamePrefix
+     *            The prefix of the names of threads
+     * @param rejectedExecutionHandler
+     *            The handler of tasks submitted when every thread is busy and the queue is full
+     * @return The executor
+     */
+    private static ThreadPoolExecutor createExecutor( String strPoolSizeProperty, String strQueueSizeProperty, String strThreadNamePrefix,
+            RejectedExecutionHandler rejectedExecutionHandler )
+    {
+        int nPoolSize = AppPropertiesService.getPropertyInt( strPoolSizeProperty, 8 );
+        int nQueueSize = AppPropertiesService.getPropertyInt( strQueueSizeProperty, 1000 );
+        AtomicInteger nThreadNumber = new AtomicInteger( );
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread( runnable, strThreadNamePrefix + nThreadNumber.incrementAndGet( ) );
+            thread.setDaemon( true );
+
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor( nPoolSize, nPoolSize, CONSTANT_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>( nQueueSize ), threadFactory, rejectedExecutionHandler );
+        executor.allowCoreThreadTimeOut( true );
+
+        return executor;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of keys that are known to have no associated object. <br />
+ * Looking up a missing resource or resource type is then only a hash probe instead of a database query. Entries expire after a short time to live,
+ * and must be removed when an object is created with the same key. <br />
+ * Every removal increments the version of the cache. A miss is declared with the version read before the object was looked up, and is ignored if
+ * keys have been removed since then, so that an object created during the lookup is never hidden by the miss.
+ */
+public final class ResourceNegativeCache
+{
+    private static final String PROPERTY_ENABLED = "resource.cache.negative.enabled";
+    private static final String PROPERTY_TIME_TO_LIVE = "resource.cache.negative.timeToLiveSeconds";
+    private static final String PROPERTY_MAX_SIZE = "resource.cache.negative.maxSize";
+    private static final String METRIC_NEGATIVE_HIT = "cache.negative.hit";
+    private static final ResourceNegativeCache _instance = new ResourceNegativeCache( );
+
+    // Associates missing keys with their expiration time
+    private final ConcurrentMap<ResourceCacheKey, Long> _mapMissingKeys = new ConcurrentHashMap<>( );
+    private final AtomicLong _lVersion = new AtomicLong( );
+    private final boolean _bEnabled;
+    private final long _lTimeToLive;
+    private final int _nMaxSize;
+
+    /**
+     * Default constructor
+     */
+    private ResourceNegativeCache( )
+    {
+        _bEnabled = AppPropertiesService.getPropertyBoolean( PROPERTY_ENABLED, true );
+        _lTimeToLive = AppPropertiesService.getPropertyInt( PROPERTY_TIME_TO_LIVE, 30 ) * 1000L;
+        _nMaxSize = AppPropertiesService.getPropertyInt( PROPERTY_MAX_SIZE, 10000 );
+    }
+
+    /**
+     * Get the instance of the cache
+     * 
+     * @return The instance of the cache
+     */
+    public static ResourceNegativeCache getInstance( )
+    {
+        return _instance;
+    }
+
+    /**
+     * Check if a key is known to have no associated object
+     * 
+     * @param key
+     *            The key
+     * @return True if the key has been declared as missing and the declaration has not expired yet, false otherwise
+     */
+    public boolean isMissing( ResourceCacheKey key )
+    {
+        if ( !isEnabled( ) )
+        {
+            return false;
+        }
+
+        Long lExpiration = _mapMissingKeys.get( key );
+
+        if ( lExpiration == null )
+        {
+            return false;
+        }
+
+        if ( lExpiration < System.currentTimeMillis( ) )
+        {
+            _mapMissingKeys.remove( key, lExpiration );
+
+            return false;
+        }
+
+        ResourceMetricsService.increment( METRIC_NEGATIVE_HIT );
+
+        return true;
+    }
+
+    /**
+     * Get the version of the cache, to be read before looking an object up and given to {@link #putMissing(ResourceCacheKey, long)}
+     * 
+     * @return The version of the cache
+     */
+    public long getVersion( )
+    {
+        return _lVersion.get( );
+    }
+
+    /**
+     * Declare a key as having no associated object. The declaration is ignored if keys have been removed since the given version was read.
+     * 
+     * @param key
+     *            The key
+     * @param lVersion
+     *            The version of the cache read before the object was looked up
+     */
+    public void putMissing( ResourceCacheKey key, long lVersion )
+    {
+        if ( !isEnabled( ) || ( _lVersion.get( ) != lVersion ) )
+        {
+            return;
+        }
+
+        long lNow = System.currentTimeMillis( );
+
+        if ( _mapMissingKeys.size( ) >= _nMaxSize )
+        {
+            evict( lNow );
+        }
+
+        Long lExpiration = lNow + _lTimeToLive;
+        _mapMissingKeys.put( key, lExpiration );
+
+        // A key removed between the check of the version and the put must not stay declared as missing
+        if ( _lVersion.get( ) != lVersion )
+        {
+            _mapMissingKeys.remove( key, lExpiration );
+        }
+    }
+
+    /**
+     * Declare several keys as having no associated object. The declarations are ignored if keys have been removed since the given version was read.
+     * 
+     * @param listKeys
+     *            The keys
+     * @param lVersion
+     *            The version of the cache read before the objects were looked up
+     */
+    public void putAllMissing( Collection<ResourceCacheKey> listKeys, long lVersion )
+    {
+        for ( ResourceCacheKey key : listKeys )
+        {
+            putMissing( key, lVersion );
+        }
+    }
+
+    /**
+     * Remove a key from the cache. This method must be called when an object is created with this key.
+     * 
+     * @param key
+     *            The key
+     */
+    public void remove( ResourceCacheKey key )
+    {
+        _lVersion.incrementAndGet( );
+        _mapMissingKeys.remove( key );
+    }
+
+    /**
+     * Remove several keys from the cache
+     * 
+     * @param listKeys
+     *            The keys
+     */
+    public void removeAll( Collection<ResourceCacheKey> listKeys )
+    {
+        if ( listKeys.isEmpty( ) )
+        {
+            return;
+        }
+
+        _lVersion.incrementAndGet( );
+
+        for ( ResourceCacheKey key : listKeys )
+        {
+            _mapMissingKeys.remove( key );
+        }
+    }
+
+    /**
+     * Remove every key from the cache
+     */
+    public void clear( )
+    {
+        _lVersion.incrementAndGet( );
+        _mapMissingKeys.clear( );
+    }
+
+    /**
+     * Check if the cache is enabled. The cache is disabled when the resource cache is disabled.
+     * 
+     * @return True if the cache is enabled, false otherwise
+     */
+    private boolean isEnabled( )
+    {
+        return _bEnabled && ResourceCacheService.getInstance( ).isCacheEnable( );
+    }
+
+    /**
+     * Remove expired keys. If the cache is still full, every key is removed.
+     * 
+     * @param lNow
+     *            The current time
+     */
+    private void evict( long lNow )
+    {
+        Iterator<Map.Entry<ResourceCacheKey, Long>> iterator = _mapMissingKeys.entrySet( ).iterator( );
+
+        while ( iterator.hasNext( ) )
+        {
+            if ( iterator.next( ).getValue( ) < lNow )
+            {
+                iterator.remove( );
+            }
+        }
+
+        if ( _mapMissingKeys.size( ) >= _nMaxSize )
+        {
+            _mapMissingKeys.clear( );
+        }
+    }
+}
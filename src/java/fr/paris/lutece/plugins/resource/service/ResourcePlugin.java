@@ -33,6 +33,8 @@
  */
 package fr.paris.lutece.plugins.resource.service;
 
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetrics;
+import fr.paris.lutece.portal.service.init.ShutdownServiceManager;
 import fr.paris.lutece.portal.service.plugin.Plugin;
 
 /**
@@ -51,6 +53,8 @@ public class ResourcePlugin extends Plugin
     @Override
     public void init( )
     {
-        // Nothing to do
+        ResourceMetrics.register( );
+        ResourceCacheWarmUpService.getInstance( ).startWarmUp( );
+        ShutdownServiceManager.registerShutdownService( new ResourceShutdownService( ) );
     }
 }
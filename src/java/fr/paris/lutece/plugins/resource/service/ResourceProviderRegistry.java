@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import fr.paris.lutece.plugins.resource.business.IResourceType;
+import fr.paris.lutece.plugins.resource.service.provider.IResourceProvider;
+import fr.paris.lutece.portal.service.plugin.PluginEvent;
+import fr.paris.lutece.portal.service.plugin.PluginEventListener;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry that associates resource types with their resource provider. <br />
+ * The registry is built once from the resource types declared by every provider, and remembers for a while resource types that are not managed by
+ * any provider, so that lookups do not need to check every provider again. It is kept up to date through {@link #resourceTypeCreated(String)} and
+ * {@link #resourceTypeRemoved(String)}, and is reset when a plugin is installed or uninstalled. Resource types that providers start to manage without
+ * declaring them are found once their negative entry has expired. The number of remembered unmanaged resource types is bounded, since their names
+ * may come from requests. <br />
+ * Providers are never called while the lock of the registry is held.
+ */
+public class ResourceProviderRegistry implements PluginEventListener
+{
+    private static final long DEFAULT_UNMANAGED_RESOURCE_TYPE_TIME_TO_LIVE = 60000L;
+    private static final int DEFAULT_MAX_UNMANAGED_RESOURCE_TYPES = 1000;
+    private static final String LOG_PROVIDER_ERROR = "Unable to read the resource types of the following resource provider : ";
+    private final Supplier<List<IResourceProvider>> _providersSupplier;
+    private final long _lUnmanagedResourceTypeTimeToLive;
+    private final int _nMaxUnmanagedResourceTypes;
+    private final Map<String, IResourceProvider> _mapProviders = new ConcurrentHashMap<>( );
+    private final Map<String, Long> _mapUnmanagedResourceTypeExpirations = new ConcurrentHashMap<>( );
+    private final Object _lock = new Object( );
+    private volatile List<IResourceProvider> _listProviders;
+    private long _lVersion;
+
+    /**
+     * Creates a new registry
+     * 
+     * @param providersSupplier
+     *            The supplier of the list of available resource providers
+     */
+    public ResourceProviderRegistry( Supplier<List<IResourceProvider>> providersSupplier )
+    {
+        this( providersSupplier, DEFAULT_UNMANAGED_RESOURCE_TYPE_TIME_TO_LIVE );
+    }
+
+    /**
+     * Creates a new registry
+     * 
+     * @param providersSupplier
+     *            The supplier of the list of available resource providers
+     * @param lUnmanagedResourceTypeTimeToLive
+     *            The time during which a resource type that is not managed by any provider is remembered, in milliseconds
+     */
+    public ResourceProviderRegistry( Supplier<List<IResourceProvider>> providersSupplier, long lUnmanagedResourceTypeTimeToLive )
+    {
+        this( providersSupplier, lUnmanagedResourceTypeTimeToLive, DEFAULT_MAX_UNMANAGED_RESOURCE_TYPES );
+    }
+
+    /**
+     * Creates a new registry
+     * 
+     * @param providersSupplier
+     *            The supplier of the list of available resource providers
+     * @param lUnmanagedResourceTypeTimeToLive
+     *            The time during which a resource type that is not managed by any provider is remembered, in milliseconds
+     * @param nMaxUnmanagedResourceTypes
+     *            The maximum number of remembered resource types that are not managed by any provider
+     */
+    public ResourceProviderRegistry( Supplier<List<IResourceProvider>> providersSupplier, long lUnmanagedResourceTypeTimeToLive,
+            int nMaxUnmanagedResourceTypes )
+    {
+        _providersSupplier = providersSupplier;
+        _lUnmanagedResourceTypeTimeToLive = lUnmanagedResourceTypeTimeToLive;
+        _nMaxUnmanagedResourceTypes = nMaxUnmanagedResourceTypes;
+    }
+
+    /**
+     * Get the list of available resource providers. The first call reads the resource types declared by every provider. Threads that call this method
+     * while the registry is being built may read them too, since providers are not called while the lock is held.
+     * 
+     * @return The list of available resource providers
+     */
+    public List<IResourceProvider> getProviders( )
+    {
+        List<IResourceProvider> listProviders = _listProviders;
+
+        if ( listProviders != null )
+        {
+            return listProviders;
+        }
+
+        long lVersion;
+
+        synchronized( _lock )
+        {
+            lVersion = _lVersion;
+        }
+
+        listProviders = _providersSupplier.get( );
+
+        Map<String, IResourceProvider> mapDeclaredProviders = new HashMap<>( );
+
+        for ( IResourceProvider provider : listProviders )
+        {
+            try
+            {
+                for ( IResourceType resourceType : provider.getResourceTypeList( ) )
+                {
+                    mapDeclaredProviders.putIfAbsent( resourceType.getResourceTypeName( ), provider );
+                }
+            }
+            catch( RuntimeException e )
+            {
+                // The resource types of the provider are resolved one by one instead
+                AppLogService.error( LOG_PROVIDER_ERROR + provider.getClass( ).getName( ), e );
+            }
+        }
+
+        synchronized( _lock )
+        {
+            if ( _listProviders != null )
+            {
+                return _listProviders;
+            }
+
+            // The registry has been changed while providers were read : the declared resource types may be stale, the registry is built again later
+            if ( lVersion == _lVersion )
+            {
+                for ( Map.Entry<String, IResourceProvider> entry : mapDeclaredProviders.entrySet( ) )
+                {
+                    _mapProviders.putIfAbsent( entry.getKey( ), entry.getValue( ) );
+                }
+
+                _listProviders = listProviders;
+            }
+        }
+
+        return listProviders;
+    }
+
+    /**
+     * Get the resource provider of a resource type
+     * 
+     * @param strResourceTypeName
+     *            The resource type
+     * @return The resource provider, or null if no provider manages the given resource type
+     */
+    public IResourceProvider getResourceProvider( String strResourceTypeName )
+    {
+        if ( strResourceTypeName == null )
+        {
+            return null;
+        }
+
+        List<IResourceProvider> listProviders = getProviders( );
+        IResourceProvider provider = _mapProviders.get( strResourceTypeName );
+
+        if ( provider != null )
+        {
+            return provider;
+        }
+
+        Long lExpiration = _mapUnmanagedResourceTypeExpirations.get( strResourceTypeName );
+
+        if ( lExpiration != null )
+        {
+            if ( lExpiration > System.currentTimeMillis( ) )
+            {
+                return null;
+            }
+
+            _mapUnmanagedResourceTypeExpirations.remove( strResourceTypeName, lExpiration );
+        }
+
+        return resolveResourceProvider( strResourceTypeName, listProviders );
+    }
+
+    /**
+     * Declare a resource type as created
+     * 
+     * @param strResourceTypeName
+     *            The created resource type
+     */
+    public void resourceTypeCreated( String strResourceTypeName )
+    {
+        synchronized( _lock )
+        {
+            _lVersion++;
+            _mapUnmanagedResourceTypeExpirations.remove( strResourceTypeName );
+        }
+
+        if ( _listProviders != null )
+        {
+            resolveResourceProvider( strResourceTypeName, _listProviders );
+        }
+    }
+
+    /**
+     * Declare a resource type as removed
+     * 
+     * @param strResourceTypeName
+     *            The removed resource type
+     */
+    public void resourceTypeRemoved( String strResourceTypeName )
+    {
+        synchronized( _lock )
+        {
+            _lVersion++;
+            _mapProviders.remove( strResourceTypeName );
+            _mapUnmanagedResourceTypeExpirations.remove( strResourceTypeName );
+        }
+    }
+
+    /**
+     * Reset the registry. The registry will be built again on the next lookup.
+     */
+    public void reset( )
+    {
+        synchronized( _lock )
+        {
+            _lVersion++;
+            _listProviders = null;
+            _mapProviders.clear( );
+            _mapUnmanagedResourceTypeExpirations.clear( );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void processPluginEvent( PluginEvent event )
+    {
+        reset( );
+    }
+
+    /**
+     * Look for the provider of a resource type among every provider, and record the result unless the registry has changed in the meantime
+     * 
+     * @param strResourceTypeName
+     *            The resource type
+     * @param listProviders
+     *            The list of providers
+     * @return The resource provider, or null if no provider manages the given resource type
+     */
+    private IResourceProvider resolveResourceProvider( String strResourceTypeName, List<IResourceProvider> listProviders )
+    {
+        long lVersion;
+
+        synchronized( _lock )
+        {
+            lVersion = _lVersion;
+        }
+
+        for ( IResourceProvider provider : listProviders )
+        {
+            if ( provider.isResourceTypeManaged( strResourceTypeName ) )
+            {
+                synchronized( _lock )
+                {
+                    // A resource type removed while providers were checked must not be recorded again
+                    if ( lVersion == _lVersion )
+                    {
+                        _mapProviders.put( strResourceTypeName, provider );
+                    }
+                }
+
+                return provider;
+            }
+        }
+
+        synchronized( _lock )
+        {
+            // A resource type created while providers were checked must not be recorded as unmanaged
+            if ( lVersion == _lVersion )
+            {
+                long lNow = System.currentTimeMillis( );
+
+                if ( _mapUnmanagedResourceTypeExpirations.size( ) >= _nMaxUnmanagedResourceTypes )
+                {
+                    evictUnmanagedResourceTypes( lNow );
+                }
+
+                _mapUnmanagedResourceTypeExpirations.put( strResourceTypeName, lNow + _lUnmanagedResourceTypeTimeToLive );
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the number of remembered resource types that are not managed by any provider
+     * 
+     * @return The number of remembered unmanaged resource types
+     */
+    int getUnmanagedResourceTypesCount( )
+    {
+        return _mapUnmanagedResourceTypeExpirations.size( );
+    }
+
+    /**
+     * Remove expired unmanaged resource types. If there are still too many unmanaged resource types, every one of them is removed.
+     * 
+     * @param lNow
+     *            The current time
+     */
+    private void evictUnmanagedResourceTypes( long lNow )
+    {
+        Iterator<Map.Entry<String, Long>> iterator = _mapUnmanagedResourceTypeExpirations.entrySet( ).iterator( );
+
+        while ( iterator.hasNext( ) )
+        {
+            if ( iterator.next( ).getValue( ) <= lNow )
+            {
+                iterator.remove( );
+            }
+        }
+
+        if ( _mapUnmanagedResourceTypeExpirations.size( ) >= _nMaxUnmanagedResourceTypes )
+        {
+            _mapUnmanagedResourceTypeExpirations.clear( );
+        }
+    }
+}
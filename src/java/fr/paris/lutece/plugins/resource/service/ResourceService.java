@@ -35,11 +35,33 @@ package fr.paris.lutece.plugins.resource.service;
 
 import fr.paris.lutece.plugins.resource.business.IResource;
 import fr.paris.lutece.plugins.resource.business.IResourceType;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceTimer;
 import fr.paris.lutece.plugins.resource.service.provider.IResourceProvider;
+import fr.paris.lutece.plugins.resource.service.search.ResourceSearchService;
+import fr.paris.lutece.portal.service.plugin.PluginService;
 import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Resource service
@@ -47,14 +69,65 @@ import java.util.List;
 public class ResourceService
 {
     private static final String BEAN_NAME = "resource.resourceService";
+    private static final String PROPERTY_PROVIDER_TIMEOUT = "resource.provider.timeout";
+    private static final String PROPERTY_UNMANAGED_RESOURCE_TYPE_TIME_TO_LIVE = "resource.provider.unmanagedResourceType.timeToLiveSeconds";
+    private static final String PROPERTY_UNMANAGED_RESOURCE_TYPE_MAX_SIZE = "resource.provider.unmanagedResourceType.maxSize";
+    private static final String METRIC_PROVIDER_LOOKUP_MISS = "resourceService.providerLookup.miss";
+    private static final String METRIC_PROVIDER_PREFIX = "provider.";
+    private static final String LOG_PROVIDER_TIMEOUT = "Resource types of the following provider are not available yet : ";
+    private static final String MESSAGE_INCOMPLETE_RESOURCE_TYPES_LIST = "Some resource providers did not return their resource types";
+    private static final String MESSAGE_INVALID_BATCH_SIZE = "The batch size must be greater than 0 : ";
+    private static final String LOG_PROVIDER_ERROR = "An error occurred while getting resource types of the following provider : ";
+    private static final String LOG_ASYNC_LOOKUP_REJECTED = "An asynchronous lookup of resources of the following type was rejected : ";
     private static volatile ResourceService _instance;
 
+    // Names of the metrics of each class of provider, computed once instead of at each call
+    private static final ConcurrentMap<Class<?>, Map<ProviderMetric, String>> _mapProviderMetrics = new ConcurrentHashMap<>( );
+    private final ResourceProviderRegistry _providerRegistry;
+    private final long _lProviderTimeout;
+    private final Executor _asyncExecutor;
+
     /**
      * Default constructor
      */
     private ResourceService( )
     {
-        // Private constructor
+        this( new ResourceProviderRegistry( ( ) -> SpringContextService.getBeansOfType( IResourceProvider.class ),
+                AppPropertiesService.getPropertyInt( PROPERTY_UNMANAGED_RESOURCE_TYPE_TIME_TO_LIVE, 60 ) * 1000L,
+                AppPropertiesService.getPropertyInt( PROPERTY_UNMANAGED_RESOURCE_TYPE_MAX_SIZE, 1000 ) ),
+                AppPropertiesService.getPropertyInt( PROPERTY_PROVIDER_TIMEOUT, 2000 ) );
+        PluginService.registerPluginEventListener( _providerRegistry );
+    }
+
+    /**
+     * Creates a service that uses a given registry of providers. This constructor is used to run the service outside of a webapp, for instance in
+     * benchmarks.
+     * 
+     * @param providerRegistry
+     *            The registry of providers
+     * @param lProviderTimeout
+     *            The timeout of providers, in milliseconds
+     */
+    ResourceService( ResourceProviderRegistry providerRegistry, long lProviderTimeout )
+    {
+        this( providerRegistry, lProviderTimeout, ResourceExecutorService.getAsyncExecutor( ) );
+    }
+
+    /**
+     * Creates a service that uses a given registry of providers and a given executor of asynchronous lookups
+     * 
+     * @param providerRegistry
+     *            The registry of providers
+     * @param lProviderTimeout
+     *            The timeout of providers, in milliseconds
+     * @param asyncExecutor
+     *            The executor of asynchronous lookups
+     */
+    ResourceService( ResourceProviderRegistry providerRegistry, long lProviderTimeout, Executor asyncExecutor )
+    {
+        _providerRegistry = providerRegistry;
+        _lProviderTimeout = lProviderTimeout;
+        _asyncExecutor = asyncExecutor;
     }
 
     /**
@@ -79,22 +152,74 @@ public class ResourceService
      */
     public List<IResourceType> getResourceTypesList( )
     {
-        String strCacheKey = ResourceCacheService.getResourceTypesListCacheKey( );
-        List<IResourceType> listResourceTypes = (List<IResourceType>) ResourceCacheService.getInstance( ).getFromCache( strCacheKey );
+        try
+        {
+            return ResourceCacheService.getInstance( ).getOrLoad( ResourceCacheKey.ofResourceTypeList( ), this::loadResourceTypesList );
+        }
+        catch( IncompleteResourceTypesListException e )
+        {
+            // The list is not cached, it is loaded again on the next call
+            return new ArrayList<>( e.getResourceTypes( ) );
+        }
+    }
 
-        if ( listResourceTypes != null )
+    /**
+     * Load the list of available resource types. Providers are queried concurrently.
+     * 
+     * @return The list of available resource types
+     * @throws IncompleteResourceTypesListException
+     *             if a provider does not answer in time or fails. The exception holds the resource types of the other providers.
+     */
+    private List<IResourceType> loadResourceTypesList( )
+    {
+        Map<IResourceProvider, CompletableFuture<List<IResourceType>>> mapLoadings = new LinkedHashMap<>( );
+
+        for ( IResourceProvider provider : _providerRegistry.getProviders( ) )
         {
-            return listResourceTypes;
+            mapLoadings.put( provider, CompletableFuture.supplyAsync( ( ) -> {
+                try ( ResourceTimer timer = startProviderTimer( provider, ProviderMetric.GET_RESOURCE_TYPE_LIST ) )
+                {
+                    return provider.getResourceTypeList( );
+                }
+            }, ResourceExecutorService.getExecutor( ) ) );
         }
 
-        listResourceTypes = new ArrayList<>( );
+        List<IResourceType> listResourceTypes = new ArrayList<>( );
+        long lDeadline = System.nanoTime( ) + TimeUnit.MILLISECONDS.toNanos( _lProviderTimeout );
+        boolean bComplete = true;
 
-        for ( IResourceProvider provider : SpringContextService.getBeansOfType( IResourceProvider.class ) )
+        for ( Map.Entry<IResourceProvider, CompletableFuture<List<IResourceType>>> entry : mapLoadings.entrySet( ) )
         {
-            listResourceTypes.addAll( provider.getResourceTypeList( ) );
+            CompletableFuture<List<IResourceType>> loading = entry.getValue( );
+
+            try
+            {
+                listResourceTypes.addAll( loading.get( Math.max( 0L, lDeadline - System.nanoTime( ) ), TimeUnit.NANOSECONDS ) );
+            }
+            catch( TimeoutException e )
+            {
+                AppLogService.error( LOG_PROVIDER_TIMEOUT + entry.getKey( ).getClass( ).getName( ) );
+                bComplete = false;
+            }
+            catch( ExecutionException e )
+            {
+                AppLogService.error( LOG_PROVIDER_ERROR + entry.getKey( ).getClass( ).getName( ), e.getCause( ) );
+                bComplete = false;
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread( ).interrupt( );
+                bComplete = false;
+
+                break;
+            }
         }
 
-        ResourceCacheService.getInstance( ).putInCache( strCacheKey, listResourceTypes );
+        if ( !bComplete )
+        {
+            // Thrown rather than returned : the incomplete list is not cached, and threads waiting for the loading get it without loading it again
+            throw new IncompleteResourceTypesListException( listResourceTypes );
+        }
 
         return listResourceTypes;
     }
@@ -119,7 +244,8 @@ public class ResourceService
      */
     public void resourceTypeCreated( String strResourceTypeName )
     {
-        ResourceCacheService.getInstance( ).removeKey( ResourceCacheService.getResourceTypesListCacheKey( ) );
+        _providerRegistry.resourceTypeCreated( strResourceTypeName );
+        ResourceCacheService.getInstance( ).removeKey( ResourceCacheKey.ofResourceTypeList( ) );
     }
 
     /**
@@ -130,8 +256,9 @@ public class ResourceService
      */
     public void resourceTypeRemoved( String strResourceTypeName )
     {
-        ResourceCacheService.getInstance( ).removeKey( ResourceCacheService.getResourceTypeProviderCacheKey( strResourceTypeName ) );
-        ResourceCacheService.getInstance( ).removeKey( ResourceCacheService.getResourceTypesListCacheKey( ) );
+        _providerRegistry.resourceTypeRemoved( strResourceTypeName );
+        ResourceCacheService.getInstance( ).removeKey( ResourceCacheKey.ofResourceTypeList( ) );
+        ResourceSearchService.getInstance( ).invalidate( Collections.singletonList( strResourceTypeName ) );
     }
 
     /**
@@ -149,12 +276,44 @@ public class ResourceService
 
         if ( provider != null )
         {
-            return provider.getResource( strIdResource, strResourceTypeName );
+            try ( ResourceTimer timer = startProviderTimer( provider, ProviderMetric.GET_RESOURCE ) )
+            {
+                return provider.getResource( strIdResource, strResourceTypeName );
+            }
         }
 
         return null;
     }
 
+    /**
+     * Get a list of resources from their ids and type
+     * 
+     * @param listIdResources
+     *            the ids of the resources to get
+     * @param strResourceTypeName
+     *            the type of the resources to get
+     * @return The list of resources found, in the order of the given ids, or an empty list if no resource could be found
+     */
+    public List<IResource> getResources( Collection<String> listIdResources, String strResourceTypeName )
+    {
+        if ( ( listIdResources == null ) || listIdResources.isEmpty( ) )
+        {
+            return new ArrayList<>( 0 );
+        }
+
+        IResourceProvider provider = getResourceProvider( strResourceTypeName );
+
+        if ( provider != null )
+        {
+            try ( ResourceTimer timer = startProviderTimer( provider, ProviderMetric.GET_RESOURCES ) )
+            {
+                return provider.getResources( listIdResources, strResourceTypeName );
+            }
+        }
+
+        return new ArrayList<>( 0 );
+    }
+
     /**
      * Get the list of resources of a given type
      * 
@@ -168,12 +327,170 @@ public class ResourceService
 
         if ( resourceProvider != null )
         {
-            return resourceProvider.getListResources( strResourceTypeName );
+            try ( ResourceTimer timer = startProviderTimer( resourceProvider, ProviderMetric.GET_LIST_RESOURCES ) )
+            {
+                return resourceProvider.getListResources( strResourceTypeName );
+            }
+        }
+
+        return new ArrayList<>( 0 );
+    }
+
+    /**
+     * Search resources of a given type from the beginning of a word of their name, for instance to suggest resources while a name is typed. Case and
+     * accents are ignored.
+     * 
+     * @param strResourceTypeName
+     *            the resource type
+     * @param strPrefix
+     *            the beginning of a word of the name, optionally followed by the next words
+     * @param nLimit
+     *            the maximum number of resources to get
+     * @return the list of resources whose name matches the prefix, or an empty list if no resource was found
+     */
+    public List<IResource> searchResources( String strResourceTypeName, String strPrefix, int nLimit )
+    {
+        IResourceProvider resourceProvider = getResourceProvider( strResourceTypeName );
+
+        if ( resourceProvider != null )
+        {
+            try ( ResourceTimer timer = startProviderTimer( resourceProvider, ProviderMetric.SEARCH_RESOURCES ) )
+            {
+                return ResourceSearchService.getInstance( ).search( resourceProvider, strResourceTypeName, strPrefix, nLimit );
+            }
         }
 
         return new ArrayList<>( 0 );
     }
 
+    /**
+     * Get a resource from its id and type without blocking the calling thread
+     * 
+     * @param strIdResource
+     *            the id of the resource to get
+     * @param strResourceTypeName
+     *            the type of the resource to get
+     * @return The future resource. The future is completed with null if the resource could not be found, and completed exceptionally with a
+     *         {@link RejectedExecutionException} if the executor of asynchronous lookups is busy.
+     */
+    public CompletableFuture<IResource> getResourceAsync( String strIdResource, String strResourceTypeName )
+    {
+        IResourceProvider provider = getResourceProvider( strResourceTypeName );
+
+        if ( provider != null )
+        {
+            return lookUpAsync( ( ) -> provider.getResourceAsync( strIdResource, strResourceTypeName, _asyncExecutor ), strResourceTypeName );
+        }
+
+        return CompletableFuture.completedFuture( null );
+    }
+
+    /**
+     * Get a list of resources from their ids and type without blocking the calling thread
+     * 
+     * @param listIdResources
+     *            the ids of the resources to get
+     * @param strResourceTypeName
+     *            the type of the resources to get
+     * @return The future list of resources found, in the order of the given ids. The future is completed exceptionally with a
+     *         {@link RejectedExecutionException} if the executor of asynchronous lookups is busy.
+     */
+    public CompletableFuture<List<IResource>> getResourcesAsync( Collection<String> listIdResources, String strResourceTypeName )
+    {
+        if ( ( listIdResources == null ) || listIdResources.isEmpty( ) )
+        {
+            return CompletableFuture.completedFuture( new ArrayList<>( 0 ) );
+        }
+
+        IResourceProvider provider = getResourceProvider( strResourceTypeName );
+
+        if ( provider != null )
+        {
+            return lookUpAsync( ( ) -> provider.getResourcesAsync( listIdResources, strResourceTypeName, _asyncExecutor ), strResourceTypeName );
+        }
+
+        return CompletableFuture.completedFuture( new ArrayList<>( 0 ) );
+    }
+
+    /**
+     * Get the list of resources of a given type without blocking the calling thread
+     * 
+     * @param strResourceTypeName
+     *            the resource type
+     * @return the future list of resource of the given type. The future is completed exceptionally with a {@link RejectedExecutionException} if the
+     *         executor of asynchronous lookups is busy.
+     */
+    public CompletableFuture<List<IResource>> getListResourcesAsync( String strResourceTypeName )
+    {
+        IResourceProvider resourceProvider = getResourceProvider( strResourceTypeName );
+
+        if ( resourceProvider != null )
+        {
+            return lookUpAsync( ( ) -> resourceProvider.getListResourcesAsync( strResourceTypeName, _asyncExecutor ), strResourceTypeName );
+        }
+
+        return CompletableFuture.completedFuture( new ArrayList<>( 0 ) );
+    }
+
+    /**
+     * Start an asynchronous lookup. A lookup rejected by the executor of asynchronous lookups is not run on the calling thread : the returned future
+     * is completed exceptionally instead.
+     * 
+     * @param <T>
+     *            The type of the result of the lookup
+     * @param lookup
+     *            The lookup
+     * @param strResourceTypeName
+     *            The resource type
+     * @return The future result of the lookup
+     */
+    private static <T> CompletableFuture<T> lookUpAsync( Supplier<CompletableFuture<T>> lookup, String strResourceTypeName )
+    {
+        try
+        {
+            return lookup.get( );
+        }
+        catch( RejectedExecutionException e )
+        {
+            AppLogService.error( LOG_ASYNC_LOOKUP_REJECTED + strResourceTypeName );
+
+            CompletableFuture<T> rejectedLookup = new CompletableFuture<>( );
+            rejectedLookup.completeExceptionally( e );
+
+            return rejectedLookup;
+        }
+    }
+
+    /**
+     * Iterate over the resources of a given type by batches, without loading every resource in memory when the provider supports it
+     * 
+     * @param strResourceTypeName
+     *            the resource type
+     * @param nBatchSize
+     *            the maximum number of resources of each batch, greater than 0
+     * @param consumer
+     *            the consumer of batches of resources
+     * @throws IllegalArgumentException
+     *             if the batch size is not greater than 0
+     */
+    public void forEachBatch( String strResourceTypeName, int nBatchSize, Consumer<List<IResource>> consumer )
+    {
+        if ( nBatchSize <= 0 )
+        {
+            throw new IllegalArgumentException( MESSAGE_INVALID_BATCH_SIZE + nBatchSize );
+        }
+
+        IResourceProvider resourceProvider = getResourceProvider( strResourceTypeName );
+
+        if ( resourceProvider != null )
+        {
+            try ( ResourceTimer timer = startProviderTimer( resourceProvider, ProviderMetric.FOR_EACH_BATCH ) )
+            {
+                resourceProvider.forEachBatch( strResourceTypeName, nBatchSize, consumer );
+            }
+        }
+    }
+
     /**
      * Get the resource provider of a resource type
      * 
@@ -183,24 +500,150 @@ public class ResourceService
      */
     public IResourceProvider getResourceProvider( String strResourceTypeName )
     {
-        String strCacheKey = ResourceCacheService.getResourceTypeProviderCacheKey( strResourceTypeName );
-        IResourceProvider provider = (IResourceProvider) ResourceCacheService.getInstance( ).getFromCache( strCacheKey );
+        IResourceProvider provider = _providerRegistry.getResourceProvider( strResourceTypeName );
 
-        if ( provider != null )
+        if ( provider == null )
         {
-            return provider;
+            ResourceMetricsService.increment( METRIC_PROVIDER_LOOKUP_MISS );
         }
 
-        for ( IResourceProvider resourceProvider : SpringContextService.getBeansOfType( IResourceProvider.class ) )
+        return provider;
+    }
+
+    /**
+     * Start a timer of a method of a provider
+     * 
+     * @param provider
+     *            The provider
+     * @param metric
+     *            The metric of the method
+     * @return The started timer
+     */
+    private static ResourceTimer startProviderTimer( IResourceProvider provider, ProviderMetric metric )
+    {
+        if ( !ResourceMetricsService.isEnabled( ) )
         {
-            if ( resourceProvider.isResourceTypeManaged( strResourceTypeName ) )
-            {
-                ResourceCacheService.getInstance( ).putInCache( strCacheKey, resourceProvider );
+            return ResourceMetricsService.startTimer( null );
+        }
 
-                return resourceProvider;
-            }
+        return ResourceMetricsService.startTimer( getProviderMetrics( provider.getClass( ) ).get( metric ) );
+    }
+
+    /**
+     * Get the names of the metrics of a class of provider
+     * 
+     * @param providerClass
+     *            The class of the provider
+     * @return The names of the metrics of each method
+     */
+    private static Map<ProviderMetric, String> getProviderMetrics( Class<?> providerClass )
+    {
+        Map<ProviderMetric, String> mapMetrics = _mapProviderMetrics.get( providerClass );
+
+        if ( mapMetrics == null )
+        {
+            mapMetrics = _mapProviderMetrics.computeIfAbsent( providerClass, clazz -> {
+                Map<ProviderMetric, String> mapNames = new EnumMap<>( ProviderMetric.class );
+
+                for ( ProviderMetric metric : ProviderMetric.values( ) )
+                {
+                    mapNames.put( metric, METRIC_PROVIDER_PREFIX + clazz.getSimpleName( ) + metric.getSuffix( ) );
+                }
+
+                return mapNames;
+            } );
         }
 
-        return null;
+        return mapMetrics;
+    }
+
+    /**
+     * Metrics of the methods of providers
+     */
+    private enum ProviderMetric
+    {
+        /**
+         * {@link IResourceProvider#getResourceTypeList()}
+         */
+        GET_RESOURCE_TYPE_LIST( ".getResourceTypeList" ),
+
+        /**
+         * {@link IResourceProvider#getResource(String, String)}
+         */
+        GET_RESOURCE( ".getResource" ),
+
+        /**
+         * {@link IResourceProvider#getResources(Collection, String)}
+         */
+        GET_RESOURCES( ".getResources" ),
+
+        /**
+         * {@link IResourceProvider#getListResources(String)}
+         */
+        GET_LIST_RESOURCES( ".getListResources" ),
+
+        /**
+         * {@link IResourceProvider#forEachBatch(String, int, Consumer)}
+         */
+        FOR_EACH_BATCH( ".forEachBatch" ),
+
+        /**
+         * Search of resources of a provider
+         */
+        SEARCH_RESOURCES( ".searchResources" );
+
+        private final String _strSuffix;
+
+        /**
+         * Constructor
+         * 
+         * @param strSuffix
+         *            The suffix of the name of the metric, after the name of the provider
+         */
+        ProviderMetric( String strSuffix )
+        {
+            _strSuffix = strSuffix;
+        }
+
+        /**
+         * Get the suffix of the name of the metric
+         * 
+         * @return The suffix of the name of the metric, after the name of the provider
+         */
+        String getSuffix( )
+        {
+            return _strSuffix;
+        }
+    }
+
+    /**
+     * Exception thrown when some providers did not return their resource types
+     */
+    private static final class IncompleteResourceTypesListException extends RuntimeException
+    {
+        private static final long serialVersionUID = 4527196218376539013L;
+        private final transient List<IResourceType> _listResourceTypes;
+
+        /**
+         * Creates a new exception
+         * 
+         * @param listResourceTypes
+         *            The resource types of the providers that answered
+         */
+        IncompleteResourceTypesListException( List<IResourceType> listResourceTypes )
+        {
+            super( MESSAGE_INCOMPLETE_RESOURCE_TYPES_LIST );
+            _listResourceTypes = listResourceTypes;
+        }
+
+        /**
+         * Get the resource types of the providers that answered
+         * 
+         * @return The resource types
+         */
+        List<IResourceType> getResourceTypes( )
+        {
+            return _listResourceTypes;
+        }
     }
 }
@@ -33,6 +33,11 @@
  */
 package fr.paris.lutece.plugins.resource.service.action;
 
+import fr.paris.lutece.plugins.resource.business.IResource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 
 /**
@@ -86,4 +91,66 @@ public interface IResourceAction
      * @return The title of the action
      */
     String getTitle( String strIdResource, String strResourceType, Locale locale );
+
+    /**
+     * Get the resource types this action can be performed on. Actions are only evaluated for resources of these types. <br />
+     * The default implementation returns null, meaning that the action may be performed on resources of any type.
+     * 
+     * @return The names of the supported resource types, or null if every resource type is supported
+     */
+    default Collection<String> getSupportedResourceTypes( )
+    {
+        return null;
+    }
+
+    /**
+     * Evaluate the action for several resources at once. <br />
+     * The default implementation calls {@link #evaluate(IResource, Locale)} for each resource. Actions that need to query data to be evaluated
+     * should override this method to query data of every resource at once.
+     * 
+     * @param listResources
+     *            The resources
+     * @param locale
+     *            The locale
+     * @return The list of displays of the action, in the order of the given resources, with exactly one display per resource. The display of a
+     *         resource is null if the action can not be performed on this resource.
+     */
+    default List<ResourceActionDisplay> evaluate( List<? extends IResource> listResources, Locale locale )
+    {
+        List<ResourceActionDisplay> listDisplays = new ArrayList<>( listResources.size( ) );
+
+        for ( IResource resource : listResources )
+        {
+            listDisplays.add( evaluate( resource, locale ) );
+        }
+
+        return listDisplays;
+    }
+
+    /**
+     * Evaluate the action for a single resource. <br />
+     * The default implementation calls {@link #canActionBePerformed(String, String)}, {@link #getActionUrl(String, String)},
+     * {@link #getTitle(String, String, Locale)} and {@link #getIcon(String, String)}.
+     * 
+     * @param resource
+     *            The resource
+     * @param locale
+     *            The locale
+     * @return The display of the action, or null if the action can not be performed on the resource
+     */
+    default ResourceActionDisplay evaluate( IResource resource, Locale locale )
+    {
+        String strIdResource = resource.getIdResource( );
+        String strResourceType = resource.getResourceType( );
+
+        if ( !canActionBePerformed( strIdResource, strResourceType ) )
+        {
+            return null;
+        }
+
+        String strUrl = getActionUrl( strIdResource, strResourceType );
+        String strTitle = getTitle( strIdResource, strResourceType, locale );
+
+        return new ResourceActionDisplay( strUrl, strTitle, getIcon( strIdResource, strResourceType ) );
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.action;
+
+/**
+ * Immutable display of an action for a given resource : the URL, title and icon of the button of the action
+ */
+public class ResourceActionDisplay
+{
+    private final String _strUrl;
+    private final String _strTitle;
+    private final String _strIcon;
+
+    /**
+     * Creates a new display of an action
+     * 
+     * @param strUrl
+     *            The URL of the action
+     * @param strTitle
+     *            The title of the action
+     * @param strIcon
+     *            The CSS class to display the icon of the action
+     */
+    public ResourceActionDisplay( String strUrl, String strTitle, String strIcon )
+    {
+        _strUrl = strUrl;
+        _strTitle = strTitle;
+        _strIcon = strIcon;
+    }
+
+    /**
+     * Get the URL of the action
+     * 
+     * @return The URL of the action
+     */
+    public String getUrl( )
+    {
+        return _strUrl;
+    }
+
+    /**
+     * Get the title of the action
+     * 
+     * @return The title of the action
+     */
+    public String getTitle( )
+    {
+        return _strTitle;
+    }
+
+    /**
+     * Get the CSS class to display the icon of the action
+     * 
+     * @return The CSS class to display the icon of the action
+     */
+    public String getIcon( )
+    {
+        return _strIcon;
+    }
+}
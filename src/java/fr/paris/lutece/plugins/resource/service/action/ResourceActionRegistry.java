@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.action;
+
+import fr.paris.lutece.portal.service.plugin.PluginEvent;
+import fr.paris.lutece.portal.service.plugin.PluginEventListener;
+import fr.paris.lutece.portal.service.plugin.PluginService;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of resource actions. <br />
+ * Actions are read once from the Spring context, and are indexed by the resource types they support. The registry is reset when a plugin is installed
+ * or uninstalled.
+ */
+public final class ResourceActionRegistry implements PluginEventListener
+{
+    private static final ResourceActionRegistry _instance = new ResourceActionRegistry( );
+    private final Object _lock = new Object( );
+    private volatile ActionIndex _actionIndex;
+
+    /**
+     * Default constructor
+     */
+    private ResourceActionRegistry( )
+    {
+        PluginService.registerPluginEventListener( this );
+    }
+
+    /**
+     * Get the instance of the registry
+     * 
+     * @return The instance of the registry
+     */
+    public static ResourceActionRegistry getInstance( )
+    {
+        return _instance;
+    }
+
+    /**
+     * Get every declared action
+     * 
+     * @return The unmodifiable list of actions
+     */
+    public List<IResourceAction> getActions( )
+    {
+        return getActionIndex( ).getActions( );
+    }
+
+    /**
+     * Get the actions that support a given resource type
+     * 
+     * @param strResourceType
+     *            The resource type. Resources without type only support actions that can be performed on resources of any type.
+     * @return The unmodifiable list of actions that support the given resource type
+     */
+    public List<IResourceAction> getActions( String strResourceType )
+    {
+        return getActionIndex( ).getActions( strResourceType );
+    }
+
+    /**
+     * Reset the registry. Actions will be read again from the Spring context on the next lookup.
+     */
+    public void reset( )
+    {
+        synchronized( _lock )
+        {
+            _actionIndex = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void processPluginEvent( PluginEvent event )
+    {
+        reset( );
+    }
+
+    /**
+     * Get the index of actions, and build it if it has not been built yet
+     * 
+     * @return The index of actions
+     */
+    private ActionIndex getActionIndex( )
+    {
+        ActionIndex actionIndex = _actionIndex;
+
+        if ( actionIndex == null )
+        {
+            synchronized( _lock )
+            {
+                actionIndex = _actionIndex;
+
+                if ( actionIndex == null )
+                {
+                    actionIndex = new ActionIndex( SpringContextService.getBeansOfType( IResourceAction.class ) );
+                    _actionIndex = actionIndex;
+                }
+            }
+        }
+
+        return actionIndex;
+    }
+
+    /**
+     * Index of the actions declared at a given time
+     */
+    private static final class ActionIndex
+    {
+        private final List<IResourceAction> _listActions;
+        private final List<IResourceAction> _listActionsOfAnyResourceType;
+        private final Map<String, List<IResourceAction>> _mapActionsByResourceType = new ConcurrentHashMap<>( );
+
+        /**
+         * Creates a new index
+         * 
+         * @param listActions
+         *            The declared actions
+         */
+        ActionIndex( List<IResourceAction> listActions )
+        {
+            _listActions = Collections.unmodifiableList( new ArrayList<>( listActions ) );
+            _listActionsOfAnyResourceType = findActions( null );
+        }
+
+        /**
+         * Get every action
+         * 
+         * @return The list of actions
+         */
+        List<IResourceAction> getActions( )
+        {
+            return _listActions;
+        }
+
+        /**
+         * Get the actions that support a given resource type
+         * 
+         * @param strResourceType
+         *            The resource type, or null for resources without type
+         * @return The list of actions, in the order of declaration
+         */
+        List<IResourceAction> getActions( String strResourceType )
+        {
+            if ( strResourceType == null )
+            {
+                // Null keys are not supported by the map
+                return _listActionsOfAnyResourceType;
+            }
+
+            List<IResourceAction> listActions = _mapActionsByResourceType.get( strResourceType );
+
+            if ( listActions == null )
+            {
+                listActions = _mapActionsByResourceType.computeIfAbsent( strResourceType, this::findActions );
+            }
+
+            return listActions;
+        }
+
+        /**
+         * Find the actions that support a given resource type
+         * 
+         * @param strResourceType
+         *            The resource type, or null to find the actions that support every resource type
+         * @return The list of actions, in the order of declaration
+         */
+        private List<IResourceAction> findActions( String strResourceType )
+        {
+            List<IResourceAction> listActions = new ArrayList<>( );
+
+            for ( IResourceAction action : _listActions )
+            {
+                Collection<String> listSupportedResourceTypes = action.getSupportedResourceTypes( );
+
+                if ( ( listSupportedResourceTypes == null )
+                        || ( ( strResourceType != null ) && listSupportedResourceTypes.contains( strResourceType ) ) )
+                {
+                    listActions.add( action );
+                }
+            }
+
+            return Collections.unmodifiableList( listActions );
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Storage of the entries of a cache region. <br />
+ * Backends bound the number of entries they keep and choose the entries to evict, the expiration of entries is managed by the region. Backends must
+ * be thread safe.
+ */
+public interface IResourceCacheBackend
+{
+    /**
+     * Get the value associated with a key
+     * 
+     * @param key
+     *            The key
+     * @return The value, or null if the key is not stored
+     */
+    Object get( ResourceCacheKey key );
+
+    /**
+     * Associate a value with a key. The backend may evict entries, including the new one, to respect its size limit.
+     * 
+     * @param key
+     *            The key
+     * @param value
+     *            The value
+     */
+    void put( ResourceCacheKey key, Object value );
+
+    /**
+     * Remove a key
+     * 
+     * @param key
+     *            The key
+     */
+    void remove( ResourceCacheKey key );
+
+    /**
+     * Remove every key
+     */
+    void clear( );
+
+    /**
+     * Get the number of stored entries
+     * 
+     * @return The number of stored entries
+     */
+    int getSize( );
+
+    /**
+     * Get the number of stored entries of each tier of the backend, displayed in the diagnostics page
+     * 
+     * @return The number of stored entries of each tier, a single number for backends made of one tier
+     */
+    default List<Integer> getTierSizes( )
+    {
+        return Collections.singletonList( getSize( ) );
+    }
+
+    /**
+     * Get the name of the backend, displayed in the diagnostics page
+     * 
+     * @return The name of the backend
+     */
+    String getName( );
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache backend that evicts the least recently used entry when it is full. <br />
+ * Entries are stored in a concurrent map, so that reads do not take any lock. The order of accesses is kept apart, under a lock : reads only record
+ * the key they hit in a read buffer of the current thread stripe, and buffers are replayed in the order of accesses when they are full or when an
+ * entry is written. Buffers are lossy : a read recorded while the buffer is full overwrites an older read that has not been replayed, so the
+ * evicted entry is an entry that has not been read recently, but not always the least recently read one.
+ */
+public final class LruResourceCacheBackend implements IResourceCacheBackend
+{
+    /**
+     * Name of the backend
+     */
+    public static final String NAME = "lru";
+
+    private static final int READ_BUFFER_STRIPES = 16;
+    private static final int READ_BUFFER_SIZE = 32;
+
+    private final ResourceCacheKeyFamily _family;
+    private final int _nMaxSize;
+    private final Map<ResourceCacheKey, Object> _mapEntries = new ConcurrentHashMap<>( );
+    private final LinkedHashMap<ResourceCacheKey, Boolean> _mapAccessOrder = new LinkedHashMap<>( 16, 0.75f, true );
+    private final ReadBuffer [ ] _readBuffers = new ReadBuffer [ READ_BUFFER_STRIPES];
+    private final ReentrantLock _lock = new ReentrantLock( );
+
+    /**
+     * Constructor
+     * 
+     * @param family
+     *            The family of the keys of the backend, used to count evictions
+     * @param nMaxSize
+     *            The maximum number of entries
+     */
+    public LruResourceCacheBackend( ResourceCacheKeyFamily family, int nMaxSize )
+    {
+        _family = family;
+        _nMaxSize = nMaxSize;
+
+        for ( int i = 0; i < READ_BUFFER_STRIPES; i++ )
+        {
+            _readBuffers [i] = new ReadBuffer( );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object get( ResourceCacheKey key )
+    {
+        Object value = _mapEntries.get( key );
+
+        if ( value == null )
+        {
+            return null;
+        }
+
+        ReadBuffer readBuffer = _readBuffers [(int) Thread.currentThread( ).getId( ) & ( READ_BUFFER_STRIPES - 1 )];
+
+        if ( readBuffer.record( key ) && _lock.tryLock( ) )
+        {
+            try
+            {
+                readBuffer.drainTo( _mapAccessOrder );
+            }
+            finally
+            {
+                _lock.unlock( );
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put( ResourceCacheKey key, Object value )
+    {
+        _lock.lock( );
+
+        try
+        {
+            drainReadBuffers( );
+            _mapEntries.put( key, value );
+            _mapAccessOrder.put( key, Boolean.TRUE );
+
+            Iterator<ResourceCacheKey> iterator = _mapAccessOrder.keySet( ).iterator( );
+
+            while ( _mapAccessOrder.size( ) > _nMaxSize )
+            {
+                ResourceCacheKey eldestKey = iterator.next( );
+                iterator.remove( );
+                _mapEntries.remove( eldestKey );
+                ResourceMetricsService.increment( _family.getMetricEviction( ) );
+            }
+        }
+        finally
+        {
+            _lock.unlock( );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove( ResourceCacheKey key )
+    {
+        _lock.lock( );
+
+        try
+        {
+            _mapEntries.remove( key );
+            _mapAccessOrder.remove( key );
+        }
+        finally
+        {
+            _lock.unlock( );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear( )
+    {
+        _lock.lock( );
+
+        try
+        {
+            _mapEntries.clear( );
+            _mapAccessOrder.clear( );
+        }
+        finally
+        {
+            _lock.unlock( );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize( )
+    {
+        return _mapEntries.size( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName( )
+    {
+        return NAME;
+    }
+
+    /**
+     * Replay the reads recorded in every read buffer. Must be called while holding the lock.
+     */
+    private void drainReadBuffers( )
+    {
+        for ( ReadBuffer readBuffer : _readBuffers )
+        {
+            readBuffer.drainTo( _mapAccessOrder );
+        }
+    }
+
+    /**
+     * Lossy ring buffer of the keys read by the threads of a stripe
+     */
+    private static final class ReadBuffer
+    {
+        private final AtomicReferenceArray<ResourceCacheKey> _keys = new AtomicReferenceArray<>( READ_BUFFER_SIZE );
+        private final AtomicLong _lWriteCount = new AtomicLong( );
+
+        /**
+         * Record a read
+         * 
+         * @param key
+         *            The key that was read
+         * @return True if the buffer is full and should be drained
+         */
+        boolean record( ResourceCacheKey key )
+        {
+            long lIndex = _lWriteCount.getAndIncrement( );
+            _keys.lazySet( (int) ( lIndex & ( READ_BUFFER_SIZE - 1 ) ), key );
+
+            return ( lIndex & ( READ_BUFFER_SIZE - 1 ) ) == READ_BUFFER_SIZE - 1;
+        }
+
+        /**
+         * Replay the recorded reads on a map in access order, and empty the buffer. Keys that are no longer in the map are ignored.
+         * 
+         * @param mapAccessOrder
+         *            The map in access order
+         */
+        void drainTo( LinkedHashMap<ResourceCacheKey, Boolean> mapAccessOrder )
+        {
+            for ( int i = 0; i < READ_BUFFER_SIZE; i++ )
+            {
+                ResourceCacheKey key = _keys.get( i );
+
+                if ( key != null )
+                {
+                    _keys.lazySet( i, null );
+                    mapAccessOrder.get( key );
+                }
+            }
+        }
+    }
+}
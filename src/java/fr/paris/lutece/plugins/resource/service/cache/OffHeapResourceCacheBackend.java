@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceSnapshot;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Cache backend storing database resources outside of the Java heap. <br />
+ * Resources are serialized as compact records (id, expiration, type and name) appended to a direct buffer of fixed size used as a ring : once the
+ * buffer is full, new records overwrite the oldest ones. Records are indexed by id in an open addressing table made of primitive arrays. The memory
+ * used by the backend therefore does not depend on the number of cached resources, and cached resources are not scanned by the garbage collector.
+ * <br />
+ * The index stays on the heap : it has between 2 and 4 slots for each indexed resource, rounded to a power of two, and each slot takes 12 bytes,
+ * that is about 25 MB for 1,000,000 resources. The maximum number of indexed resources is capped at {@link #MAX_ENTRIES}, whose index takes
+ * 192 MB. <br />
+ * Only entries of the family {@link ResourceCacheKeyFamily#DATABASE_RESOURCE} whose object is an {@link IResource} are stored, other entries are
+ * ignored.
+ */
+public final class OffHeapResourceCacheBackend implements IResourceCacheBackend
+{
+    /**
+     * Name of the backend
+     */
+    public static final String NAME = "offHeap";
+
+    /**
+     * Maximum number of indexed resources
+     */
+    public static final int MAX_ENTRIES = 1 << 23;
+
+    private static final long EMPTY_SLOT = -1L;
+    private static final int NULL_LENGTH = -1;
+
+    // Id (int), expiration (long), length of the resource type (int) and length of the resource name (int)
+    private static final int RECORD_HEADER_SIZE = 20;
+
+    private final ByteBuffer _buffer;
+    private final int _nCapacity;
+    private final int _nMaxEntries;
+    private final int [ ] _keys;
+    private final long [ ] _positions;
+    private final int _nIndexMask;
+    private int _nSize;
+
+    // Position of the next record, counted from the creation of the buffer. Records before _lWritePosition - _nCapacity have been overwritten.
+    private long _lWritePosition;
+
+    /**
+     * Constructor
+     * 
+     * @param nCapacity
+     *            The size of the buffer in bytes
+     * @param nMaxEntries
+     *            The maximum number of indexed resources, capped at {@link #MAX_ENTRIES}
+     */
+    public OffHeapResourceCacheBackend( int nCapacity, int nMaxEntries )
+    {
+        _buffer = ByteBuffer.allocateDirect( nCapacity );
+        _nCapacity = nCapacity;
+        _nMaxEntries = Math.min( Math.max( 1, nMaxEntries ), MAX_ENTRIES );
+
+        // At most half of the slots are used, so that clusters stay short
+        int nIndexLength = Integer.highestOneBit( _nMaxEntries * 2 - 1 ) << 1;
+        _keys = new int [ nIndexLength];
+        _positions = new long [ nIndexLength];
+        _nIndexMask = nIndexLength - 1;
+        Arrays.fill( _positions, EMPTY_SLOT );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object get( ResourceCacheKey key )
+    {
+        if ( key.getFamily( ) != ResourceCacheKeyFamily.DATABASE_RESOURCE )
+        {
+            return null;
+        }
+
+        int nIdResource = (int) key.getNumber( );
+        int nSlot = findSlot( nIdResource );
+
+        if ( nSlot < 0 )
+        {
+            return null;
+        }
+
+        long lPosition = _positions [nSlot];
+
+        if ( isOverwritten( lPosition ) )
+        {
+            removeSlot( nSlot );
+
+            return null;
+        }
+
+        return readRecord( nIdResource, lPosition );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void put( ResourceCacheKey key, Object value )
+    {
+        if ( key.getFamily( ) != ResourceCacheKeyFamily.DATABASE_RESOURCE || !( value instanceof ResourceCacheEntry )
+                || !( ( (ResourceCacheEntry) value ).getObject( ) instanceof IResource ) )
+        {
+            return;
+        }
+
+        ResourceCacheEntry entry = (ResourceCacheEntry) value;
+        IResource resource = (IResource) entry.getObject( );
+        byte [ ] resourceType = toBytes( resource.getResourceType( ) );
+        byte [ ] resourceName = toBytes( resource.getResourceName( ) );
+        int nRecordSize = RECORD_HEADER_SIZE + length( resourceType ) + length( resourceName );
+        int nIdResource = (int) key.getNumber( );
+
+        if ( nRecordSize > _nCapacity )
+        {
+            remove( key );
+
+            return;
+        }
+
+        int nOffset = (int) ( _lWritePosition % _nCapacity );
+
+        // Records never wrap around the end of the buffer
+        if ( nOffset + nRecordSize > _nCapacity )
+        {
+            _lWritePosition += _nCapacity - nOffset;
+            nOffset = 0;
+        }
+
+        setBufferPosition( nOffset );
+        _buffer.putInt( nIdResource );
+        _buffer.putLong( entry.getExpiration( ) );
+        writeBytes( resourceType );
+        writeBytes( resourceName );
+
+        putSlot( nIdResource, _lWritePosition );
+        _lWritePosition += nRecordSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void remove( ResourceCacheKey key )
+    {
+        if ( key.getFamily( ) != ResourceCacheKeyFamily.DATABASE_RESOURCE )
+        {
+            return;
+        }
+
+        int nSlot = findSlot( (int) key.getNumber( ) );
+
+        if ( nSlot >= 0 )
+        {
+            removeSlot( nSlot );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void clear( )
+    {
+        Arrays.fill( _positions, EMPTY_SLOT );
+        _nSize = 0;
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * The size includes records that have been overwritten but not read since.
+     */
+    @Override
+    public synchronized int getSize( )
+    {
+        return _nSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName( )
+    {
+        return NAME;
+    }
+
+    /**
+     * Read a record
+     * 
+     * @param nIdResource
+     *            The id of the resource
+     * @param lPosition
+     *            The position of the record
+     * @return The entry of the record
+     */
+    private ResourceCacheEntry readRecord( int nIdResource, long lPosition )
+    {
+        setBufferPosition( (int) ( lPosition % _nCapacity ) );
+
+        if ( _buffer.getInt( ) != nIdResource )
+        {
+            return null;
+        }
+
+        long lExpiration = _buffer.getLong( );
+        String strResourceType = readString( );
+        String strResourceName = readString( );
+        IResource resource = new DatabaseResourceSnapshot( Integer.toString( nIdResource ), strResourceType, strResourceName );
+
+        return new ResourceCacheEntry( resource, lExpiration );
+    }
+
+    /**
+     * Set the position of the buffer. The buffer is used as a {@link Buffer}, whose position method has the same signature in every version of Java.
+     * 
+     * @param nPosition
+     *            The position
+     */
+    private void setBufferPosition( int nPosition )
+    {
+        ( (Buffer) _buffer ).position( nPosition );
+    }
+
+    /**
+     * Write an array of bytes preceded by its length
+     * 
+     * @param bytes
+     *            The bytes, or null
+     */
+    private void writeBytes( byte [ ] bytes )
+    {
+        if ( bytes == null )
+        {
+            _buffer.putInt( NULL_LENGTH );
+        }
+        else
+        {
+            _buffer.putInt( bytes.length );
+            _buffer.put( bytes );
+        }
+    }
+
+    /**
+     * Read a string written by {@link #writeBytes(byte[])}
+     * 
+     * @return The string, or null
+     */
+    private String readString( )
+    {
+        int nLength = _buffer.getInt( );
+
+        if ( nLength == NULL_LENGTH )
+        {
+            return null;
+        }
+
+        byte [ ] bytes = new byte [ nLength];
+        _buffer.get( bytes );
+
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * Check if a record has been overwritten by more recent records
+     * 
+     * @param lPosition
+     *            The position of the record
+     * @return True if the record has been overwritten, false otherwise
+     */
+    private boolean isOverwritten( long lPosition )
+    {
+        return lPosition < _lWritePosition - _nCapacity;
+    }
+
+    /**
+     * Find the slot of the index associated with a resource
+     * 
+     * @param nIdResource
+     *            The id of the resource
+     * @return The slot, or -1 if the resource is not indexed
+     */
+    private int findSlot( int nIdResource )
+    {
+        int nSlot = indexOf( nIdResource );
+
+        while ( _positions [nSlot] != EMPTY_SLOT )
+        {
+            if ( _keys [nSlot] == nIdResource )
+            {
+                return nSlot;
+            }
+
+            nSlot = ( nSlot + 1 ) & _nIndexMask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Associate the position of a record with a resource in the index. Overwritten records are removed from the index when it is full, and the index
+     * is cleared if it is still full.
+     * 
+     * @param nIdResource
+     *            The id of the resource
+     * @param lPosition
+     *            The position of the record
+     */
+    private void putSlot( int nIdResource, long lPosition )
+    {
+        int nSlot = findSlot( nIdResource );
+
+        if ( nSlot >= 0 )
+        {
+            _positions [nSlot] = lPosition;
+
+            return;
+        }
+
+        if ( _nSize >= _nMaxEntries )
+        {
+            removeOverwrittenSlots( );
+
+            if ( _nSize >= _nMaxEntries )
+            {
+                ResourceMetricsService.increment( ResourceCacheKeyFamily.DATABASE_RESOURCE.getMetricEviction( ) );
+                clear( );
+            }
+        }
+
+        nSlot = indexOf( nIdResource );
+
+        while ( _positions [nSlot] != EMPTY_SLOT )
+        {
+            nSlot = ( nSlot + 1 ) & _nIndexMask;
+        }
+
+        _keys [nSlot] = nIdResource;
+        _positions [nSlot] = lPosition;
+        _nSize++;
+    }
+
+    /**
+     * Remove a slot of the index, and shift the following slots of the same cluster back so that lookups do not stop before them
+     * 
+     * @param nSlot
+     *            The slot
+     */
+    private void removeSlot( int nSlot )
+    {
+        int nFreeSlot = nSlot;
+        int nCurrentSlot = nSlot;
+        _positions [nFreeSlot] = EMPTY_SLOT;
+        _nSize--;
+
+        while ( true )
+        {
+            nCurrentSlot = ( nCurrentSlot + 1 ) & _nIndexMask;
+
+            if ( _positions [nCurrentSlot] == EMPTY_SLOT )
+            {
+                return;
+            }
+
+            int nIdealSlot = indexOf( _keys [nCurrentSlot] );
+            boolean bStaysInPlace = ( nFreeSlot <= nCurrentSlot ) ? ( nFreeSlot < nIdealSlot && nIdealSlot <= nCurrentSlot )
+                    : ( nFreeSlot < nIdealSlot || nIdealSlot <= nCurrentSlot );
+
+            if ( !bStaysInPlace )
+            {
+                _keys [nFreeSlot] = _keys [nCurrentSlot];
+                _positions [nFreeSlot] = _positions [nCurrentSlot];
+                _positions [nCurrentSlot] = EMPTY_SLOT;
+                nFreeSlot = nCurrentSlot;
+            }
+        }
+    }
+
+    /**
+     * Remove the slots of overwritten records from the index
+     */
+    private void removeOverwrittenSlots( )
+    {
+        int [ ] keys = _keys.clone( );
+        long [ ] positions = _positions.clone( );
+        clear( );
+
+        for ( int i = 0; i < positions.length; i++ )
+        {
+            if ( positions [i] != EMPTY_SLOT && !isOverwritten( positions [i] ) )
+            {
+                int nSlot = indexOf( keys [i] );
+
+                while ( _positions [nSlot] != EMPTY_SLOT )
+                {
+                    nSlot = ( nSlot + 1 ) & _nIndexMask;
+                }
+
+                _keys [nSlot] = keys [i];
+                _positions [nSlot] = positions [i];
+                _nSize++;
+            }
+        }
+    }
+
+    /**
+     * Get the ideal slot of a resource in the index
+     * 
+     * @param nIdResource
+     *            The id of the resource
+     * @return The ideal slot
+     */
+    private int indexOf( int nIdResource )
+    {
+        int nHash = nIdResource * 0x9E3779B9;
+
+        return ( nHash ^ ( nHash >>> 16 ) ) & _nIndexMask;
+    }
+
+    /**
+     * Encode a string
+     * 
+     * @param strValue
+     *            The string, or null
+     * @return The UTF-8 bytes of the string, or null
+     */
+    private static byte [ ] toBytes( String strValue )
+    {
+        return ( strValue != null ) ? strValue.getBytes( StandardCharsets.UTF_8 ) : null;
+    }
+
+    /**
+     * Get the length of an array of bytes
+     * 
+     * @param bytes
+     *            The bytes, or null
+     * @return The length of the array, or 0 if the array is null
+     */
+    private static int length( byte [ ] bytes )
+    {
+        return ( bytes != null ) ? bytes.length : 0;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+/**
+ * Entry of a cache region, stored in its backend
+ */
+final class ResourceCacheEntry
+{
+    private final Object _object;
+    private final long _lExpiration;
+
+    /**
+     * Constructor
+     * 
+     * @param object
+     *            The cached object
+     * @param lExpiration
+     *            The expiration time of the entry, or {@link Long#MAX_VALUE} if the entry never expires
+     */
+    ResourceCacheEntry( Object object, long lExpiration )
+    {
+        _object = object;
+        _lExpiration = lExpiration;
+    }
+
+    /**
+     * Get the cached object
+     * 
+     * @return The cached object
+     */
+    Object getObject( )
+    {
+        return _object;
+    }
+
+    /**
+     * Get the expiration time of the entry
+     * 
+     * @return The expiration time of the entry
+     */
+    long getExpiration( )
+    {
+        return _lExpiration;
+    }
+
+    /**
+     * Check if the entry has expired
+     * 
+     * @param lNow
+     *            The current time
+     * @return True if the entry has expired, false otherwise
+     */
+    boolean isExpired( long lNow )
+    {
+        return _lExpiration < lNow;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import java.util.Objects;
+
+/**
+ * Key of the resource cache. <br />
+ * Keys are composite : they keep their parts instead of concatenating them, and their hash code is computed once. Comparing two keys therefore never
+ * allocates, and keys of different families can not collide.
+ */
+public final class ResourceCacheKey
+{
+    private static final String CONSTANT_POINT = ".";
+    private static final ResourceCacheKey KEY_RESOURCE_TYPE_LIST = new ResourceCacheKey( ResourceCacheKeyFamily.RESOURCE_TYPE_LIST, null, 0L );
+
+    private final ResourceCacheKeyFamily _family;
+    private final String _strResourceType;
+    private final long _lNumber;
+    private final String _strIdResource;
+    private final int _nHashCode;
+
+    /**
+     * Constructor
+     * 
+     * @param family
+     *            The family of the key
+     * @param strResourceType
+     *            The resource type, or null
+     * @param lNumber
+     *            The id of the database resource or the generation of the list, 0 otherwise
+     */
+    private ResourceCacheKey( ResourceCacheKeyFamily family, String strResourceType, long lNumber )
+    {
+        this( family, strResourceType, lNumber, null );
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param family
+     *            The family of the key
+     * @param strResourceType
+     *            The resource type, or null
+     * @param lNumber
+     *            The id of the database resource or the generation of the list, 0 otherwise
+     * @param strIdResource
+     *            The id of the third-party resource, or null
+     */
+    private ResourceCacheKey( ResourceCacheKeyFamily family, String strResourceType, long lNumber, String strIdResource )
+    {
+        _family = family;
+        _strResourceType = strResourceType;
+        _lNumber = lNumber;
+        _strIdResource = strIdResource;
+
+        int nHashCode = family.ordinal( );
+        nHashCode = 31 * nHashCode + Objects.hashCode( strResourceType );
+        nHashCode = 31 * nHashCode + Long.hashCode( lNumber );
+        nHashCode = 31 * nHashCode + Objects.hashCode( strIdResource );
+        _nHashCode = nHashCode;
+    }
+
+    /**
+     * Get the key of the list of resource types
+     * 
+     * @return The key of the list of resource types
+     */
+    public static ResourceCacheKey ofResourceTypeList( )
+    {
+        return KEY_RESOURCE_TYPE_LIST;
+    }
+
+    /**
+     * Get the key of a database resource type
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @return The key
+     */
+    public static ResourceCacheKey ofResourceType( String strResourceType )
+    {
+        return new ResourceCacheKey( ResourceCacheKeyFamily.RESOURCE_TYPE, strResourceType, 0L );
+    }
+
+    /**
+     * Get the key of a database resource
+     * 
+     * @param nIdResource
+     *            The id of the resource
+     * @return The key
+     */
+    public static ResourceCacheKey ofDatabaseResource( int nIdResource )
+    {
+        return new ResourceCacheKey( ResourceCacheKeyFamily.DATABASE_RESOURCE, null, nIdResource );
+    }
+
+    /**
+     * Get the key of a database resource
+     * 
+     * @param strIdResource
+     *            The id of the resource
+     * @return The key
+     */
+    public static ResourceCacheKey ofDatabaseResource( String strIdResource )
+    {
+        return ofDatabaseResource( Integer.parseInt( strIdResource ) );
+    }
+
+    /**
+     * Get the key of a generation of the list of the database resources of a resource type
+     * 
+     * @param strResourceType
+     *            The resource type
+     * @param lGeneration
+     *            The generation of the list
+     * @return The key
+     */
+    public static ResourceCacheKey ofResourceList( String strResourceType, long lGeneration )
+    {
+        return new ResourceCacheKey( ResourceCacheKeyFamily.RESOURCE_LIST, strResourceType, lGeneration );
+    }
+
+    /**
+     * Get the key of a resource of a provider other than the database provider. Plugins that cache their resources should use these keys, so that
+     * their resources are stored in the region {@link ResourceCacheKeyFamily#THIRD_PARTY_RESOURCE}.
+     * 
+     * @param strIdResource
+     *            The id of the resource
+     * @param strResourceType
+     *            The resource type
+     * @return The key
+     */
+    public static ResourceCacheKey ofThirdPartyResource( String strIdResource, String strResourceType )
+    {
+        return new ResourceCacheKey( ResourceCacheKeyFamily.THIRD_PARTY_RESOURCE, strResourceType, 0L, strIdResource );
+    }
+
+    /**
+     * Get the family of the key
+     * 
+     * @return The family of the key
+     */
+    public ResourceCacheKeyFamily getFamily( )
+    {
+        return _family;
+    }
+
+    /**
+     * Get the resource type of the key
+     * 
+     * @return The resource type, or null if the family of the key is not associated with a resource type
+     */
+    public String getResourceType( )
+    {
+        return _strResourceType;
+    }
+
+    /**
+     * Get the number of the key
+     * 
+     * @return The id of the resource of a key of the family {@link ResourceCacheKeyFamily#DATABASE_RESOURCE}, the generation of a key of the family
+     *         {@link ResourceCacheKeyFamily#RESOURCE_LIST}, 0 otherwise
+     */
+    public long getNumber( )
+    {
+        return _lNumber;
+    }
+
+    /**
+     * Get the id of the resource of the key
+     * 
+     * @return The id of the resource of a key of the family {@link ResourceCacheKeyFamily#THIRD_PARTY_RESOURCE}, null otherwise
+     */
+    public String getIdResource( )
+    {
+        return _strIdResource;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode( )
+    {
+        return _nHashCode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals( Object object )
+    {
+        if ( this == object )
+        {
+            return true;
+        }
+
+        if ( !( object instanceof ResourceCacheKey ) )
+        {
+            return false;
+        }
+
+        ResourceCacheKey other = (ResourceCacheKey) object;
+
+        return _nHashCode == other._nHashCode && _family == other._family && _lNumber == other._lNumber
+                && Objects.equals( _strResourceType, other._strResourceType ) && Objects.equals( _strIdResource, other._strIdResource );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString( )
+    {
+        StringBuilder sbKey = new StringBuilder( _family.getName( ) );
+
+        if ( _strResourceType != null )
+        {
+            sbKey.append( CONSTANT_POINT ).append( _strResourceType );
+        }
+
+        if ( _lNumber != 0L || _family == ResourceCacheKeyFamily.DATABASE_RESOURCE )
+        {
+            sbKey.append( CONSTANT_POINT ).append( _lNumber );
+        }
+
+        if ( _strIdResource != null )
+        {
+            sbKey.append( CONSTANT_POINT ).append( _strIdResource );
+        }
+
+        return sbKey.toString( );
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+/**
+ * Families of keys of the resource cache. Each family is stored in its own cache region, with its own size limit and time to live.
+ */
+public enum ResourceCacheKeyFamily
+{
+    /**
+     * List of every resource type
+     */
+    RESOURCE_TYPE_LIST( "resourceTypeList" ),
+
+    /**
+     * Database resource type
+     */
+    RESOURCE_TYPE( "resourceType" ),
+
+    /**
+     * Database resource
+     */
+    DATABASE_RESOURCE( "databaseResource" ),
+
+    /**
+     * List of the database resources of a resource type
+     */
+    RESOURCE_LIST( "resourceList" ),
+
+    /**
+     * Resource of a provider other than the database provider, cached by the plugin of the provider
+     */
+    THIRD_PARTY_RESOURCE( "thirdPartyResource" );
+
+    private static final String METRIC_PREFIX = "cache.";
+    private static final String METRIC_HIT = ".hit";
+    private static final String METRIC_MISS = ".miss";
+    private static final String METRIC_REMOVAL = ".removal";
+    private static final String METRIC_EVICTION = ".eviction";
+
+    private final String _strName;
+    private final String _strMetricHit;
+    private final String _strMetricMiss;
+    private final String _strMetricRemoval;
+    private final String _strMetricEviction;
+
+    /**
+     * Constructor
+     * 
+     * @param strName
+     *            The name of the family, used in properties and metrics
+     */
+    ResourceCacheKeyFamily( String strName )
+    {
+        _strName = strName;
+        _strMetricHit = METRIC_PREFIX + strName + METRIC_HIT;
+        _strMetricMiss = METRIC_PREFIX + strName + METRIC_MISS;
+        _strMetricRemoval = METRIC_PREFIX + strName + METRIC_REMOVAL;
+        _strMetricEviction = METRIC_PREFIX + strName + METRIC_EVICTION;
+    }
+
+    /**
+     * Get the name of the family, used in properties and metrics
+     * 
+     * @return The name of the family
+     */
+    public String getName( )
+    {
+        return _strName;
+    }
+
+    /**
+     * Get the name of the metric counting cache hits of this family
+     * 
+     * @return The name of the metric
+     */
+    public String getMetricHit( )
+    {
+        return _strMetricHit;
+    }
+
+    /**
+     * Get the name of the metric counting cache misses of this family
+     * 
+     * @return The name of the metric
+     */
+    public String getMetricMiss( )
+    {
+        return _strMetricMiss;
+    }
+
+    /**
+     * Get the name of the metric counting keys of this family removed from the cache
+     * 
+     * @return The name of the metric
+     */
+    public String getMetricRemoval( )
+    {
+        return _strMetricRemoval;
+    }
+
+    /**
+     * Get the name of the metric counting keys of this family evicted because their region is full
+     * 
+     * @return The name of the metric
+     */
+    public String getMetricEviction( )
+    {
+        return _strMetricEviction;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+import org.springframework.beans.BeansException;
+
+import java.util.List;
+
+/**
+ * Region of the resource cache that stores the keys of one family. <br />
+ * Entries are stored in a {@link IResourceCacheBackend} that keeps at most a given number of entries and chooses the entries to evict. Entries also
+ * expire after a time to live, if one is defined.
+ */
+public final class ResourceCacheRegion
+{
+    private static final String PROPERTY_PREFIX = "resource.cache.region.";
+    private static final String PROPERTY_SUFFIX_MAX_SIZE = ".maxSize";
+    private static final String PROPERTY_SUFFIX_TIME_TO_LIVE = ".timeToLiveSeconds";
+    private static final String PROPERTY_SUFFIX_BACKEND = ".backend";
+    private static final String PROPERTY_SUFFIX_OFF_HEAP_MAX_MEGABYTES = ".offHeap.maxMegabytes";
+    private static final String PROPERTY_SUFFIX_OFF_HEAP_MAX_ENTRIES = ".offHeap.maxEntries";
+    private static final int DEFAULT_MAX_SIZE = 10000;
+    private static final int DEFAULT_TIME_TO_LIVE = 0;
+    private static final int DEFAULT_OFF_HEAP_MAX_MEGABYTES = 0;
+    private static final int DEFAULT_OFF_HEAP_MAX_ENTRIES = 1000000;
+    private static final int MAX_OFF_HEAP_MEGABYTES = 2047;
+    private static final long CONSTANT_MEGABYTE = 1024L * 1024L;
+    private static final String LOG_UNKNOWN_BACKEND = "Unknown cache backend : ";
+    private static final String LOG_DEFAULT_BACKEND = ", the backend " + TinyLfuResourceCacheBackend.NAME + " is used for the region ";
+
+    private final ResourceCacheKeyFamily _family;
+    private final IResourceCacheBackend _backend;
+    private final int _nMaxSize;
+    private final long _lTimeToLive;
+
+    /**
+     * Constructor
+     * 
+     * @param family
+     *            The family of the keys of the region
+     * @param backend
+     *            The backend storing the entries of the region
+     * @param nMaxSize
+     *            The maximum number of entries of the region
+     * @param lTimeToLive
+     *            The time to live of entries in milliseconds, or 0 if entries never expire
+     */
+    public ResourceCacheRegion( ResourceCacheKeyFamily family, IResourceCacheBackend backend, int nMaxSize, long lTimeToLive )
+    {
+        _family = family;
+        _backend = backend;
+        _nMaxSize = nMaxSize;
+        _lTimeToLive = lTimeToLive;
+    }
+
+    /**
+     * Create the region of a family of keys. The region is configured by the following properties :
+     * <ul>
+     * <li><code>resource.cache.region.&lt;family&gt;.maxSize</code> : the maximum number of entries</li>
+     * <li><code>resource.cache.region.&lt;family&gt;.timeToLiveSeconds</code> : the time to live of entries, 0 if entries never expire</li>
+     * <li><code>resource.cache.region.&lt;family&gt;.backend</code> : {@link LruResourceCacheBackend#NAME}, {@link TinyLfuResourceCacheBackend#NAME}
+     * or the name of a Spring bean implementing {@link IResourceCacheBackendFactory}</li>
+     * <li><code>resource.cache.region.databaseResource.offHeap.maxMegabytes</code> : the size of the off-heap tier of database resources, 0 to
+     * disable it</li>
+     * <li><code>resource.cache.region.databaseResource.offHeap.maxEntries</code> : the maximum number of resources of the off-heap tier, capped at
+     * {@link OffHeapResourceCacheBackend#MAX_ENTRIES}. The index of these resources stays on the heap.</li>
+     * </ul>
+     * 
+     * @param family
+     *            The family of the keys of the region
+     * @return The region
+     */
+    public static ResourceCacheRegion create( ResourceCacheKeyFamily family )
+    {
+        String strPrefix = PROPERTY_PREFIX + family.getName( );
+        int nMaxSize = AppPropertiesService.getPropertyInt( strPrefix + PROPERTY_SUFFIX_MAX_SIZE, DEFAULT_MAX_SIZE );
+        int nTimeToLive = AppPropertiesService.getPropertyInt( strPrefix + PROPERTY_SUFFIX_TIME_TO_LIVE, DEFAULT_TIME_TO_LIVE );
+        String strBackend = AppPropertiesService.getProperty( strPrefix + PROPERTY_SUFFIX_BACKEND, TinyLfuResourceCacheBackend.NAME );
+        IResourceCacheBackend backend = createBackend( family, strBackend, nMaxSize );
+
+        if ( family == ResourceCacheKeyFamily.DATABASE_RESOURCE )
+        {
+            int nOffHeapMaxMegabytes = AppPropertiesService.getPropertyInt( strPrefix + PROPERTY_SUFFIX_OFF_HEAP_MAX_MEGABYTES,
+                    DEFAULT_OFF_HEAP_MAX_MEGABYTES );
+
+            if ( nOffHeapMaxMegabytes > 0 )
+            {
+                int nOffHeapMaxEntries = AppPropertiesService.getPropertyInt( strPrefix + PROPERTY_SUFFIX_OFF_HEAP_MAX_ENTRIES,
+                        DEFAULT_OFF_HEAP_MAX_ENTRIES );
+                int nCapacity = (int) ( Math.min( nOffHeapMaxMegabytes, MAX_OFF_HEAP_MEGABYTES ) * CONSTANT_MEGABYTE );
+                backend = new TieredResourceCacheBackend( backend, new OffHeapResourceCacheBackend( nCapacity, nOffHeapMaxEntries ) );
+            }
+        }
+
+        return new ResourceCacheRegion( family, backend, nMaxSize, nTimeToLive * 1000L );
+    }
+
+    /**
+     * Create the backend of a region
+     * 
+     * @param family
+     *            The family of the keys of the region
+     * @param strBackend
+     *            The name of a built-in backend, or the name of a Spring bean implementing {@link IResourceCacheBackendFactory}
+     * @param nMaxSize
+     *            The maximum number of entries of the region
+     * @return The backend
+     */
+    private static IResourceCacheBackend createBackend( ResourceCacheKeyFamily family, String strBackend, int nMaxSize )
+    {
+        if ( LruResourceCacheBackend.NAME.equals( strBackend ) )
+        {
+            return new LruResourceCacheBackend( family, nMaxSize );
+        }
+
+        if ( TinyLfuResourceCacheBackend.NAME.equals( strBackend ) )
+        {
+            return new TinyLfuResourceCacheBackend( family, nMaxSize );
+        }
+
+        try
+        {
+            IResourceCacheBackendFactory factory = SpringContextService.getBean( strBackend );
+
+            return factory.createBackend( family, nMaxSize );
+        }
+        catch( BeansException | ClassCastException e )
+        {
+            AppLogService.error( LOG_UNKNOWN_BACKEND + strBackend + LOG_DEFAULT_BACKEND + family.getName( ), e );
+
+            return new TinyLfuResourceCacheBackend( family, nMaxSize );
+        }
+    }
+
+    /**
+     * Get an object of the region
+     * 
+     * @param key
+     *            The key of the object
+     * @return The object, or null if the key is not in the region or has expired
+     */
+    public Object get( ResourceCacheKey key )
+    {
+        Object value = _backend.get( key );
+
+        if ( !( value instanceof ResourceCacheEntry ) )
+        {
+            return null;
+        }
+
+        ResourceCacheEntry entry = (ResourceCacheEntry) value;
+
+        if ( entry.isExpired( System.currentTimeMillis( ) ) )
+        {
+            _backend.remove( key );
+
+            return null;
+        }
+
+        return entry.getObject( );
+    }
+
+    /**
+     * Put an object in the region
+     * 
+     * @param key
+     *            The key of the object
+     * @param object
+     *            The object
+     */
+    public void put( ResourceCacheKey key, Object object )
+    {
+        long lExpiration = ( _lTimeToLive > 0 ) ? ( System.currentTimeMillis( ) + _lTimeToLive ) : Long.MAX_VALUE;
+        _backend.put( key, new ResourceCacheEntry( object, lExpiration ) );
+    }
+
+    /**
+     * Remove an object from the region
+     * 
+     * @param key
+     *            The key of the object
+     */
+    public void remove( ResourceCacheKey key )
+    {
+        _backend.remove( key );
+    }
+
+    /**
+     * Remove every object from the region
+     */
+    public void clear( )
+    {
+        _backend.clear( );
+    }
+
+    /**
+     * Get the number of entries of the region, including expired entries that have not been read since their expiration
+     * 
+     * @return The number of entries
+     */
+    public int getSize( )
+    {
+        return _backend.getSize( );
+    }
+
+    /**
+     * Get the number of entries of each tier of the backend of the region, including expired entries that have not been read since their expiration
+     * 
+     * @return The number of entries of each tier
+     */
+    public List<Integer> getTierSizes( )
+    {
+        return _backend.getTierSizes( );
+    }
+
+    /**
+     * Get the family of the keys of the region
+     * 
+     * @return The family
+     */
+    public ResourceCacheKeyFamily getFamily( )
+    {
+        return _family;
+    }
+
+    /**
+     * Get the name of the region
+     * 
+     * @return The name of the family of the keys of the region
+     */
+    public String getName( )
+    {
+        return _family.getName( );
+    }
+
+    /**
+     * Get the name of the backend of the region
+     * 
+     * @return The name of the backend
+     */
+    public String getBackendName( )
+    {
+        return _backend.getName( );
+    }
+
+    /**
+     * Get the maximum number of entries of the region
+     * 
+     * @return The maximum number of entries
+     */
+    public int getMaxSize( )
+    {
+        return _nMaxSize;
+    }
+
+    /**
+     * Get the time to live of entries
+     * 
+     * @return The time to live of entries in seconds, or 0 if entries never expire
+     */
+    public long getTimeToLiveSeconds( )
+    {
+        return _lTimeToLive / 1000L;
+    }
+}
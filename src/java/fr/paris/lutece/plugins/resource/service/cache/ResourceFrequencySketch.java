@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+/**
+ * Approximate count of the recent accesses to keys, used by {@link TinyLfuResourceCacheBackend} to admit entries. <br />
+ * The sketch is a count-min sketch of 4-bit counters, 16 counters being packed in each long. Each key is counted in 4 counters and its frequency is
+ * the minimum of them. Every counter is halved when the number of counted accesses reaches 10 times the size of the cache, so that old accesses are
+ * forgotten. This class is not thread safe.
+ */
+final class ResourceFrequencySketch
+{
+    private static final long [ ] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final int SAMPLE_SIZE_FACTOR = 10;
+    private static final int MAX_TABLE_LENGTH = 1 << 26;
+
+    private final long [ ] _table;
+    private final int _nTableMask;
+    private final int _nSampleSize;
+    private int _nSize;
+
+    /**
+     * Constructor
+     * 
+     * @param nMaxSize
+     *            The maximum number of entries of the cache
+     */
+    ResourceFrequencySketch( int nMaxSize )
+    {
+        // One long for each entry, rounded to the next power of two
+        int nEntries = Math.min( Math.max( nMaxSize, 1 ), MAX_TABLE_LENGTH );
+        int nTableLength = ( nEntries == 1 ) ? 1 : ( Integer.highestOneBit( nEntries - 1 ) << 1 );
+        _table = new long [ nTableLength];
+        _nTableMask = nTableLength - 1;
+        _nSampleSize = ( nMaxSize > Integer.MAX_VALUE / SAMPLE_SIZE_FACTOR ) ? Integer.MAX_VALUE : Math.max( 1, nMaxSize * SAMPLE_SIZE_FACTOR );
+    }
+
+    /**
+     * Get the estimated number of recent accesses to a key
+     * 
+     * @param nHashCode
+     *            The hash code of the key
+     * @return The estimated number of recent accesses, from 0 to 15
+     */
+    int frequency( int nHashCode )
+    {
+        int nHash = spread( nHashCode );
+        int nFrequency = Integer.MAX_VALUE;
+
+        for ( int i = 0; i < SEEDS.length; i++ )
+        {
+            long lCounter = ( _table [indexOf( nHash, i )] >>> offsetOf( nHash, i ) ) & COUNTER_MASK;
+            nFrequency = Math.min( nFrequency, (int) lCounter );
+        }
+
+        return nFrequency;
+    }
+
+    /**
+     * Count an access to a key
+     * 
+     * @param nHashCode
+     *            The hash code of the key
+     */
+    void increment( int nHashCode )
+    {
+        int nHash = spread( nHashCode );
+        boolean bIncremented = false;
+
+        for ( int i = 0; i < SEEDS.length; i++ )
+        {
+            bIncremented |= incrementAt( indexOf( nHash, i ), offsetOf( nHash, i ) );
+        }
+
+        if ( bIncremented && ( ++_nSize >= _nSampleSize ) )
+        {
+            reset( );
+        }
+    }
+
+    /**
+     * Increment a counter unless it has reached its maximum value
+     * 
+     * @param nIndex
+     *            The index of the long holding the counter
+     * @param nOffset
+     *            The offset of the counter in the long
+     * @return True if the counter has been incremented, false otherwise
+     */
+    private boolean incrementAt( int nIndex, int nOffset )
+    {
+        long lMask = COUNTER_MASK << nOffset;
+
+        if ( ( _table [nIndex] & lMask ) != lMask )
+        {
+            _table [nIndex] += 1L << nOffset;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Halve every counter
+     */
+    private void reset( )
+    {
+        for ( int i = 0; i < _table.length; i++ )
+        {
+            _table [i] = ( _table [i] >>> 1 ) & RESET_MASK;
+        }
+
+        _nSize /= 2;
+    }
+
+    /**
+     * Get the index of the long holding the counter of a key for a hash function
+     * 
+     * @param nHash
+     *            The spread hash of the key
+     * @param nFunction
+     *            The index of the hash function
+     * @return The index of the long
+     */
+    private int indexOf( int nHash, int nFunction )
+    {
+        long lHash = ( nHash + SEEDS [nFunction] ) * SEEDS [nFunction];
+        lHash += lHash >>> 32;
+
+        return (int) lHash & _nTableMask;
+    }
+
+    /**
+     * Get the offset in its long of the counter of a key for a hash function
+     * 
+     * @param nHash
+     *            The spread hash of the key
+     * @param nFunction
+     *            The index of the hash function
+     * @return The offset of the counter, in bits
+     */
+    private static int offsetOf( int nHash, int nFunction )
+    {
+        return ( ( nHash >>> ( nFunction << 3 ) ) & 0xF ) << 2;
+    }
+
+    /**
+     * Spread the bits of a hash code
+     * 
+     * @param nHashCode
+     *            The hash code
+     * @return The spread hash
+     */
+    private static int spread( int nHashCode )
+    {
+        int nHash = ( ( nHashCode >>> 16 ) ^ nHashCode ) * 0x45d9f3b;
+        nHash = ( ( nHash >>> 16 ) ^ nHash ) * 0x45d9f3b;
+
+        return ( nHash >>> 16 ) ^ nHash;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracker of the most accessed keys of resources, written to the manifest used to warm the cache up. <br />
+ * Only one access out of a given sample rate is counted, and at most a given number of keys are tracked : once this number is reached, new keys are
+ * ignored until the next {@link #decay()}.
+ */
+public final class ResourceHotKeyTracker
+{
+    private final ConcurrentMap<ResourceCacheKey, AtomicInteger> _mapCounts = new ConcurrentHashMap<>( );
+    private final int _nMaxTrackedKeys;
+    private final int _nSampleRate;
+
+    /**
+     * Constructor
+     * 
+     * @param nMaxTrackedKeys
+     *            The maximum number of tracked keys
+     * @param nSampleRate
+     *            One access out of this rate is counted
+     */
+    public ResourceHotKeyTracker( int nMaxTrackedKeys, int nSampleRate )
+    {
+        _nMaxTrackedKeys = nMaxTrackedKeys;
+        _nSampleRate = Math.max( 1, nSampleRate );
+    }
+
+    /**
+     * Check if the accesses to the keys of a family are tracked
+     * 
+     * @param family
+     *            The family
+     * @return True for database resources, false otherwise
+     */
+    public static boolean isTracked( ResourceCacheKeyFamily family )
+    {
+        return family == ResourceCacheKeyFamily.DATABASE_RESOURCE;
+    }
+
+    /**
+     * Count an access to a key
+     * 
+     * @param key
+     *            The key
+     */
+    public void recordAccess( ResourceCacheKey key )
+    {
+        if ( _nSampleRate > 1 && ThreadLocalRandom.current( ).nextInt( _nSampleRate ) != 0 )
+        {
+            return;
+        }
+
+        AtomicInteger count = _mapCounts.get( key );
+
+        if ( count == null )
+        {
+            if ( _mapCounts.size( ) >= _nMaxTrackedKeys )
+            {
+                return;
+            }
+
+            count = _mapCounts.computeIfAbsent( key, k -> new AtomicInteger( ) );
+        }
+
+        count.incrementAndGet( );
+    }
+
+    /**
+     * Get the most accessed keys
+     * 
+     * @param nMaxKeys
+     *            The maximum number of keys
+     * @return The most accessed keys, the most accessed first
+     */
+    public List<ResourceCacheKey> getHotKeys( int nMaxKeys )
+    {
+        // Counts are copied, so that they do not change while sorting
+        List<Map.Entry<ResourceCacheKey, Integer>> listEntries = new ArrayList<>( _mapCounts.size( ) );
+
+        for ( Map.Entry<ResourceCacheKey, AtomicInteger> entry : _mapCounts.entrySet( ) )
+        {
+            listEntries.add( new AbstractMap.SimpleImmutableEntry<>( entry.getKey( ), entry.getValue( ).get( ) ) );
+        }
+
+        listEntries.sort( ( entry1, entry2 ) -> Integer.compare( entry2.getValue( ), entry1.getValue( ) ) );
+
+        List<ResourceCacheKey> listKeys = new ArrayList<>( Math.min( nMaxKeys, listEntries.size( ) ) );
+
+        for ( int i = 0; i < listEntries.size( ) && i < nMaxKeys; i++ )
+        {
+            listKeys.add( listEntries.get( i ).getKey( ) );
+        }
+
+        return listKeys;
+    }
+
+    /**
+     * Halve the count of every key, and stop tracking keys that are no longer accessed, so that recent accesses weigh more than old ones
+     */
+    public void decay( )
+    {
+        Iterator<AtomicInteger> iterator = _mapCounts.values( ).iterator( );
+
+        while ( iterator.hasNext( ) )
+        {
+            AtomicInteger count = iterator.next( );
+
+            if ( count.updateAndGet( n -> n / 2 ) == 0 )
+            {
+                iterator.remove( );
+            }
+        }
+    }
+
+    /**
+     * Stop tracking every key
+     */
+    public void clear( )
+    {
+        _mapCounts.clear( );
+    }
+}
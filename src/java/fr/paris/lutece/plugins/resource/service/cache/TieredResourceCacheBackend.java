@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache backend made of two tiers. <br />
+ * Entries are written to both tiers, and read from the first tier first. Entries found only in the second tier are copied back to the first tier.
+ * The first tier is usually a small backend of the heap, and the second tier a larger backend outside of the heap. Operations are serialized, so
+ * that an entry removed during a read of the second tier is not copied back to the first tier.
+ */
+public final class TieredResourceCacheBackend implements IResourceCacheBackend
+{
+    private static final String CONSTANT_SEPARATOR = "+";
+
+    private final IResourceCacheBackend _firstTier;
+    private final IResourceCacheBackend _secondTier;
+
+    /**
+     * Constructor
+     * 
+     * @param firstTier
+     *            The first tier
+     * @param secondTier
+     *            The second tier
+     */
+    public TieredResourceCacheBackend( IResourceCacheBackend firstTier, IResourceCacheBackend secondTier )
+    {
+        _firstTier = firstTier;
+        _secondTier = secondTier;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object get( ResourceCacheKey key )
+    {
+        Object value = _firstTier.get( key );
+
+        if ( value == null )
+        {
+            value = _secondTier.get( key );
+
+            if ( value != null )
+            {
+                _firstTier.put( key, value );
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void put( ResourceCacheKey key, Object value )
+    {
+        _firstTier.put( key, value );
+        _secondTier.put( key, value );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void remove( ResourceCacheKey key )
+    {
+        _firstTier.remove( key );
+        _secondTier.remove( key );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void clear( )
+    {
+        _firstTier.clear( );
+        _secondTier.clear( );
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * Entries are written to both tiers, the size is the sum of the sizes of the tiers : an entry stored in both tiers is counted twice. Use
+     * {@link #getTierSizes()} to get the size of each tier.
+     */
+    @Override
+    public int getSize( )
+    {
+        return _firstTier.getSize( ) + _secondTier.getSize( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> getTierSizes( )
+    {
+        List<Integer> listTierSizes = new ArrayList<>( _firstTier.getTierSizes( ) );
+        listTierSizes.addAll( _secondTier.getTierSizes( ) );
+
+        return listTierSizes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName( )
+    {
+        return _firstTier.getName( ) + CONSTANT_SEPARATOR + _secondTier.getName( );
+    }
+}
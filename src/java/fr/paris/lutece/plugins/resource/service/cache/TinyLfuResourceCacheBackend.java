@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache backend implementing the W-TinyLFU policy. <br />
+ * New entries go to a small LRU window. Entries leaving the window compete with the least recently used entry of the main space, and only the entry
+ * that has been accessed more frequently, according to a {@link ResourceFrequencySketch}, is kept. The main space is a segmented LRU : entries
+ * accessed again while on probation are promoted to the protected segment. A burst of keys read only once therefore does not evict the frequently
+ * read keys.
+ */
+public final class TinyLfuResourceCacheBackend implements IResourceCacheBackend
+{
+    /**
+     * Name of the backend
+     */
+    public static final String NAME = "tinyLfu";
+
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+
+    private final ResourceCacheKeyFamily _family;
+    private final int _nWindowMaxSize;
+    private final int _nMainMaxSize;
+    private final int _nProtectedMaxSize;
+    private final LinkedHashMap<ResourceCacheKey, Object> _mapWindow = new LinkedHashMap<>( 16, 0.75f, true );
+    private final LinkedHashMap<ResourceCacheKey, Object> _mapProbation = new LinkedHashMap<>( 16, 0.75f, true );
+    private final LinkedHashMap<ResourceCacheKey, Object> _mapProtected = new LinkedHashMap<>( 16, 0.75f, true );
+    private final ResourceFrequencySketch _sketch;
+
+    /**
+     * Constructor
+     * 
+     * @param family
+     *            The family of the keys of the backend, used to count evictions
+     * @param nMaxSize
+     *            The maximum number of entries
+     */
+    public TinyLfuResourceCacheBackend( ResourceCacheKeyFamily family, int nMaxSize )
+    {
+        _family = family;
+        _nWindowMaxSize = Math.max( 1, (int) ( (long) nMaxSize * WINDOW_PERCENT / 100 ) );
+        _nMainMaxSize = Math.max( 0, nMaxSize - _nWindowMaxSize );
+        _nProtectedMaxSize = (int) ( (long) _nMainMaxSize * PROTECTED_PERCENT / 100 );
+        _sketch = new ResourceFrequencySketch( nMaxSize );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Object get( ResourceCacheKey key )
+    {
+        _sketch.increment( key.hashCode( ) );
+
+        Object value = _mapWindow.get( key );
+
+        if ( value != null )
+        {
+            return value;
+        }
+
+        value = _mapProtected.get( key );
+
+        if ( value != null )
+        {
+            return value;
+        }
+
+        value = _mapProbation.remove( key );
+
+        if ( value != null )
+        {
+            _mapProtected.put( key, value );
+            demoteProtected( );
+        }
+
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void put( ResourceCacheKey key, Object value )
+    {
+        _sketch.increment( key.hashCode( ) );
+
+        if ( _mapWindow.containsKey( key ) )
+        {
+            _mapWindow.put( key, value );
+        }
+        else
+            if ( _mapProtected.containsKey( key ) )
+            {
+                _mapProtected.put( key, value );
+            }
+            else
+                if ( _mapProbation.containsKey( key ) )
+                {
+                    _mapProbation.put( key, value );
+                }
+                else
+                {
+                    _mapWindow.put( key, value );
+                    evictWindow( );
+                }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void remove( ResourceCacheKey key )
+    {
+        if ( _mapWindow.remove( key ) == null && _mapProbation.remove( key ) == null )
+        {
+            _mapProtected.remove( key );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void clear( )
+    {
+        _mapWindow.clear( );
+        _mapProbation.clear( );
+        _mapProtected.clear( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized int getSize( )
+    {
+        return _mapWindow.size( ) + _mapProbation.size( ) + _mapProtected.size( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName( )
+    {
+        return NAME;
+    }
+
+    /**
+     * Move the least recently used entry of the window to the main space if the window is full
+     */
+    private void evictWindow( )
+    {
+        if ( _mapWindow.size( ) <= _nWindowMaxSize )
+        {
+            return;
+        }
+
+        Iterator<Map.Entry<ResourceCacheKey, Object>> iterator = _mapWindow.entrySet( ).iterator( );
+        Map.Entry<ResourceCacheKey, Object> candidate = iterator.next( );
+        iterator.remove( );
+
+        if ( _mapProbation.size( ) + _mapProtected.size( ) < _nMainMaxSize )
+        {
+            _mapProbation.put( candidate.getKey( ), candidate.getValue( ) );
+
+            return;
+        }
+
+        LinkedHashMap<ResourceCacheKey, Object> mapVictimSegment = _mapProbation.isEmpty( ) ? _mapProtected : _mapProbation;
+
+        if ( !mapVictimSegment.isEmpty( ) )
+        {
+            Iterator<ResourceCacheKey> iteratorVictim = mapVictimSegment.keySet( ).iterator( );
+            ResourceCacheKey victim = iteratorVictim.next( );
+
+            if ( _sketch.frequency( candidate.getKey( ).hashCode( ) ) > _sketch.frequency( victim.hashCode( ) ) )
+            {
+                iteratorVictim.remove( );
+                _mapProbation.put( candidate.getKey( ), candidate.getValue( ) );
+            }
+        }
+
+        // Either the victim or the candidate has been evicted
+        ResourceMetricsService.increment( _family.getMetricEviction( ) );
+    }
+
+    /**
+     * Move the least recently used entries of the protected segment to the probation segment while the protected segment is full
+     */
+    private void demoteProtected( )
+    {
+        Iterator<Map.Entry<ResourceCacheKey, Object>> iterator = _mapProtected.entrySet( ).iterator( );
+
+        while ( _mapProtected.size( ) > _nProtectedMaxSize )
+        {
+            Map.Entry<ResourceCacheKey, Object> entry = iterator.next( );
+            iterator.remove( );
+            _mapProbation.put( entry.getKey( ), entry.getValue( ) );
+        }
+    }
+}
@@ -33,11 +33,9 @@
  */
 package fr.paris.lutece.plugins.resource.service.listeners;
 
-import fr.paris.lutece.plugins.resource.business.database.DatabaseResource;
 import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceHome;
 import fr.paris.lutece.portal.service.i18n.I18nService;
 
-import java.util.List;
 import java.util.Locale;
 
 /**
@@ -53,9 +51,7 @@ public class DatabaseResourceTypeResourceRemovalListener implements IDatabaseRes
     @Override
     public boolean canBeRemoved( String strResourceType )
     {
-        List<DatabaseResource> listResources = DatabaseResourceHome.findByResourceType( strResourceType );
-
-        return ( listResources == null ) || ( listResources.isEmpty( ) );
+        return !DatabaseResourceHome.existsByResourceType( strResourceType );
     }
 
     /**
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry that keeps metrics in memory. Counters and timers are updated without locks.
+ */
+public class DefaultResourceMetricsRegistry implements IResourceMetricsRegistry
+{
+    private final ConcurrentMap<String, LongAdder> _mapCounters = new ConcurrentHashMap<>( );
+    private final ConcurrentMap<String, TimerData> _mapTimers = new ConcurrentHashMap<>( );
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void incrementCounter( String strName, long lIncrement )
+    {
+        LongAdder counter = _mapCounters.get( strName );
+
+        if ( counter == null )
+        {
+            counter = _mapCounters.computeIfAbsent( strName, strKey -> new LongAdder( ) );
+        }
+
+        counter.add( lIncrement );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordTimer( String strName, long lDurationNanos )
+    {
+        TimerData timer = _mapTimers.get( strName );
+
+        if ( timer == null )
+        {
+            timer = _mapTimers.computeIfAbsent( strName, strKey -> new TimerData( ) );
+        }
+
+        timer.record( lDurationNanos );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getCounters( )
+    {
+        Map<String, Long> mapCounters = new TreeMap<>( );
+
+        for ( Map.Entry<String, LongAdder> entry : _mapCounters.entrySet( ) )
+        {
+            mapCounters.put( entry.getKey( ), entry.getValue( ).sum( ) );
+        }
+
+        return mapCounters;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, ResourceTimerStatistics> getTimers( )
+    {
+        Map<String, ResourceTimerStatistics> mapTimers = new TreeMap<>( );
+
+        for ( Map.Entry<String, TimerData> entry : _mapTimers.entrySet( ) )
+        {
+            mapTimers.put( entry.getKey( ), entry.getValue( ).getStatistics( entry.getKey( ) ) );
+        }
+
+        return mapTimers;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset( )
+    {
+        _mapCounters.clear( );
+        _mapTimers.clear( );
+    }
+
+    /**
+     * Data of a timer
+     */
+    private static final class TimerData
+    {
+        private final LongAdder _count = new LongAdder( );
+        private final LongAdder _totalNanos = new LongAdder( );
+        private final LongAccumulator _maxNanos = new LongAccumulator( Long::max, 0L );
+        private final LongAdder [ ] _buckets = new LongAdder [ ResourceTimerStatistics.getBucketsCount( )];
+
+        /**
+         * Creates a new timer
+         */
+        TimerData( )
+        {
+            for ( int nIndex = 0; nIndex < _buckets.length; nIndex++ )
+            {
+                _buckets [nIndex] = new LongAdder( );
+            }
+        }
+
+        /**
+         * Record a duration
+         * 
+         * @param lDurationNanos
+         *            The duration, in nanoseconds
+         */
+        void record( long lDurationNanos )
+        {
+            _count.increment( );
+            _totalNanos.add( lDurationNanos );
+            _maxNanos.accumulate( lDurationNanos );
+            _buckets [ResourceTimerStatistics.getBucketIndex( lDurationNanos )].increment( );
+        }
+
+        /**
+         * Get the statistics of the timer
+         * 
+         * @param strName
+         *            The name of the timer
+         * @return The statistics
+         */
+        ResourceTimerStatistics getStatistics( String strName )
+        {
+            long [ ] bucketCounts = new long [ _buckets.length];
+
+            for ( int nIndex = 0; nIndex < _buckets.length; nIndex++ )
+            {
+                bucketCounts [nIndex] = _buckets [nIndex].sum( );
+            }
+
+            return new ResourceTimerStatistics( strName, _count.sum( ), _totalNanos.sum( ), _maxNanos.get( ), bucketCounts );
+        }
+    }
+}
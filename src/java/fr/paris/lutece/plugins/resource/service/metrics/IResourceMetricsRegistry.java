@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.metrics;
+
+import java.util.Map;
+
+/**
+ * Registry of the counters and timers of the resource plugin. <br />
+ * The default implementation keeps metrics in memory. Another implementation can be set with
+ * {@link ResourceMetricsService#setRegistry(IResourceMetricsRegistry)} to forward metrics to a monitoring system.
+ */
+public interface IResourceMetricsRegistry
+{
+    /**
+     * Increment a counter
+     * 
+     * @param strName
+     *            The name of the counter
+     * @param lIncrement
+     *            The value to add to the counter
+     */
+    void incrementCounter( String strName, long lIncrement );
+
+    /**
+     * Record a duration in a timer
+     * 
+     * @param strName
+     *            The name of the timer
+     * @param lDurationNanos
+     *            The duration, in nanoseconds
+     */
+    void recordTimer( String strName, long lDurationNanos );
+
+    /**
+     * Get the values of every counter
+     * 
+     * @return A map associating names of counters with their values
+     */
+    Map<String, Long> getCounters( );
+
+    /**
+     * Get the statistics of every timer
+     * 
+     * @return A map associating names of timers with their statistics
+     */
+    Map<String, ResourceTimerStatistics> getTimers( );
+
+    /**
+     * Reset every counter and timer
+     */
+    void reset( );
+}
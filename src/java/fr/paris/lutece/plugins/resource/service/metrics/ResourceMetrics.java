@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.metrics;
+
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * JMX bean exposing the metrics of the resource plugin
+ */
+public class ResourceMetrics implements ResourceMetricsMXBean
+{
+    private static final String OBJECT_NAME = "fr.paris.lutece.plugins.resource:type=ResourceMetrics";
+    private static final String LOG_REGISTRATION_ERROR = "Unable to register the metrics of the resource plugin in JMX";
+    private static final String LOG_UNREGISTRATION_ERROR = "Unable to unregister the metrics of the resource plugin from JMX";
+
+    /**
+     * Register the bean in the platform MBean server. A bean previously registered by another instance of the webapp is replaced.
+     */
+    public static void register( )
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer( );
+            ObjectName objectName = new ObjectName( OBJECT_NAME );
+
+            if ( server.isRegistered( objectName ) )
+            {
+                server.unregisterMBean( objectName );
+            }
+
+            server.registerMBean( new ResourceMetrics( ), objectName );
+        }
+        catch( JMException e )
+        {
+            AppLogService.error( LOG_REGISTRATION_ERROR, e );
+        }
+    }
+
+    /**
+     * Unregister the bean from the platform MBean server, so that the server does not keep the classes of a stopped webapp
+     */
+    public static void unregister( )
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer( );
+            ObjectName objectName = new ObjectName( OBJECT_NAME );
+
+            if ( server.isRegistered( objectName ) )
+            {
+                server.unregisterMBean( objectName );
+            }
+        }
+        catch( JMException e )
+        {
+            AppLogService.error( LOG_UNREGISTRATION_ERROR, e );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEnabled( )
+    {
+        return ResourceMetricsService.isEnabled( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setEnabled( boolean bEnabled )
+    {
+        ResourceMetricsService.setEnabled( bEnabled );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getCounters( )
+    {
+        return ResourceMetricsService.getRegistry( ).getCounters( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getTimerCounts( )
+    {
+        return getTimerValues( ResourceTimerStatistics::getCount );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getTimerMeanMicros( )
+    {
+        return getTimerValues( ResourceTimerStatistics::getMeanMicros );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getTimerMaxMicros( )
+    {
+        return getTimerValues( ResourceTimerStatistics::getMaxMicros );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset( )
+    {
+        ResourceMetricsService.getRegistry( ).reset( );
+    }
+
+    /**
+     * Get a value of every timer
+     * 
+     * @param value
+     *            The function that gets the value from the statistics of a timer
+     * @return A map associating names of timers with the value
+     */
+    private static Map<String, Long> getTimerValues( ToLongFunction<ResourceTimerStatistics> value )
+    {
+        Map<String, Long> mapValues = new TreeMap<>( );
+
+        for ( Map.Entry<String, ResourceTimerStatistics> entry : ResourceMetricsService.getRegistry( ).getTimers( ).entrySet( ) )
+        {
+            mapValues.put( entry.getKey( ), value.applyAsLong( entry.getValue( ) ) );
+        }
+
+        return mapValues;
+    }
+}
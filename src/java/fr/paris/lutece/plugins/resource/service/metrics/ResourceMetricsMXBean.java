@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX interface of the metrics of the resource plugin
+ */
+public interface ResourceMetricsMXBean
+{
+    /**
+     * Check if metrics are recorded
+     * 
+     * @return True if metrics are recorded, false otherwise
+     */
+    boolean isEnabled( );
+
+    /**
+     * Enable or disable the recording of metrics
+     * 
+     * @param bEnabled
+     *            True to record metrics, false otherwise
+     */
+    void setEnabled( boolean bEnabled );
+
+    /**
+     * Get the values of every counter
+     * 
+     * @return A map associating names of counters with their values
+     */
+    Map<String, Long> getCounters( );
+
+    /**
+     * Get the number of durations recorded by every timer
+     * 
+     * @return A map associating names of timers with their number of recorded durations
+     */
+    Map<String, Long> getTimerCounts( );
+
+    /**
+     * Get the mean duration of every timer
+     * 
+     * @return A map associating names of timers with their mean duration, in microseconds
+     */
+    Map<String, Long> getTimerMeanMicros( );
+
+    /**
+     * Get the maximum duration of every timer
+     * 
+     * @return A map associating names of timers with their maximum duration, in microseconds
+     */
+    Map<String, Long> getTimerMaxMicros( );
+
+    /**
+     * Reset every counter and timer
+     */
+    void reset( );
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.metrics;
+
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Service to record metrics of the resource plugin. <br />
+ * Metrics are recorded in the registry set with {@link #setRegistry(IResourceMetricsRegistry)}, or in an in-memory registry by default. Metrics can
+ * be disabled with the property resource.metrics.enabled.
+ */
+public final class ResourceMetricsService
+{
+    private static final String PROPERTY_ENABLED = "resource.metrics.enabled";
+    private static volatile IResourceMetricsRegistry _registry = new DefaultResourceMetricsRegistry( );
+    private static volatile Boolean _enabled;
+
+    /**
+     * Default constructor
+     */
+    private ResourceMetricsService( )
+    {
+        // Nothing to do
+    }
+
+    /**
+     * Get the registry of metrics
+     * 
+     * @return The registry of metrics
+     */
+    public static IResourceMetricsRegistry getRegistry( )
+    {
+        return _registry;
+    }
+
+    /**
+     * Set the registry of metrics
+     * 
+     * @param registry
+     *            The registry of metrics
+     */
+    public static void setRegistry( IResourceMetricsRegistry registry )
+    {
+        _registry = registry;
+    }
+
+    /**
+     * Check if metrics are recorded
+     * 
+     * @return True if metrics are recorded, false otherwise
+     */
+    public static boolean isEnabled( )
+    {
+        Boolean enabled = _enabled;
+
+        if ( enabled == null )
+        {
+            // The property is read on first use, so that metrics can be enabled or disabled before the properties are available
+            enabled = AppPropertiesService.getPropertyBoolean( PROPERTY_ENABLED, true );
+            _enabled = enabled;
+        }
+
+        return enabled;
+    }
+
+    /**
+     * Enable or disable the recording of metrics
+     * 
+     * @param bEnabled
+     *            True to record metrics, false otherwise
+     */
+    public static void setEnabled( boolean bEnabled )
+    {
+        _enabled = bEnabled;
+    }
+
+    /**
+     * Increment a counter by one
+     * 
+     * @param strName
+     *            The name of the counter
+     */
+    public static void increment( String strName )
+    {
+        if ( isEnabled( ) )
+        {
+            _registry.incrementCounter( strName, 1L );
+        }
+    }
+
+    /**
+     * Start a timer. The duration is recorded when the timer is closed.
+     * 
+     * @param strName
+     *            The name of the timer
+     * @return The started timer
+     */
+    public static ResourceTimer startTimer( String strName )
+    {
+        return ResourceTimer.start( isEnabled( ) ? _registry : null, strName );
+    }
+}
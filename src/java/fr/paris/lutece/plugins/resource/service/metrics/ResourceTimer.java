@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.metrics;
+
+/**
+ * Timer of an operation. The duration of the operation is recorded when the timer is closed, so that timers can be used in try-with-resources
+ * statements.
+ */
+public final class ResourceTimer implements AutoCloseable
+{
+    private static final ResourceTimer NO_TIMER = new ResourceTimer( null, null );
+    private final IResourceMetricsRegistry _registry;
+    private final String _strName;
+    private final long _lStartNanos;
+
+    /**
+     * Creates a new started timer
+     * 
+     * @param registry
+     *            The registry to record the duration in, or null to record nothing
+     * @param strName
+     *            The name of the timer
+     */
+    private ResourceTimer( IResourceMetricsRegistry registry, String strName )
+    {
+        _registry = registry;
+        _strName = strName;
+        _lStartNanos = ( registry != null ) ? System.nanoTime( ) : 0L;
+    }
+
+    /**
+     * Start a timer
+     * 
+     * @param registry
+     *            The registry to record the duration in, or null to record nothing
+     * @param strName
+     *            The name of the timer
+     * @return The started timer
+     */
+    static ResourceTimer start( IResourceMetricsRegistry registry, String strName )
+    {
+        return ( registry != null ) ? new ResourceTimer( registry, strName ) : NO_TIMER;
+    }
+
+    /**
+     * Stop the timer and record the duration
+     */
+    @Override
+    public void close( )
+    {
+        if ( _registry != null )
+        {
+            _registry.recordTimer( _strName, System.nanoTime( ) - _lStartNanos );
+        }
+    }
+}
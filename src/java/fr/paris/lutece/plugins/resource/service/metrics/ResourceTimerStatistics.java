@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable statistics of a timer : number of recorded durations, total and maximum duration, and histogram of durations
+ */
+public class ResourceTimerStatistics
+{
+    // Upper bounds of the buckets of the histogram, in milliseconds. The last bucket has no upper bound.
+    private static final long [ ] BUCKET_UPPER_BOUNDS_MILLIS = {
+            1L, 5L, 10L, 50L, 100L, 500L, 1000L
+    };
+    private final String _strName;
+    private final long _lCount;
+    private final long _lTotalNanos;
+    private final long _lMaxNanos;
+    private final long [ ] _bucketCounts;
+
+    /**
+     * Creates new statistics
+     * 
+     * @param strName
+     *            The name of the timer
+     * @param lCount
+     *            The number of recorded durations
+     * @param lTotalNanos
+     *            The total of recorded durations, in nanoseconds
+     * @param lMaxNanos
+     *            The maximum recorded duration, in nanoseconds
+     * @param bucketCounts
+     *            The number of durations of each bucket of the histogram
+     */
+    public ResourceTimerStatistics( String strName, long lCount, long lTotalNanos, long lMaxNanos, long [ ] bucketCounts )
+    {
+        _strName = strName;
+        _lCount = lCount;
+        _lTotalNanos = lTotalNanos;
+        _lMaxNanos = lMaxNanos;
+        _bucketCounts = bucketCounts.clone( );
+    }
+
+    /**
+     * Get the number of buckets of histograms
+     * 
+     * @return The number of buckets
+     */
+    public static int getBucketsCount( )
+    {
+        return BUCKET_UPPER_BOUNDS_MILLIS.length + 1;
+    }
+
+    /**
+     * Get the index of the bucket of a duration
+     * 
+     * @param lDurationNanos
+     *            The duration, in nanoseconds
+     * @return The index of the bucket
+     */
+    public static int getBucketIndex( long lDurationNanos )
+    {
+        long lDurationMillis = TimeUnit.NANOSECONDS.toMillis( lDurationNanos );
+        int nIndex = 0;
+
+        while ( ( nIndex < BUCKET_UPPER_BOUNDS_MILLIS.length ) && ( lDurationMillis >= BUCKET_UPPER_BOUNDS_MILLIS [nIndex] ) )
+        {
+            nIndex++;
+        }
+
+        return nIndex;
+    }
+
+    /**
+     * Get the upper bounds of the buckets of histograms. The last bucket has no upper bound.
+     * 
+     * @return The upper bounds, in milliseconds
+     */
+    public static long [ ] getBucketUpperBoundsMillis( )
+    {
+        return BUCKET_UPPER_BOUNDS_MILLIS.clone( );
+    }
+
+    /**
+     * Get the name of the timer
+     * 
+     * @return The name of the timer
+     */
+    public String getName( )
+    {
+        return _strName;
+    }
+
+    /**
+     * Get the number of recorded durations
+     * 
+     * @return The number of recorded durations
+     */
+    public long getCount( )
+    {
+        return _lCount;
+    }
+
+    /**
+     * Get the total of recorded durations
+     * 
+     * @return The total of recorded durations, in microseconds
+     */
+    public long getTotalMicros( )
+    {
+        return TimeUnit.NANOSECONDS.toMicros( _lTotalNanos );
+    }
+
+    /**
+     * Get the mean recorded duration
+     * 
+     * @return The mean recorded duration, in microseconds
+     */
+    public long getMeanMicros( )
+    {
+        return ( _lCount > 0 ) ? TimeUnit.NANOSECONDS.toMicros( _lTotalNanos / _lCount ) : 0L;
+    }
+
+    /**
+     * Get the maximum recorded duration
+     * 
+     * @return The maximum recorded duration, in microseconds
+     */
+    public long getMaxMicros( )
+    {
+        return TimeUnit.NANOSECONDS.toMicros( _lMaxNanos );
+    }
+
+    /**
+     * Get the histogram of recorded durations
+     * 
+     * @return The number of durations of each bucket
+     */
+    public long [ ] getBucketCounts( )
+    {
+        return _bucketCounts.clone( );
+    }
+}
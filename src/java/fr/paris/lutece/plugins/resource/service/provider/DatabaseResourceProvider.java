@@ -40,10 +40,15 @@ import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceTypeHo
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
- * Provider for database resources
+ * Provider for database resources. <br />
+ * Resources are returned as {@link fr.paris.lutece.plugins.resource.business.database.DatabaseResource} objects, that callers may cast and modify : each
+ * call returns new copies of the immutable snapshots kept in cache.
  */
 public class DatabaseResourceProvider implements IResourceProvider
 {
@@ -63,7 +68,7 @@ public class DatabaseResourceProvider implements IResourceProvider
     @Override
     public boolean isResourceTypeManaged( String strResourceTypeName )
     {
-        return DatabaseResourceTypeHome.getResourceTypesList( ).contains( strResourceTypeName );
+        return DatabaseResourceTypeHome.isResourceTypeExisting( strResourceTypeName );
     }
 
     /**
@@ -77,16 +82,59 @@ public class DatabaseResourceProvider implements IResourceProvider
             return null;
         }
 
-        return DatabaseResourceHome.findByPrimaryKey( Integer.parseInt( strIdResource ) );
+        return DatabaseResourceHome.findSnapshotByPrimaryKey( Integer.parseInt( strIdResource ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<IResource> getResources( Collection<String> listIdResources, String strResourceTypeName )
+    {
+        List<Integer> listIds = new ArrayList<>( listIdResources.size( ) );
+
+        for ( String strIdResource : listIdResources )
+        {
+            if ( StringUtils.isNotEmpty( strIdResource ) && StringUtils.isNumeric( strIdResource ) )
+            {
+                listIds.add( Integer.parseInt( strIdResource ) );
+            }
+        }
+
+        if ( listIds.isEmpty( ) )
+        {
+            return new ArrayList<>( 0 );
+        }
+
+        return DatabaseResourceHome.findSnapshotsByPrimaryKeys( listIds );
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    @SuppressWarnings( "unchecked" )
     public List<IResource> getListResources( String strResourceTypeName )
     {
-        return (List<IResource>) (List<? extends IResource>) DatabaseResourceHome.findByResourceType( strResourceTypeName );
+        return DatabaseResourceHome.findSnapshotsByResourceType( strResourceTypeName );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSearchIndexed( String strResourceTypeName )
+    {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public void forEachBatch( String strResourceTypeName, int nBatchSize, Consumer<List<IResource>> consumer )
+    {
+        DatabaseResourceHome.forEachBatchByResourceType( strResourceTypeName, nBatchSize,
+                listResources -> consumer.accept( (List<IResource>) (List<? extends IResource>) listResources ) );
     }
 }
@@ -36,7 +36,12 @@ package fr.paris.lutece.plugins.resource.service.provider;
 import fr.paris.lutece.plugins.resource.business.IResource;
 import fr.paris.lutece.plugins.resource.business.IResourceType;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Interface for resource providers. Providers must be declared as Spring beans.
@@ -78,4 +83,126 @@ public interface IResourceProvider
      * @return The list of resources, or an empty list if no resource is associated with the resource type
      */
     List<IResource> getListResources( String strResourceTypeName );
+
+    /**
+     * Get a list of resources from their ids. The resources are assured to be associated with this provider. <br />
+     * The default implementation calls {@link #getResource(String, String)} for each id. Providers that can fetch several resources at once should
+     * override this method.
+     * 
+     * @param listIdResources
+     *            The list of ids of resources
+     * @param strResourceTypeName
+     *            The resource type
+     * @return The list of resources found, in the order of the given ids. Ids that are not associated with any resource are ignored.
+     */
+    default List<IResource> getResources( Collection<String> listIdResources, String strResourceTypeName )
+    {
+        List<IResource> listResources = new ArrayList<>( listIdResources.size( ) );
+
+        for ( String strIdResource : listIdResources )
+        {
+            IResource resource = getResource( strIdResource, strResourceTypeName );
+
+            if ( resource != null )
+            {
+                listResources.add( resource );
+            }
+        }
+
+        return listResources;
+    }
+
+    /**
+     * Iterate over the resources managed by this provider that have a given resource type by batches. <br />
+     * The default implementation splits the result of {@link #getListResources(String)}. Providers that manage many resources should override this
+     * method to read resources by batches, so that memory usage does not depend on the number of resources.
+     * 
+     * @param strResourceTypeName
+     *            The resource type
+     * @param nBatchSize
+     *            The maximum number of resources of each batch, greater than 0. The resource service rejects other values before calling
+     *            providers.
+     * @param consumer
+     *            The consumer of batches of resources
+     */
+    default void forEachBatch( String strResourceTypeName, int nBatchSize, Consumer<List<IResource>> consumer )
+    {
+        List<IResource> listResources = getListResources( strResourceTypeName );
+
+        for ( int nFrom = 0; nFrom < listResources.size( ); nFrom += nBatchSize )
+        {
+            consumer.accept( listResources.subList( nFrom, Math.min( nFrom + nBatchSize, listResources.size( ) ) ) );
+        }
+    }
+
+    /**
+     * Check if the names of the resources of a resource type are kept in the in-memory index used to search resources. The index is built with
+     * {@link #forEachBatch(String, int, Consumer)} the first time the resource type is searched. Providers that return true must then report every
+     * change of their resources to the search service with
+     * {@link fr.paris.lutece.plugins.resource.service.search.ResourceSearchService#resourcesChanged(Collection, Collection)}. <br />
+     * The default implementation returns false : resources are searched by iterating over all the resources of the resource type.
+     * 
+     * @param strResourceTypeName
+     *            The resource type
+     * @return True if the names of the resources are indexed, false otherwise
+     */
+    default boolean isSearchIndexed( String strResourceTypeName )
+    {
+        return false;
+    }
+
+    /**
+     * Get a resource asynchronously. <br />
+     * The default implementation calls {@link #getResource(String, String)} on the given executor. Providers that can read resources without
+     * blocking should override this method.
+     * 
+     * @param strIdResource
+     *            The id of the resource
+     * @param strResourceTypeName
+     *            the resource type
+     * @param executor
+     *            The executor on which blocking reads must be run. The executor may reject tasks with a
+     *            {@link java.util.concurrent.RejectedExecutionException}.
+     * @return The future resource. The future is completed with null if no resource is associated with the given resource id and resource type.
+     */
+    default CompletableFuture<IResource> getResourceAsync( String strIdResource, String strResourceTypeName, Executor executor )
+    {
+        return CompletableFuture.supplyAsync( ( ) -> getResource( strIdResource, strResourceTypeName ), executor );
+    }
+
+    /**
+     * Get a list of resources from their ids asynchronously. <br />
+     * The default implementation calls {@link #getResources(Collection, String)} on the given executor. Providers that can read resources
+     * without blocking should override this method.
+     * 
+     * @param listIdResources
+     *            The list of ids of resources
+     * @param strResourceTypeName
+     *            The resource type
+     * @param executor
+     *            The executor on which blocking reads must be run. The executor may reject tasks with a
+     *            {@link java.util.concurrent.RejectedExecutionException}.
+     * @return The future list of resources found, in the order of the given ids
+     */
+    default CompletableFuture<List<IResource>> getResourcesAsync( Collection<String> listIdResources, String strResourceTypeName, Executor executor )
+    {
+        return CompletableFuture.supplyAsync( ( ) -> getResources( listIdResources, strResourceTypeName ), executor );
+    }
+
+    /**
+     * Get the list of resources that have a given resource type asynchronously. <br />
+     * The default implementation calls {@link #getListResources(String)} on the given executor. Providers that can read resources without
+     * blocking should override this method.
+     * 
+     * @param strResourceTypeName
+     *            The resource type
+     * @param executor
+     *            The executor on which blocking reads must be run. The executor may reject tasks with a
+     *            {@link java.util.concurrent.RejectedExecutionException}.
+     * @return The future list of resources
+     */
+    default CompletableFuture<List<IResource>> getListResourcesAsync( String strResourceTypeName, Executor executor )
+    {
+        return CompletableFuture.supplyAsync( ( ) -> getListResources( strResourceTypeName ), executor );
+    }
 }
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.search;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.service.provider.IResourceProvider;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of the names of the resources of a resource type. Each resource is indexed under every suffix of its normalized name that starts
+ * with a word, so that a prefix matches the beginning of any word of the name followed by the next words. Entries are sorted, a search only reads the
+ * entries that start with the prefix. Searches do not lock the index, updates are serialized.
+ */
+public class ResourceNameIndex
+{
+    private static final char CONSTANT_ID_SEPARATOR = '\u0000';
+    private static final char CONSTANT_LAST_CHAR = '\uffff';
+    private static final char CONSTANT_WORD_SEPARATOR = ' ';
+    private static final Pattern PATTERN_DIACRITICS = Pattern.compile( "\\p{M}+" );
+    private static final Pattern PATTERN_WORD_SEPARATORS = Pattern.compile( "[^\\p{L}\\p{N}]+" );
+    private final String _strResourceType;
+    private final int _nMaxResources;
+
+    // Keys of entries are suffixes of names followed by the separator and the id of the resource
+    private final ConcurrentSkipListMap<String, IResource> _mapEntries = new ConcurrentSkipListMap<>( );
+    private final Map<String, IResource> _mapResources = new ConcurrentHashMap<>( );
+    private volatile boolean _bBuilt;
+    private volatile boolean _bOverflow;
+
+    /**
+     * Creates a new empty index
+     * 
+     * @param strResourceType
+     *            The resource type of the indexed resources
+     * @param nMaxResources
+     *            The maximum number of indexed resources. The index is cleared and can no longer be used once this number is exceeded.
+     */
+    public ResourceNameIndex( String strResourceType, int nMaxResources )
+    {
+        _strResourceType = strResourceType;
+        _nMaxResources = nMaxResources;
+    }
+
+    /**
+     * Get the resource type of the indexed resources
+     * 
+     * @return The resource type
+     */
+    public String getResourceType( )
+    {
+        return _strResourceType;
+    }
+
+    /**
+     * Check if the index has been built
+     * 
+     * @return True if the index has been built, false otherwise
+     */
+    public boolean isBuilt( )
+    {
+        return _bBuilt;
+    }
+
+    /**
+     * Check if the resource type has too many resources to be indexed
+     * 
+     * @return True if the maximum number of indexed resources has been exceeded, false otherwise
+     */
+    public boolean isOverflow( )
+    {
+        return _bOverflow;
+    }
+
+    /**
+     * Get the number of indexed resources
+     * 
+     * @return The number of indexed resources
+     */
+    public int getSize( )
+    {
+        return _mapResources.size( );
+    }
+
+    /**
+     * Build the index from all the resources of a provider, if it has not been built yet. Updates are blocked while the index is built, so that an
+     * update made during the build is not overwritten by the resource read before the update.
+     * 
+     * @param provider
+     *            The provider of the resources
+     * @param nBatchSize
+     *            The number of resources read at once
+     * @return True if the index has been built by this call, false if it had already been built
+     */
+    public synchronized boolean build( IResourceProvider provider, int nBatchSize )
+    {
+        if ( _bBuilt )
+        {
+            return false;
+        }
+
+        try
+        {
+            provider.forEachBatch( _strResourceType, nBatchSize, listResources -> {
+                for ( IResource resource : listResources )
+                {
+                    index( resource );
+                }
+            } );
+        }
+        catch( RuntimeException e )
+        {
+            clear( );
+            throw e;
+        }
+
+        _bBuilt = true;
+
+        return true;
+    }
+
+    /**
+     * Add a resource to the index, or replace the resource with the same id
+     * 
+     * @param resource
+     *            The resource
+     */
+    public synchronized void index( IResource resource )
+    {
+        if ( _bOverflow )
+        {
+            return;
+        }
+
+        remove( resource.getIdResource( ) );
+
+        if ( _mapResources.size( ) >= _nMaxResources )
+        {
+            clear( );
+            _bOverflow = true;
+
+            return;
+        }
+
+        _mapResources.put( resource.getIdResource( ), resource );
+
+        for ( String strKey : getKeys( resource ) )
+        {
+            _mapEntries.put( strKey, resource );
+        }
+    }
+
+    /**
+     * Remove a resource from the index
+     * 
+     * @param strIdResource
+     *            The id of the resource
+     */
+    public synchronized void remove( String strIdResource )
+    {
+        IResource resource = _mapResources.remove( strIdResource );
+
+        if ( resource != null )
+        {
+            for ( String strKey : getKeys( resource ) )
+            {
+                _mapEntries.remove( strKey );
+            }
+        }
+    }
+
+    /**
+     * Search resources from the beginning of a word of their name
+     * 
+     * @param strNormalizedPrefix
+     *            The prefix, normalized with {@link #normalize(String)}
+     * @param nLimit
+     *            The maximum number of resources
+     * @return The resources whose name matches the prefix, sorted by the matched words
+     */
+    public List<IResource> search( String strNormalizedPrefix, int nLimit )
+    {
+        Map<String, IResource> mapResults = new LinkedHashMap<>( );
+        ConcurrentNavigableMap<String, IResource> mapMatches = _mapEntries.subMap( strNormalizedPrefix, strNormalizedPrefix + CONSTANT_LAST_CHAR );
+
+        for ( IResource resource : mapMatches.values( ) )
+        {
+            // A name with several matching words has several entries
+            mapResults.putIfAbsent( resource.getIdResource( ), resource );
+
+            if ( mapResults.size( ) >= nLimit )
+            {
+                break;
+            }
+        }
+
+        return new ArrayList<>( mapResults.values( ) );
+    }
+
+    /**
+     * Remove all the resources from the index
+     */
+    private void clear( )
+    {
+        _mapEntries.clear( );
+        _mapResources.clear( );
+    }
+
+    /**
+     * Get the keys of the entries of a resource
+     * 
+     * @param resource
+     *            The resource
+     * @return The keys of the entries
+     */
+    private static List<String> getKeys( IResource resource )
+    {
+        String strName = normalize( resource.getResourceName( ) );
+        String strSuffix = CONSTANT_ID_SEPARATOR + resource.getIdResource( );
+        List<String> listKeys = new ArrayList<>( );
+        int nWordStart = 0;
+
+        while ( nWordStart >= 0 )
+        {
+            listKeys.add( strName.substring( nWordStart ) + strSuffix );
+            nWordStart = strName.indexOf( CONSTANT_WORD_SEPARATOR, nWordStart );
+
+            if ( nWordStart >= 0 )
+            {
+                nWordStart++;
+            }
+        }
+
+        return listKeys;
+    }
+
+    /**
+     * Normalize a name or a prefix. Case and accents are ignored, and words are separated by a single space.
+     * 
+     * @param strText
+     *            The name or the prefix
+     * @return The normalized text
+     */
+    public static String normalize( String strText )
+    {
+        if ( strText == null )
+        {
+            return "";
+        }
+
+        String strDecomposed = Normalizer.normalize( strText, Normalizer.Form.NFD );
+        String strWithoutDiacritics = PATTERN_DIACRITICS.matcher( strDecomposed ).replaceAll( "" );
+        String strWords = PATTERN_WORD_SEPARATORS.matcher( strWithoutDiacritics.toLowerCase( Locale.ROOT ) ).replaceAll( " " );
+
+        return strWords.trim( );
+    }
+
+    /**
+     * Check if a normalized name matches a prefix
+     * 
+     * @param strNormalizedName
+     *            The name, normalized with {@link #normalize(String)}
+     * @param strNormalizedPrefix
+     *            The prefix, normalized with {@link #normalize(String)}
+     * @return True if a word of the name followed by the next words starts with the prefix, false otherwise
+     */
+    public static boolean matches( String strNormalizedName, String strNormalizedPrefix )
+    {
+        return strNormalizedName.startsWith( strNormalizedPrefix ) || strNormalizedName.contains( CONSTANT_WORD_SEPARATOR + strNormalizedPrefix );
+    }
+}
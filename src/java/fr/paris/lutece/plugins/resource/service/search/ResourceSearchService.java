@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.search;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.service.provider.IResourceProvider;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service to search resources from the beginning of a word of their name. Names of resources of providers that opt in with
+ * {@link IResourceProvider#isSearchIndexed(String)} are kept in an in-memory index per resource type, built the first time the type is searched and
+ * then updated from the changes reported by the provider, including changes made by other webapps. Resources of other providers are searched by
+ * iterating over all the resources of the type.
+ */
+public final class ResourceSearchService
+{
+    private static final String PROPERTY_ENABLED = "resource.search.index.enabled";
+    private static final String PROPERTY_MAX_RESOURCES_PER_TYPE = "resource.search.index.maxResourcesPerType";
+    private static final String PROPERTY_BATCH_SIZE = "resource.search.index.batchSize";
+    private static final String LOG_INDEX_OVERFLOW = "Resources of the following type are too many to be indexed, they are searched without index : ";
+    private static final ResourceSearchService _instance = new ResourceSearchService( );
+    private final boolean _bEnabled;
+    private final int _nMaxResourcesPerType;
+    private final int _nBatchSize;
+    private final Map<String, ResourceNameIndex> _mapIndexes = new ConcurrentHashMap<>( );
+
+    /**
+     * Default constructor
+     */
+    private ResourceSearchService( )
+    {
+        _bEnabled = AppPropertiesService.getPropertyBoolean( PROPERTY_ENABLED, true );
+        _nMaxResourcesPerType = AppPropertiesService.getPropertyInt( PROPERTY_MAX_RESOURCES_PER_TYPE, 200000 );
+        _nBatchSize = AppPropertiesService.getPropertyInt( PROPERTY_BATCH_SIZE, 500 );
+    }
+
+    /**
+     * Get the instance of the service
+     * 
+     * @return The instance of the service
+     */
+    public static ResourceSearchService getInstance( )
+    {
+        return _instance;
+    }
+
+    /**
+     * Search resources from the beginning of a word of their name. Case and accents are ignored.
+     * 
+     * @param provider
+     *            The provider of the resource type
+     * @param strResourceType
+     *            The resource type
+     * @param strPrefix
+     *            The beginning of a word of the name, optionally followed by the next words
+     * @param nLimit
+     *            The maximum number of resources
+     * @return The resources whose name matches the prefix, sorted by the matched words for indexed resource types and in the order of the provider
+     *         otherwise
+     */
+    public List<IResource> search( IResourceProvider provider, String strResourceType, String strPrefix, int nLimit )
+    {
+        String strNormalizedPrefix = ResourceNameIndex.normalize( strPrefix );
+
+        if ( strNormalizedPrefix.isEmpty( ) || ( nLimit <= 0 ) )
+        {
+            return new ArrayList<>( 0 );
+        }
+
+        ResourceNameIndex index = getIndex( provider, strResourceType );
+
+        if ( index != null )
+        {
+            return index.search( strNormalizedPrefix, nLimit );
+        }
+
+        List<IResource> listResults = new ArrayList<>( );
+
+        provider.forEachBatch( strResourceType, _nBatchSize, listResources -> {
+            for ( IResource resource : listResources )
+            {
+                if ( ( listResults.size( ) < nLimit )
+                        && ResourceNameIndex.matches( ResourceNameIndex.normalize( resource.getResourceName( ) ), strNormalizedPrefix ) )
+                {
+                    listResults.add( resource );
+                }
+            }
+        } );
+
+        return listResults;
+    }
+
+    /**
+     * Report the change of a resource. This method must be called by providers that opt in the index once the change is visible to other threads.
+     * 
+     * @param previousResource
+     *            The resource before the change, or null if the resource has been created
+     * @param resource
+     *            The resource after the change, or null if the resource has been removed
+     */
+    public void resourceChanged( IResource previousResource, IResource resource )
+    {
+        resourcesChanged( ( previousResource != null ) ? Collections.singletonList( previousResource ) : Collections.<IResource> emptyList( ),
+                ( resource != null ) ? Collections.singletonList( resource ) : Collections.<IResource> emptyList( ) );
+    }
+
+    /**
+     * Report the change of several resources. This method must be called by providers that opt in the index once the changes are visible to other
+     * threads.
+     * 
+     * @param listPreviousResources
+     *            The resources before the change. Resources that are not in the list of resources after the change with the same type have been
+     *            removed. Null resources are ignored.
+     * @param listResources
+     *            The resources after the change
+     */
+    public void resourcesChanged( Collection<? extends IResource> listPreviousResources, Collection<? extends IResource> listResources )
+    {
+        if ( !hasIndexes( ) )
+        {
+            return;
+        }
+
+        Map<String, String> mapResourceTypes = new HashMap<>( );
+
+        for ( IResource resource : listResources )
+        {
+            if ( resource != null )
+            {
+                mapResourceTypes.put( resource.getIdResource( ), resource.getResourceType( ) );
+            }
+        }
+
+        for ( IResource previousResource : listPreviousResources )
+        {
+            if ( ( previousResource != null )
+                    && !Objects.equals( previousResource.getResourceType( ), mapResourceTypes.get( previousResource.getIdResource( ) ) ) )
+            {
+                ResourceNameIndex index = getExistingIndex( previousResource.getResourceType( ) );
+
+                if ( index != null )
+                {
+                    index.remove( previousResource.getIdResource( ) );
+                }
+            }
+        }
+
+        for ( IResource resource : listResources )
+        {
+            ResourceNameIndex index = ( resource != null ) ? getExistingIndex( resource.getResourceType( ) ) : null;
+
+            if ( index != null )
+            {
+                index.index( resource );
+            }
+        }
+    }
+
+    /**
+     * Report the change of several resources whose previous state is unknown, for example resources changed by another webapp that shares the same
+     * database. Each resource is indexed in the index of its type and removed from the other indexes, so that indexes are updated without being built
+     * again.
+     * 
+     * @param listIdResources
+     *            The ids of the changed resources
+     * @param listResources
+     *            The changed resources read again. Ids that have no resource in this list have been removed.
+     */
+    public void resourcesReloaded( Collection<String> listIdResources, Collection<? extends IResource> listResources )
+    {
+        if ( !hasIndexes( ) )
+        {
+            return;
+        }
+
+        Map<String, IResource> mapResources = new HashMap<>( );
+
+        for ( IResource resource : listResources )
+        {
+            if ( resource != null )
+            {
+                mapResources.put( resource.getIdResource( ), resource );
+            }
+        }
+
+        for ( ResourceNameIndex index : _mapIndexes.values( ) )
+        {
+            for ( String strIdResource : listIdResources )
+            {
+                IResource resource = mapResources.get( strIdResource );
+
+                if ( ( resource != null ) && index.getResourceType( ).equals( resource.getResourceType( ) ) )
+                {
+                    index.index( resource );
+                }
+                else
+                {
+                    index.remove( strIdResource );
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if at least one resource type is indexed
+     * 
+     * @return True if at least one index exists, false otherwise
+     */
+    public boolean hasIndexes( )
+    {
+        return _bEnabled && !_mapIndexes.isEmpty( );
+    }
+
+    /**
+     * Remove the indexes of resource types. Indexes are built again the next time the resource types are searched. This method is used when resources
+     * have been changed by another webapp that shares the same database, or when a resource type is removed.
+     * 
+     * @param listResourceTypes
+     *            The resource types
+     */
+    public void invalidate( Collection<String> listResourceTypes )
+    {
+        for ( String strResourceType : listResourceTypes )
+        {
+            if ( strResourceType != null )
+            {
+                _mapIndexes.remove( strResourceType );
+            }
+        }
+    }
+
+    /**
+     * Get the index of a resource type, and build it if needed
+     * 
+     * @param provider
+     *            The provider of the resource type
+     * @param strResourceType
+     *            The resource type
+     * @return The index, or null if the resource type is not indexed
+     */
+    private ResourceNameIndex getIndex( IResourceProvider provider, String strResourceType )
+    {
+        if ( !_bEnabled || ( strResourceType == null ) || !provider.isSearchIndexed( strResourceType ) )
+        {
+            return null;
+        }
+
+        ResourceNameIndex index = _mapIndexes.computeIfAbsent( strResourceType, strType -> new ResourceNameIndex( strType, _nMaxResourcesPerType ) );
+
+        if ( !index.isBuilt( ) && index.build( provider, _nBatchSize ) && index.isOverflow( ) )
+        {
+            AppLogService.info( LOG_INDEX_OVERFLOW + strResourceType );
+        }
+
+        return index.isOverflow( ) ? null : index;
+    }
+
+    /**
+     * Get the index of a resource type if it exists
+     * 
+     * @param strResourceType
+     *            The resource type. Resources without type are never indexed.
+     * @return The index, or null if the resource type has no index
+     */
+    private ResourceNameIndex getExistingIndex( String strResourceType )
+    {
+        return ( strResourceType != null ) ? _mapIndexes.get( strResourceType ) : null;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.web;
+
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResource;
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceFilter;
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceHome;
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceSort;
+import fr.paris.lutece.portal.web.util.LocalizedDelegatePaginator;
+import fr.paris.lutece.util.html.DelegatePaginator;
+import fr.paris.lutece.util.html.Paginator;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Paginator over ids of database resources held in a primitive array, as returned by
+ * {@link DatabaseResourceHome#findAllIdArray(DatabaseResourceFilter, DatabaseResourceSort)}. Unlike a {@link Paginator} of ids, ids are neither boxed
+ * nor copied : the resources of the current page are read from a slice of the array.
+ */
+public class DatabaseResourceIdPaginator
+{
+    private final int [ ] _arrayIds;
+    private final int _nItemsPerPage;
+    private final int _nPageIndex;
+
+    /**
+     * Creates a new paginator
+     * 
+     * @param arrayIds
+     *            The ids of the resources, in the order of the pages
+     * @param nItemsPerPage
+     *            The number of resources per page
+     * @param strPageIndex
+     *            The index of the current page. The first page is used if the index is not valid, and the last page if the index is too high.
+     */
+    public DatabaseResourceIdPaginator( int [ ] arrayIds, int nItemsPerPage, String strPageIndex )
+    {
+        _arrayIds = arrayIds;
+        _nItemsPerPage = Math.max( 1, nItemsPerPage );
+        _nPageIndex = Math.min( Math.max( NumberUtils.toInt( strPageIndex, 1 ), 1 ), getPagesCount( ) );
+    }
+
+    /**
+     * Get the number of resources
+     * 
+     * @return The number of resources
+     */
+    public int getItemsCount( )
+    {
+        return _arrayIds.length;
+    }
+
+    /**
+     * Get the number of pages
+     * 
+     * @return The number of pages, at least 1
+     */
+    public int getPagesCount( )
+    {
+        return Math.max( 1, ( ( _arrayIds.length - 1 ) / _nItemsPerPage ) + 1 );
+    }
+
+    /**
+     * Get the index of the current page
+     * 
+     * @return The index of the current page, between 1 and the number of pages
+     */
+    public int getPageIndex( )
+    {
+        return _nPageIndex;
+    }
+
+    /**
+     * Get the index in the array of the first id of the current page
+     * 
+     * @return The index of the first id, inclusive
+     */
+    public int getFromIndex( )
+    {
+        return Math.min( ( _nPageIndex - 1 ) * _nItemsPerPage, _arrayIds.length );
+    }
+
+    /**
+     * Get the index in the array of the last id of the current page
+     * 
+     * @return The index of the last id, exclusive
+     */
+    public int getToIndex( )
+    {
+        return Math.min( getFromIndex( ) + _nItemsPerPage, _arrayIds.length );
+    }
+
+    /**
+     * Read the resources of the current page
+     * 
+     * @param resourceSort
+     *            The sort parameters, that must be the sort of the ids
+     * @return The resources of the current page
+     */
+    public List<DatabaseResource> getPageResources( DatabaseResourceSort resourceSort )
+    {
+        return DatabaseResourceHome.findByListId( _arrayIds, getFromIndex( ), getToIndex( ), resourceSort );
+    }
+
+    /**
+     * Get a paginator to display the current page
+     * 
+     * @param listPageResources
+     *            The resources of the current page, read with {@link #getPageResources(DatabaseResourceSort)}
+     * @param strBaseUrl
+     *            The URL of the pages
+     * @param locale
+     *            The locale
+     * @return The paginator
+     */
+    public DelegatePaginator<DatabaseResource> getPaginator( List<DatabaseResource> listPageResources, String strBaseUrl, Locale locale )
+    {
+        return new LocalizedDelegatePaginator<>( listPageResources, _nItemsPerPage, strBaseUrl, Paginator.PARAMETER_PAGE_INDEX,
+                Integer.toString( _nPageIndex ), _arrayIds.length, locale );
+    }
+}
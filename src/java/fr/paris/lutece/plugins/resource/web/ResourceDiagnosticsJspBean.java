@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.web;
+
+import fr.paris.lutece.plugins.resource.service.ResourceCacheService;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceMetricsService;
+import fr.paris.lutece.plugins.resource.service.metrics.ResourceTimerStatistics;
+import fr.paris.lutece.portal.util.mvc.admin.MVCAdminJspBean;
+import fr.paris.lutece.portal.util.mvc.admin.annotations.Controller;
+import fr.paris.lutece.portal.util.mvc.commons.annotations.Action;
+import fr.paris.lutece.portal.util.mvc.commons.annotations.View;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Jsp Bean to display the metrics and the cache regions of the resource plugin
+ */
+@Controller( controllerJsp = "ResourceDiagnostics.jsp", controllerPath = "jsp/admin/plugins/resource/", right = ResourceJspBean.RIGHT_MANAGE_RESOURCES )
+public class ResourceDiagnosticsJspBean extends MVCAdminJspBean
+{
+    private static final long serialVersionUID = 3862570927384160395L;
+
+    // Views
+    private static final String VIEW_DIAGNOSTICS = "viewDiagnostics";
+
+    // Actions
+    private static final String ACTION_DO_RESET_METRICS = "doResetMetrics";
+
+    // Messages
+    private static final String MESSAGE_DIAGNOSTICS_PAGE_TITLE = "resource.resourceDiagnostics.pageTitle";
+    private static final String MESSAGE_METRICS_RESET = "resource.resourceDiagnostics.metricsReset";
+
+    // Marks
+    private static final String MARK_METRICS_ENABLED = "metrics_enabled";
+    private static final String MARK_COUNTERS = "counters";
+    private static final String MARK_TIMERS = "timers";
+    private static final String MARK_BUCKET_UPPER_BOUNDS = "bucket_upper_bounds";
+    private static final String MARK_CACHE_REGIONS = "cache_regions";
+
+    // Templates
+    private static final String TEMPLATE_DIAGNOSTICS = "admin/plugins/resource/resource_diagnostics.html";
+
+    /**
+     * Get the page to display the metrics
+     * 
+     * @param request
+     *            The request
+     * @return The HTML content to display
+     */
+    @View( value = VIEW_DIAGNOSTICS, defaultView = true )
+    public String getDiagnostics( HttpServletRequest request )
+    {
+        Map<String, Object> model = getModel( );
+
+        model.put( MARK_METRICS_ENABLED, ResourceMetricsService.isEnabled( ) );
+        model.put( MARK_COUNTERS, ResourceMetricsService.getRegistry( ).getCounters( ) );
+        model.put( MARK_TIMERS, new ArrayList<ResourceTimerStatistics>( ResourceMetricsService.getRegistry( ).getTimers( ).values( ) ) );
+        model.put( MARK_BUCKET_UPPER_BOUNDS, ResourceTimerStatistics.getBucketUpperBoundsMillis( ) );
+        model.put( MARK_CACHE_REGIONS, ResourceCacheService.getInstance( ).getRegions( ) );
+
+        return getPage( MESSAGE_DIAGNOSTICS_PAGE_TITLE, TEMPLATE_DIAGNOSTICS, model );
+    }
+
+    /**
+     * Reset every metric
+     * 
+     * @param request
+     *            The request
+     * @return the next URL to redirect to
+     */
+    @Action( ACTION_DO_RESET_METRICS )
+    public String doResetMetrics( HttpServletRequest request )
+    {
+        ResourceMetricsService.getRegistry( ).reset( );
+        addInfo( MESSAGE_METRICS_RESET, getLocale( ) );
+
+        return redirectView( request, VIEW_DIAGNOSTICS );
+    }
+}
@@ -34,14 +34,18 @@
 package fr.paris.lutece.plugins.resource.web;
 
 import fr.paris.lutece.plugins.resource.business.database.DatabaseResource;
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceFilter;
 import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceHome;
 import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceSort;
 import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceType;
 import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceTypeHome;
 import fr.paris.lutece.plugins.resource.service.action.IResourceAction;
+import fr.paris.lutece.plugins.resource.service.action.ResourceActionDisplay;
+import fr.paris.lutece.plugins.resource.service.action.ResourceActionRegistry;
+import fr.paris.lutece.portal.service.i18n.I18nService;
 import fr.paris.lutece.portal.service.message.AdminMessage;
 import fr.paris.lutece.portal.service.message.AdminMessageService;
-import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
 import fr.paris.lutece.portal.service.util.AppPropertiesService;
 import fr.paris.lutece.portal.util.mvc.admin.MVCAdminJspBean;
 import fr.paris.lutece.portal.util.mvc.admin.annotations.Controller;
@@ -55,8 +59,11 @@ import fr.paris.lutece.util.html.Paginator;
 import fr.paris.lutece.util.url.UrlItem;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -93,24 +100,39 @@ public class ResourceJspBean extends MVCAdminJspBean
     private static final String MESSAGE_CONFIRM_REMOVE_RESOURCE = "resource.removeResource.confirmationMessage";
     private static final String MESSAGE_RESOURCE_REMOVED = "resource.removeResource.resourceRemoved";
     private static final String MESSAGE_RESOURCE_MODIFIED = "resource.modifyResource.resourceModified";
+    private static final String MESSAGE_ALL_RESOURCE_TYPES = "resource.resourceManagement.labelAllResourceTypes";
+
+    // Logs
+    private static final String LOG_INVALID_ACTION_EVALUATION = "The evaluation of the following action does not return one display per resource : ";
 
     // Marks
     private static final String MARK_LIST_RESOURCES = "listResources";
     private static final String MARK_REFERENCE_LIST_RESOURCE_TYPES = "refListResourceTypes";
+    private static final String MARK_REFERENCE_LIST_FILTER_RESOURCE_TYPES = "refListFilterResourceTypes";
+    private static final String MARK_FILTER = "filter";
     private static final String MARK_RESOURCE_TYPE = "resource_type";
     private static final String MARK_RESOURCE = "resource";
     private static final String MARK_PAGINATOR = "paginator";
     private static final String MARK_ITEMS_PER_PAGE = "nb_items_per_page";
     private static final String MARK_LIST_ACTIONS = "list_actions";
+    private static final String MARK_ACTIONS_MATRIX = "actions_matrix";
     private static final String MARK_LOCALE = "locale";
 
     // Parameters
     private static final String PARAMETER_ID_RESOURCE = "idResource";
+    private static final String PARAMETER_FILTER = "filter";
+    private static final String PARAMETER_FILTER_RESOURCE_TYPE = "filter_resource_type";
+    private static final String PARAMETER_FILTER_RESOURCE_NAME = "filter_resource_name";
+    private static final String PARAMETER_FILTER_ID_MIN = "filter_id_min";
+    private static final String PARAMETER_FILTER_ID_MAX = "filter_id_max";
 
     // Properties
     private static final String PROPERTY_DEFAULT_ITEMS_PER_PAGE = "resource.resourceManagement.defaultItemsPerPage";
     private static final String VALIDATION_ATTRIBUTES_PREFIX = "resource.model.entity.databaseResource.attribute.";
 
+    // Maximum distance between the displayed page and the pages whose last resource is kept
+    private static final int CONSTANT_PAGE_LAST_RESOURCES_DISTANCE = 5;
+
     // Templates
     private static final String TEMPLATE_MANAGE_RESOURCES = "admin/plugins/resource/manage_resources.html";
     private static final String TEMPLATE_CREATE_RESOURCE = "admin/plugins/resource/create_resource.html";
@@ -121,6 +143,13 @@ public class ResourceJspBean extends MVCAdminJspBean
     private String _strCurrentPageIndex;
     private int _nItemsPerPage;
     private DatabaseResource _resource;
+    private DatabaseResourceFilter _filter = new DatabaseResourceFilter( );
+    private DatabaseResourceFilter _pageFilter;
+    private DatabaseResourceSort _pageSort;
+    private int _nPageItemsPerPage;
+
+    // Last resource of the pages already displayed near the current page, used to get the next page with seek predicates
+    private final Map<Integer, DatabaseResource> _mapPageLastResources = new HashMap<>( );
 
     /**
      * Get the page to display the list of database resources
@@ -148,6 +177,13 @@ public class ResourceJspBean extends MVCAdminJspBean
             _bSortAsc = Boolean.parseBoolean( strSortAsc );
         }
 
+        // We update the filter, the first page of the filtered resources is displayed
+        if ( request.getParameter( PARAMETER_FILTER ) != null )
+        {
+            _filter = getFilter( request );
+            _strCurrentPageIndex = null;
+        }
+
         // We update the pagination parameters
         _strCurrentPageIndex = Paginator.getPageIndex( request, Paginator.PARAMETER_PAGE_INDEX, _strCurrentPageIndex );
         _nItemsPerPage = Paginator.getItemsPerPage( request, Paginator.PARAMETER_ITEMS_PER_PAGE, _nItemsPerPage, _nDefaultItemsPerPage );
@@ -155,15 +191,44 @@ public class ResourceJspBean extends MVCAdminJspBean
         DatabaseResourceSort resourceSort = DatabaseResourceSort.getDatabaseResourceSort( _strSort, _bSortAsc );
 
         // We get the items to display
-        List<Integer> listResourcesId = DatabaseResourceHome.findAllId( resourceSort );
+        if ( !resourceSort.equals( _pageSort ) || !_filter.equals( _pageFilter ) || ( _nItemsPerPage != _nPageItemsPerPage ) )
+        {
+            _pageSort = resourceSort;
+            _pageFilter = _filter;
+            _nPageItemsPerPage = _nItemsPerPage;
+            _mapPageLastResources.clear( );
+        }
 
-        String strViewUrl = getViewFullUrl( VIEW_MANAGE_RESOURCES );
+        int nItemsCount = DatabaseResourceHome.countByFilter( _filter );
+        int nPageIndex = getPageIndex( nItemsCount );
+        List<DatabaseResource> listResources;
 
-        Paginator<Integer> paginatorIds = new Paginator<>( listResourcesId, _nItemsPerPage, strViewUrl, Paginator.PARAMETER_PAGE_INDEX, _strCurrentPageIndex );
+        if ( nPageIndex == 1 )
+        {
+            listResources = DatabaseResourceHome.findPage( _filter, resourceSort, null, _nItemsPerPage );
+        }
+        else
+            if ( _mapPageLastResources.containsKey( nPageIndex - 1 ) )
+            {
+                listResources = DatabaseResourceHome.findPage( _filter, resourceSort, _mapPageLastResources.get( nPageIndex - 1 ), _nItemsPerPage );
+            }
+            else
+            {
+                listResources = DatabaseResourceHome.findPageAtOffset( _filter, resourceSort, ( nPageIndex - 1 ) * _nItemsPerPage, _nItemsPerPage );
+            }
+
+        if ( !listResources.isEmpty( ) )
+        {
+            _mapPageLastResources.put( nPageIndex, listResources.get( listResources.size( ) - 1 ) );
+        }
 
-        DelegatePaginator<DatabaseResource> paginatorItems = new LocalizedDelegatePaginator<>(
-                DatabaseResourceHome.findByListId( paginatorIds.getPageItems( ), resourceSort ), _nItemsPerPage, strViewUrl, Paginator.PARAMETER_PAGE_INDEX,
-                _strCurrentPageIndex, paginatorIds.getItemsCount( ), getLocale( ) );
+        // Pages far from the current one are reached with an offset, their last resource does not need to be kept
+        _mapPageLastResources.keySet( ).removeIf( nPage -> Math.abs( nPage - nPageIndex ) > CONSTANT_PAGE_LAST_RESOURCES_DISTANCE );
+
+        _strCurrentPageIndex = Integer.toString( nPageIndex );
+
+        DelegatePaginator<DatabaseResource> paginatorItems = new LocalizedDelegatePaginator<>( listResources, _nItemsPerPage,
+                getViewFullUrl( VIEW_MANAGE_RESOURCES ), Paginator.PARAMETER_PAGE_INDEX, _strCurrentPageIndex, nItemsCount, getLocale( ) );
 
         // We get the reference list of resource types
         ReferenceList refListItems = new ReferenceList( );
@@ -173,19 +238,128 @@ public class ResourceJspBean extends MVCAdminJspBean
             refListItems.addItem( resourceType.getResourceTypeName( ), resourceType.getResourceTypeDescription( ) );
         }
 
+        ReferenceList refListFilterItems = new ReferenceList( );
+        refListFilterItems.addItem( StringUtils.EMPTY, I18nService.getLocalizedString( MESSAGE_ALL_RESOURCE_TYPES, getLocale( ) ) );
+        refListFilterItems.addAll( refListItems );
+
         Map<String, Object> model = new HashMap<>( );
 
         model.put( MARK_ITEMS_PER_PAGE, Integer.toString( _nItemsPerPage ) );
         model.put( MARK_PAGINATOR, paginatorItems );
         model.put( MARK_LIST_RESOURCES, paginatorItems.getPageItems( ) );
         model.put( MARK_REFERENCE_LIST_RESOURCE_TYPES, refListItems );
-        model.put( MARK_LIST_ACTIONS, SpringContextService.getBeansOfType( IResourceAction.class ) );
+        model.put( MARK_REFERENCE_LIST_FILTER_RESOURCE_TYPES, refListFilterItems );
+        model.put( MARK_FILTER, _filter );
+        model.put( MARK_LIST_ACTIONS, ResourceActionRegistry.getInstance( ).getActions( ) );
+        model.put( MARK_ACTIONS_MATRIX, getActionsMatrix( listResources ) );
         model.put( MARK_LOCALE, getLocale( ) );
         fillCommons( model );
 
         return getPage( MESSAGE_RESOURCE_MANAGEMENT_PAGE_TITLE, TEMPLATE_MANAGE_RESOURCES, model );
     }
 
+    /**
+     * Get the filter of resources from the request
+     * 
+     * @param request
+     *            The request
+     * @return The filter of resources
+     */
+    private DatabaseResourceFilter getFilter( HttpServletRequest request )
+    {
+        DatabaseResourceFilter filter = new DatabaseResourceFilter( );
+        filter.setResourceType( request.getParameter( PARAMETER_FILTER_RESOURCE_TYPE ) );
+        filter.setResourceNamePrefix( request.getParameter( PARAMETER_FILTER_RESOURCE_NAME ) );
+        filter.setIdResourceMin( NumberUtils.toInt( request.getParameter( PARAMETER_FILTER_ID_MIN ), DatabaseResourceFilter.ALL_INT ) );
+        filter.setIdResourceMax( NumberUtils.toInt( request.getParameter( PARAMETER_FILTER_ID_MAX ), DatabaseResourceFilter.ALL_INT ) );
+
+        return filter;
+    }
+
+    /**
+     * Evaluate the actions of every resource of the page. Each action is evaluated once for the resources of each resource type it supports.
+     * 
+     * @param listResources
+     *            The resources of the page
+     * @return A map associating ids of resources with the displays of the actions that can be performed on them
+     */
+    private Map<String, List<ResourceActionDisplay>> getActionsMatrix( List<DatabaseResource> listResources )
+    {
+        Map<String, List<ResourceActionDisplay>> mapActionsMatrix = new HashMap<>( );
+        Map<String, List<DatabaseResource>> mapResourcesByType = new LinkedHashMap<>( );
+
+        for ( DatabaseResource resource : listResources )
+        {
+            mapActionsMatrix.put( resource.getIdResource( ), new ArrayList<>( ) );
+            mapResourcesByType.computeIfAbsent( resource.getResourceType( ), strResourceType -> new ArrayList<>( ) ).add( resource );
+        }
+
+        for ( Map.Entry<String, List<DatabaseResource>> entry : mapResourcesByType.entrySet( ) )
+        {
+            List<DatabaseResource> listResourcesOfType = entry.getValue( );
+
+            for ( IResourceAction action : ResourceActionRegistry.getInstance( ).getActions( entry.getKey( ) ) )
+            {
+                List<ResourceActionDisplay> listDisplays = action.evaluate( listResourcesOfType, getLocale( ) );
+
+                if ( ( listDisplays == null ) || ( listDisplays.size( ) != listResourcesOfType.size( ) ) )
+                {
+                    // The displays can not be matched with the resources : the action is evaluated for each resource instead
+                    AppLogService.error( LOG_INVALID_ACTION_EVALUATION + action.getClass( ).getName( ) );
+                    listDisplays = evaluateEach( action, listResourcesOfType );
+                }
+
+                for ( int nIndex = 0; nIndex < listResourcesOfType.size( ); nIndex++ )
+                {
+                    ResourceActionDisplay display = listDisplays.get( nIndex );
+
+                    if ( display != null )
+                    {
+                        mapActionsMatrix.get( listResourcesOfType.get( nIndex ).getIdResource( ) ).add( display );
+                    }
+                }
+            }
+        }
+
+        return mapActionsMatrix;
+    }
+
+    /**
+     * Evaluate an action for each resource individually
+     * 
+     * @param action
+     *            The action
+     * @param listResources
+     *            The resources
+     * @return The list of displays of the action, in the order of the given resources
+     */
+    private List<ResourceActionDisplay> evaluateEach( IResourceAction action, List<DatabaseResource> listResources )
+    {
+        List<ResourceActionDisplay> listDisplays = new ArrayList<>( listResources.size( ) );
+
+        for ( DatabaseResource resource : listResources )
+        {
+            listDisplays.add( action.evaluate( resource, getLocale( ) ) );
+        }
+
+        return listDisplays;
+    }
+
+    /**
+     * Get the index of the page to display from the current page index
+     * 
+     * @param nItemsCount
+     *            The total number of items
+     * @return The index of the page to display, between 1 and the number of pages
+     */
+    private int getPageIndex( int nItemsCount )
+    {
+        int nPageIndex = NumberUtils.toInt( _strCurrentPageIndex, 1 );
+        int nPagesCount = Math.max( 1, ( ( nItemsCount - 1 ) / _nItemsPerPage ) + 1 );
+
+        return Math.min( Math.max( nPageIndex, 1 ), nPagesCount );
+    }
+
     /**
      * Get the page to create a resource
      * 
@@ -287,8 +461,15 @@ public class ResourceJspBean extends MVCAdminJspBean
             return redirectView( request, VIEW_MANAGE_RESOURCES );
         }
 
-        DatabaseResource resource = DatabaseResourceHome.findByPrimaryKey( Integer.parseInt( strIdResource ) );
+        DatabaseResource snapshot = DatabaseResourceHome.findByPrimaryKey( Integer.parseInt( strIdResource ) );
+
+        if ( snapshot == null )
+        {
+            return redirectView( request, VIEW_MANAGE_RESOURCES );
+        }
 
+        // The resource found is an immutable snapshot shared with the cache, the form is populated into a copy
+        DatabaseResource resource = new DatabaseResource( snapshot );
         populate( resource, request );
 
         if ( !validateBean( resource, VALIDATION_ATTRIBUTES_PREFIX ) )
@@ -33,6 +33,7 @@
  */
 package fr.paris.lutece.plugins.resource.web;
 
+import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceHome;
 import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceType;
 import fr.paris.lutece.plugins.resource.business.database.DatabaseResourceTypeHome;
 import fr.paris.lutece.plugins.resource.service.listeners.DatabaseResourceTypeRemovalManager;
@@ -49,6 +50,8 @@ import fr.paris.lutece.util.url.UrlItem;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
@@ -86,6 +89,7 @@ public class ResourceTypeJspBean extends MVCAdminJspBean
     // Marks
     private static final String MARK_LIST_RESOURCE_TYPES = "list_resource_types";
     private static final String MARK_RESOURCE_TYPE = "resource_type";
+    private static final String MARK_MAP_RESOURCE_COUNTS = "map_resource_counts";
     private static final String MARK_PAGINATOR = "paginator";
     private static final String MARK_ITEMS_PER_PAGE = "nb_items_per_page";
     private static final String PARAMETER_RESOURCE_TYPE_NAME = "resourceTypeName";
@@ -120,11 +124,22 @@ public class ResourceTypeJspBean extends MVCAdminJspBean
 
         _resourceType = null;
 
+        // Resources are only counted for the resource types of the current page
+        List<DatabaseResourceType> listResourceTypes = paginator.getPageItems( );
+        Map<String, Integer> mapResourceCounts = new HashMap<>( );
+
+        for ( DatabaseResourceType resourceType : listResourceTypes )
+        {
+            String strResourceType = resourceType.getResourceTypeName( );
+            mapResourceCounts.put( strResourceType, DatabaseResourceHome.countByResourceType( strResourceType ) );
+        }
+
         Map<String, Object> model = getModel( );
 
         model.put( MARK_ITEMS_PER_PAGE, Integer.toString( _nItemsPerPage ) );
         model.put( MARK_PAGINATOR, paginator );
-        model.put( MARK_LIST_RESOURCE_TYPES, paginator.getPageItems( ) );
+        model.put( MARK_LIST_RESOURCE_TYPES, listResourceTypes );
+        model.put( MARK_MAP_RESOURCE_COUNTS, mapResourceCounts );
 
         return getPage( MESSAGE_RESOURCE_TYPE_MANAGEMENT_PAGE_TITLE, TEMPLATE_MANAGE_RESOURCE_TYPE, model );
     }
@@ -2,12 +2,14 @@ DROP TABLE IF EXISTS resource_resource;
 CREATE TABLE resource_resource
 (
 	id_resource INT DEFAULT 0 NOT NULL,
-	resource_type VARCHAR(255) DEFAULT NULL,
-	resource_name VARCHAR(255) DEFAULT NULL,
+	resource_type VARCHAR(255) DEFAULT '' NOT NULL,
+	resource_name VARCHAR(255) DEFAULT '' NOT NULL,
 	PRIMARY KEY (id_resource)
 );
 
-CREATE INDEX resource_resource_type_idx ON resource_resource(resource_type);
+CREATE INDEX resource_resource_type_idx ON resource_resource(resource_type, id_resource);
+CREATE INDEX resource_resource_type_name_idx ON resource_resource(resource_type, resource_name, id_resource);
+CREATE INDEX resource_resource_name_idx ON resource_resource(resource_name, id_resource);
 
 DROP TABLE IF EXISTS resource_resource_type;
 CREATE TABLE resource_resource_type
@@ -16,3 +18,25 @@ CREATE TABLE resource_resource_type
 	resource_type_description VARCHAR(255) DEFAULT NULL,
 	PRIMARY KEY (resource_type_name)
 );
+
+DROP TABLE IF EXISTS resource_id_block;
+CREATE TABLE resource_id_block
+(
+	block_name VARCHAR(50) NOT NULL,
+	next_id INT DEFAULT 1 NOT NULL,
+	PRIMARY KEY (block_name)
+);
+INSERT INTO resource_id_block ( block_name, next_id ) VALUES ( 'resource_resource', 1 );
+
+DROP TABLE IF EXISTS resource_change_log;
+CREATE TABLE resource_change_log
+(
+	id_change INT AUTO_INCREMENT NOT NULL,
+	change_family VARCHAR(50) NOT NULL,
+	change_key VARCHAR(255) NOT NULL,
+	node_id VARCHAR(50) NOT NULL,
+	date_change TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+	PRIMARY KEY (id_change)
+);
+
+CREATE INDEX resource_change_log_date_idx ON resource_change_log(date_change);
@@ -0,0 +1,60 @@
+--
+-- Id allocation : ids of resources are now reserved by blocks in the table resource_id_block
+--
+DROP TABLE IF EXISTS resource_id_block;
+CREATE TABLE resource_id_block
+(
+	block_name VARCHAR(50) NOT NULL,
+	next_id INT DEFAULT 1 NOT NULL,
+	PRIMARY KEY (block_name)
+);
+INSERT INTO resource_id_block ( block_name, next_id ) SELECT 'resource_resource', COALESCE( MAX(id_resource), 0 ) + 1 FROM resource_resource;
+
+--
+-- To let the database generate ids instead (property idGeneratedByDatabase of the bean resource.databaseResourceDAO), id_resource must be an identity
+-- or auto increment column. Run the statements of your database :
+--
+-- MySQL / MariaDB :
+-- ALTER TABLE resource_resource MODIFY id_resource INT AUTO_INCREMENT NOT NULL;
+--
+-- PostgreSQL :
+-- CREATE SEQUENCE resource_resource_id_seq OWNED BY resource_resource.id_resource;
+-- SELECT setval( 'resource_resource_id_seq', COALESCE( MAX(id_resource), 0 ) + 1, false ) FROM resource_resource;
+-- ALTER TABLE resource_resource ALTER COLUMN id_resource SET DEFAULT nextval( 'resource_resource_id_seq' );
+--
+-- HSQLDB (replace <next_id> by the result of SELECT COALESCE( MAX(id_resource), 0 ) + 1 FROM resource_resource) :
+-- ALTER TABLE resource_resource ALTER COLUMN id_resource INT GENERATED BY DEFAULT AS IDENTITY;
+-- ALTER TABLE resource_resource ALTER COLUMN id_resource RESTART WITH <next_id>;
+--
+-- Other databases are not supported with this option : use the default HiLoDatabaseResourceIdAllocator or a SequenceDatabaseResourceIdAllocator.
+--
+
+--
+-- Change log : changes of resources and resource types are logged so that webapps sharing the database can keep their caches up to date
+--
+DROP TABLE IF EXISTS resource_change_log;
+CREATE TABLE resource_change_log
+(
+	id_change INT AUTO_INCREMENT NOT NULL,
+	change_family VARCHAR(50) NOT NULL,
+	change_key VARCHAR(255) NOT NULL,
+	node_id VARCHAR(50) NOT NULL,
+	date_change TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+	PRIMARY KEY (id_change)
+);
+
+CREATE INDEX resource_change_log_date_idx ON resource_change_log(date_change);
+
+--
+-- Sorts and filters of the management page : the type and the name of resources are no longer nullable, so that pages are sorted and sought on the
+-- raw columns. The indexes end with id_resource, the tie breaker of sorts, so that a sorted page is read from an index without sorting rows.
+--
+UPDATE resource_resource SET resource_type = '' WHERE resource_type IS NULL;
+UPDATE resource_resource SET resource_name = '' WHERE resource_name IS NULL;
+ALTER TABLE resource_resource MODIFY resource_type VARCHAR(255) DEFAULT '' NOT NULL;
+ALTER TABLE resource_resource MODIFY resource_name VARCHAR(255) DEFAULT '' NOT NULL;
+
+DROP INDEX resource_resource_type_idx ON resource_resource;
+CREATE INDEX resource_resource_type_idx ON resource_resource(resource_type, id_resource);
+CREATE INDEX resource_resource_type_name_idx ON resource_resource(resource_type, resource_name, id_resource);
+CREATE INDEX resource_resource_name_idx ON resource_resource(resource_name, id_resource);
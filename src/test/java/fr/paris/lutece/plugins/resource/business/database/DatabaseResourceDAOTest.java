@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.database;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import fr.paris.lutece.plugins.resource.service.ResourcePlugin;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.plugin.PluginService;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class DatabaseResourceDAOTest extends LuteceTestCase
+{
+    private static final String RESOURCE_TYPE = "DatabaseResourceDAOTest";
+    private static final String [ ] RESOURCE_NAMES = {
+            null, "b", null, "a", "", "c", null, "a", null
+    };
+    private static final int PAGE_SIZE = 2;
+
+    @Test
+    public void testFindPageWithNullNames( )
+    {
+        Plugin plugin = PluginService.getPlugin( ResourcePlugin.PLUGIN_NAME );
+        DatabaseResourceDAO dao = new DatabaseResourceDAO( );
+        List<Integer> listIds = new ArrayList<>( );
+
+        try
+        {
+            for ( String strResourceName : RESOURCE_NAMES )
+            {
+                DatabaseResource resource = new DatabaseResource( );
+                resource.setResourceType( RESOURCE_TYPE );
+                resource.setResourceName( strResourceName );
+                listIds.add( dao.insert( resource, plugin ) );
+            }
+
+            DatabaseResourceFilter filter = new DatabaseResourceFilter( );
+            filter.setResourceType( RESOURCE_TYPE );
+
+            for ( boolean bSortAsc : new boolean [ ] {
+                    true, false
+            } )
+            {
+                DatabaseResourceSort resourceSort = DatabaseResourceSort.getDatabaseResourceSort( "resource_name", bSortAsc );
+                List<DatabaseResource> listPages = findAllPages( dao, filter, resourceSort, plugin );
+                List<DatabaseResource> listOffsetPages = dao.findPageAtOffset( filter, resourceSort, 0, RESOURCE_NAMES.length, plugin );
+
+                // Every resource is found once, in the same order as with offsets, null names being sorted as empty names
+                assertEquals( RESOURCE_NAMES.length, listPages.size( ) );
+                assertEquals( new HashSet<>( listIds ), getIds( listPages ) );
+
+                for ( int i = 0; i < listPages.size( ); i++ )
+                {
+                    assertEquals( listOffsetPages.get( i ).getIdResource( ), listPages.get( i ).getIdResource( ) );
+
+                    if ( i > 0 )
+                    {
+                        String strPrevious = emptyIfNull( listPages.get( i - 1 ).getResourceName( ) );
+                        String strCurrent = emptyIfNull( listPages.get( i ).getResourceName( ) );
+                        int nCompare = strPrevious.compareTo( strCurrent );
+                        assertTrue( bSortAsc ? ( nCompare <= 0 ) : ( nCompare >= 0 ) );
+                    }
+                }
+            }
+        }
+        finally
+        {
+            dao.deleteAll( listIds, plugin );
+        }
+    }
+
+    @Test
+    public void testFindByListIdRejectsInvalidSlices( )
+    {
+        DatabaseResourceDAO dao = new DatabaseResourceDAO( );
+        DatabaseResourceSort resourceSort = DatabaseResourceSort.getDatabaseResourceSort( null, true );
+        int [ ] arrayIds = new int [ 3];
+
+        assertTrue( dao.findByListId( arrayIds, 2, 2, resourceSort, null ).isEmpty( ) );
+
+        assertInvalidSlice( dao, arrayIds, -1, 2, resourceSort );
+        assertInvalidSlice( dao, arrayIds, 1, 4, resourceSort );
+    }
+
+    private static void assertInvalidSlice( DatabaseResourceDAO dao, int [ ] arrayIds, int nFromIndex, int nToIndex,
+            DatabaseResourceSort resourceSort )
+    {
+        try
+        {
+            dao.findByListId( arrayIds, nFromIndex, nToIndex, resourceSort, null );
+            fail( "An IndexOutOfBoundsException should have been thrown" );
+        }
+        catch( IndexOutOfBoundsException e )
+        {
+            assertTrue( e.getMessage( ).contains( "[" + nFromIndex + ", " + nToIndex + "[" ) );
+        }
+    }
+
+    private static List<DatabaseResource> findAllPages( DatabaseResourceDAO dao, DatabaseResourceFilter filter, DatabaseResourceSort resourceSort,
+            Plugin plugin )
+    {
+        List<DatabaseResource> listResources = new ArrayList<>( );
+        List<DatabaseResource> listPage = dao.findPage( filter, resourceSort, null, PAGE_SIZE, plugin );
+
+        // A page is never empty while resources remain, even when the last resource of the previous page has a null name
+        while ( !listPage.isEmpty( ) )
+        {
+            listResources.addAll( listPage );
+            assertTrue( listResources.size( ) <= RESOURCE_NAMES.length );
+            listPage = dao.findPage( filter, resourceSort, listPage.get( listPage.size( ) - 1 ), PAGE_SIZE, plugin );
+        }
+
+        return listResources;
+    }
+
+    private static Set<Integer> getIds( List<DatabaseResource> listResources )
+    {
+        Set<Integer> setIds = new HashSet<>( );
+
+        for ( DatabaseResource resource : listResources )
+        {
+            setIds.add( Integer.valueOf( resource.getIdResource( ) ) );
+        }
+
+        return setIds;
+    }
+
+    private static String emptyIfNull( String strValue )
+    {
+        return strValue == null ? "" : strValue;
+    }
+}
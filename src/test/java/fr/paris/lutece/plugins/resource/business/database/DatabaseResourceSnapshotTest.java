@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.database;
+
+import org.junit.Test;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class DatabaseResourceSnapshotTest extends LuteceTestCase
+{
+    @Test
+    public void testSnapshotIsImmutable( )
+    {
+        DatabaseResource snapshot = new DatabaseResourceSnapshot( "1", "TYPE", "Name" );
+
+        try
+        {
+            snapshot.setResourceName( "Other name" );
+            fail( "An UnsupportedOperationException should have been thrown" );
+        }
+        catch( UnsupportedOperationException e )
+        {
+            assertEquals( "Name", snapshot.getResourceName( ) );
+        }
+
+        try
+        {
+            snapshot.setResourceType( "OTHER_TYPE" );
+            fail( "An UnsupportedOperationException should have been thrown" );
+        }
+        catch( UnsupportedOperationException e )
+        {
+            assertEquals( "TYPE", snapshot.getResourceType( ) );
+        }
+    }
+
+    @Test
+    public void testCopyIsMutable( )
+    {
+        DatabaseResource snapshot = new DatabaseResourceSnapshot( "1", "TYPE", "Name" );
+
+        for ( DatabaseResource copy : new DatabaseResource [ ] {
+                new DatabaseResource( snapshot ), snapshot.clone( )
+        } )
+        {
+            assertFalse( copy instanceof DatabaseResourceSnapshot );
+            assertEquals( "1", copy.getIdResource( ) );
+            assertEquals( "TYPE", copy.getResourceType( ) );
+
+            copy.setResourceName( "Other name" );
+            assertEquals( "Other name", copy.getResourceName( ) );
+            assertEquals( "Name", snapshot.getResourceName( ) );
+        }
+    }
+}
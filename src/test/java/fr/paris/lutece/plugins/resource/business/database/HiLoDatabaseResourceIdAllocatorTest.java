@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.business.database;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.util.AppException;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class HiLoDatabaseResourceIdAllocatorTest extends LuteceTestCase
+{
+    @Test
+    public void testAllocateIdReservesConsecutiveBlocks( )
+    {
+        AtomicInteger nextId = new AtomicInteger( 1 );
+        HiLoDatabaseResourceIdAllocator allocator = new InMemoryAllocator( nextId, 0 );
+        allocator.setBlockSize( 3 );
+
+        for ( int nExpectedId = 1; nExpectedId <= 7; nExpectedId++ )
+        {
+            assertEquals( nExpectedId, allocator.allocateId( null ) );
+        }
+
+        // Three blocks of three ids have been reserved
+        assertEquals( 10, nextId.get( ) );
+    }
+
+    @Test
+    public void testAllocateIdRetriesWhenAnotherWebappReservedTheBlock( )
+    {
+        AtomicInteger nextId = new AtomicInteger( 1 );
+        InMemoryAllocator allocator = new InMemoryAllocator( nextId, 2 );
+        allocator.setBlockSize( 10 );
+
+        // Two blocks are reserved by another webapp between the read and the update
+        assertEquals( 21, allocator.allocateId( null ) );
+        assertEquals( 3, allocator._nAttempts );
+        assertEquals( 31, nextId.get( ) );
+    }
+
+    @Test
+    public void testAllocateIdFailsWhenNoBlockCanBeReserved( )
+    {
+        InMemoryAllocator allocator = new InMemoryAllocator( new AtomicInteger( 1 ), Integer.MAX_VALUE );
+
+        try
+        {
+            allocator.allocateId( null );
+            fail( "An exception should have been thrown" );
+        }
+        catch( AppException e )
+        {
+            assertTrue( allocator._nAttempts > 1 );
+        }
+    }
+
+    @Test
+    public void testConcurrentAllocatorsNeverAllocateTheSameId( ) throws InterruptedException
+    {
+        AtomicInteger nextId = new AtomicInteger( 1 );
+        Queue<Integer> queueIds = new ConcurrentLinkedQueue<>( );
+        List<Thread> listThreads = new ArrayList<>( );
+
+        // Two webapps sharing the same table, with several threads each
+        for ( int nWebapp = 0; nWebapp < 2; nWebapp++ )
+        {
+            HiLoDatabaseResourceIdAllocator allocator = new InMemoryAllocator( nextId, 0 );
+            allocator.setBlockSize( 7 );
+
+            for ( int nThread = 0; nThread < 4; nThread++ )
+            {
+                listThreads.add( new Thread( ( ) -> {
+                    for ( int i = 0; i < 1000; i++ )
+                    {
+                        queueIds.add( allocator.allocateId( null ) );
+                    }
+                } ) );
+            }
+        }
+
+        for ( Thread thread : listThreads )
+        {
+            thread.start( );
+        }
+
+        for ( Thread thread : listThreads )
+        {
+            thread.join( );
+        }
+
+        Set<Integer> setIds = new HashSet<>( queueIds );
+        assertEquals( 8000, queueIds.size( ) );
+        assertEquals( 8000, setIds.size( ) );
+    }
+
+    /**
+     * Allocator that reserves blocks in memory instead of the table resource_id_block
+     */
+    private static final class InMemoryAllocator extends HiLoDatabaseResourceIdAllocator
+    {
+        private final AtomicInteger _nextId;
+        private int _nConcurrentReservations;
+        private int _nAttempts;
+
+        private InMemoryAllocator( AtomicInteger nextId, int nConcurrentReservations )
+        {
+            _nextId = nextId;
+            _nConcurrentReservations = nConcurrentReservations;
+        }
+
+        @Override
+        Connection getConnection( Plugin plugin )
+        {
+            return null;
+        }
+
+        @Override
+        void freeConnection( Plugin plugin, Connection connection )
+        {
+            // Nothing to do
+        }
+
+        @Override
+        int readNextId( Connection connection )
+        {
+            return _nextId.get( );
+        }
+
+        @Override
+        boolean compareAndSetNextId( Connection connection, int nExpectedNextId, int nNewNextId )
+        {
+            _nAttempts++;
+
+            if ( _nConcurrentReservations > 0 )
+            {
+                // Another webapp reserves a block of the same size
+                _nConcurrentReservations--;
+                _nextId.addAndGet( nNewNextId - nExpectedNextId );
+            }
+
+            return _nextId.compareAndSet( nExpectedNextId, nNewNextId );
+        }
+    }
+}
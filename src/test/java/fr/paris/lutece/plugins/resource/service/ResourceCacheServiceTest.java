@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class ResourceCacheServiceTest extends LuteceTestCase
+{
+    private static final long TIMEOUT = 5000L;
+
+    @Test
+    public void testGetOrLoad( )
+    {
+        ResourceCacheService cacheService = ResourceCacheService.getInstance( );
+        ResourceCacheKey key = ResourceCacheKey.ofResourceType( "ResourceCacheServiceTest.getOrLoad" );
+        AtomicInteger nLoads = new AtomicInteger( );
+
+        assertEquals( "value", cacheService.getOrLoad( key, ( ) -> load( nLoads, "value" ) ) );
+        assertEquals( "value", cacheService.getOrLoad( key, ( ) -> load( nLoads, "other value" ) ) );
+        assertEquals( 1, nLoads.get( ) );
+
+        cacheService.removeKey( key );
+    }
+
+    @Test
+    public void testGetOrLoadAbandonedLoading( )
+    {
+        ResourceCacheService cacheService = ResourceCacheService.getInstance( );
+        ResourceCacheKey key = ResourceCacheKey.ofResourceType( "ResourceCacheServiceTest.abandonedLoading" );
+        AtomicInteger nLoads = new AtomicInteger( );
+
+        // The key is removed while the first loading is in progress : the loaded object is stale, and the key is loaded again
+        Object object = cacheService.getOrLoad( key, ( ) -> {
+            if ( nLoads.incrementAndGet( ) == 1 )
+            {
+                cacheService.removeKey( key );
+
+                return "stale value";
+            }
+
+            return "fresh value";
+        } );
+
+        assertEquals( "fresh value", object );
+        assertEquals( 2, nLoads.get( ) );
+        assertNull( cacheService.getFromCache( key ) );
+
+        // The key is put while the loading is in progress : the object put is returned and kept in cache instead of the stale object
+        object = cacheService.getOrLoad( key, ( ) -> {
+            cacheService.putInCache( key, "put value" );
+
+            return "stale value";
+        } );
+
+        assertEquals( "put value", object );
+        assertEquals( "put value", cacheService.getFromCache( key ) );
+
+        cacheService.removeKey( key );
+    }
+
+    @Test
+    public void testGetOrLoadWaiter( ) throws Exception
+    {
+        ResourceCacheService cacheService = ResourceCacheService.getInstance( );
+        ResourceCacheKey key = ResourceCacheKey.ofResourceType( "ResourceCacheServiceTest.waiter" );
+        CountDownLatch latchLoading = new CountDownLatch( 1 );
+        CountDownLatch latchRelease = new CountDownLatch( 1 );
+        CompletableFuture<Object> loading = CompletableFuture.supplyAsync( ( ) -> cacheService.getOrLoad( key, ( ) -> {
+            latchLoading.countDown( );
+            await( latchRelease );
+
+            return "value";
+        } ) );
+
+        assertTrue( latchLoading.await( TIMEOUT, TimeUnit.MILLISECONDS ) );
+
+        // A waiter that waits too long loads the key itself, without putting it in cache
+        assertEquals( "direct value", cacheService.getOrLoad( key, ( ) -> "direct value", 50L ) );
+
+        CompletableFuture<Object> waiter = CompletableFuture.supplyAsync( ( ) -> cacheService.getOrLoad( key, ( ) -> "waiter value", TIMEOUT ) );
+        latchRelease.countDown( );
+
+        assertEquals( "value", loading.get( TIMEOUT, TimeUnit.MILLISECONDS ) );
+        assertEquals( "value", waiter.get( TIMEOUT, TimeUnit.MILLISECONDS ) );
+        assertEquals( "value", cacheService.getFromCache( key ) );
+
+        cacheService.removeKey( key );
+    }
+
+    @Test
+    public void testGetOrLoadFailure( ) throws Exception
+    {
+        ResourceCacheService cacheService = ResourceCacheService.getInstance( );
+        ResourceCacheKey key = ResourceCacheKey.ofResourceType( "ResourceCacheServiceTest.failure" );
+        CountDownLatch latchLoading = new CountDownLatch( 1 );
+        CountDownLatch latchRelease = new CountDownLatch( 1 );
+        IllegalStateException exception = new IllegalStateException( "failure" );
+        AtomicInteger nLoads = new AtomicInteger( );
+        CompletableFuture<Object> loading = CompletableFuture.supplyAsync( ( ) -> cacheService.getOrLoad( key, ( ) -> {
+            nLoads.incrementAndGet( );
+            latchLoading.countDown( );
+            await( latchRelease );
+
+            throw exception;
+        } ) );
+
+        assertTrue( latchLoading.await( TIMEOUT, TimeUnit.MILLISECONDS ) );
+
+        CompletableFuture<Object> waiter = new CompletableFuture<>( );
+        Thread threadWaiter = new Thread( ( ) -> {
+            try
+            {
+                waiter.complete( cacheService.getOrLoad( key, ( ) -> load( nLoads, "value" ), TIMEOUT ) );
+            }
+            catch( RuntimeException e )
+            {
+                waiter.completeExceptionally( e );
+            }
+        } );
+        threadWaiter.start( );
+
+        // The loading is released once the waiter waits for it
+        while ( threadWaiter.getState( ) != Thread.State.TIMED_WAITING && !waiter.isDone( ) )
+        {
+            Thread.yield( );
+        }
+
+        latchRelease.countDown( );
+
+        // The exception is thrown to the loading thread and to the waiting thread, and the key is not loaded again
+        assertSame( exception, getCause( loading ) );
+        assertSame( exception, getCause( waiter ) );
+        assertEquals( 1, nLoads.get( ) );
+        assertNull( cacheService.getFromCache( key ) );
+
+        cacheService.removeKey( key );
+    }
+
+    @Test
+    public void testIncrementResourceListGeneration( )
+    {
+        ResourceCacheService cacheService = ResourceCacheService.getInstance( );
+        String strResourceType = "ResourceCacheServiceTest.resourceList";
+        ResourceCacheKey key = ResourceCacheService.getResourceListCacheKey( strResourceType );
+        cacheService.putInCache( key, "list" );
+
+        assertEquals( key, ResourceCacheService.getResourceListCacheKey( strResourceType ) );
+
+        // The list of the previous generation is removed, the key of the new generation is different
+        cacheService.incrementResourceListGeneration( strResourceType );
+        ResourceCacheKey newKey = ResourceCacheService.getResourceListCacheKey( strResourceType );
+
+        assertNull( cacheService.getFromCache( key ) );
+        assertFalse( key.equals( newKey ) );
+        assertNull( cacheService.getFromCache( newKey ) );
+    }
+
+    private static String load( AtomicInteger nLoads, String strValue )
+    {
+        nLoads.incrementAndGet( );
+
+        return strValue;
+    }
+
+    private static Throwable getCause( CompletableFuture<Object> future ) throws Exception
+    {
+        try
+        {
+            future.get( TIMEOUT, TimeUnit.MILLISECONDS );
+
+            return null;
+        }
+        catch( ExecutionException e )
+        {
+            return e.getCause( );
+        }
+    }
+
+    private static void await( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await( TIMEOUT, TimeUnit.MILLISECONDS );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class ResourceNegativeCacheTest extends LuteceTestCase
+{
+    private static final long TIMEOUT = 5000L;
+
+    @Test
+    public void testPutMissing( )
+    {
+        ResourceNegativeCache negativeCache = ResourceNegativeCache.getInstance( );
+        ResourceCacheKey key = ResourceCacheKey.ofResourceType( "ResourceNegativeCacheTest.putMissing" );
+
+        negativeCache.putMissing( key, negativeCache.getVersion( ) );
+        assertTrue( negativeCache.isMissing( key ) );
+
+        negativeCache.remove( key );
+        assertFalse( negativeCache.isMissing( key ) );
+    }
+
+    @Test
+    public void testPutMissingWithStaleVersion( )
+    {
+        ResourceNegativeCache negativeCache = ResourceNegativeCache.getInstance( );
+        ResourceCacheKey key = ResourceCacheKey.ofResourceType( "ResourceNegativeCacheTest.staleVersion" );
+        long lVersion = negativeCache.getVersion( );
+
+        negativeCache.remove( key );
+        negativeCache.putMissing( key, lVersion );
+
+        assertFalse( negativeCache.isMissing( key ) );
+    }
+
+    @Test
+    public void testLoadInterleavedWithCreate( ) throws Exception
+    {
+        ResourceCacheService cacheService = ResourceCacheService.getInstance( );
+        ResourceNegativeCache negativeCache = ResourceNegativeCache.getInstance( );
+        ResourceCacheKey key = ResourceCacheKey.ofResourceType( "ResourceNegativeCacheTest.loadInterleavedWithCreate" );
+        CountDownLatch queried = new CountDownLatch( 1 );
+        CountDownLatch created = new CountDownLatch( 1 );
+
+        // The loader finds nothing, then the object is created before the miss is declared
+        CompletableFuture<Object> loading = CompletableFuture.supplyAsync( ( ) -> cacheService.load( key, ( ) -> {
+            long lVersion = negativeCache.getVersion( );
+            queried.countDown( );
+            await( created );
+            negativeCache.putMissing( key, lVersion );
+
+            return null;
+        } ) );
+
+        assertTrue( queried.await( TIMEOUT, TimeUnit.MILLISECONDS ) );
+        negativeCache.remove( key );
+        cacheService.putInCache( key, "created value" );
+        created.countDown( );
+
+        assertEquals( "created value", loading.get( TIMEOUT, TimeUnit.MILLISECONDS ) );
+        assertFalse( negativeCache.isMissing( key ) );
+        assertEquals( "created value", cacheService.getFromCache( key ) );
+    }
+
+    private static void await( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await( TIMEOUT, TimeUnit.MILLISECONDS );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+        }
+    }
+}
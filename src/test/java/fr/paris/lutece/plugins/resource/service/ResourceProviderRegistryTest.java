@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.business.IResourceType;
+import fr.paris.lutece.plugins.resource.business.ResourceTypeDefaultImplementation;
+import fr.paris.lutece.plugins.resource.service.provider.IResourceProvider;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class ResourceProviderRegistryTest extends LuteceTestCase
+{
+    private static final String DECLARED_TYPE = "declaredType";
+    private static final String UNDECLARED_TYPE = "undeclaredType";
+
+    @Test
+    public void testGetResourceProvider( )
+    {
+        TestResourceProvider provider = new TestResourceProvider( DECLARED_TYPE );
+        TestResourceProvider otherProvider = new TestResourceProvider( "otherType" );
+        ResourceProviderRegistry registry = new ResourceProviderRegistry( ( ) -> Arrays.asList( provider, otherProvider ) );
+        otherProvider.manage( UNDECLARED_TYPE );
+
+        assertEquals( provider, registry.getResourceProvider( DECLARED_TYPE ) );
+        assertEquals( otherProvider, registry.getResourceProvider( "otherType" ) );
+        assertEquals( otherProvider, registry.getResourceProvider( UNDECLARED_TYPE ) );
+        assertNull( registry.getResourceProvider( "unknownType" ) );
+        assertNull( registry.getResourceProvider( null ) );
+
+        // Declared and resolved resource types are not checked again
+        int nChecks = otherProvider.getChecks( );
+        registry.getResourceProvider( DECLARED_TYPE );
+        registry.getResourceProvider( UNDECLARED_TYPE );
+
+        assertEquals( nChecks, otherProvider.getChecks( ) );
+    }
+
+    @Test
+    public void testUnmanagedResourceTypeExpiration( ) throws InterruptedException
+    {
+        TestResourceProvider provider = new TestResourceProvider( DECLARED_TYPE );
+        ResourceProviderRegistry registry = new ResourceProviderRegistry( ( ) -> Collections.singletonList( provider ), 50L );
+
+        assertNull( registry.getResourceProvider( UNDECLARED_TYPE ) );
+
+        // The provider starts to manage the resource type without declaring it : the negative entry hides it until it expires
+        provider.manage( UNDECLARED_TYPE );
+        int nChecks = provider.getChecks( );
+
+        assertNull( registry.getResourceProvider( UNDECLARED_TYPE ) );
+        assertEquals( nChecks, provider.getChecks( ) );
+
+        Thread.sleep( 100L );
+
+        assertEquals( provider, registry.getResourceProvider( UNDECLARED_TYPE ) );
+    }
+
+    @Test
+    public void testUnmanagedResourceTypesAreBounded( )
+    {
+        TestResourceProvider provider = new TestResourceProvider( DECLARED_TYPE );
+        ResourceProviderRegistry registry = new ResourceProviderRegistry( ( ) -> Collections.singletonList( provider ), 60000L, 10 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertNull( registry.getResourceProvider( "unknownType" + i ) );
+            assertTrue( registry.getUnmanagedResourceTypesCount( ) <= 10 );
+        }
+
+        assertEquals( provider, registry.getResourceProvider( DECLARED_TYPE ) );
+    }
+
+    @Test
+    public void testFailingProvider( )
+    {
+        TestResourceProvider provider = new TestResourceProvider( DECLARED_TYPE );
+        TestResourceProvider failingProvider = new TestResourceProvider( "failingType" )
+        {
+            @Override
+            public List<IResourceType> getResourceTypeList( )
+            {
+                throw new IllegalStateException( "The provider is failing" );
+            }
+        };
+        ResourceProviderRegistry registry = new ResourceProviderRegistry( ( ) -> Arrays.asList( failingProvider, provider ) );
+
+        // The resource types of the failing provider are resolved one by one
+        assertEquals( 2, registry.getProviders( ).size( ) );
+        assertEquals( provider, registry.getResourceProvider( DECLARED_TYPE ) );
+        assertEquals( failingProvider, registry.getResourceProvider( "failingType" ) );
+    }
+
+    @Test
+    public void testResourceTypeRemovedDuringBuild( )
+    {
+        List<ResourceProviderRegistry> listRegistries = new ArrayList<>( );
+        AtomicInteger nBuilds = new AtomicInteger( );
+        TestResourceProvider provider = new TestResourceProvider( DECLARED_TYPE )
+        {
+            @Override
+            public List<IResourceType> getResourceTypeList( )
+            {
+                // The declared resource type is removed while the first registry is built
+                if ( nBuilds.incrementAndGet( ) == 1 )
+                {
+                    listRegistries.get( 0 ).resourceTypeRemoved( DECLARED_TYPE );
+                }
+
+                return super.getResourceTypeList( );
+            }
+        };
+        ResourceProviderRegistry registry = new ResourceProviderRegistry( ( ) -> Collections.singletonList( provider ) );
+        listRegistries.add( registry );
+
+        // The registry built before the removal is not kept : it is built again on the next call
+        assertEquals( 1, registry.getProviders( ).size( ) );
+        registry.getProviders( );
+
+        assertEquals( 2, nBuilds.get( ) );
+
+        registry.getProviders( );
+
+        assertEquals( 2, nBuilds.get( ) );
+    }
+
+    @Test
+    public void testResourceTypeCreated( )
+    {
+        TestResourceProvider provider = new TestResourceProvider( DECLARED_TYPE );
+        ResourceProviderRegistry registry = new ResourceProviderRegistry( ( ) -> Collections.singletonList( provider ) );
+
+        assertNull( registry.getResourceProvider( UNDECLARED_TYPE ) );
+
+        provider.manage( UNDECLARED_TYPE );
+        registry.resourceTypeCreated( UNDECLARED_TYPE );
+
+        assertEquals( provider, registry.getResourceProvider( UNDECLARED_TYPE ) );
+    }
+
+    @Test
+    public void testResourceTypeRemovedDuringResolution( )
+    {
+        List<ResourceProviderRegistry> listRegistries = new ArrayList<>( );
+        TestResourceProvider provider = new TestResourceProvider( DECLARED_TYPE )
+        {
+            @Override
+            public boolean isResourceTypeManaged( String strResourceTypeName )
+            {
+                boolean bManaged = super.isResourceTypeManaged( strResourceTypeName );
+
+                // The resource type is removed while providers are checked
+                listRegistries.get( 0 ).resourceTypeRemoved( strResourceTypeName );
+
+                return bManaged;
+            }
+        };
+        ResourceProviderRegistry registry = new ResourceProviderRegistry( ( ) -> Collections.singletonList( provider ) );
+        listRegistries.add( registry );
+        provider.manage( UNDECLARED_TYPE );
+
+        assertEquals( provider, registry.getResourceProvider( UNDECLARED_TYPE ) );
+
+        // The provider found before the removal has not been recorded : the next lookup checks the provider again
+        int nChecks = provider.getChecks( );
+        registry.getResourceProvider( UNDECLARED_TYPE );
+
+        assertEquals( nChecks + 1, provider.getChecks( ) );
+    }
+
+    @Test
+    public void testReset( )
+    {
+        List<IResourceProvider> listProviders = new ArrayList<>( );
+        listProviders.add( new TestResourceProvider( DECLARED_TYPE ) );
+        ResourceProviderRegistry registry = new ResourceProviderRegistry( ( ) -> new ArrayList<>( listProviders ) );
+
+        assertNull( registry.getResourceProvider( UNDECLARED_TYPE ) );
+
+        TestResourceProvider newProvider = new TestResourceProvider( UNDECLARED_TYPE );
+        listProviders.add( newProvider );
+        registry.reset( );
+
+        assertEquals( 2, registry.getProviders( ).size( ) );
+        assertEquals( newProvider, registry.getResourceProvider( UNDECLARED_TYPE ) );
+    }
+
+    /**
+     * Provider that declares one resource type, and may manage other resource types
+     */
+    private static class TestResourceProvider implements IResourceProvider
+    {
+        private final String _strDeclaredResourceType;
+        private final Set<String> _setManagedResourceTypes = ConcurrentHashMap.newKeySet( );
+        private final AtomicInteger _nChecks = new AtomicInteger( );
+
+        TestResourceProvider( String strDeclaredResourceType )
+        {
+            _strDeclaredResourceType = strDeclaredResourceType;
+            _setManagedResourceTypes.add( strDeclaredResourceType );
+        }
+
+        void manage( String strResourceType )
+        {
+            _setManagedResourceTypes.add( strResourceType );
+        }
+
+        int getChecks( )
+        {
+            return _nChecks.get( );
+        }
+
+        @Override
+        public List<IResourceType> getResourceTypeList( )
+        {
+            IResourceType resourceType = new ResourceTypeDefaultImplementation( _strDeclaredResourceType, _strDeclaredResourceType );
+
+            return Collections.singletonList( resourceType );
+        }
+
+        @Override
+        public boolean isResourceTypeManaged( String strResourceTypeName )
+        {
+            _nChecks.incrementAndGet( );
+
+            return _setManagedResourceTypes.contains( strResourceTypeName );
+        }
+
+        @Override
+        public IResource getResource( String strIdResource, String strResourceTypeName )
+        {
+            return null;
+        }
+
+        @Override
+        public List<IResource> getListResources( String strResourceTypeName )
+        {
+            return new ArrayList<>( );
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.business.IResourceType;
+import fr.paris.lutece.plugins.resource.business.ResourceDefaultImplementation;
+import fr.paris.lutece.plugins.resource.business.ResourceTypeDefaultImplementation;
+import fr.paris.lutece.plugins.resource.service.cache.ResourceCacheKey;
+import fr.paris.lutece.plugins.resource.service.provider.IResourceProvider;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class ResourceServiceTest extends LuteceTestCase
+{
+    private static final String RESOURCE_TYPE = "ResourceServiceTest";
+
+    @Test
+    public void testGetResources( )
+    {
+        ResourceService service = createResourceService( new TestResourceProvider( 5 ) );
+        List<IResource> listResources = service.getResources( Arrays.asList( "3", "unknown", "1" ), RESOURCE_TYPE );
+
+        // Resources are returned in the order of the ids, unknown ids are ignored
+        assertEquals( 2, listResources.size( ) );
+        assertEquals( "3", listResources.get( 0 ).getIdResource( ) );
+        assertEquals( "1", listResources.get( 1 ).getIdResource( ) );
+
+        assertTrue( service.getResources( null, RESOURCE_TYPE ).isEmpty( ) );
+        assertTrue( service.getResources( Collections.<String> emptyList( ), RESOURCE_TYPE ).isEmpty( ) );
+        assertTrue( service.getResources( Arrays.asList( "1", "2" ), "unknownType" ).isEmpty( ) );
+    }
+
+    @Test
+    public void testGetResourceTypesListWithFailingProvider( )
+    {
+        TestResourceProvider provider = new TestResourceProvider( 1 );
+        TestResourceProvider failingProvider = new TestResourceProvider( 1 );
+        List<IResourceProvider> listProviders = Arrays.asList( provider, failingProvider );
+        ResourceService service = new ResourceService( new ResourceProviderRegistry( ( ) -> listProviders ), 2000L );
+        ResourceCacheService.getInstance( ).removeKey( ResourceCacheKey.ofResourceTypeList( ) );
+
+        // The registry reads the resource types of every provider once
+        service.getResourceProvider( RESOURCE_TYPE );
+        failingProvider.setFailing( true );
+
+        try
+        {
+            // The resource types of the other providers are returned, but the incomplete list is not cached
+            assertEquals( 1, service.getResourceTypesList( ).size( ) );
+            assertEquals( 1, service.getResourceTypesList( ).size( ) );
+            assertEquals( 3, provider.getResourceTypeListCalls( ) );
+            assertEquals( 3, failingProvider.getResourceTypeListCalls( ) );
+
+            // Once every provider answers, the list is cached
+            failingProvider.setFailing( false );
+
+            assertEquals( 2, service.getResourceTypesList( ).size( ) );
+            assertEquals( 2, service.getResourceTypesList( ).size( ) );
+            assertEquals( 4, provider.getResourceTypeListCalls( ) );
+        }
+        finally
+        {
+            ResourceCacheService.getInstance( ).removeKey( ResourceCacheKey.ofResourceTypeList( ) );
+        }
+    }
+
+    @Test
+    public void testForEachBatch( )
+    {
+        ResourceService service = createResourceService( new TestResourceProvider( 5 ) );
+        List<Integer> listBatchSizes = new ArrayList<>( );
+        service.forEachBatch( RESOURCE_TYPE, 2, listResources -> listBatchSizes.add( listResources.size( ) ) );
+
+        assertEquals( "[2, 2, 1]", listBatchSizes.toString( ) );
+    }
+
+    @Test
+    public void testForEachBatchRejectsInvalidBatchSizes( )
+    {
+        ResourceService service = createResourceService( new TestResourceProvider( 5 ) );
+
+        for ( int nBatchSize : new int [ ] {
+                0, -1
+        } )
+        {
+            try
+            {
+                service.forEachBatch( RESOURCE_TYPE, nBatchSize, listResources -> fail( "No batch should be read" ) );
+                fail( "An IllegalArgumentException should have been thrown" );
+            }
+            catch( IllegalArgumentException e )
+            {
+                assertTrue( e.getMessage( ).endsWith( Integer.toString( nBatchSize ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void testGetResourceAsync( ) throws Exception
+    {
+        List<IResourceProvider> listProviders = Collections.singletonList( new TestResourceProvider( 5 ) );
+        ResourceService service = new ResourceService( new ResourceProviderRegistry( ( ) -> listProviders ), 2000L, Runnable::run );
+
+        assertEquals( "3", service.getResourceAsync( "3", RESOURCE_TYPE ).get( ).getIdResource( ) );
+        assertEquals( 5, service.getListResourcesAsync( RESOURCE_TYPE ).get( ).size( ) );
+    }
+
+    @Test
+    public void testGetResourceAsyncRejected( ) throws Exception
+    {
+        List<IResourceProvider> listProviders = Collections.singletonList( new TestResourceProvider( 5 ) );
+        ResourceService service = new ResourceService( new ResourceProviderRegistry( ( ) -> listProviders ), 2000L, runnable -> {
+            throw new RejectedExecutionException( );
+        } );
+
+        CompletableFuture<IResource> lookup = service.getResourceAsync( "3", RESOURCE_TYPE );
+
+        assertTrue( lookup.isCompletedExceptionally( ) );
+
+        try
+        {
+            lookup.get( );
+            fail( "The lookup should have been rejected" );
+        }
+        catch( ExecutionException e )
+        {
+            assertTrue( e.getCause( ) instanceof RejectedExecutionException );
+        }
+    }
+
+    /**
+     * Create a resource service that uses a single provider
+     * 
+     * @param provider
+     *            The provider
+     * @return The resource service
+     */
+    private static ResourceService createResourceService( IResourceProvider provider )
+    {
+        List<IResourceProvider> listProviders = Collections.singletonList( provider );
+
+        return new ResourceService( new ResourceProviderRegistry( ( ) -> listProviders ), 2000L );
+    }
+
+    /**
+     * Provider of a fixed number of resources of a single type
+     */
+    static final class TestResourceProvider implements IResourceProvider
+    {
+        private final List<IResource> _listResources = new ArrayList<>( );
+        private final AtomicInteger _nResourceTypeListCalls = new AtomicInteger( );
+        private volatile boolean _bFailing;
+
+        TestResourceProvider( int nResources )
+        {
+            for ( int i = 1; i <= nResources; i++ )
+            {
+                _listResources.add( new ResourceDefaultImplementation( Integer.toString( i ), RESOURCE_TYPE, "Resource " + i ) );
+            }
+        }
+
+        void setFailing( boolean bFailing )
+        {
+            _bFailing = bFailing;
+        }
+
+        int getResourceTypeListCalls( )
+        {
+            return _nResourceTypeListCalls.get( );
+        }
+
+        @Override
+        public List<IResourceType> getResourceTypeList( )
+        {
+            _nResourceTypeListCalls.incrementAndGet( );
+
+            if ( _bFailing )
+            {
+                throw new IllegalStateException( "The provider is failing" );
+            }
+
+            return Collections.<IResourceType> singletonList( new ResourceTypeDefaultImplementation( RESOURCE_TYPE, RESOURCE_TYPE ) );
+        }
+
+        @Override
+        public boolean isResourceTypeManaged( String strResourceTypeName )
+        {
+            return RESOURCE_TYPE.equals( strResourceTypeName );
+        }
+
+        @Override
+        public IResource getResource( String strIdResource, String strResourceTypeName )
+        {
+            for ( IResource resource : _listResources )
+            {
+                if ( resource.getIdResource( ).equals( strIdResource ) )
+                {
+                    return resource;
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public List<IResource> getListResources( String strResourceTypeName )
+        {
+            return new ArrayList<>( _listResources );
+        }
+    }
+}
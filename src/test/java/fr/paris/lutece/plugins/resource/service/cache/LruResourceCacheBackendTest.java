@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import org.junit.Test;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class LruResourceCacheBackendTest extends LuteceTestCase
+{
+    @Test
+    public void testEvictLeastRecentlyUsed( )
+    {
+        LruResourceCacheBackend backend = new LruResourceCacheBackend( ResourceCacheKeyFamily.DATABASE_RESOURCE, 3 );
+
+        for ( int nIdResource = 1; nIdResource <= 3; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), nIdResource );
+        }
+
+        assertEquals( 1, backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 4 ), 4 );
+
+        assertEquals( 3, backend.getSize( ) );
+        assertEquals( 1, backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) );
+        assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( 2 ) ) );
+        assertEquals( 3, backend.get( ResourceCacheKey.ofDatabaseResource( 3 ) ) );
+        assertEquals( 4, backend.get( ResourceCacheKey.ofDatabaseResource( 4 ) ) );
+    }
+
+    @Test
+    public void testReadsOfFullBuffers( )
+    {
+        LruResourceCacheBackend backend = new LruResourceCacheBackend( ResourceCacheKeyFamily.DATABASE_RESOURCE, 2 );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 1 ), 1 );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 2 ), 2 );
+
+        // Enough reads to fill and drain the read buffer of the current thread several times
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertEquals( 1, backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) );
+        }
+
+        backend.put( ResourceCacheKey.ofDatabaseResource( 3 ), 3 );
+
+        assertEquals( 1, backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) );
+        assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( 2 ) ) );
+    }
+
+    @Test
+    public void testRemoveAndClear( )
+    {
+        LruResourceCacheBackend backend = new LruResourceCacheBackend( ResourceCacheKeyFamily.DATABASE_RESOURCE, 2 );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 1 ), 1 );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 2 ), 2 );
+        backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) );
+        backend.remove( ResourceCacheKey.ofDatabaseResource( 1 ) );
+
+        assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) );
+        assertEquals( 1, backend.getSize( ) );
+
+        // The removed key must not count in the size limit anymore
+        backend.put( ResourceCacheKey.ofDatabaseResource( 3 ), 3 );
+
+        assertEquals( 2, backend.get( ResourceCacheKey.ofDatabaseResource( 2 ) ) );
+        assertEquals( 3, backend.get( ResourceCacheKey.ofDatabaseResource( 3 ) ) );
+
+        backend.clear( );
+
+        assertEquals( 0, backend.getSize( ) );
+        assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( 3 ) ) );
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.business.ResourceDefaultImplementation;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class OffHeapResourceCacheBackendTest extends LuteceTestCase
+{
+    private static final String RESOURCE_TYPE = "OffHeapTest";
+
+    @Test
+    public void testPutAndGet( )
+    {
+        OffHeapResourceCacheBackend backend = new OffHeapResourceCacheBackend( 4096, 100 );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 1 ), createEntry( 1, "R\u00E9sum\u00E9", 1234L ) );
+        IResource resourceWithoutName = new ResourceDefaultImplementation( "2", null, null );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 2 ), new ResourceCacheEntry( resourceWithoutName, 5678L ) );
+
+        ResourceCacheEntry entry = (ResourceCacheEntry) backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) );
+        IResource resource = (IResource) entry.getObject( );
+
+        assertEquals( "1", resource.getIdResource( ) );
+        assertEquals( RESOURCE_TYPE, resource.getResourceType( ) );
+        assertEquals( "R\u00E9sum\u00E9", resource.getResourceName( ) );
+        assertEquals( 1234L, entry.getExpiration( ) );
+
+        entry = (ResourceCacheEntry) backend.get( ResourceCacheKey.ofDatabaseResource( 2 ) );
+        resource = (IResource) entry.getObject( );
+
+        assertNull( resource.getResourceType( ) );
+        assertNull( resource.getResourceName( ) );
+        assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( 3 ) ) );
+        assertEquals( 2, backend.getSize( ) );
+    }
+
+    @Test
+    public void testIgnoreOtherEntries( )
+    {
+        OffHeapResourceCacheBackend backend = new OffHeapResourceCacheBackend( 4096, 100 );
+        backend.put( ResourceCacheKey.ofResourceType( RESOURCE_TYPE ), new ResourceCacheEntry( RESOURCE_TYPE, Long.MAX_VALUE ) );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 1 ), new ResourceCacheEntry( "Not a resource", Long.MAX_VALUE ) );
+
+        assertNull( backend.get( ResourceCacheKey.ofResourceType( RESOURCE_TYPE ) ) );
+        assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) );
+        assertEquals( 0, backend.getSize( ) );
+    }
+
+    @Test
+    public void testOverwrittenRecords( )
+    {
+        // Each record takes 20 bytes of header, 11 bytes of type and 4 bytes of name : the buffer holds 6 records
+        OffHeapResourceCacheBackend backend = new OffHeapResourceCacheBackend( 210, 100 );
+
+        for ( int nIdResource = 1; nIdResource <= 20; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), createEntry( nIdResource, "Name", Long.MAX_VALUE ) );
+        }
+
+        // Records of the previous turns of the ring have been overwritten
+        for ( int nIdResource = 1; nIdResource <= 14; nIdResource++ )
+        {
+            assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( nIdResource ) ) );
+        }
+
+        for ( int nIdResource = 15; nIdResource <= 20; nIdResource++ )
+        {
+            IResource resource = (IResource) ( (ResourceCacheEntry) backend.get( ResourceCacheKey.ofDatabaseResource( nIdResource ) ) ).getObject( );
+
+            assertEquals( Integer.toString( nIdResource ), resource.getIdResource( ) );
+        }
+
+        // Overwritten records are removed from the index once read
+        assertEquals( 6, backend.getSize( ) );
+    }
+
+    @Test
+    public void testUpdatedRecord( )
+    {
+        OffHeapResourceCacheBackend backend = new OffHeapResourceCacheBackend( 200, 100 );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 1 ), createEntry( 1, "Name", Long.MAX_VALUE ) );
+
+        // Keep the first resource up to date while the ring wraps around
+        for ( int nIdResource = 2; nIdResource <= 20; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), createEntry( nIdResource, "Name", Long.MAX_VALUE ) );
+            backend.put( ResourceCacheKey.ofDatabaseResource( 1 ), createEntry( 1, "Name " + nIdResource, Long.MAX_VALUE ) );
+        }
+
+        IResource resource = (IResource) ( (ResourceCacheEntry) backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) ).getObject( );
+
+        assertEquals( "Name 20", resource.getResourceName( ) );
+    }
+
+    @Test
+    public void testFullIndex( )
+    {
+        OffHeapResourceCacheBackend backend = new OffHeapResourceCacheBackend( 4096, 4 );
+
+        for ( int nIdResource = 1; nIdResource <= 5; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), createEntry( nIdResource, "Name", Long.MAX_VALUE ) );
+        }
+
+        // No record has been overwritten : the index has been cleared to index the last resource
+        assertEquals( 1, backend.getSize( ) );
+        assertNotNull( backend.get( ResourceCacheKey.ofDatabaseResource( 5 ) ) );
+    }
+
+    @Test
+    public void testRemoveRepairsClusters( )
+    {
+        int nResources = 500;
+        OffHeapResourceCacheBackend backend = new OffHeapResourceCacheBackend( 1 << 16, nResources );
+        List<Integer> listIds = new ArrayList<>( );
+
+        for ( int nIdResource = 1; nIdResource <= nResources; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), createEntry( nIdResource, "Name", Long.MAX_VALUE ) );
+            listIds.add( nIdResource );
+        }
+
+        // With an index at most half full, removed slots are followed by slots of the same cluster : every remaining resource must still be found
+        Collections.shuffle( listIds, new Random( 42 ) );
+
+        for ( int i = 0; i < listIds.size( ); i++ )
+        {
+            backend.remove( ResourceCacheKey.ofDatabaseResource( listIds.get( i ) ) );
+
+            assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( listIds.get( i ) ) ) );
+
+            for ( int j = i + 1; j < listIds.size( ); j++ )
+            {
+                assertNotNull( "Resource " + listIds.get( j ) + " lost after the removal of " + listIds.get( i ),
+                        backend.get( ResourceCacheKey.ofDatabaseResource( listIds.get( j ) ) ) );
+            }
+        }
+
+        assertEquals( 0, backend.getSize( ) );
+    }
+
+    @Test
+    public void testExpiredRecord( )
+    {
+        OffHeapResourceCacheBackend backend = new OffHeapResourceCacheBackend( 4096, 100 );
+        ResourceCacheRegion region = new ResourceCacheRegion( ResourceCacheKeyFamily.DATABASE_RESOURCE, backend, 100, 60000L );
+        region.put( ResourceCacheKey.ofDatabaseResource( 1 ), new ResourceDefaultImplementation( "1", RESOURCE_TYPE, "Name" ) );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 2 ), createEntry( 2, "Name", System.currentTimeMillis( ) - 1 ) );
+
+        assertNotNull( region.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) );
+        assertNull( region.get( ResourceCacheKey.ofDatabaseResource( 2 ) ) );
+
+        // The expired record has been removed from the index
+        assertEquals( 1, backend.getSize( ) );
+    }
+
+    @Test
+    public void testTieredSizes( )
+    {
+        TieredResourceCacheBackend backend = new TieredResourceCacheBackend(
+                new LruResourceCacheBackend( ResourceCacheKeyFamily.DATABASE_RESOURCE, 2 ), new OffHeapResourceCacheBackend( 4096, 100 ) );
+
+        for ( int nIdResource = 1; nIdResource <= 5; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), createEntry( nIdResource, "Name", Long.MAX_VALUE ) );
+        }
+
+        assertEquals( "[2, 5]", backend.getTierSizes( ).toString( ) );
+        assertEquals( 7, backend.getSize( ) );
+
+        // Entries found only in the second tier are copied back to the first tier
+        assertNotNull( backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) );
+        assertEquals( "[2, 5]", backend.getTierSizes( ).toString( ) );
+        assertEquals( "lru+offHeap", backend.getName( ) );
+    }
+
+    /**
+     * Create the entry of a database resource
+     * 
+     * @param nIdResource
+     *            The id of the resource
+     * @param strName
+     *            The name of the resource
+     * @param lExpiration
+     *            The expiration time of the entry
+     * @return The entry
+     */
+    private static ResourceCacheEntry createEntry( int nIdResource, String strName, long lExpiration )
+    {
+        return new ResourceCacheEntry( new ResourceDefaultImplementation( Integer.toString( nIdResource ), RESOURCE_TYPE, strName ), lExpiration );
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import org.junit.Test;
+
+import fr.paris.lutece.plugins.resource.service.ResourceCacheService;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class ResourceCacheKeyTest extends LuteceTestCase
+{
+    @Test
+    public void testThirdPartyResourceKey( )
+    {
+        ResourceCacheKey key = ResourceCacheKey.ofThirdPartyResource( "12", "DOCUMENT" );
+
+        assertEquals( ResourceCacheKey.ofThirdPartyResource( "12", "DOCUMENT" ), key );
+        assertEquals( ResourceCacheKey.ofThirdPartyResource( "12", "DOCUMENT" ).hashCode( ), key.hashCode( ) );
+        assertEquals( ResourceCacheKeyFamily.THIRD_PARTY_RESOURCE, key.getFamily( ) );
+        assertEquals( "12", key.getIdResource( ) );
+        assertEquals( "DOCUMENT", key.getResourceType( ) );
+        assertEquals( "thirdPartyResource.DOCUMENT.12", key.toString( ) );
+        assertFalse( key.equals( ResourceCacheKey.ofThirdPartyResource( "12", "FOLDER" ) ) );
+        assertFalse( key.equals( ResourceCacheKey.ofThirdPartyResource( "13", "DOCUMENT" ) ) );
+        assertFalse( key.equals( ResourceCacheKey.ofDatabaseResource( 12 ) ) );
+    }
+
+    @Test
+    public void testThirdPartyResourceRegion( )
+    {
+        ResourceCacheService cacheService = ResourceCacheService.getInstance( );
+        ResourceCacheKey key = ResourceCacheKey.ofThirdPartyResource( "ResourceCacheKeyTest", "DOCUMENT" );
+
+        cacheService.putInCache( key, "value" );
+        assertEquals( "value", cacheService.getFromCache( key ) );
+
+        cacheService.removeKey( key );
+        assertNull( cacheService.getFromCache( key ) );
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import org.junit.Test;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class ResourceFrequencySketchTest extends LuteceTestCase
+{
+    @Test
+    public void testFrequency( )
+    {
+        ResourceFrequencySketch sketch = new ResourceFrequencySketch( 1000 );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            sketch.increment( 42 );
+        }
+
+        sketch.increment( 43 );
+
+        assertEquals( 5, sketch.frequency( 42 ) );
+        assertEquals( 1, sketch.frequency( 43 ) );
+        assertEquals( 0, sketch.frequency( 44 ) );
+    }
+
+    @Test
+    public void testMaximumFrequency( )
+    {
+        ResourceFrequencySketch sketch = new ResourceFrequencySketch( 1000 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.increment( 42 );
+        }
+
+        assertEquals( 15, sketch.frequency( 42 ) );
+    }
+
+    @Test
+    public void testReset( )
+    {
+        // The counters are halved after 10 * 10 counted accesses
+        ResourceFrequencySketch sketch = new ResourceFrequencySketch( 10 );
+
+        for ( int i = 0; i < 8; i++ )
+        {
+            sketch.increment( 42 );
+        }
+
+        assertEquals( 8, sketch.frequency( 42 ) );
+
+        for ( int nHashCode = 1000; nHashCode < 1092; nHashCode++ )
+        {
+            sketch.increment( nHashCode );
+        }
+
+        assertEquals( 4, sketch.frequency( 42 ) );
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.cache;
+
+import org.junit.Test;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class TinyLfuResourceCacheBackendTest extends LuteceTestCase
+{
+    private static final int MAX_SIZE = 100;
+
+    @Test
+    public void testSize( )
+    {
+        TinyLfuResourceCacheBackend backend = new TinyLfuResourceCacheBackend( ResourceCacheKeyFamily.DATABASE_RESOURCE, MAX_SIZE );
+
+        for ( int nIdResource = 0; nIdResource < 10 * MAX_SIZE; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), nIdResource );
+        }
+
+        assertEquals( MAX_SIZE, backend.getSize( ) );
+    }
+
+    @Test
+    public void testFrequentKeysSurviveBursts( )
+    {
+        TinyLfuResourceCacheBackend backend = new TinyLfuResourceCacheBackend( ResourceCacheKeyFamily.DATABASE_RESOURCE, MAX_SIZE );
+
+        for ( int nIdResource = 0; nIdResource < MAX_SIZE; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), nIdResource );
+        }
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            for ( int nIdResource = 0; nIdResource < MAX_SIZE / 2; nIdResource++ )
+            {
+                assertEquals( nIdResource, backend.get( ResourceCacheKey.ofDatabaseResource( nIdResource ) ) );
+            }
+        }
+
+        // A burst of keys written once must not evict the keys read frequently
+        for ( int nIdResource = 1000; nIdResource < 1000 + 5 * MAX_SIZE; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), nIdResource );
+        }
+
+        for ( int nIdResource = 0; nIdResource < MAX_SIZE / 2; nIdResource++ )
+        {
+            assertEquals( nIdResource, backend.get( ResourceCacheKey.ofDatabaseResource( nIdResource ) ) );
+        }
+
+        assertEquals( MAX_SIZE, backend.getSize( ) );
+    }
+
+    @Test
+    public void testAdmitFrequentCandidate( )
+    {
+        TinyLfuResourceCacheBackend backend = new TinyLfuResourceCacheBackend( ResourceCacheKeyFamily.DATABASE_RESOURCE, MAX_SIZE );
+
+        for ( int nIdResource = 0; nIdResource < MAX_SIZE; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), nIdResource );
+        }
+
+        // Misses are counted too : the candidate is more frequent than the least recently used entry of the main space
+        ResourceCacheKey candidate = ResourceCacheKey.ofDatabaseResource( 5000 );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            assertNull( backend.get( candidate ) );
+        }
+
+        backend.put( candidate, 5000 );
+
+        // Leaving the window, the candidate competes with the least recently used entry of the main space
+        backend.put( ResourceCacheKey.ofDatabaseResource( 6000 ), 6000 );
+
+        assertEquals( 5000, backend.get( candidate ) );
+        assertEquals( MAX_SIZE, backend.getSize( ) );
+    }
+
+    @Test
+    public void testRejectInfrequentCandidate( )
+    {
+        TinyLfuResourceCacheBackend backend = new TinyLfuResourceCacheBackend( ResourceCacheKeyFamily.DATABASE_RESOURCE, MAX_SIZE );
+
+        for ( int nIdResource = 0; nIdResource < MAX_SIZE; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), nIdResource );
+
+            for ( int i = 0; i < 3; i++ )
+            {
+                backend.get( ResourceCacheKey.ofDatabaseResource( nIdResource ) );
+            }
+        }
+
+        ResourceCacheKey candidate = ResourceCacheKey.ofDatabaseResource( 5000 );
+        backend.put( candidate, 5000 );
+        backend.put( ResourceCacheKey.ofDatabaseResource( 6000 ), 6000 );
+
+        assertNull( backend.get( candidate ) );
+        assertEquals( MAX_SIZE, backend.getSize( ) );
+    }
+
+    @Test
+    public void testRemoveAndClear( )
+    {
+        TinyLfuResourceCacheBackend backend = new TinyLfuResourceCacheBackend( ResourceCacheKeyFamily.DATABASE_RESOURCE, MAX_SIZE );
+
+        for ( int nIdResource = 0; nIdResource < MAX_SIZE; nIdResource++ )
+        {
+            backend.put( ResourceCacheKey.ofDatabaseResource( nIdResource ), nIdResource );
+        }
+
+        // Promote a key to the protected segment
+        backend.get( ResourceCacheKey.ofDatabaseResource( 0 ) );
+        backend.remove( ResourceCacheKey.ofDatabaseResource( 0 ) );
+        backend.remove( ResourceCacheKey.ofDatabaseResource( 1 ) );
+        backend.remove( ResourceCacheKey.ofDatabaseResource( MAX_SIZE - 1 ) );
+
+        assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( 0 ) ) );
+        assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( 1 ) ) );
+        assertNull( backend.get( ResourceCacheKey.ofDatabaseResource( MAX_SIZE - 1 ) ) );
+        assertEquals( MAX_SIZE - 3, backend.getSize( ) );
+
+        backend.clear( );
+
+        assertEquals( 0, backend.getSize( ) );
+    }
+}
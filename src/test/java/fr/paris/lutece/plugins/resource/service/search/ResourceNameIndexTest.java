@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.business.ResourceDefaultImplementation;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class ResourceNameIndexTest extends LuteceTestCase
+{
+    private static final String RESOURCE_TYPE = "TEST_TYPE";
+
+    @Test
+    public void testSearchMatchesTheBeginningOfEachWord( )
+    {
+        ResourceNameIndex index = new ResourceNameIndex( RESOURCE_TYPE, 100 );
+        index.index( new ResourceDefaultImplementation( "1", RESOURCE_TYPE, "Hôtel de Ville" ) );
+        index.index( new ResourceDefaultImplementation( "2", RESOURCE_TYPE, "Villette" ) );
+        index.index( new ResourceDefaultImplementation( "3", RESOURCE_TYPE, "Mairie du 4e" ) );
+
+        assertEquals( "[1, 2]", getIds( index.search( ResourceNameIndex.normalize( "vil" ), 10 ) ) );
+        assertEquals( "[1]", getIds( index.search( ResourceNameIndex.normalize( "HOTEL de" ), 10 ) ) );
+        assertEquals( "[1]", getIds( index.search( ResourceNameIndex.normalize( "de vi" ), 10 ) ) );
+        assertEquals( "[]", getIds( index.search( ResourceNameIndex.normalize( "tel" ), 10 ) ) );
+        assertEquals( 1, index.search( ResourceNameIndex.normalize( "vil" ), 1 ).size( ) );
+    }
+
+    @Test
+    public void testIndexReplacesAndRemovesResources( )
+    {
+        ResourceNameIndex index = new ResourceNameIndex( RESOURCE_TYPE, 100 );
+        index.index( new ResourceDefaultImplementation( "1", RESOURCE_TYPE, "Old name" ) );
+        index.index( new ResourceDefaultImplementation( "1", RESOURCE_TYPE, "New name" ) );
+
+        assertEquals( "[]", getIds( index.search( "old", 10 ) ) );
+        assertEquals( "[1]", getIds( index.search( "new", 10 ) ) );
+        assertEquals( 1, index.getSize( ) );
+
+        index.remove( "1" );
+        assertEquals( "[]", getIds( index.search( "name", 10 ) ) );
+        assertEquals( 0, index.getSize( ) );
+    }
+
+    @Test
+    public void testIndexWithNullName( )
+    {
+        ResourceNameIndex index = new ResourceNameIndex( RESOURCE_TYPE, 100 );
+        index.index( new ResourceDefaultImplementation( "1", RESOURCE_TYPE, null ) );
+
+        assertEquals( 1, index.getSize( ) );
+        index.remove( "1" );
+        assertEquals( 0, index.getSize( ) );
+    }
+
+    @Test
+    public void testOverflow( )
+    {
+        ResourceNameIndex index = new ResourceNameIndex( RESOURCE_TYPE, 2 );
+        index.index( new ResourceDefaultImplementation( "1", RESOURCE_TYPE, "a" ) );
+        index.index( new ResourceDefaultImplementation( "2", RESOURCE_TYPE, "b" ) );
+        assertFalse( index.isOverflow( ) );
+
+        index.index( new ResourceDefaultImplementation( "3", RESOURCE_TYPE, "c" ) );
+        assertTrue( index.isOverflow( ) );
+        assertEquals( 0, index.getSize( ) );
+    }
+
+    private static String getIds( List<IResource> listResources )
+    {
+        List<String> listIds = new ArrayList<>( );
+
+        for ( IResource resource : listResources )
+        {
+            listIds.add( resource.getIdResource( ) );
+        }
+
+        return listIds.toString( );
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.junit.Test;
+
+import fr.paris.lutece.plugins.resource.business.IResource;
+import fr.paris.lutece.plugins.resource.business.IResourceType;
+import fr.paris.lutece.plugins.resource.business.ResourceDefaultImplementation;
+import fr.paris.lutece.plugins.resource.service.provider.IResourceProvider;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class ResourceSearchServiceTest extends LuteceTestCase
+{
+    @Test
+    public void testResourcesChangedWithNullResourceType( )
+    {
+        String strType = "ResourceSearchServiceTest_null";
+        IResourceProvider provider = new ListResourceProvider( new ResourceDefaultImplementation( "1", strType, "First resource" ) );
+        ResourceSearchService service = ResourceSearchService.getInstance( );
+        assertEquals( 1, service.search( provider, strType, "first", 10 ).size( ) );
+
+        // A resource loses its type, then gets it back
+        IResource resourceWithoutType = new ResourceDefaultImplementation( "1", null, "First resource" );
+        IResource resource = new ResourceDefaultImplementation( "1", strType, "First resource" );
+        service.resourceChanged( resource, resourceWithoutType );
+        assertEquals( 0, service.search( provider, strType, "first", 10 ).size( ) );
+
+        service.resourceChanged( resourceWithoutType, resource );
+        assertEquals( 1, service.search( provider, strType, "first", 10 ).size( ) );
+
+        service.resourceChanged( null, new ResourceDefaultImplementation( "2", null, "Second resource" ) );
+        service.invalidate( Collections.<String> singletonList( null ) );
+        assertEquals( 0, service.search( provider, null, "second", 10 ).size( ) );
+    }
+
+    @Test
+    public void testResourcesReloaded( )
+    {
+        String strTypeA = "ResourceSearchServiceTest_A";
+        String strTypeB = "ResourceSearchServiceTest_B";
+        IResourceProvider provider = new ListResourceProvider( new ResourceDefaultImplementation( "10", strTypeA, "Moved resource" ),
+                new ResourceDefaultImplementation( "11", strTypeA, "Removed resource" ),
+                new ResourceDefaultImplementation( "12", strTypeB, "Other" ) );
+        ResourceSearchService service = ResourceSearchService.getInstance( );
+        assertEquals( 2, service.search( provider, strTypeA, "resource", 10 ).size( ) );
+        assertEquals( 1, service.search( provider, strTypeB, "other", 10 ).size( ) );
+
+        // Another webapp moved the resource 10 to the type B and removed the resource 11
+        service.resourcesReloaded( Arrays.asList( "10", "11" ),
+                Collections.singletonList( new ResourceDefaultImplementation( "10", strTypeB, "Moved resource" ) ) );
+
+        assertEquals( 0, service.search( provider, strTypeA, "resource", 10 ).size( ) );
+        assertEquals( "10", service.search( provider, strTypeB, "moved", 10 ).get( 0 ).getIdResource( ) );
+        assertEquals( 1, service.search( provider, strTypeB, "other", 10 ).size( ) );
+    }
+
+    /**
+     * Provider of a fixed list of resources, indexed for search
+     */
+    private static final class ListResourceProvider implements IResourceProvider
+    {
+        private final List<IResource> _listResources;
+
+        private ListResourceProvider( IResource... resources )
+        {
+            _listResources = Arrays.asList( resources );
+        }
+
+        @Override
+        public List<IResourceType> getResourceTypeList( )
+        {
+            return new ArrayList<>( );
+        }
+
+        @Override
+        public boolean isResourceTypeManaged( String strResourceTypeName )
+        {
+            return true;
+        }
+
+        @Override
+        public IResource getResource( String strIdResource, String strResourceTypeName )
+        {
+            return null;
+        }
+
+        @Override
+        public List<IResource> getListResources( String strResourceTypeName )
+        {
+            List<IResource> listResources = new ArrayList<>( );
+
+            for ( IResource resource : _listResources )
+            {
+                if ( Objects.equals( strResourceTypeName, resource.getResourceType( ) ) )
+                {
+                    listResources.add( resource );
+                }
+            }
+
+            return listResources;
+        }
+
+        @Override
+        public boolean isSearchIndexed( String strResourceTypeName )
+        {
+            return true;
+        }
+    }
+}
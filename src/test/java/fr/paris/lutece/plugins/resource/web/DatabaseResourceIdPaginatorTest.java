@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2022, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.resource.web;
+
+import org.junit.Test;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class DatabaseResourceIdPaginatorTest extends LuteceTestCase
+{
+    private static final int [ ] IDS = {
+            5, 3, 8, 1, 9, 2, 7
+    };
+
+    @Test
+    public void testPages( )
+    {
+        DatabaseResourceIdPaginator paginator = new DatabaseResourceIdPaginator( IDS, 3, "2" );
+
+        assertEquals( 7, paginator.getItemsCount( ) );
+        assertEquals( 3, paginator.getPagesCount( ) );
+        assertEquals( 2, paginator.getPageIndex( ) );
+        assertEquals( 3, paginator.getFromIndex( ) );
+        assertEquals( 6, paginator.getToIndex( ) );
+
+        // The last page is not full
+        paginator = new DatabaseResourceIdPaginator( IDS, 3, "3" );
+
+        assertEquals( 6, paginator.getFromIndex( ) );
+        assertEquals( 7, paginator.getToIndex( ) );
+    }
+
+    @Test
+    public void testInvalidPageIndexes( )
+    {
+        // Invalid indexes give the first page, indexes that are too high give the last page
+        assertEquals( 1, new DatabaseResourceIdPaginator( IDS, 3, null ).getPageIndex( ) );
+        assertEquals( 1, new DatabaseResourceIdPaginator( IDS, 3, "page" ).getPageIndex( ) );
+        assertEquals( 1, new DatabaseResourceIdPaginator( IDS, 3, "-2" ).getPageIndex( ) );
+        assertEquals( 3, new DatabaseResourceIdPaginator( IDS, 3, "10" ).getPageIndex( ) );
+
+        // Invalid numbers of items per page give pages of one item
+        assertEquals( 7, new DatabaseResourceIdPaginator( IDS, 0, "1" ).getPagesCount( ) );
+    }
+
+    @Test
+    public void testNoIds( )
+    {
+        DatabaseResourceIdPaginator paginator = new DatabaseResourceIdPaginator( new int [ 0], 3, "2" );
+
+        // The slice of the single empty page stays within the array
+        assertEquals( 1, paginator.getPagesCount( ) );
+        assertEquals( 1, paginator.getPageIndex( ) );
+        assertEquals( 0, paginator.getFromIndex( ) );
+        assertEquals( 0, paginator.getToIndex( ) );
+    }
+}
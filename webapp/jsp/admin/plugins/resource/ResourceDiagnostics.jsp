@@ -0,0 +1,9 @@
+<jsp:useBean id="resourceDiagnostics" scope="session" class="fr.paris.lutece.plugins.resource.web.ResourceDiagnosticsJspBean" />
+<% String strContent = resourceDiagnostics.processController ( request , response ); %>
+
+<%@ page errorPage="../../ErrorPage.jsp" %>
+<jsp:include page="../../AdminHeader.jsp" />
+
+<%= strContent %>
+
+<%@ include file="../../AdminFooter.jsp" %>